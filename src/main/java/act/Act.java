@@ -21,6 +21,7 @@ import act.inject.DependencyInjector;
 import act.job.AppJobManager;
 import act.metric.MetricPlugin;
 import act.metric.SimpleMetricPlugin;
+import act.metric.StartupTracer;
 import act.plugin.AppServicePluginManager;
 import act.plugin.GenericPluginManager;
 import act.plugin.Plugin;
@@ -264,8 +265,20 @@ public final class Act {
     }
 
     private static void start(boolean singleAppServer, String appName, String appVersion) {
+        StartupTracer.begin();
+        try {
+            start0(singleAppServer, appName, appVersion);
+        } finally {
+            StartupTracer.end();
+        }
+    }
+
+    private static void start0(boolean singleAppServer, String appName, String appVersion) {
         Banner.print(appName, appVersion);
+        StartupTracer.Span span = StartupTracer.span("act", "load-config");
         loadConfig();
+        span.end();
+        span = StartupTracer.span("act", "init-managers");
         initMetricPlugin();
         initPluginManager();
         initAppServicePluginManager();
@@ -275,16 +288,25 @@ public final class Act {
         initViewManager();
         initSessionManager();
         initAppCodeScannerPluginManager();
+        span.end();
+        span = StartupTracer.span("act", "load-plugins");
         loadPlugins();
+        span.end();
+        span = StartupTracer.span("act", "init-network");
         initNetworkLayer();
         initApplicationManager();
+        span.end();
         logger.info("loading application(s) ...");
+        span = StartupTracer.span("act", "load-apps");
         if (singleAppServer) {
             appManager.loadSingleApp(appName);
         } else {
             appManager.scan();
         }
+        span.end();
+        span = StartupTracer.span("act", "start-network");
         startNetworkLayer();
+        span.end();
         Thread.currentThread().setContextClassLoader(Act.class.getClassLoader());
         App app = app();
         if (null == app) {
@@ -34,8 +34,31 @@ public class BytecodeEnhancerManager extends DestroyableBase {
     }
 
     public ByteCodeVisitor appEnhancer(App app, String className, $.Var<ClassWriter> cw) {
+        return appEnhancer(app, className, cw, null);
+    }
+
+    /**
+     * Returns the chained app enhancer for the class specified and collects the
+     * enhancer names into the list specified
+     *
+     * @param app the app
+     * @param className the class name
+     * @param cw the class writer var
+     * @param enhancerNames a list to collect the simple class names of the enhancers
+     *                      applied to the class, could be `null`
+     * @return the chained enhancer or `null` if there is no enhancer for the class
+     */
+    public ByteCodeVisitor appEnhancer(App app, String className, $.Var<ClassWriter> cw, List<String> enhancerNames) {
         List<AppByteCodeEnhancer> l = appFilter(app, className);
-        return l.isEmpty() ? null : ByteCodeVisitor.chain(cw, l);
+        if (l.isEmpty()) {
+            return null;
+        }
+        if (null != enhancerNames) {
+            for (AppByteCodeEnhancer enhancer : l) {
+                enhancerNames.add(enhancer.getClass().getSimpleName());
+            }
+        }
+        return ByteCodeVisitor.chain(cw, l);
     }
 
     public ByteCodeVisitor generalEnhancer(String className, $.Var<ClassWriter> cw) {
@@ -2,14 +2,31 @@ package act;
 
 import act.conf.AppConfig;
 import org.osgl.http.H;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.IO;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public abstract class ResponseImplBase<T extends ResponseImplBase> extends H.Response<T> {
 
     protected String charset;
     protected Locale locale;
 
+    // buffer that keeps a copy of the content written to the response
+    // when capturing is turned on. See {@link #startCapture()}
+    private ByteArrayOutputStream captured;
+
     protected ResponseImplBase(AppConfig config) {
         charset = config.encoding();
         locale = config.locale();
@@ -26,7 +43,165 @@ public abstract class ResponseImplBase<T extends ResponseImplBase> extends H.Res
         return me();
     }
 
+    /**
+     * Turn on content capturing. Once started all bytes written to this
+     * response are also kept in memory so that they can be cached and
+     * replayed for subsequent requests.
+     *
+     * This method must be called before any content is written
+     * @return this response
+     */
+    public T startCapture() {
+        captured = new ByteArrayOutputStream();
+        return me();
+    }
+
+    /**
+     * Returns the content captured since {@link #startCapture()} is called or
+     * `null` if capturing is not turned on
+     */
+    public byte[] capturedContent() {
+        return null == captured ? null : captured.toByteArray();
+    }
+
+    /**
+     * Returns `true` if content capturing is turned on
+     */
+    protected final boolean capturing() {
+        return null != captured;
+    }
+
+    /**
+     * Send a region of the file specified to the client.
+     *
+     * The default implementation transfer the file through the output stream
+     * of this response. Sub class could overwrite this method to use the zero
+     * copy transfer provided by the network layer
+     *
+     * @param file   the file
+     * @param offset the position of the first byte to be sent
+     * @param length the number of bytes to be sent
+     */
+    public void sendFile(File file, long offset, long length) {
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(file);
+            FileChannel channel = fis.getChannel();
+            WritableByteChannel target = Channels.newChannel(outputStream());
+            long pos = offset;
+            long end = offset + length;
+            while (pos < end) {
+                long n = channel.transferTo(pos, end - pos, target);
+                if (n <= 0) {
+                    break;
+                }
+                pos += n;
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(fis);
+        }
+    }
+
+    /**
+     * Returns `true` if the response can be {@link #suspend(Runnable) suspended}
+     */
+    public boolean suspendable() {
+        return false;
+    }
+
+    /**
+     * Suspend the response so that the network layer keeps the exchange open
+     * after the current handler returned. The task specified is called once
+     * the response is suspended and the worker thread is released.
+     *
+     * The default implementation does not support suspending
+     *
+     * @param onSuspended the task to be called once suspended
+     */
+    public void suspend(Runnable onSuspended) {
+        throw E.unsupport();
+    }
+
+    /**
+     * Resume a {@link #suspend(Runnable) suspended} response by running the
+     * task specified on a worker thread. The exchange ends after the task
+     *
+     * @param task the task to complete the response
+     */
+    public void resume(Runnable task) {
+        throw E.unsupport();
+    }
+
+    /**
+     * Returns the status code set on this response
+     */
+    public int statusCode() {
+        return 200;
+    }
+
+    /**
+     * Returns a copy of the headers set on this response, with all values
+     * of each header. Implementation should overwrite this method to enable
+     * response caching
+     */
+    public Map<String, List<String>> headers() {
+        return C.newMap();
+    }
+
+    /**
+     * Sub class shall call this method when content is written through
+     * a channel other than the output stream, e.g. a string sender
+     * @param bytes the bytes written to the response
+     */
+    protected final void captureIfNeeded(byte[] bytes) {
+        if (null != captured) {
+            captured.write(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Wrap the output stream so that bytes written are captured when
+     * capturing is turned on
+     */
+    protected final OutputStream captureIfNeeded(OutputStream os) {
+        return null == captured ? os : new TeeOutputStream(os, captured);
+    }
+
     protected final T me() {
         return (T) this;
     }
+
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream os;
+        private final ByteArrayOutputStream copy;
+
+        TeeOutputStream(OutputStream os, ByteArrayOutputStream copy) {
+            this.os = os;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            os.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            os.write(b, off, len);
+            copy.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            os.close();
+        }
+    }
 }
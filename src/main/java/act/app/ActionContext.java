@@ -13,6 +13,7 @@ import act.route.Router;
 import act.security.CORS;
 import act.util.ActContext;
 import act.util.PropertySpec;
+import act.util.UserAgentCache;
 import org.osgl.$;
 import org.osgl.concurrent.ContextLocal;
 import org.osgl.http.H;
@@ -60,6 +61,7 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
     private State state;
     private Map<String, Object> controllerInstances;
     private Map<String, ISObject[]> uploads;
+    private Object[] scoped;
     private Set<ConstraintViolation> violations;
     private Router router;
     private RequestHandler handler;
@@ -176,7 +178,7 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
 
     public UserAgent userAgent() {
         if (null == ua) {
-            ua = UserAgent.parse(req().header(H.Header.Names.USER_AGENT));
+            ua = UserAgentCache.parse(req().header(H.Header.Names.USER_AGENT));
         }
         return ua;
     }
@@ -310,6 +312,63 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
         return this;
     }
 
+    /**
+     * Returns the request scoped bean of the key specified. The bean is
+     * looked up in the slot of the key if the key is registered, or in the
+     * attributes otherwise
+     *
+     * @param key the scope key
+     * @return the bean or `null` if not found
+     */
+    public <T> T scoped(String key) {
+        int slot = app().scopeSlots().slot(key);
+        return slot < 0 ? this.<T>attribute(key) : this.<T>scoped(slot);
+    }
+
+    /**
+     * Store a request scoped bean of the key specified, into the slot of the
+     * key if the key is registered, or into the attributes otherwise
+     *
+     * @param key  the scope key
+     * @param bean the bean
+     * @return this context
+     */
+    public ActionContext scoped(String key, Object bean) {
+        int slot = app().scopeSlots().slot(key);
+        return slot < 0 ? attribute(key, bean) : scoped(slot, bean);
+    }
+
+    /**
+     * Returns the request scoped bean stored in the slot specified
+     *
+     * @param slot the slot allocated by {@link act.inject.genie.ScopeSlots#register(String)}
+     * @return the bean or `null` if not found
+     */
+    public <T> T scoped(int slot) {
+        Object[] a = scoped;
+        return null == a || slot >= a.length ? null : (T) a[slot];
+    }
+
+    /**
+     * Store a request scoped bean into the slot specified
+     *
+     * @param slot the slot allocated by {@link act.inject.genie.ScopeSlots#register(String)}
+     * @param bean the bean
+     * @return this context
+     */
+    public ActionContext scoped(int slot, Object bean) {
+        Object[] a = scoped;
+        if (null == a) {
+            a = new Object[Math.max(16, slot + 1)];
+            scoped = a;
+        } else if (slot >= a.length) {
+            a = Arrays.copyOf(a, Math.max(slot + 1, a.length * 2));
+            scoped = a;
+        }
+        a[slot] = bean;
+        return this;
+    }
+
     public void preCheckCsrf() {
         if (!disableCsrf) {
             handler().csrfSpec().preCheck(this);
@@ -640,6 +699,7 @@ public class ActionContext extends ActContext.Base<ActionContext> implements Des
             this.flash = null;
             this.session = null;
             this.controllerInstances = null;
+            this.scoped = null;
             this.violations.clear();
             clearLocal();
             this.uploads.clear();
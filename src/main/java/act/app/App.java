@@ -26,12 +26,15 @@ import act.inject.DependencyInjectionBinder;
 import act.inject.DependencyInjector;
 import act.inject.genie.GenieInjector;
 import act.inject.genie.GenieModuleScanner;
+import act.inject.genie.ScopeSlots;
 import act.inject.param.JsonDTOClassManager;
 import act.inject.param.ParamValueLoaderManager;
 import act.job.AppJobManager;
 import act.job.bytecode.JobByteCodeScanner;
 import act.mail.MailerConfigManager;
 import act.mail.bytecode.MailerByteCodeScanner;
+import act.metric.StartupTracer;
+import act.push.PushConnectionManager;
 import act.route.RouteSource;
 import act.route.RouteTableRouterBuilder;
 import act.route.Router;
@@ -54,6 +57,9 @@ import org.osgl.util.*;
 import javax.enterprise.context.ApplicationScoped;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static act.app.event.AppEventId.*;
 
@@ -95,6 +101,7 @@ public class App extends DestroyableBase {
     private SingletonRegistry singletonRegistry;
     private BinderManager binderManager;
     private AppInterceptorManager interceptorManager;
+    private ScopeSlots scopeSlots;
     private DependencyInjector<?> dependencyInjector;
     private IStorageService uploadFileStorageService;
     private AppServiceRegistry appServiceRegistry;
@@ -104,7 +111,10 @@ public class App extends DestroyableBase {
     private CacheService cache;
     // used in dev mode only
     private CompilationException compilationException;
+    // used in dev mode only: requests hold the read lock and refresh holds the write lock
+    private final ReadWriteLock refreshLock = new ReentrantReadWriteLock();
     private AppEventId currentState;
+    private boolean startupTraced;
     private Set<AppEventId> eventEmitted;
     private Thread mainThread;
     private Set<String> scanList;
@@ -189,6 +199,10 @@ public class App extends DestroyableBase {
         return null;
     }
 
+    List<Router> moreRouters() {
+        return null == moreRouters ? C.<Router>list() : C.list(moreRouters.values());
+    }
+
     public Router router(NamedPort port) {
         if (null == port) {
             return router();
@@ -242,6 +256,39 @@ public class App extends DestroyableBase {
         }
     }
 
+    /**
+     * Check updates for a request in dev mode. The router, class loader and
+     * services are rebuilt under the write lock, once the requests being
+     * handled have released the read lock. The read lock returned shall be
+     * held while handling the request and unlocked after that
+     *
+     * @return the read lock acquired
+     */
+    public Lock checkUpdatesForRequest() {
+        Lock readLock = refreshLock.readLock();
+        readLock.lock();
+        try {
+            detectChanges();
+            return readLock;
+        } catch (RequestRefreshClassLoader | RequestServerRestart refreshRequest) {
+            readLock.unlock();
+        } catch (RuntimeException e) {
+            readLock.unlock();
+            throw e;
+        }
+        Lock writeLock = refreshLock.writeLock();
+        writeLock.lock();
+        try {
+            // changes might have been picked up by another request
+            checkUpdates(false);
+            // downgrade to the read lock
+            readLock.lock();
+        } finally {
+            writeLock.unlock();
+        }
+        return readLock;
+    }
+
     public synchronized void detectChanges() {
         if (null == classLoader) {
             throw new RequestServerRestart();
@@ -307,6 +354,25 @@ public class App extends DestroyableBase {
     }
 
     public synchronized void refresh() {
+        // only the first start is traced so that a dev mode
+        // reload doesn't wipe out the startup trace
+        boolean trace = !startupTraced;
+        if (trace) {
+            startupTraced = true;
+            StartupTracer.begin();
+        }
+        StartupTracer.Span span = StartupTracer.span("app", "refresh");
+        try {
+            refresh0();
+        } finally {
+            span.end();
+            if (trace) {
+                StartupTracer.end();
+            }
+        }
+    }
+
+    private void refresh0() {
         currentState = null;
         long ms = $.ms();
         logger.info("App starting ....");
@@ -318,61 +384,124 @@ public class App extends DestroyableBase {
         eventEmitted = C.newSet();
 
         initSingletonRegistry();
+        initScopeSlots();
         initEventBus();
         emit(EVENT_BUS_INITIALIZED);
+        StartupTracer.Span span = StartupTracer.span("app", "load-config");
         loadConfig();
+        span.end();
         emit(CONFIG_LOADED);
 
         Act.viewManager().reload(this);
 
-        initCache();
-        initDataPropertyRepository();
-        initCrypto();
-        initIdGenerator();
-        initJobManager();
-        initDaemonRegistry();
-
-        initInterceptorManager();
-        initResolverManager();
-        initBinderManager();
-        initUploadFileStorageService();
-        initRouters();
-        emit(ROUTER_INITIALIZED);
+        final StartupPipeline pipeline = new StartupPipeline(this, config().parallelStartup());
+        pipeline.submit("cache", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initCache();
+            }
+        });
+        pipeline.submit("data-property", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initDataPropertyRepository();
+            }
+        });
+        pipeline.submit("crypto", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initCrypto();
+            }
+        });
+        pipeline.submit("id-generator", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initIdGenerator();
+            }
+        });
+        pipeline.submit("job", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initJobManager();
+            }
+        });
+        pipeline.submit("daemon", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initDaemonRegistry();
+            }
+        }, "job");
+        // the following managers rely on each other as well as on the
+        // services above, so they are kept in one sequential task
+        pipeline.submit("core-services", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                initInterceptorManager();
+                initResolverManager();
+                initBinderManager();
+                initUploadFileStorageService();
+                initRouters();
+            }
+        }, "cache", "data-property", "crypto", "id-generator", "daemon");
+        pipeline.emit(ROUTER_INITIALIZED);
+
+        span = StartupTracer.span("app", "load-routes");
         loadRoutes();
-        emit(ROUTER_LOADED);
+        span.end();
+        pipeline.emit(ROUTER_LOADED);
+        span = StartupTracer.span("app", "init-cli");
         initCliDispatcher();
         initCliServer();
+        span.end();
 
+        span = StartupTracer.span("app", "init-db");
         initDbServiceManager();
-        emit(DB_SVC_LOADED);
+        span.end();
+        pipeline.emit(DB_SVC_LOADED);
 
         Act.viewManager().reset();
+        span = StartupTracer.span("app", "load-plugins");
         loadGlobalPlugin();
-        emit(APP_ACT_PLUGIN_LOADED);
+        span.end();
+        pipeline.emit(APP_ACT_PLUGIN_LOADED);
+        span = StartupTracer.span("app", "init-scanners");
         initScannerManager();
         loadActScanners();
         loadBuiltInScanners();
-        emit(PRE_LOAD_CLASSES);
+        span.end();
+        pipeline.emit(PRE_LOAD_CLASSES);
 
+        span = StartupTracer.span("app", "init-class-loader");
         initClassLoader();
-        emit(AppEventId.CLASS_LOADER_INITIALIZED);
+        span.end();
+        pipeline.emit(AppEventId.CLASS_LOADER_INITIALIZED);
+        span = StartupTracer.span("app", "preload-classes");
         preloadClasses();
+        span.end();
+        span = StartupTracer.span("app", "scan-app-codes");
         try {
             scanAppCodes();
             compilationException = null;
         } catch (CompilationException e) {
             compilationException = e;
             throw ActServerError.of(e);
+        } finally {
+            span.end();
         }
         //classLoader().loadClasses();
-        emit(APP_CODE_SCANNED);
-        emit(CLASS_LOADED);
+        pipeline.emit(APP_CODE_SCANNED);
+        pipeline.emit(CLASS_LOADED);
 
+        span = StartupTracer.span("app", "load-dependency-injector");
         loadDependencyInjector();
-        emit(DEPENDENCY_INJECTOR_LOADED);
+        span.end();
+        pipeline.emit(DEPENDENCY_INJECTOR_LOADED);
+        span = StartupTracer.span("app", "init-request-services");
         initJsonDTOClassManager();
         initParamValueLoaderManager();
         initMailerConfigManager();
+        initPushConnectionManager();
+        initErrorPageCache();
 
         // setting context class loader here might lead to memory leaks
         // and cause weird problems as class loader been set to thread
@@ -382,6 +511,7 @@ public class App extends DestroyableBase {
 
         initHttpConfig();
         initViewManager();
+        span.end();
 
         // let's any emit the dependency injector loaded event
         // in case some other service depend on this event.
@@ -389,13 +519,24 @@ public class App extends DestroyableBase {
         // already, it doesn't matter we emit the event again
         // because once app event is consumed the event listeners
         // are cleared
-        emit(DEPENDENCY_INJECTOR_PROVISIONED);
-        emit(SINGLETON_PROVISIONED);
-        emit(PRE_START);
-        emit(START);
+        pipeline.emit(DEPENDENCY_INJECTOR_PROVISIONED);
+        pipeline.emit(SINGLETON_PROVISIONED);
+        pipeline.emit(PRE_START);
+        pipeline.emit(START);
+        pipeline.finish();
+        if (config().parallelStartup()) {
+            logger.info(pipeline.report());
+        }
         daemonKeeper();
         logger.info("App[%s] loaded in %sms", name(), $.ms() - ms);
         emit(POST_START);
+        if (config().warmUpEnabled()) {
+            // this happens before the network layer start accepting
+            // traffic, see Act.start()
+            span = StartupTracer.span("app", "warm-up");
+            new AppWarmUp(this).run();
+            span.end();
+        }
     }
 
     public AppBuilder builder() {
@@ -456,6 +597,10 @@ public class App extends DestroyableBase {
         return interceptorManager;
     }
 
+    public ScopeSlots scopeSlots() {
+        return scopeSlots;
+    }
+
     public AppCodeScannerManager scannerManager() {
         return scannerManager;
     }
@@ -794,7 +939,8 @@ public class App extends DestroyableBase {
     }
 
     private void initCache() {
-        cache = CacheServiceProvider.Impl.Simple.get("_act_app_");
+        final CacheServiceProvider provider = config().cacheServiceProvider();
+        cache = provider.get("_act_app_");
         cache.startup();
         HttpConfig.setCacheServiceProvider(new CacheServiceProvider() {
             @Override
@@ -804,7 +950,7 @@ public class App extends DestroyableBase {
 
             @Override
             public CacheService get(String name) {
-                return CacheServiceProvider.Impl.Simple.get(name);
+                return provider.get(name);
             }
         });
     }
@@ -835,6 +981,10 @@ public class App extends DestroyableBase {
         interceptorManager = new AppInterceptorManager(this);
     }
 
+    private void initScopeSlots() {
+        scopeSlots = new ScopeSlots(this);
+    }
+
     private void initScannerManager() {
         scannerManager = new AppCodeScannerManager(this);
     }
@@ -851,6 +1001,14 @@ public class App extends DestroyableBase {
         mailerConfigManager = new MailerConfigManager(this);
     }
 
+    private void initPushConnectionManager() {
+        new PushConnectionManager(this);
+    }
+
+    private void initErrorPageCache() {
+        new ErrorPageCache(this);
+    }
+
     private void loadGlobalPlugin() {
         Act.appServicePluginManager().applyTo(this);
     }
@@ -21,6 +21,7 @@ import act.mail.meta.MailerClassMetaInfoHolder;
 import act.mail.meta.MailerClassMetaInfoManager;
 import act.metric.Metric;
 import act.metric.MetricInfo;
+import act.metric.StartupTracer;
 import act.util.*;
 import org.osgl.$;
 import org.osgl.exception.NotAppliedException;
@@ -244,8 +245,10 @@ public class AppClassLoader
             }
             ByteCodeVisitor theVisitor = ByteCodeVisitor.chain(visitors);
             ClassReader cr = new ClassReader(ba);
+            long ns = StartupTracer.now();
             try {
                 cr.accept(theVisitor, 0);
+                StartupTracer.accumulateSince("scan", "visit", ns);
             } catch (UnexpectedException e) {
                 Throwable t = e.getCause();
                 if (t instanceof ClassNotFoundException) {
@@ -255,7 +258,11 @@ public class AppClassLoader
                 }
             }
             for (AppByteCodeScanner scanner : scanners) {
+                ns = StartupTracer.now();
                 scanner.scanFinished(className);
+                if (0L != ns) {
+                    StartupTracer.accumulateSince("scan", scanner.getClass().getSimpleName(), ns);
+                }
                 Map<Class<? extends AppByteCodeScanner>, Set<String>> ss = scanner.dependencyClasses();
                 if (ss.isEmpty()) {
                     //logger.trace("no dependencies found for %s by scanner %s", className, scanner);
@@ -290,9 +297,15 @@ public class AppClassLoader
             byte[] bytes = bytecodeProvider.apply(className);
             libClsCache.put(className, bytes);
             ClassReader cr = new ClassReader(bytes);
+            long ns = StartupTracer.now();
             cr.accept(theVisitor, 0);
+            StartupTracer.accumulateSince("scan", "visit", ns);
             for (AppByteCodeScanner scanner : scanners) {
+                ns = StartupTracer.now();
                 scanner.scanFinished(className);
+                if (0L != ns) {
+                    StartupTracer.accumulateSince("scan", scanner.getClass().getSimpleName(), ns);
+                }
                 Map<Class<? extends AppByteCodeScanner>, Set<String>> ss = scanner.dependencyClasses();
                 if (ss.isEmpty()) {
                     logger.trace("no dependencies found for %s by scanner %s", className, scanner);
@@ -421,15 +434,23 @@ public class AppClassLoader
     private byte[] asmEnhance(String className, byte[] bytecode) {
         if (!enhanceEligible(className)) return bytecode;
         $.Var<ClassWriter> cw = $.var(null);
-        ByteCodeVisitor enhancer = Act.enhancerManager().appEnhancer(app, className, cw);
+        List<String> enhancers = StartupTracer.active() ? C.<String>newList() : null;
+        ByteCodeVisitor enhancer = Act.enhancerManager().appEnhancer(app, className, cw, enhancers);
         if (null == enhancer) {
             return bytecode;
         }
+        long ns = StartupTracer.now();
         cw.set(new ClassWriter(ClassWriter.COMPUTE_FRAMES));
         enhancer.commitDownstream();
         ClassReader r = new ClassReader(bytecode);
         r.accept(enhancer, 0);
-        return cw.get().toByteArray();
+        byte[] enhanced = cw.get().toByteArray();
+        if (null != enhancers) {
+            // enhancers are chained in one pass, thus the time
+            // is recorded against the chain instead of each enhancer
+            StartupTracer.accumulateSince("enhance", S.join("+", enhancers), ns);
+        }
+        return enhanced;
     }
 
     protected byte[] appBytecode(String name) {
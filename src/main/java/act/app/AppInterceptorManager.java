@@ -31,6 +31,10 @@ public class AppInterceptorManager extends AppServiceBase<AppInterceptorManager>
     final GroupFinallyInterceptor FINALLY_INTERCEPTOR = new GroupFinallyInterceptor(finallyInterceptors);
     final GroupExceptionInterceptor EXCEPTION_INTERCEPTOR = new GroupExceptionInterceptor(exceptionInterceptors);
 
+    // bumped each time the interceptor lists change so that compiled
+    // interceptor chains can tell when they need to be rebuilt
+    private volatile int version;
+
     AppInterceptorManager(App app) {
         super(app);
     }
@@ -54,19 +58,46 @@ public class AppInterceptorManager extends AppServiceBase<AppInterceptorManager>
 
     public void registerInterceptor(BeforeInterceptor interceptor) {
         insertInterceptor(beforeInterceptors, interceptor);
+        version++;
     }
 
     public void registerInterceptor(AfterInterceptor interceptor) {
         insertInterceptor(afterInterceptors, interceptor);
+        version++;
     }
 
     public void registerInterceptor(FinallyInterceptor interceptor) {
         insertInterceptor(finallyInterceptors, interceptor);
+        version++;
     }
 
     public void registerInterceptor(ExceptionInterceptor interceptor) {
         insertInterceptor(exceptionInterceptors, interceptor);
         Collections.sort(exceptionInterceptors);
+        version++;
+    }
+
+    /**
+     * Returns the modification stamp of the interceptor lists
+     */
+    public int version() {
+        return version;
+    }
+
+    public C.List<BeforeInterceptor> beforeInterceptors() {
+        return C.list(beforeInterceptors);
+    }
+
+    public C.List<AfterInterceptor> afterInterceptors() {
+        return C.list(afterInterceptors);
+    }
+
+    public C.List<ExceptionInterceptor> exceptionInterceptors() {
+        return C.list(exceptionInterceptors);
+    }
+
+    public C.List<FinallyInterceptor> finallyInterceptors() {
+        return C.list(finallyInterceptors);
     }
 
     @Override
@@ -75,5 +106,6 @@ public class AppInterceptorManager extends AppServiceBase<AppInterceptorManager>
         afterInterceptors.clear();
         exceptionInterceptors.clear();
         finallyInterceptors.clear();
+        version++;
     }
 }
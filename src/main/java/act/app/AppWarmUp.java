@@ -0,0 +1,95 @@
+package act.app;
+
+import act.handler.RequestHandler;
+import act.handler.builtin.controller.RequestHandlerProxy;
+import act.route.Router;
+import org.osgl.$;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.mvc.result.Result;
+
+import java.util.List;
+
+/**
+ * Warm up the app before the network layer starts accepting traffic.
+ *
+ * During the warm up phase the handler chain of every route is resolved,
+ * which loads the controller classes, generates method accessors, param
+ * value loaders and JSON DTO classes. After that the synthetic requests
+ * configured via `act.warm_up.requests` are replayed through the router,
+ * which compiles the templates used by those requests and gets the JIT
+ * working on the hot paths.
+ */
+class AppWarmUp {
+
+    private static Logger logger = LogManager.get(AppWarmUp.class);
+
+    private final App app;
+
+    AppWarmUp(App app) {
+        this.app = $.notNull(app);
+    }
+
+    void run() {
+        long ms = $.ms();
+        int handlers = warmUpHandlers(app.router());
+        for (Router router : app.moreRouters()) {
+            handlers += warmUpHandlers(router);
+        }
+        int requests = replay(app.config().warmUpRequests());
+        logger.info("App[%s] warmed up %s handlers and %s requests in %sms", app.name(), handlers, requests, $.ms() - ms);
+    }
+
+    private int warmUpHandlers(Router router) {
+        final int[] counter = {0};
+        router.accept(new $.Visitor<RequestHandler>() {
+            @Override
+            public void visit(RequestHandler handler) throws $.Break {
+                if (!(handler instanceof RequestHandlerProxy)) {
+                    return;
+                }
+                try {
+                    ((RequestHandlerProxy) handler).warmUp();
+                    counter[0]++;
+                } catch (Exception e) {
+                    logger.warn(e, "error warming up handler: %s", handler);
+                }
+            }
+        });
+        return counter[0];
+    }
+
+    private int replay(List<String> requests) {
+        int count = 0;
+        for (String spec : requests) {
+            try {
+                if (replay(WarmUpRequest.parse(spec, app.config()))) {
+                    count++;
+                }
+            } catch (Exception e) {
+                logger.warn(e, "error replaying warm up request: %s", spec);
+            }
+        }
+        return count;
+    }
+
+    private boolean replay(WarmUpRequest req) throws Exception {
+        WarmUpResponse resp = new WarmUpResponse(app.config());
+        ActionContext ctx = ActionContext.create(app, req, resp);
+        try {
+            RequestHandler handler = app.router().getInvoker(req.method(), req.url(), ctx);
+            ctx.handler(handler);
+            handler.handle(ctx);
+        } catch (Result r) {
+            r.apply(req, resp);
+        } finally {
+            ActionContext.clearCurrent();
+        }
+        int status = resp.statusCode();
+        if (status >= 400) {
+            logger.warn("warm up request %s %s responded with status %s", req.method(), req.url(), status);
+            return false;
+        }
+        return true;
+    }
+}
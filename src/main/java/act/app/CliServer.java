@@ -4,37 +4,61 @@ import act.Act;
 import act.Destroyable;
 import act.app.event.AppEventId;
 import act.cli.CliSession;
+import act.util.TimerWheel;
+import org.osgl.$;
 import org.osgl.exception.ConfigurationException;
 import org.osgl.logging.LogManager;
 import org.osgl.logging.Logger;
-import org.osgl.util.C;
+import org.osgl.util.IO;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.List;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
- * Servicing CLI session
+ * Servicing CLI session.
+ *
+ * All sessions are multiplexed on one selector thread which reads the command
+ * lines. Commands are executed on a small worker pool which grows only while
+ * all workers are taken by running commands, e.g. daemon commands, and shrinks
+ * back once they finish. Thus an idle session doesn't occupy any thread and a
+ * long running command can't hold up the other sessions. Idle sessions are
+ * expired with a {@link TimerWheel timer wheel} driven by the selector thread.
  */
 @ApplicationScoped
 public class CliServer extends AppServiceBase<CliServer> implements Runnable {
 
     private static final Logger logger = LogManager.get(CliServer.class);
 
-    private ScheduledThreadPoolExecutor executor;
+    // tick of the session expiration timer wheel
+    private static final long TICK_MS = 1000L;
+    // interval to check app updates
+    private static final long UPDATE_CHECK_INTERVAL_MS = 60 * 1000L;
+
+    private ExecutorService executor;
     private AtomicBoolean running = new AtomicBoolean();
+    private AtomicBoolean checkingUpdates = new AtomicBoolean();
     private ConcurrentMap<String, CliSession> sessions = new ConcurrentHashMap<String, CliSession>();
     private int port;
-    private ServerSocket serverSocket;
-    private Thread monitorThread;
+    private ServerSocketChannel serverChannel;
+    private Selector selector;
+    private Thread selectorThread;
+    private TimerWheel<CliSession> expirationWheel;
 
     @Inject
     CliServer(App app) {
@@ -56,46 +80,138 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
         sessions.remove(session.id());
     }
 
+    /**
+     * Submit a session to the worker pool to process the command lines received
+     *
+     * @param session the CLI session
+     */
+    public void execute(CliSession session) {
+        executor.execute(session);
+    }
+
     @Override
     public void run() {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        int expiration = app().config().cliSessionExpiration();
+        long lastUpdateCheck = $.ms();
         while (running()) {
-            Socket socket;
             try {
-                socket = serverSocket.accept();
-                CliSession session = new CliSession(socket, this);
-                sessions.put(session.id(), session);
-                executor.submit(session);
+                selector.select(TICK_MS);
+                Iterator<SelectionKey> itr = selector.selectedKeys().iterator();
+                while (itr.hasNext()) {
+                    SelectionKey key = itr.next();
+                    itr.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(expiration);
+                        continue;
+                    }
+                    if (key.isWritable()) {
+                        writable(key);
+                    }
+                    if (key.isValid() && key.isReadable()) {
+                        read(key, buffer);
+                    }
+                }
+                long now = $.ms();
+                for (CliSession session : expirationWheel.advance(now)) {
+                    expire(session, expiration, now);
+                }
+                if (now - lastUpdateCheck > UPDATE_CHECK_INTERVAL_MS && checkingUpdates.compareAndSet(false, true)) {
+                    lastUpdateCheck = now;
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                app().checkUpdates(false);
+                            } finally {
+                                checkingUpdates.set(false);
+                            }
+                        }
+                    });
+                }
+            } catch (ClosedSelectorException e) {
+                return;
             } catch (Exception e) {
-                if (isDestroyed()) {
+                if (isDestroyed() || !running()) {
                     return;
                 }
                 logger.error(e, "Error processing CLI session");
-                stop();
-                return;
-            } finally {
-                // Note we cannot close socket here. The ownership
-                // of socket has been transferred to the CliSession
-                // and it is up to the session to manage the socket
-                // IO.close(socket);
             }
         }
     }
 
-    void stop() {
-        if (!running()) {
+    private void accept(int expiration) throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (null == channel) {
             return;
         }
-        running.set(false);
-        if (null != monitorThread) {
-            monitorThread.interrupt();
-            monitorThread = null;
+        if (sessions.size() >= app().config().maxCliSession()) {
+            channel.write(ByteBuffer.wrap("Too many CLI sessions\n".getBytes()));
+            IO.close(channel);
+            return;
         }
+        channel.configureBlocking(false);
+        CliSession session = new CliSession(channel, this);
+        sessions.put(session.id(), session);
+        session.registered(channel.register(selector, SelectionKey.OP_READ, session));
+        expirationWheel.schedule(session, $.ms() + expiration * 1000L);
+        // print banner and prompt
+        execute(session);
+    }
+
+    private void read(SelectionKey key, ByteBuffer buffer) {
+        CliSession session = (CliSession) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        buffer.clear();
+        int n;
         try {
-            serverSocket.close();
+            n = channel.read(buffer);
         } catch (IOException e) {
-            logger.warn(e, "error closing server socket");
-        } finally {
-            serverSocket = null;
+            n = -1;
+        }
+        if (n < 0) {
+            key.cancel();
+            session.stop();
+            remove(session);
+            return;
+        }
+        buffer.flip();
+        if (session.feed(buffer)) {
+            execute(session);
+        }
+    }
+
+    private void writable(SelectionKey key) {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        ((CliSession) key.attachment()).writable();
+    }
+
+    private void expire(CliSession session, int expiration, long now) {
+        if (session.isDestroyed() || !sessions.containsKey(session.id())) {
+            return;
+        }
+        if (session.expired(expiration)) {
+            session.stop("your session is timeout");
+            remove(session);
+        } else {
+            expirationWheel.schedule(session, Math.max(now, session.lastActive()) + expiration * 1000L);
+        }
+    }
+
+    void stop() {
+        if (!running()) {
+            return;
+        }
+        running.set(false);
+        IO.close(serverChannel);
+        serverChannel = null;
+        IO.close(selector);
+        if (null != selectorThread) {
+            selectorThread.interrupt();
+            selectorThread = null;
         }
     }
 
@@ -104,36 +220,16 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
             return;
         }
         try {
-            serverSocket = new ServerSocket(port);
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.socket().bind(new InetSocketAddress(port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            expirationWheel = new TimerWheel<CliSession>(TICK_MS, 512, $.ms());
             running.set(true);
-            // start server thread
-            executor.submit(this);
-            // start expiration monitor thread
-            executor.submit(new Runnable() {
-                @Override
-                public void run() {
-                    monitorThread = Thread.currentThread();
-                    int expiration = app().config().cliSessionExpiration();
-                    while (running()) {
-                        List<CliSession> toBeRemoved = C.newList();
-                        for (CliSession session : sessions.values()) {
-                            if (session.expired(expiration)) {
-                                toBeRemoved.add(session);
-                            }
-                        }
-                        for (CliSession session: toBeRemoved) {
-                            session.stop("your session is timeout");
-                            sessions.remove(session.id());
-                        }
-                        try {
-                            Thread.sleep(60 * 1000);
-                        } catch (InterruptedException e) {
-                            return;
-                        }
-                        app().checkUpdates(false);
-                    }
-                }
-            });
+            // start selector thread
+            selectorThread = new AppThreadFactory("cli-selector", true).newThread(this);
+            selectorThread.start();
             app().jobManager().on(AppEventId.ACT_START, new Runnable() {
                 @Override
                 public void run() {
@@ -141,6 +237,8 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
                 }
             });
         } catch (IOException e) {
+            IO.close(serverChannel);
+            IO.close(selector);
             throw new ConfigurationException(e, "Cannot start CLI server on port: %s", port);
         }
     }
@@ -150,9 +248,15 @@ public class CliServer extends AppServiceBase<CliServer> implements Runnable {
     }
 
     private void initExecutor(App app) {
-        // cli session thread + server thread + expiration monitor thread
-        int poolSize = app.config().maxCliSession() + 2;
-        executor = new ScheduledThreadPoolExecutor(poolSize, new AppThreadFactory("cli", true), new ThreadPoolExecutor.AbortPolicy());
+        // commands are handed to an idle worker or a new one if all workers are
+        // busy, so a daemon command holding its worker never blocks the other
+        // sessions. A session runs one command at a time and the number of
+        // sessions is limited on accept, thus the workers are bounded by the
+        // commands actually running. Workers above the core size are released
+        // after idling for a while
+        int coreSize = Math.min(2, app.config().maxCliSession());
+        this.executor = new ThreadPoolExecutor(coreSize, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(), new AppThreadFactory("cli", true));
     }
 
 }
@@ -38,6 +38,9 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
     // map model class to dao class
     private Map<Class<?>, Dao> modelDaoMap = C.newMap();
 
+    // map model class to dao decorated with CachingDao, see cachingDao(Class)
+    private Map<Class<?>, Dao> cachingDaoMap = C.newMap();
+
     @Inject
     public DbServiceManager(final App app) {
         super(app);
@@ -99,6 +102,7 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         serviceMap.clear();
         Destroyable.Util.tryDestroyAll(modelDaoMap.values(), ApplicationScoped.class);
         modelDaoMap.clear();
+        cachingDaoMap.clear();
     }
 
     @Override
@@ -119,6 +123,31 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
         return dao;
     }
 
+    /**
+     * Returns the dao of the model class specified, decorated with a
+     * {@link CachingDao} if the model class is annotated with
+     * {@link act.db.EntityCache}.
+     *
+     * Unlike {@link #dao(Class)}, the dao returned can only be used
+     * through the {@link Dao} interface
+     *
+     * @param modelClass the model class
+     * @return the dao of the model class
+     */
+    public Dao cachingDao(Class<?> modelClass) {
+        Dao dao = cachingDaoMap.get(modelClass);
+        if (null == dao) {
+            synchronized (cachingDaoMap) {
+                dao = cachingDaoMap.get(modelClass);
+                if (null == dao) {
+                    dao = CachingDao.decorate(dao(modelClass), app());
+                    cachingDaoMap.put(modelClass, dao);
+                }
+            }
+        }
+        return dao;
+    }
+
     public <T extends DbService> T dbService(String id) {
         return (T)serviceMap.get(id);
     }
@@ -129,12 +158,12 @@ public class DbServiceManager extends AppServiceBase<DbServiceManager> implement
 
     private void initServices(AppConfig config) {
         DbManager dbManager = Act.dbManager();
-        if (!dbManager.hasPlugin()) {
+        Map<String, Object> dbConf = config.subSet("db.");
+        if (!dbManager.hasPlugin() && dbConf.isEmpty()) {
             logger.warn("DB service not initialized: No DB plugin found");
             return;
         }
         DbPlugin db = dbManager.theSolePlugin();
-        Map<String, Object> dbConf = config.subSet("db.");
         if (dbConf.isEmpty()) {
             if (null == db) {
                 logger.warn("DB service not intialized: need to specify default db service implementation");
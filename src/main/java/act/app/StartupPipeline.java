@@ -0,0 +1,247 @@
+package act.app;
+
+import act.app.event.AppEventId;
+import act.metric.StartupTracer;
+import org.osgl.$;
+import org.osgl.logging.LogManager;
+import org.osgl.logging.Logger;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Run app initialization steps as a DAG of tasks.
+ *
+ * A task can declare the tasks it depends on and the {@link AppEventId app event}
+ * by which it must be finished. Tasks are run on a fork-join pool as soon as their
+ * dependencies are satisfied, while app events are still emitted by the main
+ * thread in the same order as the sequential startup, each emission waits for
+ * all tasks that must be finished before that event.
+ *
+ * When parallel startup is disabled, tasks are executed on the caller thread
+ * at the time they are submitted
+ */
+class StartupPipeline {
+
+    private static Logger logger = LogManager.get(StartupPipeline.class);
+
+    private final App app;
+    private final boolean parallel;
+    private final long startNs = System.nanoTime();
+    private final Map<String, Task> tasks = C.newMap();
+    private final List<Task> taskList = C.newList();
+    private final List<String> emitTimeline = C.newList();
+    private ForkJoinPool pool;
+    private volatile Throwable failure;
+
+    StartupPipeline(App app, boolean parallel) {
+        this.app = $.notNull(app);
+        this.parallel = parallel;
+    }
+
+    /**
+     * Submit a task to the pipeline
+     *
+     * @param name      the task name
+     * @param before    the app event that cannot be emitted before this task finished
+     * @param body      the task logic
+     * @param dependsOn names of tasks that must finished before this task starts
+     */
+    synchronized void submit(String name, AppEventId before, Runnable body, String... dependsOn) {
+        E.illegalStateIf(tasks.containsKey(name), "startup task already submitted: %s", name);
+        for (String dep : dependsOn) {
+            E.illegalStateIf(!tasks.containsKey(dep), "unknown dependency task %s of %s", dep, name);
+        }
+        Task task = new Task(name, before, body);
+        tasks.put(name, task);
+        taskList.add(task);
+        if (!parallel) {
+            task.run();
+            checkFailure();
+            return;
+        }
+        int pending = 0;
+        for (String dep : dependsOn) {
+            Task depTask = tasks.get(dep);
+            synchronized (depTask) {
+                if (!depTask.finished) {
+                    depTask.dependents.add(task);
+                    pending++;
+                }
+            }
+        }
+        task.pending.set(pending);
+        if (0 == pending) {
+            schedule(task);
+        }
+    }
+
+    /**
+     * Wait for all tasks required by the event and emit the event
+     *
+     * @param eventId the app event
+     */
+    void emit(AppEventId eventId) {
+        for (Task task : snapshot()) {
+            if (eventId == task.before) {
+                task.await();
+            }
+        }
+        checkFailure();
+        emitTimeline.add(S.fmt("%s @ %sms", eventId, ms(System.nanoTime() - startNs)));
+        StartupTracer.Span span = StartupTracer.span("event", eventId.name());
+        app.emit(eventId);
+        span.end();
+    }
+
+    /**
+     * Wait for all tasks to finish and release the pool
+     */
+    void finish() {
+        try {
+            for (Task task : snapshot()) {
+                task.await();
+            }
+            checkFailure();
+        } finally {
+            if (null != pool) {
+                pool.shutdown();
+                pool = null;
+            }
+        }
+    }
+
+    /**
+     * Returns the timing report of all tasks
+     */
+    String report() {
+        StringBuilder sb = S.builder("startup timing report of app[").append(app.name()).append("]:");
+        for (Task task : snapshot()) {
+            sb.append("\n\t").append(task);
+        }
+        for (String s : emitTimeline) {
+            sb.append("\n\tevent ").append(s);
+        }
+        return sb.toString();
+    }
+
+    private synchronized List<Task> snapshot() {
+        return C.list(taskList);
+    }
+
+    private void checkFailure() {
+        Throwable t = failure;
+        if (null != t) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw E.unexpected(t);
+        }
+    }
+
+    private synchronized ForkJoinPool pool() {
+        if (null == pool) {
+            final ClassLoader cl = Thread.currentThread().getContextClassLoader();
+            pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors(), new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                private final AtomicInteger seq = new AtomicInteger();
+                @Override
+                public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("act-startup-" + seq.incrementAndGet());
+                    thread.setContextClassLoader(cl);
+                    return thread;
+                }
+            }, null, false);
+        }
+        return pool;
+    }
+
+    private void schedule(final Task task) {
+        pool().execute(new Runnable() {
+            @Override
+            public void run() {
+                task.run();
+                List<Task> dependents;
+                synchronized (task) {
+                    dependents = C.list(task.dependents);
+                }
+                for (Task dependent : dependents) {
+                    if (0 == dependent.pending.decrementAndGet()) {
+                        schedule(dependent);
+                    }
+                }
+            }
+        });
+    }
+
+    private static long ms(long ns) {
+        return ns / 1000000L;
+    }
+
+    private class Task {
+        final String name;
+        final AppEventId before;
+        final Runnable body;
+        final List<Task> dependents = C.newList();
+        final AtomicInteger pending = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile boolean finished;
+        volatile String thread;
+        volatile long startedAt;
+        volatile long elapsed;
+
+        Task(String name, AppEventId before, Runnable body) {
+            this.name = name;
+            this.before = before;
+            this.body = body;
+        }
+
+        void run() {
+            startedAt = System.nanoTime() - startNs;
+            thread = Thread.currentThread().getName();
+            long ns = System.nanoTime();
+            StartupTracer.Span span = StartupTracer.span("task", name);
+            try {
+                if (null == failure) {
+                    body.run();
+                }
+            } catch (Throwable t) {
+                logger.error(t, "error running startup task: %s", name);
+                if (null == failure) {
+                    failure = t;
+                }
+            } finally {
+                elapsed = System.nanoTime() - ns;
+                span.end();
+                synchronized (this) {
+                    finished = true;
+                }
+                done.countDown();
+            }
+        }
+
+        void await() {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw E.unexpected(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return S.fmt("%s: %sms (started @ %sms on %s)", name, ms(elapsed), ms(startedAt), thread);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package act.app;
+
+import act.RequestImplBase;
+import act.conf.AppConfig;
+import org.osgl.http.H;
+import org.osgl.util.C;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A synthetic request replayed through the router during the app warm up phase
+ */
+class WarmUpRequest extends RequestImplBase<WarmUpRequest> {
+    @Override
+    protected Class<WarmUpRequest> _impl() {
+        return WarmUpRequest.class;
+    }
+
+    private H.Method method;
+    private String uri;
+    private Map<String, String> headers = C.newMap();
+    private Map<String, List<String>> params;
+
+    WarmUpRequest(H.Method method, String uri, AppConfig config) {
+        super(config);
+        E.NPE(method, uri);
+        this.method = method;
+        this.uri = uri;
+        headers.put(H.Header.Names.ACCEPT, "text/html, */*");
+    }
+
+    /**
+     * Create a warm up request from string in the format of `[METHOD] url`
+     *
+     * @param spec   the request specification
+     * @param config the app config
+     * @return the request
+     */
+    static WarmUpRequest parse(String spec, AppConfig config) {
+        spec = spec.trim();
+        H.Method method = H.Method.GET;
+        int pos = spec.indexOf(' ');
+        if (pos > 0) {
+            method = H.Method.valueOfIgnoreCase(spec.substring(0, pos));
+            spec = spec.substring(pos + 1).trim();
+        }
+        E.illegalArgumentIf(!spec.startsWith("/"), "Invalid warm up request: %s", spec);
+        return new WarmUpRequest(method, spec, config);
+    }
+
+    @Override
+    protected String _uri() {
+        return uri;
+    }
+
+    @Override
+    protected H.Method _method() {
+        return method;
+    }
+
+    @Override
+    public String header(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Iterable<String> headers(String name) {
+        String val = headers.get(name);
+        return null == val ? C.<String>list() : C.list(val);
+    }
+
+    @Override
+    public InputStream createInputStream() throws IllegalStateException {
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    @Override
+    public String paramVal(String name) {
+        List<String> vals = params().get(name);
+        return null == vals ? null : vals.get(0);
+    }
+
+    @Override
+    public String[] paramVals(String name) {
+        List<String> vals = params().get(name);
+        return null == vals ? null : vals.toArray(new String[vals.size()]);
+    }
+
+    @Override
+    public Iterable<String> paramNames() {
+        return params().keySet();
+    }
+
+    public void closeAndDrainRequest() {
+    }
+
+    public void freeResources() {
+    }
+
+    @Override
+    protected String _ip() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    protected void _initCookieMap() {
+    }
+
+    private Map<String, List<String>> params() {
+        if (null == params) {
+            params = C.newMap();
+            int pos = uri.indexOf('?');
+            if (pos > -1) {
+                for (String pair : uri.substring(pos + 1).split("&")) {
+                    if (pair.isEmpty()) {
+                        continue;
+                    }
+                    int eq = pair.indexOf('=');
+                    String key = S.urlDecode(eq < 0 ? pair : pair.substring(0, eq));
+                    String val = eq < 0 ? "" : S.urlDecode(pair.substring(eq + 1));
+                    List<String> vals = params.get(key);
+                    if (null == vals) {
+                        vals = C.newList();
+                        params.put(key, vals);
+                    }
+                    vals.add(val);
+                }
+            }
+        }
+        return params;
+    }
+}
@@ -0,0 +1,131 @@
+package act.app;
+
+import act.ResponseImplBase;
+import act.conf.AppConfig;
+import org.osgl.http.H;
+import org.osgl.util.C;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Response of a {@link WarmUpRequest}. The content written to this response
+ * is discarded
+ */
+class WarmUpResponse extends ResponseImplBase<WarmUpResponse> {
+    @Override
+    protected Class<WarmUpResponse> _impl() {
+        return WarmUpResponse.class;
+    }
+
+    private int status = 200;
+    private Map<String, List<String>> headers = C.newMap();
+
+    WarmUpResponse(AppConfig config) {
+        super(config);
+    }
+
+    @Override
+    public void addCookie(H.Cookie cookie) {
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public WarmUpResponse contentLength(long len) {
+        return this;
+    }
+
+    @Override
+    protected OutputStream createOutputStream() {
+        return captureIfNeeded(NULL_OUTPUT_STREAM);
+    }
+
+    @Override
+    public int statusCode() {
+        return status;
+    }
+
+    @Override
+    public Map<String, List<String>> headers() {
+        Map<String, List<String>> map = C.newMap();
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            map.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        return map;
+    }
+
+    @Override
+    protected void _setContentType(String type) {
+        header(H.Header.Names.CONTENT_TYPE, type);
+    }
+
+    @Override
+    protected void _setLocale(Locale loc) {
+        locale = loc;
+    }
+
+    @Override
+    public Locale locale() {
+        return locale;
+    }
+
+    @Override
+    public void commit() {
+    }
+
+    @Override
+    public WarmUpResponse sendError(int sc, String msg) {
+        return status(sc);
+    }
+
+    @Override
+    public WarmUpResponse sendError(int sc) {
+        return status(sc);
+    }
+
+    @Override
+    public WarmUpResponse sendRedirect(String location) {
+        return status(302).header(H.Header.Names.LOCATION, location);
+    }
+
+    @Override
+    public WarmUpResponse header(String name, String value) {
+        List<String> values = new ArrayList<>();
+        values.add(value);
+        headers.put(name, values);
+        return this;
+    }
+
+    @Override
+    public WarmUpResponse status(int sc) {
+        status = sc;
+        return this;
+    }
+
+    @Override
+    public WarmUpResponse addHeader(String name, String value) {
+        List<String> values = headers.get(name);
+        if (null == values) {
+            return header(name, value);
+        }
+        values.add(value);
+        return this;
+    }
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+}
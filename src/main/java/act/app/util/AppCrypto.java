@@ -2,30 +2,150 @@ package act.app.util;
 
 import act.app.App;
 import act.conf.AppConfig;
+import act.util.DestroyableBase;
 import org.apache.commons.codec.Charsets;
-import org.mindrot.jbcrypt.BCrypt;
+import org.osgl.$;
 import org.osgl.exception.UnexpectedException;
 import org.osgl.logging.Logger;
 import org.osgl.util.Crypto;
+import org.osgl.util.E;
 import org.osgl.util.Token;
 
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.Future;
 
-public class AppCrypto {
+public class AppCrypto extends DestroyableBase {
 
     private static Logger logger = App.logger;
-    
+
+    private static final String HMAC_SHA1 = "HmacSHA1";
+    private static final String AES = "AES";
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+    private static final int VERIFY_CACHE_SIZE = 1024;
+
+    private AppConfig config;
+
     private byte[] secret;
 
+    private volatile PasswordHashService passwordHashService;
+
     private SecureRandom secureRandom = new SecureRandom();
-    
+
+    // key specs are derived once from the app secret
+    private SecretKeySpec signKey;
+    private SecretKeySpec aesKey;
+
+    // whether the thread confined engines are used. They are used only
+    // if the result is verified to be the same with the osgl Crypto
+    private boolean reuseMac;
+    private boolean reuseCipher;
+
+    private final ThreadLocal<Mac> macs = new ThreadLocal<Mac>() {
+        @Override
+        protected Mac initialValue() {
+            try {
+                Mac mac = Mac.getInstance(HMAC_SHA1);
+                mac.init(signKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new UnexpectedException(e);
+            }
+        }
+    };
+
+    private final ThreadLocal<Cipher> encryptors = new CipherHolder(Cipher.ENCRYPT_MODE);
+    private final ThreadLocal<Cipher> decryptors = new CipherHolder(Cipher.DECRYPT_MODE);
+
+    // direct mapped cache of recently verified message signatures
+    private final VerifiedSignature[] verified = new VerifiedSignature[VERIFY_CACHE_SIZE];
+
     public AppCrypto(AppConfig config) {
+        this.config = config;
         secret = config.secret().getBytes(Charsets.UTF_8);
+        signKey = new SecretKeySpec(secret, HMAC_SHA1);
+        aesKey = new SecretKeySpec(Arrays.copyOf(secret, 16), AES);
+        // use the engines during probing
+        reuseMac = true;
+        reuseMac = probeMac();
+        reuseCipher = true;
+        reuseCipher = probeCipher();
     }
 
     public String sign(String message) {
-        return Crypto.sign(message, secret);
+        if (!reuseMac) {
+            return Crypto.sign(message, secret);
+        }
+        return toHex(sign(message.getBytes(Charsets.UTF_8)));
+    }
+
+    /**
+     * Sign the message with the app secret using the HmacSHA1 engine
+     * confined to the current thread
+     *
+     * @param message the message bytes
+     * @return the signature bytes
+     */
+    public byte[] sign(byte[] message) {
+        return macs.get().doFinal(message);
+    }
+
+    /**
+     * Sign the remaining bytes of the buffer specified with the app secret.
+     * The buffer is consumed without copying
+     *
+     * @param message the message buffer
+     * @return the signature bytes
+     */
+    public byte[] sign(ByteBuffer message) {
+        Mac mac = macs.get();
+        mac.update(message);
+        return mac.doFinal();
+    }
+
+    /**
+     * Check if the signature matches the message. The signatures are compared
+     * in constant time
+     *
+     * @param message   the message bytes
+     * @param signature the signature bytes
+     * @return `true` if the signature is valid
+     */
+    public boolean verifySignature(byte[] message, byte[] signature) {
+        return null != signature && MessageDigest.isEqual(sign(message), signature);
+    }
+
+    /**
+     * Check if the signature matches the message. The signatures are compared
+     * in constant time. The signatures of recently verified messages are cached
+     * so that a token presented in subsequent requests is not signed again
+     *
+     * @param message   the message
+     * @param signature the signature generated by {@link #sign(String)}
+     * @return `true` if the signature is valid
+     */
+    public boolean verifySignature(String message, String signature) {
+        if (null == message || null == signature) {
+            return false;
+        }
+        // the slot depends on the message only so that neither the lookup
+        // nor the comparison tells anything about the signature presented
+        int slot = message.hashCode() & (VERIFY_CACHE_SIZE - 1);
+        byte[] bytes = signature.getBytes(Charsets.UTF_8);
+        VerifiedSignature entry = verified[slot];
+        if (null != entry && entry.message.equals(message)) {
+            return entry.matches(bytes);
+        }
+        byte[] expected = sign(message).getBytes(Charsets.UTF_8);
+        verified[slot] = new VerifiedSignature(message, expected);
+        return MessageDigest.isEqual(expected, bytes);
     }
 
     /**
@@ -34,11 +154,13 @@ public class AppCrypto {
      * with `\0` once used.
      *
      * See <a href="http://stackoverflow.com/questions/8881291/why-is-char-preferred-over-string-for-passwords-in-java">This SO for more detail</a>
+     *
+     * The hashing is done on the {@link PasswordHashService password hashing pool}
      * @param password the password
      * @return the password hash
      */
     public String passwordHash(char[] password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return passwordHashService().hash(password);
     }
 
     /**
@@ -47,27 +169,79 @@ public class AppCrypto {
      * @return the password hash
      */
     public String passwordHash(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return passwordHashService().hash(password.toCharArray());
+    }
+
+    /**
+     * Generate crypted hash of given password asynchronously. Use this
+     * method to avoid blocking the current thread
+     * @param password the password
+     * @return the future of password hash
+     */
+    public Future<String> passwordHashAsync(char[] password) {
+        return passwordHashService().hashAsync(password);
     }
 
     public boolean verifyPassword(String password, String hash) {
-        try {
-            return BCrypt.checkpw(password, hash);
-        } catch (Exception e) {
-            return false;
-        }
+        return verifyPassword(password.toCharArray(), hash);
     }
 
     public boolean verifyPassword(char[] password, String hash) {
-        try {
-            return BCrypt.checkpw(password, hash);
-        } catch (Exception e) {
-            return false;
+        return passwordHashService().verify(password, hash, null);
+    }
+
+    /**
+     * Verify the password and upgrade the hash if it was generated with a cost
+     * factor lower than the one configured. See {@link act.conf.AppConfigKey#PASSWORD_HASH_UPGRADE}
+     * @param password the password
+     * @param hash the password hash
+     * @param upgradeHandler receives the new password hash if upgraded
+     * @return `true` if the password matches the hash
+     */
+    public boolean verifyPassword(char[] password, String hash, $.Visitor<String> upgradeHandler) {
+        return passwordHashService().verify(password, hash, upgradeHandler);
+    }
+
+    public Future<Boolean> verifyPasswordAsync(char[] password, String hash, $.Visitor<String> upgradeHandler) {
+        return passwordHashService().verifyAsync(password, hash, upgradeHandler);
+    }
+
+    public PasswordHashService passwordHashService() {
+        PasswordHashService service = passwordHashService;
+        if (null == service) {
+            synchronized (this) {
+                service = passwordHashService;
+                if (null == service) {
+                    E.illegalStateIf(isDestroyed(), "app crypto destroyed");
+                    service = new PasswordHashService(config);
+                    passwordHashService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Shut down the password hashing pool along with this crypto when the
+     * app is refreshed or shut down
+     */
+    @Override
+    protected void releaseResources() {
+        PasswordHashService service;
+        synchronized (this) {
+            service = passwordHashService;
+            passwordHashService = null;
+        }
+        if (null != service) {
+            service.destroy();
         }
     }
 
     public String encrypt(String message) {
         try {
+            if (reuseCipher) {
+                return toHex(doFinal(encryptors, message.getBytes()));
+            }
             return Crypto.encryptAES(message, secret);
         } catch (UnexpectedException e) {
             Throwable cause = e.getCause();
@@ -80,6 +254,9 @@ public class AppCrypto {
 
     public String decrypt(String message) {
         try {
+            if (reuseCipher) {
+                return new String(doFinal(decryptors, fromHex(message)));
+            }
             return Crypto.decryptAES(message, secret);
         } catch (UnexpectedException e) {
             Throwable cause = e.getCause();
@@ -114,4 +291,90 @@ public class AppCrypto {
         return Token.parseToken(secret, tokenString);
     }
 
+    private static byte[] doFinal(ThreadLocal<Cipher> holder, byte[] bytes) {
+        try {
+            return holder.get().doFinal(bytes);
+        } catch (GeneralSecurityException e) {
+            // the cipher state is unknown after failure
+            holder.remove();
+            throw new UnexpectedException(e);
+        }
+    }
+
+    private boolean probeMac() {
+        try {
+            String probe = "act-crypto-probe-" + secret.length;
+            return Crypto.sign(probe, secret).equals(sign(probe));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean probeCipher() {
+        try {
+            String probe = "act-crypto-probe-" + secret.length;
+            String encrypted = Crypto.encryptAES(probe, secret);
+            return encrypted.equals(encrypt(probe)) && probe.equals(decrypt(encrypted));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        int len = bytes.length;
+        char[] chars = new char[len * 2];
+        for (int i = 0, j = 0; i < len; ++i) {
+            int b = bytes[i] & 0xff;
+            chars[j++] = HEX_CHARS[b >> 4];
+            chars[j++] = HEX_CHARS[b & 0xf];
+        }
+        return new String(chars);
+    }
+
+    private static byte[] fromHex(String hex) {
+        int len = hex.length();
+        E.illegalArgumentIf((len & 1) != 0, "invalid hex string");
+        byte[] bytes = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            int hi = Character.digit(hex.charAt(i), 16);
+            int lo = Character.digit(hex.charAt(i + 1), 16);
+            E.illegalArgumentIf(hi < 0 || lo < 0, "invalid hex string");
+            bytes[i / 2] = (byte) ((hi << 4) + lo);
+        }
+        return bytes;
+    }
+
+    private class CipherHolder extends ThreadLocal<Cipher> {
+        private final int mode;
+
+        CipherHolder(int mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        protected Cipher initialValue() {
+            try {
+                Cipher cipher = Cipher.getInstance(AES);
+                cipher.init(mode, aesKey);
+                return cipher;
+            } catch (GeneralSecurityException e) {
+                throw new UnexpectedException(e);
+            }
+        }
+    }
+
+    private static class VerifiedSignature {
+        final String message;
+        final byte[] signature;
+
+        VerifiedSignature(String message, byte[] signature) {
+            this.message = message;
+            this.signature = signature;
+        }
+
+        boolean matches(byte[] signature) {
+            return MessageDigest.isEqual(this.signature, signature);
+        }
+    }
+
 }
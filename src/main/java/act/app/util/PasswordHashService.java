@@ -0,0 +1,215 @@
+package act.app.util;
+
+import act.Act;
+import act.app.AppThreadFactory;
+import act.conf.AppConfig;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+import act.metric.MetricPlugin;
+import act.metric.Timer;
+import act.util.DestroyableBase;
+import org.mindrot.jbcrypt.BCrypt;
+import org.osgl.$;
+import org.osgl.http.H;
+import org.osgl.mvc.result.ErrorResult;
+import org.osgl.util.E;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs BCrypt password hashing and verifying on a dedicated, bounded thread pool.
+ *
+ * BCrypt is designed to be CPU expensive. Running it on the network worker
+ * threads means a login burst could occupy all of them and starve other
+ * requests. With this service the CPU spent on password hashing is bounded
+ * by the pool size, and when the queue is full new tasks are rejected
+ * immediately with `503 Service Unavailable` instead of piling up.
+ *
+ * The following metrics are recorded:
+ *
+ * * `act:password:hash` - the time spent on hashing
+ * * `act:password:verify` - the time spent on verifying
+ * * `act:password:queue` - the time tasks waited in the queue
+ * * `act:password:queued` - the number of tasks that had to wait in the queue
+ * * `act:password:rejected` - the number of tasks rejected as the queue is full
+ */
+public class PasswordHashService extends DestroyableBase {
+
+    private static final String METRIC_HASH = MetricInfo.PASSWORD_HASH + Metric.PATH_SEPARATOR + "hash";
+    private static final String METRIC_VERIFY = MetricInfo.PASSWORD_HASH + Metric.PATH_SEPARATOR + "verify";
+    private static final String METRIC_QUEUE = MetricInfo.PASSWORD_HASH + Metric.PATH_SEPARATOR + "queue";
+    private static final String METRIC_QUEUED = MetricInfo.PASSWORD_HASH + Metric.PATH_SEPARATOR + "queued";
+    private static final String METRIC_REJECTED = MetricInfo.PASSWORD_HASH + Metric.PATH_SEPARATOR + "rejected";
+
+    // the longest time a blocking call waits for the hashing result
+    // before giving up with `503 Service Unavailable`
+    private static final int MAX_WAIT_SECONDS = 10;
+
+    private final int poolSize;
+    private final int cost;
+    private final boolean upgrade;
+    private final ThreadPoolExecutor executor;
+    private final Metric metric;
+
+    public PasswordHashService(AppConfig config) {
+        this.poolSize = Math.max(1, config.passwordHashPoolSize());
+        this.cost = config.passwordHashCost() < 4 ? 10 : config.passwordHashCost();
+        this.upgrade = config.passwordHashUpgrade();
+        int queueSize = Math.max(1, config.passwordHashQueueSize());
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), new AppThreadFactory("password-hash", true),
+                new ThreadPoolExecutor.AbortPolicy());
+        // threads are released when the service is idle
+        this.executor.allowCoreThreadTimeOut(true);
+        MetricPlugin metricPlugin = Act.metricPlugin();
+        this.metric = null == metricPlugin ? Metric.NULL_METRIC : metricPlugin.metric(MetricInfo.PASSWORD_HASH);
+    }
+
+    /**
+     * Hash the password asynchronously. The password char array is filled
+     * with `\0` once used
+     *
+     * @param password the password
+     * @return the future of the password hash
+     * @throws ErrorResult with `503 Service Unavailable` if the queue is full
+     */
+    public Future<String> hashAsync(final char[] password) {
+        return submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                Timer timer = metric.startTimer(METRIC_HASH);
+                try {
+                    return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+                } finally {
+                    timer.stop();
+                    Arrays.fill(password, '\0');
+                }
+            }
+        });
+    }
+
+    /**
+     * Verify the password against the hash asynchronously. If password hash
+     * upgrade is enabled and the hash was generated with a cost factor lower
+     * than the configured one, then the password is rehashed and the new hash
+     * is passed to the `upgradeHandler` specified once verified
+     *
+     * @param password       the password
+     * @param hash           the password hash
+     * @param upgradeHandler the handler to receive the upgraded hash, could be `null`
+     * @return the future of verification result
+     * @throws ErrorResult with `503 Service Unavailable` if the queue is full
+     */
+    public Future<Boolean> verifyAsync(final char[] password, final String hash, final $.Visitor<String> upgradeHandler) {
+        return submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                boolean verified;
+                Timer timer = metric.startTimer(METRIC_VERIFY);
+                try {
+                    verified = BCrypt.checkpw(password, hash);
+                } catch (Exception e) {
+                    verified = false;
+                } finally {
+                    timer.stop();
+                }
+                if (verified && upgrade && null != upgradeHandler && costOf(hash) < cost) {
+                    Timer hashTimer = metric.startTimer(METRIC_HASH);
+                    try {
+                        upgradeHandler.visit(BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+                    } finally {
+                        hashTimer.stop();
+                    }
+                }
+                return verified;
+            }
+        });
+    }
+
+    /**
+     * Hash the password on the password hashing pool and wait for the result
+     * for up to 10 seconds
+     *
+     * @see #hashAsync(char[])
+     */
+    public String hash(char[] password) {
+        return get(hashAsync(password));
+    }
+
+    /**
+     * Verify the password on the password hashing pool and wait for the result
+     * for up to 10 seconds
+     *
+     * @see #verifyAsync(char[], String, $.Visitor)
+     */
+    public boolean verify(char[] password, String hash, $.Visitor<String> upgradeHandler) {
+        return get(verifyAsync(password, hash, upgradeHandler));
+    }
+
+    /**
+     * Returns the number of tasks waiting in the queue
+     */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    protected void releaseResources() {
+        executor.shutdown();
+    }
+
+    private <T> Future<T> submit(final Callable<T> task) {
+        if (executor.getActiveCount() >= poolSize) {
+            metric.countOnce(METRIC_QUEUED);
+        }
+        final Timer queueTimer = metric.startTimer(METRIC_QUEUE);
+        try {
+            return executor.submit(new Callable<T>() {
+                @Override
+                public T call() throws Exception {
+                    queueTimer.stop();
+                    return task.call();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metric.countOnce(METRIC_REJECTED);
+            throw new ErrorResult(H.Status.valueOf(503));
+        }
+    }
+
+    private <T> T get(Future<T> future) {
+        try {
+            return future.get(MAX_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            metric.countOnce(METRIC_REJECTED);
+            throw new ErrorResult(H.Status.valueOf(503));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw E.unexpected(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw E.unexpected(cause);
+        }
+    }
+
+    static int costOf(String hash) {
+        // BCrypt hash format: $2a$10$...
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+}
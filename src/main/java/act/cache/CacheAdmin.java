@@ -0,0 +1,113 @@
+package act.cache;
+
+import act.app.App;
+import act.cli.CliContext;
+import act.cli.Command;
+import act.cli.Required;
+import act.util.PropertySpec;
+import org.osgl.cache.CacheServiceProvider;
+import org.osgl.util.C;
+
+import java.util.List;
+
+/**
+ * Console app to inspect {@link TinyLfuCacheService} instances
+ */
+@SuppressWarnings("unused")
+public class CacheAdmin {
+
+    private App app;
+    private CliContext context;
+
+    public CacheAdmin() {
+        this.app = App.instance();
+        this.context = CliContext.current();
+    }
+
+    @Command(name = "act.cache.list", help = "list cache services and statistics")
+    @PropertySpec("name,size,weight,maxWeight,hits,misses,hitRatio,evictions")
+    public List<CacheInfo> list() {
+        List<CacheInfo> list = C.newList();
+        for (TinyLfuCacheService service : services()) {
+            list.add(new CacheInfo(service));
+        }
+        return list;
+    }
+
+    @Command(name = "act.cache.clear", help = "clear a cache service")
+    public void clear(
+            @Required("specify the cache name") String name
+    ) {
+        for (TinyLfuCacheService service : services()) {
+            if (service.name().equals(name)) {
+                service.clear();
+                context.println("cache %s cleared", name);
+                return;
+            }
+        }
+        context.println("cache not found: %s", name);
+    }
+
+    private List<TinyLfuCacheService> services() {
+        CacheServiceProvider provider = app.config().cacheServiceProvider();
+        if (provider instanceof TinyLfuCacheServiceProvider) {
+            return ((TinyLfuCacheServiceProvider) provider).services();
+        }
+        context.println("cache statistics is only available with %s", TinyLfuCacheServiceProvider.class.getName());
+        return C.list();
+    }
+
+    public static class CacheInfo {
+        private String name;
+        private int size;
+        private long weight;
+        private long maxWeight;
+        private long hits;
+        private long misses;
+        private String hitRatio;
+        private long evictions;
+
+        CacheInfo(TinyLfuCacheService service) {
+            this.name = service.name();
+            this.size = service.size();
+            this.weight = service.weight();
+            this.maxWeight = service.maxWeight();
+            this.hits = service.hits();
+            this.misses = service.misses();
+            this.hitRatio = String.format("%.2f%%", service.hitRatio());
+            this.evictions = service.evictions();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+
+        public long getMaxWeight() {
+            return maxWeight;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public String getHitRatio() {
+            return hitRatio;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package act.cache;
+
+/**
+ * A count-min sketch with 4 bit counters used to estimate the access
+ * frequency of cache keys. The counters are halved periodically so that
+ * the sketch reflects recent popularity.
+ *
+ * This class is not thread safe. Access shall be guarded by the owner
+ */
+class FrequencySketch {
+
+    private static final int[] SEEDS = {0x97cb3127, 0xab7f6a41, 0x5c1d3a1b, 0x9e3779b9};
+    private static final int MAX_COUNT = 15;
+
+    private final byte[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int width) {
+        int size = Integer.highestOneBit(Math.max(64, width - 1) << 1);
+        this.table = new byte[size];
+        this.mask = size - 1;
+        this.sampleSize = size * 10;
+    }
+
+    /**
+     * Returns the estimated access count of the key hash, capped at 15
+     */
+    int frequency(int hash) {
+        int min = MAX_COUNT;
+        for (int i = 0; i < 4; ++i) {
+            int count = table[indexOf(hash, i)];
+            if (count < min) {
+                min = count;
+            }
+        }
+        return min;
+    }
+
+    void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < 4; ++i) {
+            int index = indexOf(hash, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = table.length - 1; i >= 0; --i) {
+            table[i] = (byte) (table[i] >>> 1);
+        }
+        additions >>>= 1;
+    }
+
+    private int indexOf(int hash, int i) {
+        int h = (hash ^ SEEDS[i]) * SEEDS[(i + 1) & 3];
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
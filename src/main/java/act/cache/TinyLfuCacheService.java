@@ -0,0 +1,615 @@
+package act.cache;
+
+import act.Act;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+import act.metric.MetricPlugin;
+import org.osgl.cache.CacheService;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An in-process {@link CacheService} implementation with
+ *
+ * * striped segments to reduce lock contention
+ * * W-TinyLFU admission and eviction policy
+ * * per entry expiration time
+ * * bounded by the total weight (in bytes) of the cached values
+ *
+ * Each segment maintains a small admission window (LRU) in front of a
+ * segmented LRU main space (probation + protected). When the cache is
+ * full the candidate evicted from the window is only admitted to the
+ * main space if it is accessed more frequently than the main space
+ * victim, as estimated by a {@link FrequencySketch}.
+ *
+ * Reads do not take the segment lock. A hit is recorded in a small
+ * per-segment buffer which is applied to the access order and the sketch
+ * under the lock by the next write, or by the reader that fills it up.
+ * Reads recorded while the buffer is full are dropped
+ */
+public class TinyLfuCacheService implements CacheService {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    // the node has been removed from the segment
+    private static final int REMOVED = -1;
+
+    // segments are not split below this weight so that large entries still fit in
+    static final long MIN_SEGMENT_WEIGHT = 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 16;
+
+    private final String name;
+    private final long maxWeight;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private volatile int defaultTTL = 60;
+    private volatile boolean started;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Metric metric;
+    private final String metricHit;
+    private final String metricMiss;
+    private final String metricEviction;
+
+    public TinyLfuCacheService(String name, long maxWeight, int concurrencyLevel) {
+        E.illegalArgumentIf(maxWeight < 1, "max weight shall be positive number");
+        this.name = name;
+        this.maxWeight = maxWeight;
+        int segmentCount = segmentCount(maxWeight, concurrencyLevel);
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+        this.segments = new Segment[segmentCount];
+        long segmentWeight = Math.max(1, maxWeight / segmentCount);
+        for (int i = 0; i < segmentCount; ++i) {
+            segments[i] = new Segment(segmentWeight);
+        }
+        MetricPlugin metricPlugin = Act.metricPlugin();
+        this.metric = null == metricPlugin ? Metric.NULL_METRIC : metricPlugin.metric("act.cache");
+        String prefix = S.builder(MetricInfo.CACHE).append(Metric.PATH_SEPARATOR).append(name).append(Metric.PATH_SEPARATOR).toString();
+        this.metricHit = prefix + "hit";
+        this.metricMiss = prefix + "miss";
+        this.metricEviction = prefix + "eviction";
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public void put(String key, Object value, int ttl) {
+        E.NPE(key);
+        if (null == value) {
+            evict(key);
+            return;
+        }
+        long expireAt = ttl > 0 ? System.currentTimeMillis() + ttl * 1000L : 0L;
+        int hash = hash(key);
+        segmentFor(hash).put(key, hash, value, weightOf(key, value), expireAt);
+    }
+
+    @Override
+    public void put(String key, Object value) {
+        put(key, value, defaultTTL);
+    }
+
+    @Override
+    public void evict(String key) {
+        int hash = hash(key);
+        segmentFor(hash).remove(key);
+    }
+
+    @Override
+    public <T> T get(String key) {
+        int hash = hash(key);
+        Object value = segmentFor(hash).get(key, hash);
+        if (null == value) {
+            misses.incrementAndGet();
+            metric.countOnce(metricMiss);
+        } else {
+            hits.incrementAndGet();
+            metric.countOnce(metricHit);
+        }
+        return (T) value;
+    }
+
+    public int incr(String key) {
+        return incr(key, defaultTTL);
+    }
+
+    public int incr(String key, int ttl) {
+        return add(key, 1, ttl);
+    }
+
+    public int decr(String key) {
+        return decr(key, defaultTTL);
+    }
+
+    public int decr(String key, int ttl) {
+        return add(key, -1, ttl);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    public void setDefaultTTL(int ttl) {
+        E.illegalArgumentIf(ttl < 0, "default ttl shall not be negative");
+        this.defaultTTL = ttl;
+    }
+
+    @Override
+    public void shutdown() {
+        clear();
+        started = false;
+    }
+
+    @Override
+    public void startup() {
+        started = true;
+    }
+
+    public boolean started() {
+        return started;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the hit ratio in percentage
+     */
+    public double hitRatio() {
+        long hits = this.hits.get();
+        long total = hits + misses.get();
+        return 0 == total ? 0D : hits * 100D / total;
+    }
+
+    /**
+     * Returns the number of entries in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the total weight of the cached entries in bytes
+     */
+    public long weight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    public long maxWeight() {
+        return maxWeight;
+    }
+
+    private int add(String key, int delta, int ttl) {
+        long expireAt = ttl > 0 ? System.currentTimeMillis() + ttl * 1000L : 0L;
+        int hash = hash(key);
+        return segmentFor(hash).add(key, hash, delta, expireAt);
+    }
+
+    static int segmentCount(long maxWeight, int concurrencyLevel) {
+        long bound = Math.min(Math.min(concurrencyLevel, 256), maxWeight / MIN_SEGMENT_WEIGHT);
+        return Integer.highestOneBit((int) Math.max(1, bound));
+    }
+
+    int segmentCount() {
+        return segments.length;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    private void onEviction() {
+        evictions.incrementAndGet();
+        metric.countOnce(metricEviction);
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        // spread bits so that both segment index and sketch index are well distributed
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+
+    /**
+     * Estimate the memory footprint of a cache entry
+     */
+    static int weightOf(String key, Object value) {
+        int weight = 64 + key.length() * 2;
+        if (value instanceof Weighted) {
+            weight += ((Weighted) value).weight();
+        } else if (value instanceof byte[]) {
+            weight += ((byte[]) value).length;
+        } else if (value instanceof CharSequence) {
+            weight += ((CharSequence) value).length() * 2;
+        } else {
+            weight += 64;
+        }
+        return weight;
+    }
+
+    private static class Node {
+        final String key;
+        final int hash;
+        volatile Object value;
+        int weight;
+        volatile long expireAt;
+        int queue;
+        Node prev;
+        Node next;
+
+        Node(String key, int hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+
+        boolean expired(long now) {
+            return 0 != expireAt && now >= expireAt;
+        }
+    }
+
+    /**
+     * An intrusive doubly linked list ordered from least recently used
+     * (head) to most recently used (tail)
+     */
+    private static class AccessOrder {
+        Node head;
+        Node tail;
+        long weight;
+
+        void addLast(Node node) {
+            node.prev = tail;
+            node.next = null;
+            if (null == tail) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            weight += node.weight;
+        }
+
+        void remove(Node node) {
+            if (null == node.prev) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (null == node.next) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        void moveToLast(Node node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+            weight = 0;
+        }
+    }
+
+    /**
+     * A lossy ring buffer of the nodes read. Any thread can offer; only the
+     * thread holding the segment lock drains
+     */
+    private static class ReadBuffer {
+        private final AtomicReferenceArray<Node> nodes = new AtomicReferenceArray<Node>(READ_BUFFER_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+
+        /**
+         * Record a read
+         *
+         * @return `true` if the buffer is full and shall be drained
+         */
+        boolean offer(Node node) {
+            long w = writes.get();
+            long pending = w - reads;
+            if (pending >= READ_BUFFER_SIZE) {
+                return true;
+            }
+            if (writes.compareAndSet(w, w + 1)) {
+                nodes.lazySet((int) (w & (READ_BUFFER_SIZE - 1)), node);
+                return pending + 1 >= READ_BUFFER_SIZE;
+            }
+            return false;
+        }
+
+        /**
+         * Returns the next node recorded or `null` if there is none
+         */
+        Node poll() {
+            long r = reads;
+            if (r == writes.get()) {
+                return null;
+            }
+            int i = (int) (r & (READ_BUFFER_SIZE - 1));
+            Node node = nodes.get(i);
+            if (null == node) {
+                // the slot claimed is not published yet
+                return null;
+            }
+            nodes.lazySet(i, null);
+            reads = r + 1;
+            return node;
+        }
+    }
+
+    private class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentMap<String, Node> map = new ConcurrentHashMap<String, Node>();
+        private final ReadBuffer readBuffer = new ReadBuffer();
+        private final AccessOrder window = new AccessOrder();
+        private final AccessOrder probation = new AccessOrder();
+        private final AccessOrder protectedSpace = new AccessOrder();
+        private final FrequencySketch sketch;
+        private final long maxWeight;
+        private final long maxWindowWeight;
+        private final long maxProtectedWeight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+            this.maxWindowWeight = Math.max(1, maxWeight / 100);
+            this.maxProtectedWeight = (maxWeight - maxWindowWeight) * 8 / 10;
+            // assume an average entry is about 1KB
+            this.sketch = new FrequencySketch((int) Math.min(1 << 16, Math.max(64, maxWeight >> 10)));
+        }
+
+        Object get(String key, int hash) {
+            Node node = map.get(key);
+            if (null == node) {
+                // count the miss in the sketch only if it does not have to wait
+                if (lock.tryLock()) {
+                    try {
+                        sketch.increment(hash);
+                        drainReads();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return null;
+            }
+            // expired node is removed by the next drain or write
+            Object value = node.expired(System.currentTimeMillis()) ? null : node.value;
+            if (readBuffer.offer(node) && lock.tryLock()) {
+                try {
+                    drainReads();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return value;
+        }
+
+        void put(String key, int hash, Object value, int weight, long expireAt) {
+            lock.lock();
+            try {
+                drainReads();
+                sketch.increment(hash);
+                Node node = map.get(key);
+                if (null != node) {
+                    AccessOrder order = orderOf(node);
+                    order.weight += weight - node.weight;
+                    node.weight = weight;
+                    node.value = value;
+                    node.expireAt = expireAt;
+                    onAccess(node);
+                } else {
+                    node = new Node(key, hash);
+                    node.value = value;
+                    node.weight = weight;
+                    node.expireAt = expireAt;
+                    node.queue = WINDOW;
+                    map.put(key, node);
+                    window.addLast(node);
+                }
+                evictIfNeeded();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int add(String key, int hash, int delta, long expireAt) {
+            lock.lock();
+            try {
+                Node node = map.get(key);
+                int n = delta;
+                if (null != node && !node.expired(System.currentTimeMillis()) && node.value instanceof Number) {
+                    n = ((Number) node.value).intValue() + delta;
+                }
+                put(key, hash, n, weightOf(key, n), expireAt);
+                return n;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String key) {
+            lock.lock();
+            try {
+                drainReads();
+                Node node = map.remove(key);
+                if (null != node) {
+                    unlink(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                drainReads();
+                for (Node node : map.values()) {
+                    node.queue = REMOVED;
+                }
+                map.clear();
+                window.clear();
+                probation.clear();
+                protectedSpace.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            return map.size();
+        }
+
+        long weight() {
+            lock.lock();
+            try {
+                return totalWeight();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long totalWeight() {
+            return window.weight + probation.weight + protectedSpace.weight;
+        }
+
+        private AccessOrder orderOf(Node node) {
+            switch (node.queue) {
+                case WINDOW:
+                    return window;
+                case PROBATION:
+                    return probation;
+                default:
+                    return protectedSpace;
+            }
+        }
+
+        private void unlink(Node node) {
+            orderOf(node).remove(node);
+            node.queue = REMOVED;
+        }
+
+        // apply the reads recorded in the buffer, called under the lock
+        private void drainReads() {
+            long now = System.currentTimeMillis();
+            for (Node node = readBuffer.poll(); null != node; node = readBuffer.poll()) {
+                sketch.increment(node.hash);
+                if (REMOVED == node.queue) {
+                    continue;
+                }
+                if (node.expired(now)) {
+                    unlink(node);
+                    map.remove(node.key, node);
+                } else {
+                    onAccess(node);
+                }
+            }
+        }
+
+        private void onAccess(Node node) {
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    // promote to protected space
+                    probation.remove(node);
+                    node.queue = PROTECTED;
+                    protectedSpace.addLast(node);
+                    while (protectedSpace.weight > maxProtectedWeight && protectedSpace.head != node) {
+                        Node demoted = protectedSpace.head;
+                        protectedSpace.remove(demoted);
+                        demoted.queue = PROBATION;
+                        probation.addLast(demoted);
+                    }
+                    break;
+                default:
+                    protectedSpace.moveToLast(node);
+            }
+        }
+
+        private void evictIfNeeded() {
+            // move overflowed window entries to probation as admission candidates
+            Node firstCandidate = null;
+            while (window.weight > maxWindowWeight && null != window.head) {
+                Node node = window.head;
+                window.remove(node);
+                node.queue = PROBATION;
+                probation.addLast(node);
+                if (null == firstCandidate) {
+                    firstCandidate = node;
+                }
+            }
+            long now = System.currentTimeMillis();
+            while (totalWeight() > maxWeight) {
+                Node victim = probation.head;
+                if (null == victim) {
+                    victim = null != protectedSpace.head ? protectedSpace.head : window.head;
+                    if (null == victim) {
+                        return;
+                    }
+                    evict(victim);
+                    continue;
+                }
+                Node candidate = probation.tail;
+                if (null == firstCandidate || victim == candidate || victim.expired(now)) {
+                    evict(victim);
+                } else if (candidate.expired(now)) {
+                    evict(candidate);
+                } else if (sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+                    evict(victim);
+                } else {
+                    evict(candidate);
+                }
+            }
+        }
+
+        private void evict(Node node) {
+            unlink(node);
+            map.remove(node.key);
+            onEviction();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return S.fmt("%s[%s]", getClass().getSimpleName(), name);
+    }
+}
@@ -0,0 +1,59 @@
+package act.cache;
+
+import act.Act;
+import act.app.App;
+import org.osgl.cache.CacheService;
+import org.osgl.cache.CacheServiceProvider;
+import org.osgl.util.C;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Provide {@link TinyLfuCacheService} instances.
+ *
+ * To use this provider, set `act.cache.impl` to `act.cache.TinyLfuCacheServiceProvider`.
+ * The total weight of each named cache is bounded by `act.cache.max_weight.long`
+ */
+public class TinyLfuCacheServiceProvider implements CacheServiceProvider {
+
+    private static final String DEFAULT_NAME = "_act_default_";
+
+    private final ConcurrentMap<String, TinyLfuCacheService> services = new ConcurrentHashMap<String, TinyLfuCacheService>();
+
+    @Override
+    public CacheService get() {
+        return get(DEFAULT_NAME);
+    }
+
+    @Override
+    public CacheService get(String name) {
+        TinyLfuCacheService service = services.get(name);
+        if (null == service) {
+            TinyLfuCacheService newService = new TinyLfuCacheService(name, maxWeight(), concurrencyLevel());
+            service = services.putIfAbsent(name, newService);
+            if (null == service) {
+                service = newService;
+                service.startup();
+            }
+        }
+        return service;
+    }
+
+    /**
+     * Returns all cache service instances created by this provider
+     */
+    public List<TinyLfuCacheService> services() {
+        return C.list(services.values());
+    }
+
+    private static long maxWeight() {
+        App app = Act.app();
+        return null == app ? 64L * 1024 * 1024 : app.config().cacheMaxWeight();
+    }
+
+    private static int concurrencyLevel() {
+        return Runtime.getRuntime().availableProcessors() * 4;
+    }
+}
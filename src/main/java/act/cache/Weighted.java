@@ -0,0 +1,13 @@
+package act.cache;
+
+/**
+ * An object that reports its memory footprint so that
+ * {@link TinyLfuCacheService} can bound the cache by weight
+ * in bytes
+ */
+public interface Weighted {
+    /**
+     * Returns the approximate number of bytes this object occupies
+     */
+    int weight();
+}
@@ -18,28 +18,64 @@ import org.osgl.util.IO;
 import org.osgl.util.S;
 
 import javax.enterprise.context.ApplicationScoped;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
-import java.net.Socket;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static act.app.App.logger;
 
 public class CliSession extends DestroyableBase implements Runnable {
 
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private static final long WRITE_TIMEOUT_MS = 30 * 1000L;
+
+    // telnet protocol command bytes
+    private static final int IAC = 255;
+    private static final int SB = 250;
+    private static final int SE = 240;
+    private static final int WILL = 251;
+    private static final int DONT = 254;
+
+    // telnet command parsing states
+    private static final int TELNET_DATA = 0;
+    private static final int TELNET_IAC = 1;
+    private static final int TELNET_OPTION = 2;
+    private static final int TELNET_SB = 3;
+    private static final int TELNET_SB_IAC = 4;
+
     private String id;
     private CliServer server;
     protected App app;
-    private Socket socket;
-    private long ts;
-    private boolean exit;
-    private Thread runningThread;
-    private ConsoleReader console;
+    private SocketChannel channel;
+    // the selection key of the channel, set by the server once registered
+    private volatile SelectionKey key;
+    private final Object writeLock = new Object();
+    private boolean writable;
+    private volatile long ts;
+    private volatile boolean exit;
+    private volatile Thread runningThread;
+    private AtomicBoolean scheduled = new AtomicBoolean();
+    private AtomicBoolean terminated = new AtomicBoolean();
+    private Queue<String> pendingLines = new ConcurrentLinkedQueue<String>();
+    // the following fields are accessed only by the selector thread
+    private ByteArrayOutputStream lineBuffer = new ByteArrayOutputStream();
+    private int telnetState;
+    private boolean lastCR;
+    private volatile ConsoleReader console;
+    private boolean opened;
     private CliCursor cursor;
-    private CommandNameCompleter commandNameCompleter;
     // the current handler
     private CliHandler handler;
     private boolean daemon;
@@ -63,19 +99,73 @@ public class CliSession extends DestroyableBase implements Runnable {
         this.ts = $.ms();
     }
 
-    public CliSession(Socket socket, CliServer server) {
-        this.socket = $.NPE(socket);
+    public CliSession(SocketChannel channel, CliServer server) {
+        this.channel = $.NPE(channel);
         this.server = $.NPE(server);
         this.app = server.app();
         id = app.cuid();
         ts = $.ms();
-        commandNameCompleter = new CommandNameCompleter(app);
+        // the server will schedule the session right after accepted to print banner
+        scheduled.set(true);
     }
 
     public String id() {
         return id;
     }
 
+    /**
+     * Set the selection key of the channel registered to the selector of
+     * the {@link CliServer}
+     */
+    public void registered(SelectionKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Wake up the writer waiting for the channel to become writable. This
+     * method is called by the selector thread of the {@link CliServer}
+     */
+    public void writable() {
+        synchronized (writeLock) {
+            writable = true;
+            writeLock.notifyAll();
+        }
+    }
+
+    /**
+     * Register interest in the channel becoming writable and wait for the
+     * selector thread to signal it
+     *
+     * @param deadline the time in ms to give up waiting
+     */
+    private void awaitWritable(long deadline) throws IOException {
+        SelectionKey key = this.key;
+        if (null == key || !key.isValid()) {
+            throw new IOException("CLI session closed");
+        }
+        synchronized (writeLock) {
+            writable = false;
+            try {
+                key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            } catch (CancelledKeyException e) {
+                throw new IOException("CLI session closed");
+            }
+            // the interest set is applied on the next select
+            key.selector().wakeup();
+            while (!writable) {
+                long timeout = deadline - $.ms();
+                if (timeout <= 0) {
+                    throw new IOException("timeout writing to CLI session");
+                }
+                try {
+                    writeLock.wait(timeout);
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+    }
+
     public CliSession attribute(String key, Object val) {
         attributes.put(key, val);
         return this;
@@ -121,6 +211,13 @@ public class CliSession extends DestroyableBase implements Runnable {
         return l < ($.ms() - ts);
     }
 
+    /**
+     * Returns the timestamp of the last command line received
+     */
+    public long lastActive() {
+        return ts;
+    }
+
     @Override
     protected void releaseResources() {
         stop();
@@ -128,76 +225,203 @@ public class CliSession extends DestroyableBase implements Runnable {
         Destroyable.Util.tryDestroyAll(attributes.values(), ApplicationScoped.class);
     }
 
+    /**
+     * Feed the bytes read from the socket channel to this session. This method
+     * is called by the selector thread of the {@link CliServer}
+     *
+     * @param buffer the bytes read
+     * @return `true` if there are command lines to be executed and the session
+     * is not scheduled yet
+     */
+    public boolean feed(ByteBuffer buffer) {
+        boolean newLine = false;
+        while (buffer.hasRemaining()) {
+            int b = buffer.get() & 0xFF;
+            if (telnet(b)) {
+                continue;
+            }
+            if ('\n' == b || '\r' == b || 0 == b) {
+                boolean skip = lastCR && '\r' != b;
+                lastCR = '\r' == b;
+                if (!skip && 0 != b) {
+                    pendingLines.add(new String(lineBuffer.toByteArray(), StandardCharsets.UTF_8));
+                    lineBuffer.reset();
+                    newLine = true;
+                }
+                continue;
+            }
+            lastCR = false;
+            if (8 == b || 127 == b) {
+                // backspace
+                byte[] ba = lineBuffer.toByteArray();
+                lineBuffer.reset();
+                if (ba.length > 0) {
+                    lineBuffer.write(ba, 0, ba.length - 1);
+                }
+            } else if (lineBuffer.size() < MAX_LINE_LENGTH) {
+                lineBuffer.write(b);
+            }
+        }
+        if (newLine) {
+            ts = $.ms();
+        }
+        return newLine && scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Skip telnet protocol negotiation commands
+     *
+     * @param b the byte received
+     * @return `true` if the byte is part of telnet command
+     */
+    private boolean telnet(int b) {
+        switch (telnetState) {
+            case TELNET_DATA:
+                if (IAC == b) {
+                    telnetState = TELNET_IAC;
+                    return true;
+                }
+                return false;
+            case TELNET_IAC:
+                if (IAC == b) {
+                    // escaped 0xFF
+                    telnetState = TELNET_DATA;
+                    return false;
+                }
+                if (SB == b) {
+                    telnetState = TELNET_SB;
+                } else if (b >= WILL && b <= DONT) {
+                    telnetState = TELNET_OPTION;
+                } else {
+                    telnetState = TELNET_DATA;
+                }
+                return true;
+            case TELNET_OPTION:
+                telnetState = TELNET_DATA;
+                return true;
+            case TELNET_SB:
+                if (IAC == b) {
+                    telnetState = TELNET_SB_IAC;
+                }
+                return true;
+            case TELNET_SB_IAC:
+                telnetState = SE == b ? TELNET_DATA : TELNET_SB;
+                return true;
+            default:
+                telnetState = TELNET_DATA;
+                return false;
+        }
+    }
+
+    /**
+     * Execute the command lines received. This method is called by
+     * the worker thread of {@link CliServer}
+     */
     @Override
     public void run() {
         runningThread = Thread.currentThread();
         try {
-            app.eventBus().emitSync(new CliSessionStart(this));
-            OutputStream os = socket.getOutputStream();
-            console = new ConsoleReader(socket.getInputStream(), os);
-            String banner = Banner.cachedBanner();
-            printBanner(banner, console);
-            String appName = App.instance().name();
-            if (S.blank(appName)) {
-                appName = "act";
+            if (!opened) {
+                opened = true;
+                open();
             }
-            console.setPrompt(S.fmt("%s[%s]>", appName, id));
-            console.addCompleter(commandNameCompleter);
-            console.getTerminal().setEchoEnabled(false);
-
             while (!exit) {
-                final String line = console.readLine();
-                if (exit) {
-                    console.println("session terminated");
-                    console.flush();
-                    return;
+                String line = pendingLines.poll();
+                if (null == line) {
+                    scheduled.set(false);
+                    // double check in case lines come in after the poll
+                    if (pendingLines.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
                 }
                 ts = $.ms();
                 app.checkUpdates(true);
                 if (S.blank(line)) {
+                    prompt();
                     continue;
                 }
-
                 try {
                     CliContext context = new CliContext(line, app, console, this);
                     cliContext = context;
                     context.handle();
                 } catch ($.Break b) {
                     Object payload = b.get();
-                    if (null == payload) {
-                        continue;
-                    }
-                    if (payload instanceof Boolean) {
-                        exit = b.get();
-                    } else if (payload instanceof String) {
-                        console.println((String) payload);
-                    } else {
-                        console.println(S.fmt("INTERNAL ERROR: unknown payload type: %s", payload.getClass()));
+                    if (null != payload) {
+                        if (payload instanceof Boolean) {
+                            exit = b.get();
+                        } else if (payload instanceof String) {
+                            console.println((String) payload);
+                        } else {
+                            console.println(S.fmt("INTERNAL ERROR: unknown payload type: %s", payload.getClass()));
+                        }
                     }
                 }
+                if (exit) {
+                    console.println("session terminated");
+                    console.flush();
+                } else {
+                    prompt();
+                }
             }
         } catch (InterruptedIOException e) {
             logger.info("session thread interrupted");
-        } catch (SocketException e) {
+        } catch (IOException e) {
             logger.error(e.getMessage());
+            exit = true;
         } catch (Exception e) {
             logger.error(e, "Error processing cli session");
+            exit = true;
         } finally {
-            if (null != server) {
-                server.remove(this);
+            runningThread = null;
+            if (exit) {
+                terminate();
             }
-            IO.close(socket);
-            app.eventBus().emitSync(new CliSessionTerminate(this));
         }
     }
 
+    private void open() throws IOException {
+        app.eventBus().emitSync(new CliSessionStart(this));
+        console = new ConsoleReader(new ByteArrayInputStream(new byte[0]), new ChannelOutputStream(channel));
+        String banner = Banner.cachedBanner();
+        printBanner(banner, console);
+        String appName = App.instance().name();
+        if (S.blank(appName)) {
+            appName = "act";
+        }
+        console.setPrompt(S.fmt("%s[%s]>", appName, id));
+        prompt();
+    }
+
+    private void prompt() throws IOException {
+        ConsoleReader console = this.console;
+        if (null != console) {
+            console.print(console.getPrompt());
+            console.flush();
+        }
+    }
+
+    private void terminate() {
+        if (!terminated.compareAndSet(false, true)) {
+            return;
+        }
+        if (null != server) {
+            server.remove(this);
+        }
+        IO.close(channel);
+        app.eventBus().emitSync(new CliSessionTerminate(this));
+    }
+
     public void stop() {
         exit = true;
-        if (null != runningThread) {
-            runningThread.interrupt();
+        Thread thread = runningThread;
+        if (null != thread) {
+            thread.interrupt();
         }
         console = null;
-        IO.close(socket);
+        if (null != channel) {
+            terminate();
+        }
     }
 
     public void stop(String message) {
@@ -228,4 +452,32 @@ public class CliSession extends DestroyableBase implements Runnable {
         }
     }
 
+    /**
+     * Writes to a non-blocking socket channel. When the socket send buffer is
+     * full the writer waits until the selector reports the channel writable
+     */
+    private class ChannelOutputStream extends OutputStream {
+        private final SocketChannel channel;
+
+        ChannelOutputStream(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+            long deadline = $.ms() + WRITE_TIMEOUT_MS;
+            while (buffer.hasRemaining()) {
+                if (0 == channel.write(buffer)) {
+                    awaitWritable(deadline);
+                }
+            }
+        }
+    }
+
 }
@@ -11,10 +11,12 @@ import act.data.DataPropertyRepository;
 import act.util.ActContext;
 import act.util.DisableFastJsonCircularReferenceDetect;
 import act.util.FastJsonPropertyPreFilter;
+import act.util.FastJsonSpecWriter;
 import act.util.PropertySpec;
 import com.alibaba.fastjson.serializer.SerializeFilter;
 import com.alibaba.fastjson.serializer.SerializerFeature;
 import org.osgl.$;
+import org.osgl.exception.NotAppliedException;
 import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.S;
@@ -157,38 +159,23 @@ public enum CliView {
 
         public String render(Object result, PropertySpec.MetaInfo spec, ActContext context, boolean format) {
             String json;
-            FastJsonPropertyPreFilter propertyFilter;
             spec = PropertySpec.MetaInfo.withCurrent(spec, context);
-            if (null == spec) {
-                propertyFilter = null;
-            } else {
-                propertyFilter = new FastJsonPropertyPreFilter();
-                List<String> outputs = spec.outputFields(context);
-                Set<String> excluded = spec.excludedFields(context);
-                if (excluded.isEmpty()) {
-                    if (outputs.isEmpty()) {
-                        propertyFilter = null; // no filter defined actually
-                    } else {
-                        // output fields only applied when excluded fields not presented
-                        propertyFilter.addIncludes(outputs);
-                        if (FastJsonPropertyPreFilter.hasPattern(outputs)) {
-                            // TODO: handle the case when result is an Iterable
-                            propertyFilter.setFullPaths(context.app().service(DataPropertyRepository.class).propertyListOf(result.getClass()));
-                        }
-                    }
-                } else {
-                    propertyFilter.addExcludes(excluded);
-                    if (FastJsonPropertyPreFilter.hasPattern(excluded)) {
-                        // TODO: handle the case when result is an Iterable
-                        propertyFilter.setFullPaths(context.app().service(DataPropertyRepository.class).propertyListOf(result.getClass()));
-                    }
-                }
-            }
+            SerializeFilter[] compiledFilters = null == spec ? NO_FILTER : compiledFilters(result, spec, context);
+            FastJsonPropertyPreFilter propertyFilter = NO_FILTER == compiledFilters ? null : (FastJsonPropertyPreFilter) compiledFilters[0];
 
             List<SerializerFeature> featureList = C.newList();
             if (format) {
                 featureList.add(SerializerFeature.PrettyFormat);
             }
+            FastJsonSpecWriter writer = null == propertyFilter ? null : compiledWriter(result, spec, context);
+            if (null != writer) {
+                SerializerFeature[] featureArray = new SerializerFeature[featureList.size()];
+                json = writer.write(result, featureList.toArray(featureArray));
+                if (null != json) {
+                    return json;
+                }
+                // the result contains a bean the writer is not compiled for
+            }
             if (null == propertyFilter) {
                 Boolean b = DisableFastJsonCircularReferenceDetect.option.get();
                 if (null != b && b) {
@@ -205,23 +192,79 @@ public enum CliView {
                 // Note: we can't check DisableFastJsonCircularReferenceDetect here because if
                 // that option is set, then FastJson will skip the JsonSerializer.context setting
                 // and there is property filter mechanism will break
-                MappedFastJsonNameFilter nameFilter = new MappedFastJsonNameFilter(spec.labelMapping(context));
-
                 SerializerFeature[] featureArray = new SerializerFeature[featureList.size()];
                 featureArray = featureList.toArray(featureArray);
 
-                if (nameFilter.isEmpty()) {
+                if (compiledFilters.length == 1) {
                     json = com.alibaba.fastjson.JSON.toJSONString(result, propertyFilter, featureArray);
                 } else {
-                    SerializeFilter[] filters = new SerializeFilter[2];
-                    filters[0] = nameFilter;
-                    filters[1] = propertyFilter;
-                    json = com.alibaba.fastjson.JSON.toJSONString(result, filters, featureArray);
+                    json = com.alibaba.fastjson.JSON.toJSONString(result, compiledFilters, featureArray);
                 }
             }
             return json;
         }
 
+        /**
+         * Returns the writer compiled from the property spec for the type of
+         * the result, or `null` if the result shall be rendered with the filters
+         */
+        private FastJsonSpecWriter compiledWriter(Object result, final PropertySpec.MetaInfo spec, final ActContext context) {
+            final Class<?> type = FastJsonSpecWriter.beanType(result);
+            if (null == type || !spec.excludedFields(context).isEmpty()) {
+                return null;
+            }
+            String key = S.builder("json-writer:").append(context instanceof CliContext)
+                    .append(':').append(type.getName()).toString();
+            Object writer = spec.compiled(key, new $.F0<Object>() {
+                @Override
+                public Object apply() throws NotAppliedException, $.Break {
+                    FastJsonSpecWriter writer = FastJsonSpecWriter.of(type, spec.outputFields(context), spec.labelMapping(context));
+                    return null == writer ? NO_WRITER : writer;
+                }
+            });
+            return writer instanceof FastJsonSpecWriter && ((FastJsonSpecWriter) writer).accept(result) ? (FastJsonSpecWriter) writer : null;
+        }
+
+        /**
+         * Compile the property spec into fastjson filters. The filters are cached
+         * on the spec and reused by later rendering of the same spec, so the
+         * property path decisions memorized by the filter are kept as well
+         *
+         * @return `{propertyFilter[, nameFilter]}` or {@link #NO_FILTER} if no
+         * filter defined actually
+         */
+        private SerializeFilter[] compiledFilters(final Object result, final PropertySpec.MetaInfo spec, final ActContext context) {
+            final List<String> outputs = spec.outputFields(context);
+            final Set<String> excluded = spec.excludedFields(context);
+            final boolean hasPattern = excluded.isEmpty() ? FastJsonPropertyPreFilter.hasPattern(outputs) : FastJsonPropertyPreFilter.hasPattern(excluded);
+            // the full path list depends on the result type when there are patterns
+            String key = S.builder("json:").append(context instanceof CliContext)
+                    .append(':').append(hasPattern ? result.getClass().getName() : "").toString();
+            return spec.compiled(key, new $.F0<SerializeFilter[]>() {
+                @Override
+                public SerializeFilter[] apply() throws NotAppliedException, $.Break {
+                    FastJsonPropertyPreFilter propertyFilter = new FastJsonPropertyPreFilter();
+                    if (excluded.isEmpty()) {
+                        if (outputs.isEmpty()) {
+                            return NO_FILTER; // no filter defined actually
+                        }
+                        // output fields only applied when excluded fields not presented
+                        propertyFilter.addIncludes(outputs);
+                    } else {
+                        propertyFilter.addExcludes(excluded);
+                    }
+                    if (hasPattern) {
+                        // TODO: handle the case when result is an Iterable
+                        propertyFilter.setFullPaths(context.app().service(DataPropertyRepository.class).propertyListOf(result.getClass()));
+                    }
+                    MappedFastJsonNameFilter nameFilter = new MappedFastJsonNameFilter(spec.labelMapping(context));
+                    if (nameFilter.isEmpty()) {
+                        return new SerializeFilter[]{propertyFilter};
+                    }
+                    return new SerializeFilter[]{propertyFilter, nameFilter};
+                }
+            });
+        }
 
     },
 
@@ -320,6 +363,9 @@ public enum CliView {
 
     };
 
+    private static final SerializeFilter[] NO_FILTER = new SerializeFilter[0];
+    private static final Object NO_WRITER = new Object();
+
     public String render(Object result, PropertySpec.MetaInfo spec, ActContext context) {
         throw E.unsupport();
     }
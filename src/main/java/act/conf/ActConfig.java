@@ -6,8 +6,7 @@ import java.io.File;
 import java.net.URI;
 import java.util.Map;
 
-import static act.conf.ActConfigKey.APP_BASE;
-import static act.conf.ActConfigKey.HOME;
+import static act.conf.ActConfigKey.*;
 
 public class ActConfig extends Config<ActConfigKey> {
 
@@ -57,6 +56,59 @@ public class ActConfig extends Config<ActConfigKey> {
         return appBase;
     }
 
+    private Boolean http2Enabled = null;
+
+    public boolean http2Enabled() {
+        if (null == http2Enabled) {
+            Boolean b = get(HTTP2_ENABLED);
+            http2Enabled = null != b && b;
+        }
+        return http2Enabled;
+    }
+
+    private int http2MaxConcurrentStreams = -1;
+
+    public int http2MaxConcurrentStreams() {
+        if (-1 == http2MaxConcurrentStreams) {
+            http2MaxConcurrentStreams = positive(HTTP2_MAX_CONCURRENT_STREAMS, 100);
+        }
+        return http2MaxConcurrentStreams;
+    }
+
+    private int http2InitialWindowSize = -1;
+
+    public int http2InitialWindowSize() {
+        if (-1 == http2InitialWindowSize) {
+            http2InitialWindowSize = positive(HTTP2_INITIAL_WINDOW_SIZE, 65535);
+        }
+        return http2InitialWindowSize;
+    }
+
+    private int http2MaxFrameSize = -1;
+
+    public int http2MaxFrameSize() {
+        if (-1 == http2MaxFrameSize) {
+            int n = positive(HTTP2_MAX_FRAME_SIZE, 16384);
+            // see https://tools.ietf.org/html/rfc7540#section-6.5.2
+            if (n < 16384 || n > 16777215) {
+                E.invalidConfiguration("%s must be between 16384 and 16777215: %s", HTTP2_MAX_FRAME_SIZE.key(), n);
+            }
+            http2MaxFrameSize = n;
+        }
+        return http2MaxFrameSize;
+    }
+
+    private int positive(ActConfigKey key, int defVal) {
+        Integer I = get(key);
+        if (null == I) {
+            return defVal;
+        }
+        if (I < 1) {
+            E.invalidConfiguration("%s must be a positive number: %s", key.key(), I);
+        }
+        return I;
+    }
+
     private static void validateDir(File dir, String conf) {
         if (!dir.exists() || !dir.isDirectory() || !dir.canRead()) {
             E.invalidConfiguration("%s is not a valid directory: %s", conf, dir.getAbsolutePath());
@@ -54,7 +54,36 @@ public enum ActConfigKey implements ConfigKey {
     /**
      * {@code act.xio.impl} specifies the implementation for the network stack implementation
      */
-    NETWORK_SERVER_IMPL("xio.impl");
+    NETWORK_SERVER_IMPL("xio.impl"),
+
+    /**
+     * {@code act.http2.enabled} turn on/off HTTP/2 support. When enabled
+     * clients can upgrade a cleartext HTTP/1.1 connection to HTTP/2 (h2c)
+     * and have multiple requests multiplexed over the same connection
+     * <p>Default value: {@code false}</p>
+     */
+    HTTP2_ENABLED("http2.enabled", false),
+
+    /**
+     * {@code act.http2.max_concurrent_streams.int} specifies the maximum number
+     * of concurrent streams a client can open on an HTTP/2 connection
+     * <p>Default value: {@code 100}</p>
+     */
+    HTTP2_MAX_CONCURRENT_STREAMS("http2.max_concurrent_streams.int", 100),
+
+    /**
+     * {@code act.http2.initial_window.size} specifies the initial flow control
+     * window size in bytes of an HTTP/2 stream
+     * <p>Default value: {@code 65535}</p>
+     */
+    HTTP2_INITIAL_WINDOW_SIZE("http2.initial_window.size", 65535),
+
+    /**
+     * {@code act.http2.max_frame.size} specifies the largest HTTP/2 frame
+     * payload in bytes the server is willing to receive
+     * <p>Default value: {@code 16384}</p>
+     */
+    HTTP2_MAX_FRAME_SIZE("http2.max_frame.size", 16384);
 
     private static Logger logger = L.get(AppConfigKey.class);
     private static ConfigKeyHelper helper = new ConfigKeyHelper(Act.F.MODE_ACCESSOR, Act.class.getClassLoader());
@@ -47,7 +47,7 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
     private App app;
 
     static {
-        MvcConfig.errorPageRenderer(new ActErrorPageRender());
+        MvcConfig.errorPageRenderer(ActErrorPageRender.INSTANCE);
         MvcConfig.beforeCommitResultHandler(ResultEvent.BEFORE_COMMIT_HANDLER);
         MvcConfig.afterCommitResultHandler(ResultEvent.AFTER_COMMIT_HANDLER);
     }
@@ -93,6 +93,31 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         return configurator;
     }
 
+    private int asyncTimeout = -1;
+
+    protected T asyncTimeout(int seconds) {
+        E.illegalArgumentIf(seconds < 1, "async timeout shall be positive: %s", seconds);
+        this.asyncTimeout = seconds;
+        return me();
+    }
+
+    public int asyncTimeout() {
+        if (-1 == asyncTimeout) {
+            Integer I = get(ASYNC_TIMEOUT);
+            if (null == I) {
+                I = 30;
+            }
+            asyncTimeout = I;
+        }
+        return asyncTimeout;
+    }
+
+    private void _mergeAsyncTimeout(AppConfig config) {
+        if (null == get(ASYNC_TIMEOUT)) {
+            asyncTimeout = config.asyncTimeout;
+        }
+    }
+
     private Boolean basicAuth;
 
     protected T enableBasicAuthentication(boolean b) {
@@ -461,6 +486,339 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean warmUp;
+
+    protected T warmUp(boolean enabled) {
+        this.warmUp = enabled;
+        return me();
+    }
+
+    public boolean warmUpEnabled() {
+        if (null == warmUp) {
+            Boolean B = get(WARM_UP_ENABLED);
+            if (null == B) {
+                B = false;
+            }
+            warmUp = B;
+        }
+        return warmUp;
+    }
+
+    private void _mergeWarmUp(AppConfig config) {
+        if (null == get(WARM_UP_ENABLED)) {
+            warmUp = config.warmUp;
+        }
+    }
+
+    private List<String> warmUpRequests;
+
+    protected T warmUpRequests(String requests) {
+        this.warmUpRequests = parseWarmUpRequests(requests);
+        return me();
+    }
+
+    public List<String> warmUpRequests() {
+        if (null == warmUpRequests) {
+            String s = get(WARM_UP_REQUESTS);
+            warmUpRequests = parseWarmUpRequests(s);
+        }
+        return warmUpRequests;
+    }
+
+    private static List<String> parseWarmUpRequests(String s) {
+        List<String> list = C.newList();
+        if (S.notBlank(s)) {
+            for (String item : s.split(",")) {
+                item = item.trim();
+                if (!item.isEmpty()) {
+                    list.add(item);
+                }
+            }
+        }
+        return list;
+    }
+
+    private void _mergeWarmUpRequests(AppConfig config) {
+        if (null == get(WARM_UP_REQUESTS)) {
+            warmUpRequests = config.warmUpRequests;
+        }
+    }
+
+    private Boolean compressionEnabled;
+
+    protected T compressionEnabled(boolean enabled) {
+        this.compressionEnabled = enabled;
+        return me();
+    }
+
+    public boolean compressionEnabled() {
+        if (null == compressionEnabled) {
+            Boolean B = get(COMPRESSION_ENABLED);
+            if (null == B) {
+                B = true;
+            }
+            compressionEnabled = B;
+        }
+        return compressionEnabled;
+    }
+
+    private void _mergeCompressionEnabled(AppConfig config) {
+        if (null == get(COMPRESSION_ENABLED)) {
+            compressionEnabled = config.compressionEnabled;
+        }
+    }
+
+    private int compressionLevel = -1;
+
+    protected T compressionLevel(int level) {
+        E.illegalArgumentIf(level < 1 || level > 9, "compression level shall be between 1 and 9: %s", level);
+        this.compressionLevel = level;
+        return me();
+    }
+
+    public int compressionLevel() {
+        if (-1 == compressionLevel) {
+            Integer I = get(COMPRESSION_LEVEL);
+            if (null == I) {
+                I = 6;
+            }
+            compressionLevel = I;
+        }
+        return compressionLevel;
+    }
+
+    private void _mergeCompressionLevel(AppConfig config) {
+        if (null == get(COMPRESSION_LEVEL)) {
+            compressionLevel = config.compressionLevel;
+        }
+    }
+
+    private int compressionMinSize = -1;
+
+    protected T compressionMinSize(int size) {
+        E.illegalArgumentIf(size < 0, "compression min size shall not be negative: %s", size);
+        this.compressionMinSize = size;
+        return me();
+    }
+
+    public int compressionMinSize() {
+        if (-1 == compressionMinSize) {
+            Integer I = get(COMPRESSION_MIN_SIZE);
+            if (null == I) {
+                I = 1024;
+            }
+            compressionMinSize = I;
+        }
+        return compressionMinSize;
+    }
+
+    private void _mergeCompressionMinSize(AppConfig config) {
+        if (null == get(COMPRESSION_MIN_SIZE)) {
+            compressionMinSize = config.compressionMinSize;
+        }
+    }
+
+    private List<String> compressionTypes;
+
+    protected T compressionTypes(String types) {
+        this.compressionTypes = parseCompressionTypes(types);
+        return me();
+    }
+
+    public List<String> compressionTypes() {
+        if (null == compressionTypes) {
+            String s = get(COMPRESSION_TYPES);
+            if (null == s) {
+                s = "text/,application/json,application/javascript,application/xml,image/svg+xml";
+            }
+            compressionTypes = parseCompressionTypes(s);
+        }
+        return compressionTypes;
+    }
+
+    /**
+     * Check if a response with the content type specified shall be compressed
+     *
+     * @param contentType the content type
+     * @return `true` if the content type matches {@link #compressionTypes()}
+     */
+    public boolean compressible(String contentType) {
+        if (null == contentType) {
+            return false;
+        }
+        for (String type : compressionTypes()) {
+            if (contentType.startsWith(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> parseCompressionTypes(String s) {
+        List<String> list = C.newList();
+        for (String item : s.split(",")) {
+            item = item.trim();
+            if (!item.isEmpty()) {
+                list.add(item);
+            }
+        }
+        return list;
+    }
+
+    private void _mergeCompressionTypes(AppConfig config) {
+        if (null == get(COMPRESSION_TYPES)) {
+            compressionTypes = config.compressionTypes;
+        }
+    }
+
+    private int passwordHashPoolSize = -1;
+
+    protected T passwordHashPoolSize(int size) {
+        E.illegalArgumentIf(size < 1, "password hash pool size shall be positive number: %s", size);
+        this.passwordHashPoolSize = size;
+        return me();
+    }
+
+    public int passwordHashPoolSize() {
+        if (-1 == passwordHashPoolSize) {
+            Integer I = get(PASSWORD_HASH_POOL_SIZE);
+            if (null == I) {
+                I = Runtime.getRuntime().availableProcessors();
+            }
+            passwordHashPoolSize = I;
+        }
+        return passwordHashPoolSize;
+    }
+
+    private void _mergePasswordHashPoolSize(AppConfig config) {
+        if (null == get(PASSWORD_HASH_POOL_SIZE)) {
+            passwordHashPoolSize = config.passwordHashPoolSize;
+        }
+    }
+
+    private int passwordHashQueueSize = -1;
+
+    protected T passwordHashQueueSize(int size) {
+        E.illegalArgumentIf(size < 1, "password hash queue size shall be positive number: %s", size);
+        this.passwordHashQueueSize = size;
+        return me();
+    }
+
+    public int passwordHashQueueSize() {
+        if (-1 == passwordHashQueueSize) {
+            Integer I = get(PASSWORD_HASH_QUEUE_SIZE);
+            if (null == I) {
+                I = passwordHashPoolSize();
+            }
+            passwordHashQueueSize = I;
+        }
+        return passwordHashQueueSize;
+    }
+
+    private void _mergePasswordHashQueueSize(AppConfig config) {
+        if (null == get(PASSWORD_HASH_QUEUE_SIZE)) {
+            passwordHashQueueSize = config.passwordHashQueueSize;
+        }
+    }
+
+    private int passwordHashCost = -1;
+
+    protected T passwordHashCost(int cost) {
+        E.illegalArgumentIf(cost < 4 || cost > 31, "BCrypt cost shall be between 4 and 31: %s", cost);
+        this.passwordHashCost = cost;
+        return me();
+    }
+
+    public int passwordHashCost() {
+        if (-1 == passwordHashCost) {
+            Integer I = get(PASSWORD_HASH_COST);
+            if (null == I) {
+                I = 10;
+            }
+            passwordHashCost = I;
+        }
+        return passwordHashCost;
+    }
+
+    private void _mergePasswordHashCost(AppConfig config) {
+        if (null == get(PASSWORD_HASH_COST)) {
+            passwordHashCost = config.passwordHashCost;
+        }
+    }
+
+    private Boolean passwordHashUpgrade;
+
+    protected T passwordHashUpgrade(boolean enabled) {
+        this.passwordHashUpgrade = enabled;
+        return me();
+    }
+
+    public boolean passwordHashUpgrade() {
+        if (null == passwordHashUpgrade) {
+            Boolean B = get(PASSWORD_HASH_UPGRADE);
+            if (null == B) {
+                B = false;
+            }
+            passwordHashUpgrade = B;
+        }
+        return passwordHashUpgrade;
+    }
+
+    private void _mergePasswordHashUpgrade(AppConfig config) {
+        if (null == get(PASSWORD_HASH_UPGRADE)) {
+            passwordHashUpgrade = config.passwordHashUpgrade;
+        }
+    }
+
+    private int pushQueueSize = -1;
+
+    protected T pushQueueSize(int size) {
+        E.illegalArgumentIf(size < 1, "push queue size shall be positive: %s", size);
+        this.pushQueueSize = size;
+        return me();
+    }
+
+    public int pushQueueSize() {
+        if (-1 == pushQueueSize) {
+            Integer I = get(PUSH_QUEUE_SIZE);
+            if (null == I) {
+                I = 64;
+            }
+            pushQueueSize = I;
+        }
+        return pushQueueSize;
+    }
+
+    private void _mergePushQueueSize(AppConfig config) {
+        if (null == get(PUSH_QUEUE_SIZE)) {
+            pushQueueSize = config.pushQueueSize;
+        }
+    }
+
+    private Boolean parallelStartup;
+
+    protected T parallelStartup(boolean enabled) {
+        this.parallelStartup = enabled;
+        return me();
+    }
+
+    public boolean parallelStartup() {
+        if (null == parallelStartup) {
+            Boolean B = get(STARTUP_PARALLEL);
+            if (null == B) {
+                B = false;
+            }
+            parallelStartup = B;
+        }
+        return parallelStartup;
+    }
+
+    private void _mergeParallelStartup(AppConfig config) {
+        if (null == get(STARTUP_PARALLEL)) {
+            parallelStartup = config.parallelStartup;
+        }
+    }
+
     private CliOverHttpAuthority cliOverHttpAuthority;
 
     protected T cliOverHttpAuthority(CliOverHttpAuthority authority) {
@@ -1400,6 +1758,54 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private Boolean errorPageCacheEnabled;
+
+    protected T errorPageCacheEnabled(boolean enabled) {
+        this.errorPageCacheEnabled = enabled;
+        return me();
+    }
+
+    public boolean errorPageCacheEnabled() {
+        if (null == errorPageCacheEnabled) {
+            Boolean B = get(ERROR_PAGE_CACHE_ENABLED);
+            if (null == B) {
+                B = false;
+            }
+            errorPageCacheEnabled = B;
+        }
+        return errorPageCacheEnabled;
+    }
+
+    private void _mergeErrorPageCacheEnabled(AppConfig conf) {
+        if (null == get(ERROR_PAGE_CACHE_ENABLED)) {
+            errorPageCacheEnabled = conf.errorPageCacheEnabled;
+        }
+    }
+
+    private Boolean errorPageFloodProtection;
+
+    protected T errorPageFloodProtection(boolean enabled) {
+        this.errorPageFloodProtection = enabled;
+        return me();
+    }
+
+    public boolean errorPageFloodProtection() {
+        if (null == errorPageFloodProtection) {
+            Boolean B = get(ERROR_PAGE_FLOOD_PROTECTION_ENABLED);
+            if (null == B) {
+                B = false;
+            }
+            errorPageFloodProtection = B;
+        }
+        return errorPageFloodProtection;
+    }
+
+    private void _mergeErrorPageFloodProtection(AppConfig conf) {
+        if (null == get(ERROR_PAGE_FLOOD_PROTECTION_ENABLED)) {
+            errorPageFloodProtection = conf.errorPageFloodProtection;
+        }
+    }
+
     private String dateFmt = null;
 
     protected T dateFormat(String fmt) {
@@ -1963,13 +2369,20 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
     }
 
     public CacheService cacheService(String name) {
+        return cacheServiceProvider().get(name);
+    }
+
+    /**
+     * Returns the configured cache service provider
+     */
+    public CacheServiceProvider cacheServiceProvider() {
         if (null == csp) {
             csp = get(AppConfigKey.CACHE_IMPL);
             if (null == csp) {
                 csp = CacheServiceProvider.Impl.Simple;
             }
         }
-        return csp.get(name);
+        return csp;
     }
 
     private void _mergeCacheServiceProvider(AppConfig config) {
@@ -1978,6 +2391,104 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         }
     }
 
+    private long cacheMaxWeight = -1;
+
+    protected T cacheMaxWeight(long weight) {
+        E.illegalArgumentIf(weight < 1, "cache max weight shall be positive number: %s", weight);
+        this.cacheMaxWeight = weight;
+        return me();
+    }
+
+    public long cacheMaxWeight() {
+        if (-1 == cacheMaxWeight) {
+            Long L = get(AppConfigKey.CACHE_MAX_WEIGHT);
+            if (null == L) {
+                L = 64L * 1024 * 1024;
+            }
+            cacheMaxWeight = L;
+        }
+        return cacheMaxWeight;
+    }
+
+    private void _mergeCacheMaxWeight(AppConfig config) {
+        if (null == get(AppConfigKey.CACHE_MAX_WEIGHT)) {
+            cacheMaxWeight = config.cacheMaxWeight;
+        }
+    }
+
+    private int uploadInMemoryThreshold = -1;
+
+    protected T uploadInMemoryThreshold(int threshold) {
+        E.illegalArgumentIf(threshold < 0, "upload in memory threshold shall not be negative: %s", threshold);
+        this.uploadInMemoryThreshold = threshold;
+        return me();
+    }
+
+    public int uploadInMemoryThreshold() {
+        if (-1 == uploadInMemoryThreshold) {
+            Integer I = get(AppConfigKey.UPLOAD_IN_MEMORY_THRESHOLD);
+            if (null == I || I < 0) {
+                I = 10240;
+            }
+            uploadInMemoryThreshold = I;
+        }
+        return uploadInMemoryThreshold;
+    }
+
+    private void _mergeUploadInMemoryThreshold(AppConfig config) {
+        if (null == get(AppConfigKey.UPLOAD_IN_MEMORY_THRESHOLD)) {
+            uploadInMemoryThreshold = config.uploadInMemoryThreshold;
+        }
+    }
+
+    private Long uploadFileMaxSize;
+
+    protected T uploadFileMaxSize(long size) {
+        this.uploadFileMaxSize = size < 0 ? -1L : size;
+        return me();
+    }
+
+    public long uploadFileMaxSize() {
+        if (null == uploadFileMaxSize) {
+            Long L = get(AppConfigKey.UPLOAD_FILE_MAX_SIZE);
+            if (null == L || L < 0) {
+                L = -1L;
+            }
+            uploadFileMaxSize = L;
+        }
+        return uploadFileMaxSize;
+    }
+
+    private void _mergeUploadFileMaxSize(AppConfig config) {
+        if (null == get(AppConfigKey.UPLOAD_FILE_MAX_SIZE)) {
+            uploadFileMaxSize = config.uploadFileMaxSize;
+        }
+    }
+
+    private Long uploadRequestMaxSize;
+
+    protected T uploadRequestMaxSize(long size) {
+        this.uploadRequestMaxSize = size < 0 ? -1L : size;
+        return me();
+    }
+
+    public long uploadRequestMaxSize() {
+        if (null == uploadRequestMaxSize) {
+            Long L = get(AppConfigKey.UPLOAD_REQUEST_MAX_SIZE);
+            if (null == L || L < 0) {
+                L = -1L;
+            }
+            uploadRequestMaxSize = L;
+        }
+        return uploadRequestMaxSize;
+    }
+
+    private void _mergeUploadRequestMaxSize(AppConfig config) {
+        if (null == get(AppConfigKey.UPLOAD_REQUEST_MAX_SIZE)) {
+            uploadRequestMaxSize = config.uploadRequestMaxSize;
+        }
+    }
+
     private UnknownHttpMethodProcessor _unknownHttpMethodProcessor = null;
 
     protected T unknownHttpMethodProcessor(UnknownHttpMethodProcessor handler) {
@@ -2117,6 +2628,25 @@ public class AppConfig<T extends AppConfigurator> extends Config<AppConfigKey> i
         _mergeSessionMapper(conf);
         _mergeSecret(conf);
         _mergeCacheServiceProvider(conf);
+        _mergeCacheMaxWeight(conf);
+        _mergeParallelStartup(conf);
+        _mergeWarmUp(conf);
+        _mergeWarmUpRequests(conf);
+        _mergeCompressionEnabled(conf);
+        _mergeCompressionLevel(conf);
+        _mergeCompressionMinSize(conf);
+        _mergeCompressionTypes(conf);
+        _mergePasswordHashPoolSize(conf);
+        _mergePasswordHashQueueSize(conf);
+        _mergePasswordHashCost(conf);
+        _mergePasswordHashUpgrade(conf);
+        _mergePushQueueSize(conf);
+        _mergeAsyncTimeout(conf);
+        _mergeErrorPageCacheEnabled(conf);
+        _mergeErrorPageFloodProtection(conf);
+        _mergeUploadInMemoryThreshold(conf);
+        _mergeUploadFileMaxSize(conf);
+        _mergeUploadRequestMaxSize(conf);
         _mergeMessageInterpolator(conf);
         _mergeUnknownHttpMethodHandler(conf);
 
@@ -31,6 +31,16 @@ import java.util.Map;
  */
 public enum AppConfigKey implements ConfigKey {
 
+    /**
+     * {@code act.async.timeout.int} specifies the number of seconds to wait for
+     * an asynchronous action result, i.e. a {@link act.controller.DeferredResult}
+     * or a `Future` returned by the action method, before responding with
+     * `503 Service Unavailable`
+     *
+     * Default value: `30`
+     */
+    ASYNC_TIMEOUT("async.timeout.int"),
+
     /**
      * {@code act.basic_authentication.enabled} turn on/off Basic Authentication
      * in Act application.
@@ -203,6 +213,40 @@ public enum AppConfigKey implements ConfigKey {
      */
     CONFIG_IMPL("config.impl"),
 
+    /**
+     * {@code act.compression.enabled} turn on/off gzip compression of responses.
+     * When turned on a response is compressed if the client accepts gzip encoding,
+     * the content type matches {@link #COMPRESSION_TYPES} and the content is not
+     * smaller than {@link #COMPRESSION_MIN_SIZE}. Static files are served with
+     * precompressed variants
+     *
+     * Default value: `true`
+     */
+    COMPRESSION_ENABLED("compression.enabled"),
+
+    /**
+     * {@code act.compression.level.int} specifies the deflate compression level, from `1` to `9`
+     *
+     * Default value: `6`
+     */
+    COMPRESSION_LEVEL("compression.level.int"),
+
+    /**
+     * {@code act.compression.min.size} specifies the minimum content length in bytes
+     * for a response to be compressed
+     *
+     * Default value: `1024`
+     */
+    COMPRESSION_MIN_SIZE("compression.min.size"),
+
+    /**
+     * {@code act.compression.types} specifies a comma separated list of content
+     * type prefixes of the responses to be compressed
+     *
+     * Default value: `text/,application/json,application/javascript,application/xml,image/svg+xml`
+     */
+    COMPRESSION_TYPES("compression.types"),
+
     /**
      * {@code act.cache.impl}
      * Specify {@link org.osgl.cache.CacheServiceProvider Cache service provider}
@@ -211,6 +255,15 @@ public enum AppConfigKey implements ConfigKey {
      */
     CACHE_IMPL("cache.impl"),
 
+    /**
+     * {@code act.cache.max_weight.long}
+     * Specify the maximum weight in bytes of each named cache created by
+     * {@link act.cache.TinyLfuCacheServiceProvider}
+     *
+     * Default value: `67108864`, i.e. 64MB
+     */
+    CACHE_MAX_WEIGHT("cache.max_weight.long"),
+
     /**
      * {@code act.cli.table.page.size}
      * Specify the maximum records in one page for table layout by CLI command
@@ -295,6 +348,25 @@ public enum AppConfigKey implements ConfigKey {
      */
     ENCODING("encoding"),
 
+    /**
+     * {@code act.error_page.cache.enabled} turn on/off caching rendered error
+     * pages by status and content type. Only errors that carry no cause are
+     * cached. Do not turn it on if the app provides error templates rendering
+     * the error message, the locale, session or any other request specific
+     * data, as the page cached is served to all requests
+     * <p>Default value: {@code false}</p>
+     */
+    ERROR_PAGE_CACHE_ENABLED("error_page.cache.enabled"),
+
+    /**
+     * {@code act.error_page.flood_protection.enabled} turn on/off serving
+     * the cached error page bytes directly, without running the global after
+     * interceptor or writing session and flash cookies. Useful when the
+     * app is flooded by scanners or bots
+     * <p>Default value: {@code false}</p>
+     */
+    ERROR_PAGE_FLOOD_PROTECTION_ENABLED("error_page.flood_protection.enabled"),
+
     /**
      * {@code act.fmt.date} specifies the default date format used to
      * lookup/output the date string
@@ -437,6 +509,8 @@ public enum AppConfigKey implements ConfigKey {
      * {@code act.idgen.seq_id.provider.impl} specifies the {@link act.util.IdGenerator.SequenceProvider}
      * implementation for {@link App#idGenerator}
      * <p>Default value: {@link act.util.IdGenerator.SequenceProvider.AtomicLongSeq}</p>
+     * <p>Set it to {@link act.util.IdGenerator.SequenceProvider.BlockSeq} to reserve sequence
+     * numbers in blocks per thread when IDs are generated heavily by many threads</p>
      */
     ID_GEN_SEQ_ID_PROVIDER("idgen.seq_id.provider.impl"),
 
@@ -491,6 +565,51 @@ public enum AppConfigKey implements ConfigKey {
      */
     NAMED_PORTS("namedPorts"),
 
+    /**
+     * {@code act.password_hash.pool.size} specifies the number of threads
+     * dedicated to password hashing and verifying
+     *
+     * Default value: the number of available processors
+     */
+    PASSWORD_HASH_POOL_SIZE("password_hash.pool.size"),
+
+    /**
+     * {@code act.password_hash.queue.size} specifies the maximum number of
+     * password hashing/verifying tasks waiting for the password hashing
+     * threads. Once the queue is full new tasks are rejected with `503 Service
+     * Unavailable`. Keep it small: callers waiting for a queued task hold
+     * their request worker threads
+     *
+     * Default value: the {@link #PASSWORD_HASH_POOL_SIZE password hash pool size}
+     */
+    PASSWORD_HASH_QUEUE_SIZE("password_hash.queue.size"),
+
+    /**
+     * {@code act.password_hash.cost.int} specifies the BCrypt cost factor
+     * (log rounds) used to hash passwords
+     *
+     * Default value: `10`
+     */
+    PASSWORD_HASH_COST("password_hash.cost.int"),
+
+    /**
+     * {@code act.password_hash.upgrade.enabled} turn on/off upgrading password
+     * hashes generated with a cost factor lower than {@link #PASSWORD_HASH_COST}
+     * on successful verification
+     *
+     * Default value: `false`
+     */
+    PASSWORD_HASH_UPGRADE("password_hash.upgrade.enabled"),
+
+    /**
+     * {@code act.push.queue.size} specifies the maximum number of messages
+     * queued for a WebSocket or Server-Sent Events connection. Messages sent to
+     * a connection with a full queue, e.g. a slow client, are dropped
+     *
+     * Default value: `64`
+     */
+    PUSH_QUEUE_SIZE("push.queue.size"),
+
     /**
      * {@code ping.path} specify the ping path.
      * If this setting is specified, then when session resolving, system
@@ -632,6 +751,17 @@ public enum AppConfigKey implements ConfigKey {
      */
     SOURCE_VERSION("source_version"),
 
+    /**
+     * {@code act.startup.parallel.enabled} turn on/off running independent
+     * app service initialization steps (cache, crypto, id generator, job
+     * manager etc) in parallel during app startup. App events are always
+     * emitted in the same order no matter this setting is on or off. When
+     * turned on the startup timing report is logged at info level
+     *
+     * Default value: `false`
+     */
+    STARTUP_PARALLEL("startup.parallel.enabled"),
+
     /**
      * {@code act.source_version} specifies the java version
      * of the compile target code. This configuration is used only
@@ -657,6 +787,29 @@ public enum AppConfigKey implements ConfigKey {
      */
     UNKNOWN_HTTP_METHOD_HANDLER("unknown_http_method_handler.impl"),
 
+    /**
+     * {@code act.upload.in_memory.threshold.size} specifies the maximum
+     * number of bytes of a multipart part kept in memory. Uploaded files
+     * larger than this are streamed into the upload storage, form fields
+     * larger than this are buffered in a temp file
+     * <p>Default value: {@code 10240}</p>
+     */
+    UPLOAD_IN_MEMORY_THRESHOLD("upload.in_memory.threshold.size"),
+
+    /**
+     * {@code act.upload.file.max_size.long} specifies the maximum number of
+     * bytes of a single uploaded file. `-1` means no limit
+     * <p>Default value: {@code -1}</p>
+     */
+    UPLOAD_FILE_MAX_SIZE("upload.file.max_size.long"),
+
+    /**
+     * {@code act.upload.request.max_size.long} specifies the maximum number
+     * of bytes of a multipart request. `-1` means no limit
+     * <p>Default value: {@code -1}</p>
+     */
+    UPLOAD_REQUEST_MAX_SIZE("upload.request.max_size.long"),
+
     /**
      * {@code url_context} specifies the context part
      * of the URL. This is used for Act to dispatch the
@@ -730,6 +883,27 @@ public enum AppConfigKey implements ConfigKey {
      */
     VIEW_DEFAULT("view.default"),
 
+    /**
+     * {@code act.warm_up.enabled} turn on/off the warm up phase. When turned on
+     * the app will resolve the handler chain of every route, prepare the
+     * param loaders and JSON DTO classes and replay the synthetic requests
+     * specified by {@link #WARM_UP_REQUESTS} before the network port starts
+     * accepting traffic
+     *
+     * Default value: `false`
+     */
+    WARM_UP_ENABLED("warm_up.enabled"),
+
+    /**
+     * {@code act.warm_up.requests} specifies a comma separated list of synthetic
+     * requests to be replayed through the router during the warm up phase. Each
+     * request is in the format of `[METHOD] url`, e.g. `GET /`, `/api/users?page=1`.
+     * When method is not specified then `GET` is used
+     *
+     * Default value: empty
+     */
+    WARM_UP_REQUESTS("warm_up.requests"),
+
     X_FORWARD_PROTOCOL("x_forward_protocol"),
 
     ;
@@ -1,11 +1,32 @@
 package act.controller;
 
 import act.Act;
+import act.app.ActionContext;
 import act.plugin.Plugin;
 
+import java.lang.annotation.Annotation;
+
 public abstract class ActionMethodParamAnnotationHandlerPlugin implements Plugin, ActionMethodParamAnnotationHandler {
     @Override
     public void register() {
         Act.pluginManager().register(ActionMethodParamAnnotationHandler.class, this);
     }
+
+    /**
+     * Compile the annotation on a parameter into a validator. Sub class
+     * shall override this method to resolve annotation attributes once
+     * instead of on every {@link #handle(String, Object, Annotation, ActionContext)} call
+     *
+     * @param paramName  the parameter name
+     * @param annotation the annotation
+     * @return the validator of the parameter
+     */
+    public ActionMethodParamValidator compile(final String paramName, final Annotation annotation) {
+        return new ActionMethodParamValidator() {
+            @Override
+            public void validate(Object paramVal, ActionContext context) {
+                handle(paramName, paramVal, annotation, context);
+            }
+        };
+    }
 }
@@ -0,0 +1,22 @@
+package act.controller;
+
+import act.app.ActionContext;
+
+/**
+ * Validates an action method parameter against a constraint annotation.
+ *
+ * A validator is compiled once from the annotation by
+ * {@link ActionMethodParamAnnotationHandlerPlugin#compile(String, java.lang.annotation.Annotation)}
+ * when the parameter loader is created, so that patterns, bounds and
+ * message templates are not looked up again on each request
+ */
+public interface ActionMethodParamValidator {
+    /**
+     * Validate the parameter value and add violation to the context
+     * if the value does not satisfy the constraint
+     *
+     * @param paramVal the parameter value
+     * @param context  the action context
+     */
+    void validate(Object paramVal, ActionContext context);
+}
@@ -0,0 +1,347 @@
+package act.controller;
+
+import act.app.ActionContext;
+import act.app.AppThreadFactory;
+import act.controller.meta.HandlerMethodMetaInfo;
+import org.osgl.http.H;
+import org.osgl.mvc.result.ErrorResult;
+import org.osgl.mvc.result.NoResult;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.E;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The result of an action method returning a {@link DeferredResult}, a
+ * `CompletionStage` or a `Future`. The request handler suspends the
+ * response on such result and completes it once the value is available
+ */
+public class AsyncResult extends Result {
+
+    /**
+     * Receives the outcome of the asynchronous value. The callback is called
+     * on the thread completing the value, it shall hand the value over to
+     * {@link #toResult(Object, ActionContext)} on the thread responding to
+     * the request
+     */
+    public interface Callback {
+        /**
+         * Called with the value or the {@link Result} the value is rejected with
+         */
+        void onValue(Object value);
+
+        void onError(Exception error);
+    }
+
+    private static final ErrorResult TIMEOUT = new ErrorResult(H.Status.valueOf(503));
+
+    // the interval of the sweep checking if the plain Futures are done
+    private static final long POLL_INTERVAL_MS = 5;
+    // the maximum number of sweeps between two checks of a Future
+    private static final int MAX_POLL_BACKOFF = 10;
+
+    private static final ScheduledExecutorService TIMER;
+
+    static {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new AppThreadFactory("async-result", true));
+        timer.setRemoveOnCancelPolicy(true);
+        TIMER = timer;
+    }
+
+    // CompletionStage is available since Java 8
+    private static final Class<?> COMPLETION_STAGE = classForName("java.util.concurrent.CompletionStage");
+    private static final Class<?> BI_CONSUMER = classForName("java.util.function.BiConsumer");
+    private static final String COMPLETION_EXCEPTION = "java.util.concurrent.CompletionException";
+
+    // the plain Futures being waited for, checked by a single sweep on the timer thread
+    private static final Queue<PendingFuture> PENDING = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean SWEEP_SCHEDULED = new AtomicBoolean();
+
+    private final DeferredResult<?> deferred;
+    // the Future or CompletionStage the deferred result is bound to
+    private final Object source;
+    private final HandlerMethodMetaInfo meta;
+    private final boolean hasTemplate;
+
+    AsyncResult(DeferredResult<?> deferred, Object source, HandlerMethodMetaInfo meta, boolean hasTemplate) {
+        super(H.Status.OK);
+        this.deferred = deferred;
+        this.source = source;
+        this.meta = meta;
+        this.hasTemplate = hasTemplate;
+    }
+
+    @Override
+    public void apply(H.Request req, H.Response resp) {
+        throw E.unsupport("AsyncResult shall be completed by the request handler");
+    }
+
+    /**
+     * Register the callback to be called once the value is available or
+     * the timeout reached
+     *
+     * @param context  the action context
+     * @param callback the callback
+     */
+    public void onComplete(final ActionContext context, final Callback callback) {
+        long timeout = deferred.timeout();
+        if (0 == timeout) {
+            timeout = TimeUnit.SECONDS.toMillis(context.config().asyncTimeout());
+        }
+        final ScheduledFuture<?> timer = TIMER.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (deferred.reject(TIMEOUT)) {
+                    cancel(source);
+                }
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        deferred.onComplete(new DeferredResult.Listener() {
+            @Override
+            public void completed(Object value, Throwable error) {
+                timer.cancel(false);
+                if (error instanceof Result) {
+                    callback.onValue(error);
+                } else if (null != error) {
+                    callback.onError(error instanceof Exception ? (Exception) error : E.unexpected(error));
+                } else {
+                    callback.onValue(value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the result inferred from the value passed to
+     * {@link Callback#onValue(Object)}
+     *
+     * @param value   the value
+     * @param context the action context
+     * @return the result
+     */
+    public Result toResult(Object value, ActionContext context) {
+        if (value instanceof Result) {
+            return (Result) value;
+        }
+        Result result;
+        try {
+            result = Controller.Util.inferResult(meta, value, context, hasTemplate);
+        } catch (Result r) {
+            result = r;
+        }
+        return null == result ? new NoResult() : result;
+    }
+
+    /**
+     * Wait for the value on the current thread. This is used when the
+     * response cannot be suspended
+     *
+     * @param context the action context
+     * @return the result inferred from the value
+     */
+    public Result await(ActionContext context) throws Exception {
+        final Object lock = new Object();
+        // done flag, value and error
+        final Object[] outcome = new Object[3];
+        onComplete(context, new Callback() {
+            @Override
+            public void onValue(Object value) {
+                done(value, null);
+            }
+
+            @Override
+            public void onError(Exception error) {
+                done(null, error);
+            }
+
+            private void done(Object value, Exception error) {
+                synchronized (lock) {
+                    outcome[0] = Boolean.TRUE;
+                    outcome[1] = value;
+                    outcome[2] = error;
+                    lock.notifyAll();
+                }
+            }
+        });
+        synchronized (lock) {
+            while (null == outcome[0]) {
+                lock.wait();
+            }
+        }
+        if (null != outcome[2]) {
+            throw (Exception) outcome[2];
+        }
+        return toResult(outcome[1], context);
+    }
+
+    /**
+     * Returns an `AsyncResult` if the value returned by an action method is
+     * a {@link DeferredResult}, a `CompletionStage` or a `Future`
+     *
+     * @return the `AsyncResult` or `null` if the value is not asynchronous
+     */
+    static AsyncResult of(Object v, HandlerMethodMetaInfo meta, boolean hasTemplate) {
+        DeferredResult<?> deferred;
+        Object source = v;
+        if (v instanceof DeferredResult) {
+            source = null;
+            deferred = (DeferredResult<?>) v;
+        } else if (null != COMPLETION_STAGE && COMPLETION_STAGE.isInstance(v)) {
+            deferred = fromCompletionStage(v);
+        } else if (v instanceof Future) {
+            deferred = fromFuture((Future<?>) v);
+        } else {
+            return null;
+        }
+        return new AsyncResult(deferred, source, meta, hasTemplate);
+    }
+
+    private static DeferredResult<?> fromCompletionStage(Object stage) {
+        final DeferredResult<Object> deferred = new DeferredResult<>();
+        Object action = Proxy.newProxyInstance(BI_CONSUMER.getClassLoader(), new Class[]{BI_CONSUMER}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if ("accept".equals(name)) {
+                    Throwable error = (Throwable) args[1];
+                    if (null == error) {
+                        deferred.resolve(args[0]);
+                    } else {
+                        if (null != error.getCause() && COMPLETION_EXCEPTION.equals(error.getClass().getName())) {
+                            error = error.getCause();
+                        }
+                        deferred.reject(error);
+                    }
+                    return null;
+                } else if ("hashCode".equals(name)) {
+                    return System.identityHashCode(proxy);
+                } else if ("equals".equals(name)) {
+                    return proxy == args[0];
+                }
+                return "AsyncResult$BiConsumer";
+            }
+        });
+        try {
+            COMPLETION_STAGE.getMethod("whenComplete", BI_CONSUMER).invoke(stage, action);
+        } catch (InvocationTargetException e) {
+            throw E.unexpected(e.getTargetException());
+        } catch (Exception e) {
+            throw E.unexpected(e);
+        }
+        return deferred;
+    }
+
+    private static DeferredResult<?> fromFuture(Future<?> future) {
+        DeferredResult<Object> deferred = new DeferredResult<>();
+        // plain Future does not notify completion, it is checked by the
+        // sweep on the timer thread instead of blocking a worker thread
+        PENDING.add(new PendingFuture(future, deferred));
+        scheduleSweep();
+        return deferred;
+    }
+
+    private static void scheduleSweep() {
+        if (SWEEP_SCHEDULED.compareAndSet(false, true)) {
+            TIMER.schedule(SWEEP, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static final Runnable SWEEP = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                Iterator<PendingFuture> itr = PENDING.iterator();
+                while (itr.hasNext()) {
+                    if (itr.next().check()) {
+                        itr.remove();
+                    }
+                }
+            } finally {
+                SWEEP_SCHEDULED.set(false);
+                // a Future might be added after it has been iterated
+                if (!PENDING.isEmpty()) {
+                    scheduleSweep();
+                }
+            }
+        }
+    };
+
+    /**
+     * A plain Future checked by the sweep. A Future that is not done is
+     * checked less often over time, up to every {@link #MAX_POLL_BACKOFF}
+     * sweeps
+     */
+    private static final class PendingFuture {
+        private final Future<?> future;
+        private final DeferredResult<Object> deferred;
+        private int backoff = 1;
+        private int countdown = 1;
+
+        PendingFuture(Future<?> future, DeferredResult<Object> deferred) {
+            this.future = future;
+            this.deferred = deferred;
+        }
+
+        /**
+         * Returns `true` if the future is done or the result timed out
+         */
+        boolean check() {
+            if (deferred.isDone()) {
+                // timed out
+                return true;
+            }
+            if (--countdown > 0) {
+                return false;
+            }
+            if (!future.isDone()) {
+                backoff = Math.min(backoff << 1, MAX_POLL_BACKOFF);
+                countdown = backoff;
+                return false;
+            }
+            try {
+                deferred.resolve(future.get());
+            } catch (ExecutionException e) {
+                deferred.reject(e.getCause());
+            } catch (Exception e) {
+                deferred.reject(e);
+            }
+            return true;
+        }
+    }
+
+    private static void cancel(Object source) {
+        if (source instanceof Future) {
+            ((Future<?>) source).cancel(true);
+        } else if (null != source && null != COMPLETION_STAGE && COMPLETION_STAGE.isInstance(source)) {
+            try {
+                Object future = COMPLETION_STAGE.getMethod("toCompletableFuture").invoke(source);
+                if (future instanceof Future) {
+                    ((Future<?>) future).cancel(true);
+                }
+            } catch (Exception e) {
+                // the stage does not support cancellation
+            }
+        }
+    }
+
+    private static Class<?> classForName(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+}
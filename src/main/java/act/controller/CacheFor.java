@@ -0,0 +1,41 @@
+package act.controller;
+
+import java.lang.annotation.*;
+
+/**
+ * Mark an action method that the rendered response could be cached
+ * and served to subsequent requests without calling the action
+ * handler.
+ *
+ * Only `GET` and `HEAD` requests that result in `200 OK` response
+ * are cached. The cached response carries an `ETag` and a
+ * `Last-Modified` header so that clients can revalidate with
+ * conditional GET and get `304 Not Modified` response
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface CacheFor {
+    /**
+     * Specify the cache expiration time in seconds. Default value: 60 * 60, i.e. one hour
+     */
+    int value() default 60 * 60;
+
+    /**
+     * Specify whether the cached response shall be bound to the current
+     * session. Default value: `false`
+     */
+    boolean varyBySession() default false;
+
+    /**
+     * Specify whether the cached response shall be vary by the request
+     * format, i.e. the `Accept` header. Default value: `true`
+     */
+    boolean varyByFormat() default true;
+
+    /**
+     * Specify the names of request headers the cached response vary by.
+     * Default value: empty
+     */
+    String[] varyByHeaders() default {};
+}
@@ -626,6 +626,10 @@ public @interface Controller {
          * @return the rendered result
          */
         public static Result inferResult(HandlerMethodMetaInfo meta, Object v, ActionContext context, boolean hasTemplate) {
+            AsyncResult async = AsyncResult.of(v, meta, hasTemplate);
+            if (null != async) {
+                return async;
+            }
             if (null == v && !hasTemplate) {
                 return null;
             } else if (v instanceof Result) {
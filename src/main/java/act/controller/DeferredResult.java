@@ -0,0 +1,132 @@
+package act.controller;
+
+import org.osgl.util.E;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A result to be provided later, e.g. when a call to a downstream service
+ * completed. An action method returns a `DeferredResult` to release the
+ * worker thread while waiting:
+ *
+ * ```java
+ * @GetAction("/quote")
+ * public DeferredResult<Quote> quote() {
+ *     final DeferredResult<Quote> result = new DeferredResult<>();
+ *     quoteService.fetch(new Callback<Quote>() {
+ *         public void done(Quote quote) {
+ *             result.resolve(quote);
+ *         }
+ *     });
+ *     return result;
+ * }
+ * ```
+ *
+ * The value resolved is rendered the same way as the value returned by a
+ * synchronous action method. The request is responded with `503 Service
+ * Unavailable` if the result is not resolved before timeout
+ *
+ * @param <T> the type of the value
+ */
+public class DeferredResult<T> {
+
+    /**
+     * Receives the outcome of a deferred result
+     */
+    public interface Listener {
+        /**
+         * Called once the result is resolved or rejected
+         *
+         * @param value the value resolved
+         * @param error the cause rejected the result or `null` if resolved
+         */
+        void completed(Object value, Throwable error);
+    }
+
+    private final long timeout;
+    private boolean done;
+    private Object value;
+    private Throwable error;
+    private Listener listener;
+
+    /**
+     * Construct a deferred result with the timeout configured by
+     * {@link act.conf.AppConfigKey#ASYNC_TIMEOUT}
+     */
+    public DeferredResult() {
+        this.timeout = 0;
+    }
+
+    public DeferredResult(long timeout, TimeUnit unit) {
+        E.illegalArgumentIf(timeout < 1, "timeout shall be positive: %s", timeout);
+        this.timeout = unit.toMillis(timeout);
+    }
+
+    /**
+     * Returns the timeout in milliseconds or `0` if the app default applies
+     */
+    public long timeout() {
+        return timeout;
+    }
+
+    /**
+     * Provide the value of the result
+     *
+     * @param value the value
+     * @return `true` if the value is accepted or `false` if the
+     * result has already been resolved, rejected or timed out
+     */
+    public boolean resolve(T value) {
+        return complete(value, null);
+    }
+
+    /**
+     * Fail the result. If the cause is a {@link org.osgl.mvc.result.Result}
+     * then it is applied as the response
+     *
+     * @param cause the cause
+     * @return `true` if the failure is accepted or `false` if the result
+     * has already been resolved, rejected or timed out
+     */
+    public boolean reject(Throwable cause) {
+        E.NPE(cause);
+        return complete(null, cause);
+    }
+
+    public synchronized boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Register the listener to be called once the result is completed. The
+     * listener is called immediately if the result is already completed
+     */
+    public void onComplete(Listener listener) {
+        synchronized (this) {
+            E.illegalStateIf(null != this.listener, "listener already registered");
+            if (!done) {
+                this.listener = listener;
+                return;
+            }
+        }
+        listener.completed(value, error);
+    }
+
+    private boolean complete(Object value, Throwable error) {
+        Listener listener;
+        synchronized (this) {
+            if (done) {
+                return false;
+            }
+            done = true;
+            this.value = value;
+            this.error = error;
+            listener = this.listener;
+        }
+        if (null != listener) {
+            listener.completed(value, error);
+        }
+        return true;
+    }
+
+}
@@ -5,7 +5,9 @@ import act.handler.builtin.controller.Handler;
 import org.osgl.util.C;
 import org.osgl.util.S;
 
+import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static act.app.App.logger;
 
@@ -19,6 +21,9 @@ public class InterceptorMethodMetaInfo extends HandlerMethodMetaInfo<Interceptor
     private Set<String> whiteList = C.newSet();
     private Set<String> blackList = C.newSet();
     private int priority;
+    // compiled from white/black list lazily, reset when either list changes
+    private volatile List<Pattern> whitePatterns;
+    private volatile List<Pattern> blackPatterns;
 
     protected InterceptorMethodMetaInfo(InterceptorMethodMetaInfo copy, ControllerClassMetaInfo clsInfo) {
         super(copy, clsInfo);
@@ -71,6 +76,50 @@ public class InterceptorMethodMetaInfo extends HandlerMethodMetaInfo<Interceptor
         return C.set(blackList);
     }
 
+    /**
+     * Check if this interceptor applies to the action method specified.
+     *
+     * The only/except patterns are compiled once per interceptor and reused
+     * for all action methods of the controller
+     *
+     * @param actionMethodName the action method name
+     * @return {@code true} if this interceptor shall be applied to the action
+     */
+    public boolean appliedTo(String actionMethodName) {
+        if (!blackList.isEmpty()) {
+            if (null == blackPatterns) {
+                blackPatterns = compile(blackList);
+            }
+            return !matches(actionMethodName, blackList, blackPatterns);
+        } else if (!whiteList.isEmpty()) {
+            if (null == whitePatterns) {
+                whitePatterns = compile(whiteList);
+            }
+            return matches(actionMethodName, whiteList, whitePatterns);
+        }
+        return true;
+    }
+
+    private static List<Pattern> compile(Set<String> patterns) {
+        C.List<Pattern> list = C.newSizedList(patterns.size());
+        for (String s : patterns) {
+            list.add(Pattern.compile(s));
+        }
+        return list;
+    }
+
+    private static boolean matches(String actionMethodName, Set<String> names, List<Pattern> patterns) {
+        if (names.contains(actionMethodName)) {
+            return true;
+        }
+        for (Pattern p : patterns) {
+            if (p.matcher(actionMethodName).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void mergeInto(C.List<InterceptorMethodMetaInfo> list, String targetName) {
         if (whiteList.contains(targetName) || !blackList.contains(targetName)) {
             if (!list.contains(this)) {
@@ -84,6 +133,8 @@ public class InterceptorMethodMetaInfo extends HandlerMethodMetaInfo<Interceptor
         if (len == 0) {
             return this;
         }
+        whitePatterns = null;
+        blackPatterns = null;
         for (int i = 0; i < len; ++i) {
             String[] sa = strings[i].split(Constants.LIST_SEPARATOR);
             int saLen = sa.length;
@@ -1,9 +1,9 @@
 package act.data;
 
 import act.app.ActionContext;
+import act.conf.AppConfig;
 import act.util.UploadFileStorageService;
 import org.apache.commons.fileupload.*;
-import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.fileupload.util.Closeable;
 import org.apache.commons.fileupload.util.LimitedInputStream;
 import org.apache.commons.io.FileCleaningTracker;
@@ -11,13 +11,18 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.output.DeferredFileOutputStream;
 import org.osgl.exception.UnexpectedException;
 import org.osgl.http.H;
+import org.osgl.mvc.result.ErrorResult;
 import org.osgl.storage.ISObject;
+import org.osgl.storage.IStorageService;
 import org.osgl.util.IO;
 
 import java.io.*;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Disclaim: The code come from PlayFramework 1.3
@@ -88,7 +93,7 @@ public class ApacheMultipartParser extends RequestBodyParser {
         /**
          * Counter used in unique identifier generation.
          */
-        private static int counter = 0;
+        private static final AtomicLong counter = new AtomicLong();
         /**
          * The name of the form field as provided by the browser.
          */
@@ -133,7 +138,7 @@ public class ApacheMultipartParser extends RequestBodyParser {
             this.contentType = stream.getContentType();
             this.isFormField = stream.isFormField();
             this.fileName = FilenameUtils.getName(stream.getName());
-            this.sizeThreshold = 10240; //TODO: make it configurable
+            this.sizeThreshold = context.config().uploadInMemoryThreshold();
             this.repository = null;
             this.context = context;
         }
@@ -510,11 +515,8 @@ public class ApacheMultipartParser extends RequestBodyParser {
          * @return A String with the non-random looking instance identifier.
          */
         private static String getUniqueId() {
-            int current;
-            synchronized (DiskFileItem.class) {
-                current = counter++;
-            }
-            String id = Integer.toString(current);
+            long current = counter.getAndIncrement();
+            String id = Long.toString(current);
 
             // If you manage to get more than 100 million of ids, you'll
             // start getting ids longer than 8 characters.
@@ -555,10 +557,31 @@ public class ApacheMultipartParser extends RequestBodyParser {
         H.Request request = context.req();
         InputStream body = request.inputStream();
         Map<String, String[]> result = new HashMap<String, String[]>();
+        AppConfig config = context.config();
+        // files stored so far, to be removed if the request fails
+        List<ISObject> stored = new ArrayList<ISObject>();
         try {
-            FileItemIteratorImpl iter = new FileItemIteratorImpl(body, request.header("content-type"), request.characterEncoding());
+            FileItemIteratorImpl iter = new FileItemIteratorImpl(body, request.header("content-type"), request.characterEncoding(), config.uploadRequestMaxSize(), config.uploadFileMaxSize());
             while (iter.hasNext()) {
                 FileItemStream item = iter.next();
+                if (!item.isFormField()) {
+                    // stream the file straight into the upload storage
+                    String fieldName = item.getFieldName();
+                    ISObject obj;
+                    try {
+                        obj = UploadFileStorageService.store(item.openStream(), FilenameUtils.getName(item.getName()), item.getContentType(), context.app());
+                    } catch (FileUploadIOException e) {
+                        throw (FileUploadException) e.getCause();
+                    } catch (IOException e) {
+                        throw new IOFileUploadException("Processing of " + MULTIPART_FORM_DATA + " request failed. " + e.getMessage(), e);
+                    }
+                    if (null != obj) {
+                        stored.add(obj);
+                        context.addUpload(fieldName, obj);
+                        MapUtil.mergeValueInMap(result, fieldName, fieldName);
+                    }
+                    continue;
+                }
                 FileItem fileItem = new AutoFileItem(item, context);
                 try {
                     IO.copy(item.openStream(), fileItem.getOutputStream(), true);
@@ -570,38 +593,46 @@ public class ApacheMultipartParser extends RequestBodyParser {
                 if (fileItem.getSize() == 0) {
                     continue;
                 }
-                if (fileItem.isFormField()) {
-                    // must resolve encoding
-                    String _encoding = request.characterEncoding(); // this is our default
-                    String _contentType = fileItem.getContentType();
-                    if( _contentType != null ) {
-                        ContentTypeWithEncoding contentTypeEncoding = ContentTypeWithEncoding.parse(_contentType);
-                        if( contentTypeEncoding.encoding != null ) {
-                            _encoding = contentTypeEncoding.encoding;
-                        }
+                // must resolve encoding
+                String _encoding = request.characterEncoding(); // this is our default
+                String _contentType = fileItem.getContentType();
+                if( _contentType != null ) {
+                    ContentTypeWithEncoding contentTypeEncoding = ContentTypeWithEncoding.parse(_contentType);
+                    if( contentTypeEncoding.encoding != null ) {
+                        _encoding = contentTypeEncoding.encoding;
                     }
-
-                    MapUtil.mergeValueInMap(result, fileItem.getFieldName(), fileItem.getString(_encoding));
-                } else {
-                    ISObject obj = UploadFileStorageService.store(fileItem, context.app());
-                    context.addUpload(fileItem.getFieldName(), obj);
-                    MapUtil.mergeValueInMap(result, fileItem.getFieldName(), fileItem.getFieldName());
                 }
+
+                MapUtil.mergeValueInMap(result, fileItem.getFieldName(), fileItem.getString(_encoding));
             }
-        } catch (FileUploadIOException e) {
-            logger.debug(e, "error");
-            throw new IllegalStateException("Error when handling upload", e);
-        } catch (IOException e) {
-            logger.debug(e, "error");
-            throw new IllegalStateException("Error when handling upload", e);
-        } catch (FileUploadException e) {
-            logger.debug(e, "error");
-            throw new IllegalStateException("Error when handling upload", e);
         } catch (Exception e) {
             logger.debug(e, "error");
+            IStorageService ss = context.app().uploadFileStorageService();
+            for (ISObject obj : stored) {
+                ss.remove(obj.getKey());
+            }
+            if (sizeLimitExceeded(e)) {
+                throw new ErrorResult(H.Status.valueOf(413)); //413 Request Entity Too Large
+            }
+            if (e instanceof IOException || e instanceof FileUploadException) {
+                throw new IllegalStateException("Error when handling upload", e);
+            }
             throw new UnexpectedException(e);
         }
         return result;
+    }
+
+    /**
+     * Check if the request or a file exceeds the size limit. The violation might
+     * be raised by the storage service, wrapped in other exceptions
+     */
+    private static boolean sizeLimitExceeded(Throwable e) {
+        for (Throwable t = e; null != t; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof SizeException) {
+                return true;
+            }
+        }
+        return false;
     }    // ---------------------------------------------------------- Class methods
     // ----------------------------------------------------- Manifest constants
     /**
@@ -632,18 +663,6 @@ public class ApacheMultipartParser extends RequestBodyParser {
      * HTTP content type header for multiple uploads.
      */
     private static final String MULTIPART_MIXED = "multipart/mixed";
-    // ----------------------------------------------------------- Data members
-    /**
-     * The maximum size permitted for the complete request, as opposed to
-     * {@link #fileSizeMax}. A value of -1 indicates no maximum.
-     */
-    private long sizeMax = -1;
-    /**
-     * The maximum size permitted for a single uploaded file, as opposed to
-     * {@link #sizeMax}. A value of -1 indicates no maximum.
-     */
-    private long fileSizeMax = -1;
-
     // ------------------------------------------------------ Protected methods
 
     /**
@@ -1001,6 +1020,16 @@ public class ApacheMultipartParser extends RequestBodyParser {
          * Whether we have seen the end of the file.
          */
         private boolean eof;
+        /**
+         * The maximum size permitted for the complete request, as opposed to
+         * {@link #fileSizeMax}. A value of -1 indicates no maximum.
+         */
+        private final long sizeMax;
+        /**
+         * The maximum size permitted for a single uploaded file, as opposed to
+         * {@link #sizeMax}. A value of -1 indicates no maximum.
+         */
+        private final long fileSizeMax;
 
         /**
          * Creates a new instance.
@@ -1008,15 +1037,15 @@ public class ApacheMultipartParser extends RequestBodyParser {
          * @throws FileUploadException An error occurred while parsing the request.
          * @throws IOException         An I/O error occurred.
          */
-        FileItemIteratorImpl(InputStream input, String contentType, String charEncoding) throws FileUploadException, IOException {
+        FileItemIteratorImpl(InputStream input, String contentType, String charEncoding, long sizeMax, long fileSizeMax) throws FileUploadException, IOException {
+            this.sizeMax = sizeMax;
+            this.fileSizeMax = fileSizeMax;
 
             if ((null == contentType) || (!contentType.toLowerCase().startsWith(MULTIPART))) {
                 throw new InvalidContentTypeException("the request doesn't contain a " + MULTIPART_FORM_DATA + " or " + MULTIPART_MIXED + " stream, content type header is " + contentType);
             }
 
             if (sizeMax >= 0) {
-                // TODO check size
-
                 input = new LimitedInputStream(input, sizeMax) {
 
                     protected void raiseError(long pSizeMax, long pCount) throws IOException {
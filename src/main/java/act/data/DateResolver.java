@@ -1,9 +1,13 @@
 package act.data;
 
 import act.conf.AppConfig;
+import act.data.annotation.Pattern;
 import org.osgl.logging.L;
 import org.osgl.logging.Logger;
+import org.osgl.util.AnnotationAware;
+import org.osgl.util.S;
 import org.osgl.util.StringValueResolver;
+import org.osgl.util.ValueObject;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -12,33 +16,86 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
+/**
+ * Resolves and prints {@link Date} values.
+ *
+ * ISO-8601 values are handled by {@link Iso8601} directly. Other patterns
+ * use a `SimpleDateFormat` per thread, which keeps its lenient parsing,
+ * e.g. `2016-02-30` is resolved to March 1st. Either way a resolver instance
+ * can be shared by all threads
+ */
 @Singleton
-public class DateResolver extends StringValueResolver<Date> {
+public class DateResolver extends StringValueResolver<Date> implements ValueObject.Codec<Date> {
     static Logger logger = L.get(DateResolver.class);
 
-    private DateFormat dateFormat;
+    private final String pattern;
+    private final boolean isIso;
+    private final ThreadLocal<DateFormat> dateFormat;
 
     @Inject
     public DateResolver(AppConfig config) {
-        String pattern = config.dateTimeFormat();
-        if (null == pattern || pattern.contains("8601") || pattern.contains("iso")) {
-            dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssX");
-        } else {
-            dateFormat = new SimpleDateFormat(pattern);
-        }
+        this(config.dateTimeFormat());
     }
 
-    public DateResolver(String pattern) {
-        dateFormat = new SimpleDateFormat(pattern);
+    public DateResolver(final String pattern) {
+        this.pattern = pattern;
+        this.isIso = JodaDateTimeCodecBase.isIsoStandard(pattern);
+        if (isIso) {
+            this.dateFormat = null;
+        } else {
+            this.dateFormat = new ThreadLocal<DateFormat>() {
+                @Override
+                protected DateFormat initialValue() {
+                    return new SimpleDateFormat(pattern);
+                }
+            };
+            // fail fast on invalid pattern
+            this.dateFormat.get();
+        }
     }
 
     @Override
     public Date resolve(String value) {
+        if (S.blank(value)) {
+            return null;
+        }
         try {
-            return dateFormat.parse(value);
-        } catch (ParseException e) {
+            if (isIso) {
+                return new Date(Iso8601.parse(value));
+            }
+            return dateFormat.get().parse(value);
+        } catch (IllegalArgumentException | ParseException e) {
             logger.error("error parsing date value from: %s", value);
             return null;
         }
     }
+
+    @Override
+    public Class<Date> targetClass() {
+        return Date.class;
+    }
+
+    @Override
+    public Date parse(String s) {
+        return resolve(s);
+    }
+
+    @Override
+    public String toString(Date date) {
+        if (isIso) {
+            return Iso8601.print(date.getTime());
+        }
+        return dateFormat.get().format(date);
+    }
+
+    @Override
+    public String toJSONString(Date date) {
+        return S.builder("\"").append(toString(date)).append("\"").toString();
+    }
+
+    @Override
+    public StringValueResolver<Date> amended(AnnotationAware beanSpec) {
+        Pattern pattern = beanSpec.getAnnotation(Pattern.class);
+        return null == pattern || S.eq(this.pattern, pattern.value()) ? this : new DateResolver(pattern.value());
+    }
 }
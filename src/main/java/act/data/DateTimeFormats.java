@@ -0,0 +1,82 @@
+package act.data;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared, pre-built date time formatters.
+ *
+ * Joda {@link DateTimeFormatter} is immutable and thread safe, so one
+ * instance per style and locale is built and shared by all templates
+ * instead of creating a formatter on each call. Formatters of a pattern
+ * are cached by Joda's {@link DateTimeFormat#forPattern(String)} already.
+ * The cache is bounded: once full, formatters of new styles are built on
+ * each call but not cached
+ */
+public final class DateTimeFormats {
+
+    private static final int MAX_ENTRIES = 512;
+
+    /**
+     * The RFC 1123 date format used by HTTP headers like `Last-Modified`
+     * and `Expires`
+     */
+    public static final DateTimeFormatter HTTP_DATE = DateTimeFormat
+            .forPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'")
+            .withLocale(Locale.US)
+            .withZone(DateTimeZone.UTC);
+
+    private static final ConcurrentMap<String, DateTimeFormatter> styles = new ConcurrentHashMap<>();
+
+    private DateTimeFormats() {}
+
+    /**
+     * Returns the formatter of the style and locale specified
+     *
+     * @param style  the style, see {@link DateTimeFormat#forStyle(String)}
+     * @param locale the locale
+     * @return the formatter
+     */
+    public static DateTimeFormatter forStyle(String style, Locale locale) {
+        String key = style + locale;
+        DateTimeFormatter formatter = styles.get(key);
+        if (null == formatter) {
+            formatter = DateTimeFormat.forStyle(style).withLocale(locale);
+            cache(styles, key, formatter);
+        }
+        return formatter;
+    }
+
+    /**
+     * Returns the HTTP date string of the epoch milliseconds specified
+     */
+    public static String httpDate(long millis) {
+        return HTTP_DATE.print(millis);
+    }
+
+    /**
+     * Returns the epoch milliseconds of an HTTP date string
+     *
+     * @param s the date string
+     * @return the epoch milliseconds or `-1` if the string cannot be parsed
+     */
+    public static long parseHttpDate(String s) {
+        try {
+            return HTTP_DATE.parseMillis(s.trim());
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    private static void cache(ConcurrentMap<String, DateTimeFormatter> cache, String key, DateTimeFormatter formatter) {
+        if (cache.size() < MAX_ENTRIES) {
+            cache.putIfAbsent(key, formatter);
+        }
+    }
+
+}
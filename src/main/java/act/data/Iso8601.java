@@ -0,0 +1,243 @@
+package act.data;
+
+/**
+ * Parses and prints ISO-8601 date time values without going through a
+ * general purpose formatter.
+ *
+ * The parser accepts `yyyy-MM-dd`, `yyyy-MM-ddTHH:mm`, `yyyy-MM-ddTHH:mm:ss`
+ * with an optional fraction of second, followed by an optional `Z`, `+HH`,
+ * `+HHmm` or `+HH:mm` offset. Values without offset are taken as UTC. The
+ * printer always writes `yyyy-MM-ddTHH:mm:ss.SSSZ`.
+ *
+ * Both work on the characters directly and are safe to be used from any
+ * thread
+ */
+public final class Iso8601 {
+
+    private static final long MILLIS_PER_MINUTE = 60L * 1000;
+    private static final long MILLIS_PER_DAY = 24L * 60 * MILLIS_PER_MINUTE;
+
+    // length of yyyy-MM-ddTHH:mm:ss.SSSZ
+    static final int PRINT_LENGTH = 24;
+
+    private Iso8601() {}
+
+    /**
+     * Returns the epoch milliseconds of the ISO-8601 value specified
+     *
+     * @param s the value
+     * @return the epoch milliseconds
+     * @throws IllegalArgumentException if the value is not a valid ISO-8601 date time
+     */
+    public static long parse(CharSequence s) {
+        int len = s.length();
+        int year = digits(s, 0, 4);
+        expect(s, 4, '-');
+        int month = digits(s, 5, 2);
+        expect(s, 7, '-');
+        int day = digits(s, 8, 2);
+        if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            throw invalid(s);
+        }
+        long millis = daysFromEpoch(year, month, day) * MILLIS_PER_DAY;
+        if (len == 10) {
+            return millis;
+        }
+        char c = s.charAt(10);
+        if ('T' != c && 't' != c && ' ' != c) {
+            throw invalid(s);
+        }
+        int hour = digits(s, 11, 2);
+        expect(s, 13, ':');
+        int minute = digits(s, 14, 2);
+        int second = 0, milli = 0;
+        int pos = 16;
+        if (pos < len && ':' == s.charAt(pos)) {
+            second = digits(s, pos + 1, 2);
+            pos += 3;
+            if (pos < len && ('.' == s.charAt(pos) || ',' == s.charAt(pos))) {
+                int start = ++pos;
+                while (pos < len && isDigit(s.charAt(pos))) {
+                    if (pos - start < 3) {
+                        milli = milli * 10 + (s.charAt(pos) - '0');
+                    }
+                    pos++;
+                }
+                int n = pos - start;
+                if (0 == n) {
+                    throw invalid(s);
+                }
+                for (; n < 3; ++n) {
+                    milli *= 10;
+                }
+            }
+        }
+        if (hour > 23 || minute > 59 || second > 59) {
+            throw invalid(s);
+        }
+        millis += ((hour * 60L + minute) * 60 + second) * 1000 + milli;
+        if (pos == len) {
+            return millis;
+        }
+        c = s.charAt(pos);
+        if ('Z' == c || 'z' == c) {
+            if (pos + 1 != len) {
+                throw invalid(s);
+            }
+            return millis;
+        }
+        int sign;
+        if ('+' == c) {
+            sign = 1;
+        } else if ('-' == c) {
+            sign = -1;
+        } else {
+            throw invalid(s);
+        }
+        int offsetHour = digits(s, pos + 1, 2);
+        int offsetMinute = 0;
+        pos += 3;
+        if (pos < len) {
+            if (':' == s.charAt(pos)) {
+                pos++;
+            }
+            offsetMinute = digits(s, pos, 2);
+            pos += 2;
+        }
+        if (pos != len || offsetHour > 18 || offsetMinute > 59) {
+            throw invalid(s);
+        }
+        return millis - sign * (offsetHour * 60L + offsetMinute) * MILLIS_PER_MINUTE;
+    }
+
+    /**
+     * Returns the `yyyy-MM-ddTHH:mm:ss.SSSZ` string of the epoch milliseconds
+     * specified
+     */
+    public static String print(long millis) {
+        char[] buf = new char[PRINT_LENGTH];
+        print(millis, buf, 0);
+        return new String(buf);
+    }
+
+    /**
+     * Append the `yyyy-MM-ddTHH:mm:ss.SSSZ` characters of the epoch
+     * milliseconds specified to a string builder
+     */
+    public static StringBuilder print(long millis, StringBuilder sb) {
+        char[] buf = new char[PRINT_LENGTH];
+        print(millis, buf, 0);
+        return sb.append(buf);
+    }
+
+    /**
+     * Write the `yyyy-MM-ddTHH:mm:ss.SSSZ` characters of the epoch
+     * milliseconds specified into a char array
+     *
+     * @param millis the epoch milliseconds
+     * @param buf    the array, must have {@link #PRINT_LENGTH} characters
+     *               available starting from `offset`
+     * @param offset the position to write the first character
+     */
+    static void print(long millis, char[] buf, int offset) {
+        long days = floorDiv(millis, MILLIS_PER_DAY);
+        int msOfDay = (int) (millis - days * MILLIS_PER_DAY);
+        // civil date from days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year out of range: " + year);
+        }
+        int p = offset;
+        p = put(buf, p, (int) year, 4);
+        buf[p++] = '-';
+        p = put(buf, p, month, 2);
+        buf[p++] = '-';
+        p = put(buf, p, day, 2);
+        buf[p++] = 'T';
+        p = put(buf, p, msOfDay / 3600000, 2);
+        buf[p++] = ':';
+        p = put(buf, p, msOfDay / 60000 % 60, 2);
+        buf[p++] = ':';
+        p = put(buf, p, msOfDay / 1000 % 60, 2);
+        buf[p++] = '.';
+        p = put(buf, p, msOfDay % 1000, 3);
+        buf[p] = 'Z';
+    }
+
+    private static int put(char[] buf, int pos, int val, int width) {
+        for (int i = pos + width - 1; i >= pos; --i) {
+            buf[i] = (char) ('0' + val % 10);
+            val /= 10;
+        }
+        return pos + width;
+    }
+
+    private static long daysFromEpoch(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = y - era * 400;
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097L + doe - 719468;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long floorDiv(long x, long y) {
+        long r = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) {
+            r--;
+        }
+        return r;
+    }
+
+    private static int digits(CharSequence s, int pos, int n) {
+        if (pos + n > s.length()) {
+            throw invalid(s);
+        }
+        int val = 0;
+        for (int i = pos, end = pos + n; i < end; ++i) {
+            char c = s.charAt(i);
+            if (!isDigit(c)) {
+                throw invalid(s);
+            }
+            val = val * 10 + (c - '0');
+        }
+        return val;
+    }
+
+    private static void expect(CharSequence s, int pos, char c) {
+        if (pos >= s.length() || s.charAt(pos) != c) {
+            throw invalid(s);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalid(CharSequence s) {
+        return new IllegalArgumentException("Invalid ISO-8601 date time: " + s);
+    }
+
+}
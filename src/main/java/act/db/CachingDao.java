@@ -0,0 +1,401 @@
+package act.db;
+
+import act.Act;
+import act.app.App;
+import act.app.security.SecurityContext;
+import act.event.ActEventListenerBase;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+import act.metric.MetricPlugin;
+import act.util.ActContext;
+import act.util.General;
+import org.osgl.$;
+import org.osgl.cache.CacheService;
+import org.osgl.util.E;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Dao} decorator that reads entities by id through a {@link CacheService}.
+ *
+ * * `findById` and `findByIdList` look up the cache first. Misses of
+ *   `findByIdList` are loaded from the underlying dao in one call
+ * * concurrent `findById` misses of the same id are loaded only once,
+ *   the other callers wait for the result of the first one
+ * * saving or deleting an entity evicts it from the cache. Bulk
+ *   operations like `deleteBy` and `drop` invalidate all entities of
+ *   the model
+ *
+ * All other methods are delegated to the underlying dao directly.
+ *
+ * @see EntityCache
+ */
+@General
+public class CachingDao<ID_TYPE, MODEL_TYPE, QUERY_TYPE extends Dao.Query<MODEL_TYPE, QUERY_TYPE>>
+        implements Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> {
+
+    private static final String METRIC_HIT = MetricInfo.DAO_CACHE + Metric.PATH_SEPARATOR + "hit";
+    private static final String METRIC_MISS = MetricInfo.DAO_CACHE + Metric.PATH_SEPARATOR + "miss";
+
+    /**
+     * A load in progress. Callers missing the same key wait on it
+     */
+    private static class Flight<T> {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private T result;
+        private RuntimeException error;
+
+        T await() {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw E.unexpected(e);
+            }
+            if (null != error) {
+                throw error;
+            }
+            return result;
+        }
+    }
+
+    private final Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> dao;
+    private final CacheService cache;
+    private final int ttl;
+    private final String keyPrefix;
+    // bumped to invalidate all cached entities of the model
+    private final AtomicInteger generation = new AtomicInteger();
+    private final ConcurrentMap<String, Flight<MODEL_TYPE>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingDao(Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> dao, CacheService cache, int ttl) {
+        this.dao = $.notNull(dao);
+        this.cache = $.notNull(cache);
+        this.ttl = ttl;
+        this.keyPrefix = "dao:" + dao.modelType().getName() + ":";
+    }
+
+    /**
+     * Returns the underlying dao
+     */
+    public Dao<ID_TYPE, MODEL_TYPE, QUERY_TYPE> dao() {
+        return dao;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public double hitRatio() {
+        long hits = this.hits.get(), total = hits + misses.get();
+        return 0 == total ? 0d : (double) hits / total;
+    }
+
+    /**
+     * Evict an entity from the cache
+     *
+     * @param entity the entity
+     */
+    public void evict(MODEL_TYPE entity) {
+        if (null != entity) {
+            evictById(dao.getId(entity));
+        }
+    }
+
+    /**
+     * Evict the entity of the id specified from the cache
+     *
+     * @param id the id
+     */
+    public void evictById(ID_TYPE id) {
+        if (null == id) {
+            return;
+        }
+        String key = key(id);
+        flights.remove(key);
+        cache.evict(key);
+    }
+
+    /**
+     * Invalidate all cached entities of the model.
+     *
+     * The entities are not evicted from the cache service but left to
+     * expire, and the invalidation is local to this dao instance.
+     * See {@link EntityCache}
+     */
+    public void evictAll() {
+        generation.incrementAndGet();
+        flights.clear();
+    }
+
+    @Override
+    public MODEL_TYPE findById(ID_TYPE id) {
+        String key = key(id);
+        MODEL_TYPE entity = cache.get(key);
+        if (null != entity) {
+            hit(1);
+            return entity;
+        }
+        miss(1);
+        Flight<MODEL_TYPE> flight = new Flight<>();
+        Flight<MODEL_TYPE> inFlight = flights.putIfAbsent(key, flight);
+        if (null != inFlight) {
+            return inFlight.await();
+        }
+        try {
+            entity = dao.findById(id);
+            flight.result = entity;
+            if (null != entity) {
+                // put the entity before giving up the flight, and take it back
+                // if the flight has been evicted meanwhile, so that an eviction
+                // at any point of the loading is not lost
+                cache.put(key, entity, ttl);
+                if (!flights.remove(key, flight)) {
+                    cache.evict(key);
+                }
+            } else {
+                flights.remove(key, flight);
+            }
+            return entity;
+        } catch (RuntimeException e) {
+            flight.error = e;
+            flights.remove(key, flight);
+            throw e;
+        } finally {
+            flight.latch.countDown();
+        }
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findByIdList(Collection<ID_TYPE> idList) {
+        List<MODEL_TYPE> found = new ArrayList<>(idList.size());
+        List<ID_TYPE> missing = new ArrayList<>();
+        for (ID_TYPE id : idList) {
+            MODEL_TYPE entity = cache.get(key(id));
+            if (null != entity) {
+                found.add(entity);
+            } else {
+                missing.add(id);
+            }
+        }
+        hit(found.size());
+        miss(missing.size());
+        if (!missing.isEmpty()) {
+            for (MODEL_TYPE entity : dao.findByIdList(missing)) {
+                found.add(entity);
+                cache.put(key(dao.getId(entity)), entity, ttl);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public MODEL_TYPE reload(MODEL_TYPE entity) {
+        evict(entity);
+        return dao.reload(entity);
+    }
+
+    @Override
+    public void save(MODEL_TYPE entity) {
+        dao.save(entity);
+        evict(entity);
+    }
+
+    @Override
+    public void save(MODEL_TYPE entity, String fields, Object... values) throws IllegalArgumentException {
+        dao.save(entity, fields, values);
+        evict(entity);
+    }
+
+    @Override
+    public void save(Iterable<MODEL_TYPE> entities) {
+        dao.save(entities);
+        for (MODEL_TYPE entity : entities) {
+            evict(entity);
+        }
+    }
+
+    @Override
+    public void delete(MODEL_TYPE entity) {
+        dao.delete(entity);
+        evict(entity);
+    }
+
+    @Override
+    public void delete(QUERY_TYPE query) {
+        dao.delete(query);
+        evictAll();
+    }
+
+    @Override
+    public void deleteById(ID_TYPE id) {
+        dao.deleteById(id);
+        evictById(id);
+    }
+
+    @Override
+    public void deleteBy(String fields, Object... values) throws IllegalArgumentException {
+        dao.deleteBy(fields, values);
+        evictAll();
+    }
+
+    @Override
+    public void drop() {
+        dao.drop();
+        evictAll();
+    }
+
+    @Override
+    public Class<ID_TYPE> idType() {
+        return dao.idType();
+    }
+
+    @Override
+    public Class<MODEL_TYPE> modelType() {
+        return dao.modelType();
+    }
+
+    @Override
+    public Class<QUERY_TYPE> queryType() {
+        return dao.queryType();
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findBy(String fields, Object... values) throws IllegalArgumentException {
+        return dao.findBy(fields, values);
+    }
+
+    @Override
+    public MODEL_TYPE findOneBy(String fields, Object... values) throws IllegalArgumentException {
+        return dao.findOneBy(fields, values);
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findAll() {
+        return dao.findAll();
+    }
+
+    @Override
+    public List<MODEL_TYPE> findAllAsList() {
+        return dao.findAllAsList();
+    }
+
+    @Override
+    public ID_TYPE getId(MODEL_TYPE entity) {
+        return dao.getId(entity);
+    }
+
+    @Override
+    public long count() {
+        return dao.count();
+    }
+
+    @Override
+    public long countBy(String fields, Object... values) throws IllegalArgumentException {
+        return dao.countBy(fields, values);
+    }
+
+    @Override
+    public QUERY_TYPE q() {
+        return dao.q();
+    }
+
+    @Override
+    public QUERY_TYPE q(String fields, Object... values) {
+        return dao.q(fields, values);
+    }
+
+    @Override
+    public void setAppContext(ActContext context) {
+        dao.setAppContext(context);
+    }
+
+    @Override
+    public void setSecurityContext(SecurityContext context) {
+        dao.setSecurityContext(context);
+    }
+
+    @Override
+    public void destroy() {
+        flights.clear();
+        dao.destroy();
+    }
+
+    @Override
+    public boolean isDestroyed() {
+        return dao.isDestroyed();
+    }
+
+    @Override
+    public Class<? extends Annotation> scope() {
+        return dao.scope();
+    }
+
+    /**
+     * Decorate the dao specified with a {@link CachingDao} if the model type is
+     * annotated with {@link EntityCache}. The caching dao evicts the entity
+     * of any {@link DeleteEvent} raised in the app.
+     *
+     * @param dao the dao
+     * @param app the app
+     * @return the caching dao or the dao specified if the model is not cached
+     */
+    public static Dao decorate(Dao dao, App app) {
+        if (null == dao || dao instanceof CachingDao) {
+            return dao;
+        }
+        final Class<?> modelType = dao.modelType();
+        EntityCache spec = null == modelType ? null : modelType.getAnnotation(EntityCache.class);
+        if (null == spec) {
+            return dao;
+        }
+        final CachingDao cachingDao = new CachingDao(dao, app.config().cacheService(spec.value()), spec.ttl());
+        app.eventBus().bind(DeleteEvent.class, new ActEventListenerBase<DeleteEvent>() {
+            @Override
+            public void on(DeleteEvent event) throws Exception {
+                Object entity = event.getSource();
+                if (modelType.isInstance(entity)) {
+                    cachingDao.evict(entity);
+                }
+            }
+        });
+        return cachingDao;
+    }
+
+    private String key(ID_TYPE id) {
+        return keyPrefix + generation.get() + ":" + id;
+    }
+
+    private void hit(int n) {
+        if (n > 0) {
+            hits.addAndGet(n);
+            metric().countOnce(METRIC_HIT);
+        }
+    }
+
+    private void miss(int n) {
+        if (n > 0) {
+            misses.addAndGet(n);
+            metric().countOnce(METRIC_MISS);
+        }
+    }
+
+    private static Metric metric() {
+        MetricPlugin metricPlugin = Act.metricPlugin();
+        return null == metricPlugin ? Metric.NULL_METRIC : metricPlugin.metric(MetricInfo.DAO_CACHE);
+    }
+
+}
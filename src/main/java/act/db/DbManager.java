@@ -22,8 +22,18 @@ public class DbManager extends DestroyableBase {
         return plugins.get(type);
     }
 
+    /**
+     * Returns {@code true} if there are plugins registered, not counting
+     * the plugins that shall be {@link DbPlugin#explicitOnly() specified
+     * explicitly}
+     */
     public synchronized boolean hasPlugin() {
-        return !plugins.isEmpty();
+        for (DbPlugin plugin : plugins.values()) {
+            if (!plugin.explicitOnly()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public synchronized <TIMESTAMP_TYPE> TimestampGenerator<TIMESTAMP_TYPE> timestampGenerator(Class<? extends TIMESTAMP_TYPE> c) {
@@ -32,13 +42,21 @@ public class DbManager extends DestroyableBase {
 
     /**
      * Returns the plugin if there is only One plugin inside
-     * the register, otherwise return {@code null}
+     * the register, otherwise return {@code null}. Plugins that
+     * shall be {@link DbPlugin#explicitOnly() specified explicitly}
+     * are not counted
      */
     public synchronized DbPlugin theSolePlugin() {
-        if (plugins.size() == 1) {
-            return plugins.values().iterator().next();
-        } else {
-            return null;
+        DbPlugin found = null;
+        for (DbPlugin plugin : plugins.values()) {
+            if (plugin.explicitOnly()) {
+                continue;
+            }
+            if (null != found) {
+                return null;
+            }
+            found = plugin;
         }
+        return found;
     }
 }
@@ -31,6 +31,15 @@ public abstract class DbPlugin extends DestroyableBase implements Plugin {
 
     public abstract DbService initDbService(String id, App app, Map<String, Object> conf);
 
+    /**
+     * Returns `true` if this plugin shall be used only when it is specified
+     * in the `db.impl` configuration, i.e. it is never picked up as the sole
+     * db plugin of the app
+     */
+    public boolean explicitOnly() {
+        return false;
+    }
+
     public void afterDbServiceLoaded() {
     }
 
@@ -0,0 +1,44 @@
+package act.db;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a model class to have its entities cached by id.
+ *
+ * The {@link Dao} of the model returned by
+ * {@link act.app.DbServiceManager#cachingDao(Class)}, e.g. the one used to
+ * load `@DbBind` parameters, is decorated with a {@link CachingDao}, which reads
+ * entities through the cache service specified and evicts them when they are
+ * saved or deleted through it. The typed dao returned by `Model.dao()` is not
+ * decorated; entities changed through it are only evicted on {@link DeleteEvent}
+ * or when the `ttl` expires.
+ *
+ * Bulk operations like `deleteBy` and `drop` invalidate the cached entities of
+ * the model in the current process only. Other nodes sharing a distributed
+ * cache service keep serving them until the `ttl` expires.
+ *
+ * Suitable for reference data that are read far more often than written
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface EntityCache {
+
+    /**
+     * The name of the cache service, see {@link act.conf.AppConfig#cacheService(String)}
+     *
+     * <p>Default value: `entity`</p>
+     */
+    String value() default "entity";
+
+    /**
+     * The number of seconds an entity shall be kept in the cache
+     *
+     * <p>Default value: 3600</p>
+     */
+    int ttl() default 60 * 60;
+}
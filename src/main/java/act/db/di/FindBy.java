@@ -25,7 +25,7 @@ public class FindBy extends ValueLoader.Base {
 
         rawType = spec.rawType();
         findOne = !(Collection.class.isAssignableFrom(rawType));
-        dao = app.dbServiceManager().dao(findOne ? rawType : (Class) spec.typeParams().get(0));
+        dao = app.dbServiceManager().cachingDao(findOne ? rawType : (Class) spec.typeParams().get(0));
 
         byId = (Boolean) options.get("byId");
         resolver = app.resolverManager().resolver(byId ? dao.idType() : (Class) options.get("fieldType"));
@@ -0,0 +1,179 @@
+package act.db.mem;
+
+import org.osgl.util.E;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fields, id and indexes of a model class
+ */
+class EntityInfo {
+
+    final Class<?> modelType;
+    final Field idField;
+    final Map<String, Field> fields;
+    // field name to sorted flag
+    final Map<String, Boolean> indexed;
+    // used to copy entities that are not serializable
+    private final Constructor<?> constructor;
+
+    EntityInfo(Class<?> modelType) {
+        this.modelType = modelType;
+        Map<String, Field> fields = new HashMap<>();
+        Map<String, Boolean> indexed = new HashMap<>();
+        Field idField = null;
+        for (Class<?> c = modelType; null != c && Object.class != c; c = c.getSuperclass()) {
+            for (Field f : c.getDeclaredFields()) {
+                int mod = f.getModifiers();
+                if (Modifier.isStatic(mod) || Modifier.isTransient(mod) || fields.containsKey(f.getName())) {
+                    continue;
+                }
+                f.setAccessible(true);
+                fields.put(f.getName(), f);
+                if (null == idField && isId(f)) {
+                    idField = f;
+                }
+                Indexed index = f.getAnnotation(Indexed.class);
+                if (null != index) {
+                    indexed.put(f.getName(), index.sorted());
+                }
+            }
+        }
+        if (null == idField) {
+            idField = fields.get("id");
+        }
+        E.invalidConfigurationIf(null == idField, "id field not found in model class: %s", modelType);
+        this.idField = idField;
+        this.fields = Collections.unmodifiableMap(fields);
+        this.indexed = Collections.unmodifiableMap(indexed);
+        this.constructor = Serializable.class.isAssignableFrom(modelType) ? null : defaultConstructor(modelType);
+    }
+
+    Class<?> idType() {
+        return idField.getType();
+    }
+
+    Object id(Object entity) {
+        return get(idField, entity);
+    }
+
+    void id(Object entity, Object id) {
+        set(idField, entity, id);
+    }
+
+    Object value(Object entity, String field) {
+        return get(field(field), entity);
+    }
+
+    void value(Object entity, String field, Object value) {
+        Field f = field(field);
+        set(f, entity, convert(f.getType(), value));
+    }
+
+    /**
+     * Returns a copy of the entity. The entities held by the store are never
+     * handed out or changed in place, so that the indexes and the journal
+     * stay consistent with them.
+     *
+     * Serializable entities are deep copied through serialization, other
+     * entities are copied field by field with the default constructor
+     */
+    Object copy(Object entity) {
+        if (null == constructor) {
+            try {
+                return Journal.deserialize(Journal.serialize(entity), modelType.getClassLoader());
+            } catch (IOException e) {
+                throw E.ioException(e);
+            }
+        }
+        Object copy;
+        try {
+            copy = constructor.newInstance();
+        } catch (Exception e) {
+            throw E.unexpected(e);
+        }
+        for (Field f : fields.values()) {
+            set(f, copy, get(f, entity));
+        }
+        return copy;
+    }
+
+    /**
+     * Convert a query value to the type of the field, so that e.g. an
+     * `Integer` value matches a `long` field
+     */
+    Object convert(String field, Object value) {
+        return convert(field(field).getType(), value);
+    }
+
+    private Field field(String name) {
+        Field f = fields.get(name);
+        E.illegalArgumentIf(null == f, "Unknown field of %s: %s", modelType.getName(), name);
+        return f;
+    }
+
+    private static Object convert(Class<?> type, Object value) {
+        if (!(value instanceof Number) || type.isInstance(value)) {
+            return value;
+        }
+        Number n = (Number) value;
+        if (Long.class == type || long.class == type) {
+            return n.longValue();
+        } else if (Integer.class == type || int.class == type) {
+            return n.intValue();
+        } else if (Double.class == type || double.class == type) {
+            return n.doubleValue();
+        } else if (Float.class == type || float.class == type) {
+            return n.floatValue();
+        } else if (Short.class == type || short.class == type) {
+            return n.shortValue();
+        } else if (Byte.class == type || byte.class == type) {
+            return n.byteValue();
+        }
+        return value;
+    }
+
+    private static Constructor<?> defaultConstructor(Class<?> modelType) {
+        try {
+            Constructor<?> constructor = modelType.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw E.invalidConfiguration("model class shall be serializable or have a default constructor: %s", modelType);
+        }
+    }
+
+    private static boolean isId(Field f) {
+        for (Annotation a : f.getDeclaredAnnotations()) {
+            if ("Id".equals(a.annotationType().getSimpleName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object get(Field f, Object entity) {
+        try {
+            return f.get(entity);
+        } catch (IllegalAccessException e) {
+            throw E.unexpected(e);
+        }
+    }
+
+    private static void set(Field f, Object entity, Object value) {
+        try {
+            f.set(entity, value);
+        } catch (IllegalAccessException e) {
+            throw E.unexpected(e);
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package act.db.mem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A secondary index mapping field values to entity ids.
+ *
+ * Indexes are updated by the {@link MemStore} under its write lock and can
+ * be read by any thread at the same time
+ */
+abstract class Index {
+
+    // null is not allowed as map key
+    private static final Object NULL = new Object();
+
+    final String field;
+
+    Index(String field) {
+        this.field = field;
+    }
+
+    abstract Map<Object, Set<Object>> map();
+
+    /**
+     * Returns the ids of the entities with the field value specified
+     */
+    Set<Object> ids(Object value) {
+        Set<Object> ids = map().get(key(value));
+        return null == ids ? Collections.emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    void add(Object value, Object id) {
+        Object key = key(value);
+        Map<Object, Set<Object>> map = map();
+        Set<Object> ids = map.get(key);
+        if (null == ids) {
+            ids = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+            map.put(key, ids);
+        }
+        ids.add(id);
+    }
+
+    void remove(Object value, Object id) {
+        Object key = key(value);
+        Map<Object, Set<Object>> map = map();
+        Set<Object> ids = map.get(key);
+        if (null != ids) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    void clear() {
+        map().clear();
+    }
+
+    Object key(Object value) {
+        return null == value ? NULL : value;
+    }
+
+    static Index of(String field, boolean sorted) {
+        return sorted ? new Sorted(field) : new Hash(field);
+    }
+
+    static class Hash extends Index {
+        private final ConcurrentMap<Object, Set<Object>> map = new ConcurrentHashMap<>();
+
+        Hash(String field) {
+            super(field);
+        }
+
+        @Override
+        Map<Object, Set<Object>> map() {
+            return map;
+        }
+    }
+
+    /**
+     * Keeps the values in natural order. Entities with `null` value are
+     * kept apart and come last in {@link #orderedIds(boolean)}
+     */
+    static class Sorted extends Index {
+        private final ConcurrentSkipListMap<Object, Set<Object>> map = new ConcurrentSkipListMap<>();
+        private final Set<Object> nulls = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+
+        Sorted(String field) {
+            super(field);
+        }
+
+        @Override
+        Map<Object, Set<Object>> map() {
+            return map;
+        }
+
+        @Override
+        Set<Object> ids(Object value) {
+            return null == value ? Collections.unmodifiableSet(nulls) : super.ids(value);
+        }
+
+        @Override
+        void add(Object value, Object id) {
+            if (null == value) {
+                nulls.add(id);
+            } else {
+                super.add(value, id);
+            }
+        }
+
+        @Override
+        void remove(Object value, Object id) {
+            if (null == value) {
+                nulls.remove(id);
+            } else {
+                super.remove(value, id);
+            }
+        }
+
+        @Override
+        void clear() {
+            super.clear();
+            nulls.clear();
+        }
+
+        /**
+         * Returns all ids ordered by the field value
+         */
+        List<Object> orderedIds(boolean descending) {
+            List<Object> ids = flatten((descending ? map.descendingMap() : map).values());
+            ids.addAll(nulls);
+            return ids;
+        }
+
+        private static List<Object> flatten(Collection<Set<Object>> sets) {
+            List<Object> list = new ArrayList<>();
+            for (Set<Object> ids : sets) {
+                list.addAll(ids);
+            }
+            return list;
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package act.db.mem;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a field of a {@link MemEntity} to be indexed. Queries with the field
+ * are answered from the index instead of scanning all entities
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed {
+
+    /**
+     * Whether the index keeps the values in order. A sorted index is also
+     * used to order the query results by the field. The field type must
+     * be {@link Comparable}
+     *
+     * <p>Default value: `false`</p>
+     */
+    boolean sorted() default false;
+}
@@ -0,0 +1,304 @@
+package act.db.mem;
+
+import org.osgl.logging.L;
+import org.osgl.logging.Logger;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists the entities of a {@link MemStore} to a snapshot file and an
+ * append-only change log.
+ *
+ * Each change is appended to `<name>.log` as a record of an operation code,
+ * the payload length and the serialized entity or id. When the number of
+ * changes logged reaches the compaction threshold, the store hands over a
+ * copy of its entities: the log is moved aside to `<name>.log.1` and the
+ * copy is written to `<name>.snapshot` outside of the store lock, while the
+ * writes that follow go to a new log. The new snapshot atomically replaces
+ * the old one and the old log is deleted. A compaction that failed to write
+ * the snapshot is retried on the next one.
+ *
+ * On restart the snapshot and the logs are memory mapped and replayed in
+ * order. Replaying `<name>.log.1` over a snapshot that already contains its
+ * changes yields the same state, so a crash at any point of the compaction
+ * does not lose data. A record truncated by a crash is dropped.
+ *
+ * Entities must be {@link Serializable}
+ */
+class Journal {
+
+    private static final Logger logger = L.get(Journal.class);
+
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte DROP = 3;
+
+    // op code and payload length
+    private static final int HEADER_SIZE = 5;
+
+    /**
+     * Receives the records replayed
+     */
+    interface Replay {
+        void apply(byte op, Object payload);
+    }
+
+    private final File snapshot;
+    private final File log;
+    private final File oldLog;
+    private final int threshold;
+    private final ClassLoader classLoader;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    private DataOutputStream out;
+    private int logged;
+
+    Journal(File dir, String name, int threshold, ClassLoader classLoader) {
+        E.illegalStateIf(!dir.exists() && !dir.mkdirs(), "Cannot create data dir: %s", dir);
+        this.snapshot = new File(dir, name + ".snapshot");
+        this.log = new File(dir, name + ".log");
+        this.oldLog = new File(dir, name + ".log.1");
+        this.threshold = threshold;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Replay the snapshot and logs and open the log for appending
+     */
+    void open(Replay replay) {
+        read(snapshot, replay);
+        read(oldLog, replay);
+        long valid = read(log, replay);
+        if (log.exists() && valid < log.length()) {
+            logger.warn("drop truncated record at the end of %s", log);
+            truncate(log, valid);
+        }
+        out = openLog();
+    }
+
+    /**
+     * Returns `true` if a compaction was interrupted before the snapshot
+     * was written. The store shall then write the snapshot of the state
+     * replayed with {@link #writeSnapshot(Collection)}
+     */
+    boolean resumeCompaction() {
+        return oldLog.exists() && compacting.compareAndSet(false, true);
+    }
+
+    void put(Object entity) {
+        append(PUT, entity);
+    }
+
+    void delete(Object id) {
+        append(DELETE, id);
+    }
+
+    void drop() {
+        append(DROP, null);
+    }
+
+    /**
+     * Returns `true` if the log shall be compacted into a new snapshot
+     */
+    boolean compactionDue() {
+        return logged >= threshold && !compacting.get();
+    }
+
+    /**
+     * Start a compaction by moving the current log aside. This shall be
+     * called under the write lock of the store, right before taking the
+     * copy of the entities passed to {@link #writeSnapshot(Collection)}.
+     *
+     * If the snapshot of the previous compaction failed to be written the
+     * current log is kept and the compaction is retried: the copy of the
+     * entities covers both logs and replaying the current log over it
+     * yields the same state
+     *
+     * @return `true` if the compaction is started
+     */
+    boolean rotate() {
+        if (!compacting.compareAndSet(false, true)) {
+            return false;
+        }
+        if (oldLog.exists()) {
+            logged = 0;
+            return true;
+        }
+        IO.close(out);
+        boolean rotated = log.renameTo(oldLog);
+        out = openLog();
+        if (!rotated) {
+            compacting.set(false);
+            return false;
+        }
+        logged = 0;
+        return true;
+    }
+
+    /**
+     * Write the entities to the snapshot file and finish the compaction
+     * started by {@link #rotate()}
+     */
+    void writeSnapshot(Collection<?> entities) {
+        File tmp = new File(snapshot.getPath() + ".tmp");
+        try {
+            FileOutputStream fos = new FileOutputStream(tmp);
+            DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos));
+            try {
+                for (Object entity : entities) {
+                    write(dos, PUT, entity);
+                }
+                dos.flush();
+                fos.getFD().sync();
+            } finally {
+                IO.close(dos);
+            }
+            Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (!oldLog.delete()) {
+                logger.warn("cannot delete compacted log file: %s", oldLog);
+            }
+        } catch (IOException e) {
+            tmp.delete();
+            throw E.ioException(e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    void close() {
+        IO.close(out);
+        out = null;
+    }
+
+    private void append(byte op, Object payload) {
+        try {
+            write(out, op, payload);
+            out.flush();
+            logged++;
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    private static void write(DataOutputStream out, byte op, Object payload) throws IOException {
+        byte[] bytes = null == payload ? new byte[0] : serialize(payload);
+        out.writeByte(op);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static byte[] serialize(Object o) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(o);
+        oos.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Replay the records of a file
+     *
+     * @return the number of bytes of complete records
+     */
+    private long read(File file, Replay replay) {
+        if (!file.exists() || 0 == file.length()) {
+            return 0;
+        }
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int valid = 0;
+            while (buf.remaining() >= HEADER_SIZE) {
+                byte op = buf.get();
+                int len = buf.getInt();
+                if (len < 0 || len > buf.remaining()) {
+                    break;
+                }
+                ByteBuffer payload = buf.slice();
+                payload.limit(len);
+                buf.position(buf.position() + len);
+                replay.apply(op, 0 == len ? null : deserialize(payload));
+                valid = buf.position();
+            }
+            return valid;
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(raf);
+        }
+    }
+
+    static Object deserialize(byte[] bytes, ClassLoader classLoader) throws IOException {
+        return deserialize(new ByteArrayInputStream(bytes), classLoader);
+    }
+
+    private Object deserialize(final ByteBuffer buf) throws IOException {
+        InputStream is = new InputStream() {
+            @Override
+            public int read() {
+                return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (!buf.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, buf.remaining());
+                buf.get(b, off, n);
+                return n;
+            }
+        };
+        return deserialize(is, classLoader);
+    }
+
+    private static Object deserialize(InputStream is, final ClassLoader classLoader) throws IOException {
+        ObjectInputStream ois = new ObjectInputStream(is) {
+            @Override
+            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                try {
+                    return Class.forName(desc.getName(), false, classLoader);
+                } catch (ClassNotFoundException e) {
+                    return super.resolveClass(desc);
+                }
+            }
+        };
+        try {
+            return ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw E.unexpected(e);
+        }
+    }
+
+    private DataOutputStream openLog() {
+        try {
+            return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(log, true)));
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+    }
+
+    private static void truncate(File file, long length) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(length);
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(raf);
+        }
+    }
+
+}
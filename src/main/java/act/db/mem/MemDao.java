@@ -0,0 +1,172 @@
+package act.db.mem;
+
+import act.db.DaoBase;
+import act.util.General;
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The {@link act.db.Dao} of entities stored in a {@link MemDbService}
+ *
+ * @param <ID_TYPE>    the id type
+ * @param <MODEL_TYPE> the model type
+ */
+@General
+public class MemDao<ID_TYPE, MODEL_TYPE> extends DaoBase<ID_TYPE, MODEL_TYPE, MemQuery<MODEL_TYPE>> {
+
+    private volatile MemStore store;
+
+    public MemDao() {
+    }
+
+    MemDao(Class<ID_TYPE> idType, Class<MODEL_TYPE> modelType, MemStore store) {
+        super(idType, modelType);
+        this.queryType = MemQuery.class;
+        this.store = $.notNull(store);
+    }
+
+    void bind(MemStore store) {
+        this.store = $.notNull(store);
+        if (null == modelType) {
+            modelType = store.info.modelType;
+        }
+        if (null == idType) {
+            idType = store.info.idType();
+        }
+        queryType = MemQuery.class;
+    }
+
+    @Override
+    public MODEL_TYPE findById(ID_TYPE id) {
+        MemStore store = store();
+        Object entity = store.get(id);
+        return null == entity ? null : (MODEL_TYPE) store.info.copy(entity);
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).fetch();
+    }
+
+    @Override
+    public MODEL_TYPE findOneBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).first();
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findByIdList(Collection<ID_TYPE> idList) {
+        MemStore store = store();
+        List<MODEL_TYPE> list = new ArrayList<>(idList.size());
+        for (ID_TYPE id : idList) {
+            Object entity = store.get(id);
+            if (null != entity) {
+                list.add((MODEL_TYPE) store.info.copy(entity));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> findAll() {
+        return findAllAsList();
+    }
+
+    @Override
+    public List<MODEL_TYPE> findAllAsList() {
+        MemStore store = store();
+        List<MODEL_TYPE> list = new ArrayList<>(store.size());
+        for (Object entity : store.all()) {
+            list.add((MODEL_TYPE) store.info.copy(entity));
+        }
+        return list;
+    }
+
+    @Override
+    public MODEL_TYPE reload(MODEL_TYPE entity) {
+        return findById(getId(entity));
+    }
+
+    @Override
+    public ID_TYPE getId(MODEL_TYPE entity) {
+        return (ID_TYPE) store().info.id(entity);
+    }
+
+    @Override
+    public long count() {
+        return store().size();
+    }
+
+    @Override
+    public long countBy(String fields, Object... values) throws IllegalArgumentException {
+        return q(fields, values).count();
+    }
+
+    @Override
+    public void save(MODEL_TYPE entity) {
+        store().put(entity);
+    }
+
+    @Override
+    public void save(MODEL_TYPE entity, String fields, Object... values) throws IllegalArgumentException {
+        String[] sa = MemQuery.splitFields(fields);
+        E.illegalArgumentIf(sa.length != values.length, "The number of values does not match the number of fields");
+        ID_TYPE id = getId(entity);
+        E.illegalArgumentIf(!store().update(id, sa, values), "Entity not found: %s", id);
+    }
+
+    @Override
+    public void save(Iterable<MODEL_TYPE> entities) {
+        MemStore store = store();
+        for (MODEL_TYPE entity : entities) {
+            store.put(entity);
+        }
+    }
+
+    @Override
+    public void delete(MODEL_TYPE entity) {
+        deleteById(getId(entity));
+    }
+
+    @Override
+    public void delete(MemQuery<MODEL_TYPE> query) {
+        for (MODEL_TYPE entity : query.fetch()) {
+            delete(entity);
+        }
+    }
+
+    @Override
+    public void deleteById(ID_TYPE id) {
+        store().remove(id);
+    }
+
+    @Override
+    public void deleteBy(String fields, Object... values) throws IllegalArgumentException {
+        delete(q(fields, values));
+    }
+
+    @Override
+    public void drop() {
+        store().clear();
+    }
+
+    @Override
+    public MemQuery<MODEL_TYPE> q() {
+        return new MemQuery<>(store());
+    }
+
+    @Override
+    public MemQuery<MODEL_TYPE> q(String fields, Object... values) {
+        return new MemQuery<>(store(), fields, values);
+    }
+
+    private MemStore store() {
+        MemStore store = this.store;
+        E.illegalStateIf(null == store, "dao not bound to a mem db service");
+        return store;
+    }
+
+}
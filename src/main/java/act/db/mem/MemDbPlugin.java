@@ -0,0 +1,25 @@
+package act.db.mem;
+
+import act.app.App;
+import act.db.DbPlugin;
+import act.db.DbService;
+
+import java.util.Map;
+
+/**
+ * The built-in in-memory db plugin. It is used only when specified with
+ * `db.impl=act.db.mem.MemDbPlugin`, see {@link MemDbService}
+ */
+public class MemDbPlugin extends DbPlugin {
+
+    @Override
+    public DbService initDbService(String id, App app, Map<String, Object> conf) {
+        return new MemDbService(id, app, conf);
+    }
+
+    @Override
+    public boolean explicitOnly() {
+        return true;
+    }
+
+}
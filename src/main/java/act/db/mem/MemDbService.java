@@ -0,0 +1,101 @@
+package act.db.mem;
+
+import act.app.App;
+import act.db.Dao;
+import act.db.DbService;
+import org.osgl.$;
+import org.osgl.util.S;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@link DbService} keeping the entities in memory.
+ *
+ * Configurations, prefixed with `db.` or `db.<id>.`:
+ *
+ * * `impl` - `act.db.mem.MemDbPlugin`
+ * * `data.dir` - the dir of the snapshot and log files, relative to the app
+ *   home if not absolute. The entities are not persisted if not specified
+ * * `compact.threshold` - the number of changes logged before the log is
+ *   compacted into a new snapshot. Default value: `10000`
+ */
+public class MemDbService extends DbService {
+
+    public static final String CONF_DATA_DIR = "data.dir";
+    public static final String CONF_COMPACT_THRESHOLD = "compact.threshold";
+
+    private static final int DEFAULT_COMPACT_THRESHOLD = 10000;
+
+    private final File dataDir;
+    private final int compactThreshold;
+    private final ConcurrentMap<Class<?>, MemStore> stores = new ConcurrentHashMap<>();
+    // compactions run on the job manager instead of the writing thread
+    private final Executor compactor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            app().jobManager().now(command);
+        }
+    };
+
+    public MemDbService(String id, App app, Map<String, Object> conf) {
+        super(id, app);
+        Object dir = conf.get(CONF_DATA_DIR);
+        if (null == dir || S.blank(dir.toString())) {
+            dataDir = null;
+        } else {
+            File file = new File(dir.toString());
+            dataDir = file.isAbsolute() ? file : app.file(dir.toString());
+        }
+        Object threshold = conf.get(CONF_COMPACT_THRESHOLD);
+        compactThreshold = null == threshold ? DEFAULT_COMPACT_THRESHOLD : Integer.parseInt(threshold.toString());
+    }
+
+    @Override
+    protected void releaseResources() {
+        for (MemStore store : stores.values()) {
+            store.close();
+        }
+        stores.clear();
+    }
+
+    @Override
+    public <DAO extends Dao> DAO defaultDao(Class<?> modelType) {
+        MemStore store = store(modelType);
+        return (DAO) new MemDao(store.info.idType(), modelType, store);
+    }
+
+    @Override
+    public <DAO extends Dao> DAO newDaoInstance(Class<DAO> daoType) {
+        DAO dao = app().getInstance(daoType);
+        if (dao instanceof MemDao) {
+            MemDao memDao = (MemDao) dao;
+            memDao.bind(store(memDao.modelType()));
+        }
+        return dao;
+    }
+
+    @Override
+    public Class<? extends Annotation> entityAnnotationType() {
+        return MemEntity.class;
+    }
+
+    MemStore store(Class<?> modelType) {
+        MemStore store = stores.get(modelType);
+        if (null == store) {
+            synchronized (stores) {
+                store = stores.get(modelType);
+                if (null == store) {
+                    store = new MemStore($.notNull(modelType), dataDir, compactThreshold, compactor);
+                    stores.put(modelType, store);
+                }
+            }
+        }
+        return store;
+    }
+
+}
@@ -0,0 +1,20 @@
+package act.db.mem;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark a model class to be stored by {@link MemDbService}.
+ *
+ * The id of the entity is the field annotated with an `@Id` annotation,
+ * e.g. `javax.persistence.Id`, or the field named `id` if there is no
+ * such annotation
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MemEntity {
+}
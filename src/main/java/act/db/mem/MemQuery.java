@@ -0,0 +1,217 @@
+package act.db.mem;
+
+import act.db.Dao;
+import org.osgl.$;
+import org.osgl.util.E;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Query of a {@link MemDao}.
+ *
+ * Field conditions are matched by equality. If any of the fields is
+ * {@link Indexed indexed} the candidates are taken from the index with the
+ * least entities, otherwise all entities are scanned. Results can be
+ * ordered by multiple fields, prefixed with `-` for descending order. When
+ * ordered by a single field with a sorted index and without conditions, the
+ * order of the index is used directly
+ *
+ * @param <MODEL_TYPE> the model type
+ */
+public class MemQuery<MODEL_TYPE> implements Dao.Query<MODEL_TYPE, MemQuery<MODEL_TYPE>> {
+
+    private final MemStore store;
+    private final List<String> fields = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<String> orderBy = new ArrayList<>();
+    private int offset;
+    private int limit = -1;
+
+    MemQuery(MemStore store) {
+        this.store = store;
+    }
+
+    MemQuery(MemStore store, String fields, Object... values) {
+        this(store);
+        filter(fields, values);
+    }
+
+    /**
+     * Add field conditions to the query
+     *
+     * @param fields the fields specification, see {@link Dao#findBy(String, Object...)}
+     * @param values the values
+     * @return this query
+     */
+    public MemQuery<MODEL_TYPE> filter(String fields, Object... values) {
+        String[] sa = splitFields(fields);
+        E.illegalArgumentIf(sa.length != values.length, "The number of values does not match the number of fields");
+        for (int i = 0; i < sa.length; ++i) {
+            this.fields.add(sa[i]);
+            this.values.add(store.info.convert(sa[i], values[i]));
+        }
+        return this;
+    }
+
+    @Override
+    public MemQuery<MODEL_TYPE> offset(int pos) {
+        this.offset = pos;
+        return this;
+    }
+
+    @Override
+    public MemQuery<MODEL_TYPE> limit(int limit) {
+        this.limit = limit;
+        return this;
+    }
+
+    @Override
+    public MemQuery<MODEL_TYPE> orderBy(String... fieldList) {
+        for (String s : fieldList) {
+            for (String field : splitFields(s)) {
+                orderBy.add(field);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public MODEL_TYPE first() {
+        List<Object> list = run(1);
+        return list.isEmpty() ? null : (MODEL_TYPE) store.info.copy(list.get(0));
+    }
+
+    @Override
+    public Iterable<MODEL_TYPE> fetch() {
+        List<Object> result = run(limit);
+        List<MODEL_TYPE> list = new ArrayList<>(result.size());
+        for (Object entity : result) {
+            list.add((MODEL_TYPE) store.info.copy(entity));
+        }
+        return list;
+    }
+
+    @Override
+    public long count() {
+        if (fields.isEmpty()) {
+            return Math.max(0, limited(store.size() - offset));
+        }
+        return run(limit).size();
+    }
+
+    private int limited(int n) {
+        return limit < 0 ? n : Math.min(n, limit);
+    }
+
+    // returns the entities held by the store, which shall be copied before handed out
+    private List<Object> run(int limit) {
+        List<Object> result;
+        Index.Sorted sortedIndex = fields.isEmpty() && orderBy.size() == 1 ? sortedIndex(orderBy.get(0)) : null;
+        if (null != sortedIndex) {
+            boolean descending = orderBy.get(0).startsWith("-");
+            result = new ArrayList<>();
+            for (Object id : sortedIndex.orderedIds(descending)) {
+                Object entity = store.get(id);
+                if (null != entity) {
+                    result.add(entity);
+                }
+            }
+        } else {
+            result = filter(candidates());
+            if (!orderBy.isEmpty()) {
+                Collections.sort(result, comparator());
+            }
+        }
+        int from = Math.min(offset, result.size());
+        int to = limit < 0 ? result.size() : Math.min(result.size(), from + limit);
+        return result.subList(from, to);
+    }
+
+    private Collection<Object> candidates() {
+        Set<Object> ids = null;
+        for (int i = 0, n = fields.size(); i < n; ++i) {
+            Index index = store.index(fields.get(i));
+            if (null != index) {
+                Set<Object> set = index.ids(values.get(i));
+                if (null == ids || set.size() < ids.size()) {
+                    ids = set;
+                }
+            }
+        }
+        if (null == ids) {
+            return store.all();
+        }
+        List<Object> list = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            Object entity = store.get(id);
+            if (null != entity) {
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+
+    private List<Object> filter(Collection<Object> candidates) {
+        List<Object> list = new ArrayList<>();
+        int n = fields.size();
+        for (Object entity : candidates) {
+            boolean match = true;
+            for (int i = 0; i < n && match; ++i) {
+                match = $.eq(values.get(i), store.info.value(entity, fields.get(i)));
+            }
+            if (match) {
+                list.add(entity);
+            }
+        }
+        return list;
+    }
+
+    private Index.Sorted sortedIndex(String orderBy) {
+        Index index = store.index(orderBy.startsWith("-") ? orderBy.substring(1) : orderBy);
+        return index instanceof Index.Sorted ? (Index.Sorted) index : null;
+    }
+
+    private Comparator<Object> comparator() {
+        final int n = orderBy.size();
+        final String[] names = new String[n];
+        final boolean[] descending = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            String s = orderBy.get(i);
+            descending[i] = s.startsWith("-");
+            names[i] = descending[i] ? s.substring(1) : s;
+        }
+        return new Comparator<Object>() {
+            @Override
+            public int compare(Object o1, Object o2) {
+                for (int i = 0; i < n; ++i) {
+                    Comparable v1 = (Comparable) store.info.value(o1, names[i]);
+                    Comparable v2 = (Comparable) store.info.value(o2, names[i]);
+                    int c;
+                    if (null == v1) {
+                        // null comes last
+                        c = null == v2 ? 0 : 1;
+                    } else {
+                        c = null == v2 ? -1 : v1.compareTo(v2);
+                        if (descending[i]) {
+                            c = -c;
+                        }
+                    }
+                    if (0 != c) {
+                        return c;
+                    }
+                }
+                return 0;
+            }
+        };
+    }
+
+    static String[] splitFields(String fields) {
+        return fields.trim().split("[,;:\\s]+");
+    }
+
+}
@@ -0,0 +1,289 @@
+package act.db.mem;
+
+import org.osgl.$;
+import org.osgl.util.E;
+import org.osgl.util.S;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the entities of a model class in a concurrent primary index and
+ * the declared {@link Indexed secondary indexes}.
+ *
+ * Reads do not lock. Writes are serialized by the store so that the
+ * indexes and the {@link Journal} are always consistent with the primary
+ * index. The entities held are copies that are never changed in place:
+ * {@link #get(Object)} and {@link #all()} return them as they are and the
+ * callers shall {@link EntityInfo#copy(Object) copy} them before handing
+ * them out
+ */
+class MemStore {
+
+    final EntityInfo info;
+
+    private final ConcurrentMap<Object, Object> entities = new ConcurrentHashMap<>();
+    private final Map<String, Index> indexes;
+    // the indexed field values of each entity when it is saved
+    private final Map<Object, Object[]> indexedValues = new HashMap<>();
+    private final String[] indexedFields;
+    private final AtomicLong seq = new AtomicLong();
+    private final Journal journal;
+    private final Executor compactor;
+
+    MemStore(Class<?> modelType) {
+        this(modelType, null, 0);
+    }
+
+    MemStore(Class<?> modelType, File dataDir, int threshold) {
+        this(modelType, dataDir, threshold, null);
+    }
+
+    /**
+     * Construct a store persisted to the data dir specified
+     *
+     * @param modelType the model class
+     * @param dataDir   the dir of the snapshot and log files, or `null` if
+     *                  the store is not persisted
+     * @param threshold the number of changes logged before compacting
+     *                  the log into a new snapshot
+     * @param compactor runs the compactions, or `null` to run them on the
+     *                  writing thread
+     */
+    MemStore(Class<?> modelType, File dataDir, int threshold, Executor compactor) {
+        this.info = new EntityInfo(modelType);
+        Map<String, Index> indexes = new HashMap<>();
+        for (Map.Entry<String, Boolean> entry : info.indexed.entrySet()) {
+            indexes.put(entry.getKey(), Index.of(entry.getKey(), entry.getValue()));
+        }
+        this.indexes = Collections.unmodifiableMap(indexes);
+        this.indexedFields = indexes.keySet().toArray(new String[indexes.size()]);
+        this.compactor = compactor;
+        if (null == dataDir) {
+            this.journal = null;
+        } else {
+            this.journal = new Journal(dataDir, modelType.getName(), threshold, modelType.getClassLoader());
+            load();
+        }
+    }
+
+    Object get(Object id) {
+        return null == id ? null : entities.get(id);
+    }
+
+    Collection<Object> all() {
+        return entities.values();
+    }
+
+    int size() {
+        return entities.size();
+    }
+
+    /**
+     * Returns the index of the field specified or `null` if the field is not indexed
+     */
+    Index index(String field) {
+        return indexes.get(field);
+    }
+
+    /**
+     * Save a copy of an entity. An id is generated for the entity if it
+     * does not have one and the id type is `Long`, `Integer` or `String`
+     */
+    void put(Object entity) {
+        Collection<Object> snapshot = null;
+        synchronized (this) {
+            Object id = info.id(entity);
+            if (isEmpty(id)) {
+                id = nextId();
+                info.id(entity, id);
+            } else {
+                track(id);
+            }
+            snapshot = save(id, info.copy(entity));
+        }
+        compact(snapshot);
+    }
+
+    /**
+     * Update fields of a saved entity
+     *
+     * @return `false` if the entity is not found
+     */
+    boolean update(Object id, String[] fields, Object[] values) {
+        Collection<Object> snapshot = null;
+        synchronized (this) {
+            Object stored = get(id);
+            if (null == stored) {
+                return false;
+            }
+            Object entity = info.copy(stored);
+            for (int i = 0; i < fields.length; ++i) {
+                info.value(entity, fields[i], values[i]);
+            }
+            snapshot = save(id, entity);
+        }
+        compact(snapshot);
+        return true;
+    }
+
+    void remove(Object id) {
+        if (null == id) {
+            return;
+        }
+        Collection<Object> snapshot = null;
+        synchronized (this) {
+            if (!entities.containsKey(id)) {
+                return;
+            }
+            if (null != journal) {
+                journal.delete(id);
+            }
+            doRemove(id);
+            snapshot = compactionSnapshot();
+        }
+        compact(snapshot);
+    }
+
+    synchronized void clear() {
+        if (null != journal) {
+            journal.drop();
+        }
+        doClear();
+    }
+
+    synchronized void close() {
+        if (null != journal) {
+            journal.close();
+        }
+    }
+
+    private void load() {
+        journal.open(new Journal.Replay() {
+            @Override
+            public void apply(byte op, Object payload) {
+                switch (op) {
+                    case Journal.PUT:
+                        Object id = info.id(payload);
+                        track(id);
+                        doPut(id, payload);
+                        break;
+                    case Journal.DELETE:
+                        doRemove(payload);
+                        break;
+                    case Journal.DROP:
+                        doClear();
+                        break;
+                    default:
+                        throw E.unexpected("Unknown journal op: %s", op);
+                }
+            }
+        });
+        if (journal.resumeCompaction()) {
+            journal.writeSnapshot(new ArrayList<>(entities.values()));
+        }
+    }
+
+    // called under the write lock
+    private Collection<Object> save(Object id, Object entity) {
+        if (null != journal) {
+            journal.put(entity);
+        }
+        doPut(id, entity);
+        return compactionSnapshot();
+    }
+
+    private void doPut(Object id, Object entity) {
+        if (indexedFields.length > 0) {
+            Object[] values = new Object[indexedFields.length];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = info.value(entity, indexedFields[i]);
+            }
+            Object[] old = indexedValues.put(id, values);
+            for (int i = 0; i < values.length; ++i) {
+                Index index = indexes.get(indexedFields[i]);
+                if (null != old) {
+                    if ($.eq(old[i], values[i])) {
+                        continue;
+                    }
+                    index.remove(old[i], id);
+                }
+                index.add(values[i], id);
+            }
+        }
+        entities.put(id, entity);
+    }
+
+    private void doRemove(Object id) {
+        Object[] old = indexedValues.remove(id);
+        if (null != old) {
+            for (int i = 0; i < old.length; ++i) {
+                indexes.get(indexedFields[i]).remove(old[i], id);
+            }
+        }
+        entities.remove(id);
+    }
+
+    private void doClear() {
+        entities.clear();
+        indexedValues.clear();
+        for (Index index : indexes.values()) {
+            index.clear();
+        }
+    }
+
+    // copy of the entities if a compaction is started, called under the write lock
+    private Collection<Object> compactionSnapshot() {
+        if (null != journal && journal.compactionDue() && journal.rotate()) {
+            return new ArrayList<>(entities.values());
+        }
+        return null;
+    }
+
+    private void compact(final Collection<Object> snapshot) {
+        if (null == snapshot) {
+            return;
+        }
+        if (null == compactor) {
+            journal.writeSnapshot(snapshot);
+        } else {
+            compactor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    journal.writeSnapshot(snapshot);
+                }
+            });
+        }
+    }
+
+    private Object nextId() {
+        Class<?> idType = info.idType();
+        if (Long.class == idType || long.class == idType) {
+            return seq.incrementAndGet();
+        } else if (Integer.class == idType || int.class == idType) {
+            return (int) seq.incrementAndGet();
+        } else if (String.class == idType) {
+            return S.uuid();
+        }
+        throw E.unsupport("Cannot generate id of type %s for %s", idType, info.modelType);
+    }
+
+    private boolean isEmpty(Object id) {
+        return null == id || info.idType().isPrimitive() && 0L == ((Number) id).longValue();
+    }
+
+    // keep the generated ids greater than the numeric ids used
+    private void track(Object id) {
+        if (id instanceof Long || id instanceof Integer) {
+            long l = ((Number) id).longValue();
+            if (l > seq.get()) {
+                seq.set(l);
+            }
+        }
+    }
+
+}
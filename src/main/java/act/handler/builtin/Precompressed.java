@@ -0,0 +1,147 @@
+package act.handler.builtin;
+
+import act.app.ActionContext;
+import act.app.App;
+import act.conf.AppConfig;
+import act.util.Gzip;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.osgl.http.H;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+/**
+ * Select the precompressed variant of a static resource according to the
+ * `Accept-Encoding` request header.
+ *
+ * A `.br` or `.gz` file sitting next to the static file, e.g. generated at
+ * build time, is used if present. Otherwise a `.gz` variant is generated
+ * into the app tmp dir on first access and reused later on, as long as the
+ * source file is not changed.
+ */
+class Precompressed {
+
+    static final String CONTENT_ENCODING = "Content-Encoding";
+    static final String VARY = "Vary";
+    static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String BR = "br";
+
+    private final File file;
+    private final String encoding;
+
+    private Precompressed(File file, String encoding) {
+        this.file = file;
+        this.encoding = encoding;
+    }
+
+    File file() {
+        return file;
+    }
+
+    /**
+     * Set the `Content-Encoding` and `Vary` response headers
+     */
+    void applyTo(H.Response resp) {
+        resp.header(CONTENT_ENCODING, encoding);
+        resp.header(VARY, ACCEPT_ENCODING);
+    }
+
+    /**
+     * Set the `Vary` response header on a file sent without encoding if its
+     * content type is compressible, as other clients might get an encoded variant
+     */
+    static void vary(H.Format fmt, ActionContext context) {
+        AppConfig config = context.config();
+        if (null != config && config.compressionEnabled() && null != fmt && config.compressible(fmt.contentType())) {
+            context.resp().header(VARY, ACCEPT_ENCODING);
+        }
+    }
+
+    /**
+     * Returns the precompressed variant of the file
+     *
+     * @param file    the static file
+     * @param fmt     the format of the file
+     * @param context the action context
+     * @return the variant or `null` if the file shall be sent without encoding
+     */
+    static Precompressed of(File file, H.Format fmt, ActionContext context) {
+        if (!applicable(context)) {
+            return null;
+        }
+        String acceptEncoding = context.req().header(ACCEPT_ENCODING);
+        if (Gzip.accepts(acceptEncoding, BR)) {
+            File br = new File(file.getPath() + ".br");
+            if (fresh(br, file)) {
+                return new Precompressed(br, BR);
+            }
+        }
+        if (!Gzip.accepts(acceptEncoding, Gzip.ENCODING)) {
+            return null;
+        }
+        File gz = new File(file.getPath() + ".gz");
+        if (fresh(gz, file)) {
+            return new Precompressed(gz, Gzip.ENCODING);
+        }
+        AppConfig config = context.config();
+        if (!compressible(fmt, file.length(), config)) {
+            return null;
+        }
+        gz = cacheFile(file.getAbsolutePath(), context);
+        if (!fresh(gz, file)) {
+            Gzip.compress(IO.is(file), gz, config.compressionLevel());
+        }
+        return new Precompressed(gz, Gzip.ENCODING);
+    }
+
+    /**
+     * Returns the gzip variant of a resource packaged in jar file
+     *
+     * @param url     the resource URL
+     * @param fmt     the format of the resource
+     * @param length  the resource length
+     * @param context the action context
+     * @return the variant or `null` if the resource shall be sent without encoding
+     */
+    static Precompressed of(URL url, H.Format fmt, long length, ActionContext context) throws IOException {
+        if (!applicable(context)
+                || !Gzip.accepts(context.req().header(ACCEPT_ENCODING), Gzip.ENCODING)
+                || !compressible(fmt, length, context.config())) {
+            return null;
+        }
+        // resources packaged in jar file does not change
+        File gz = cacheFile(url.toExternalForm(), context);
+        if (!gz.exists()) {
+            InputStream is = url.openStream();
+            Gzip.compress(is, gz, context.config().compressionLevel());
+        }
+        return new Precompressed(gz, Gzip.ENCODING);
+    }
+
+    private static boolean applicable(ActionContext context) {
+        AppConfig config = context.config();
+        // range requests are served with the identity encoding
+        return null != config && config.compressionEnabled() && null == context.req().header(ResourceMeta.RANGE);
+    }
+
+    private static boolean compressible(H.Format fmt, long length, AppConfig config) {
+        return null != fmt && length >= config.compressionMinSize() && config.compressible(fmt.contentType());
+    }
+
+    private static boolean fresh(File variant, File source) {
+        return variant.isFile() && variant.lastModified() >= source.lastModified();
+    }
+
+    private static File cacheFile(String key, ActionContext context) {
+        App app = context.app();
+        File tmp = null == app ? null : app.tmpDir();
+        if (null == tmp) {
+            tmp = new File(System.getProperty("java.io.tmpdir"), "act");
+        }
+        return new File(new File(tmp, "gz"), DigestUtils.md5Hex(key) + ".gz");
+    }
+}
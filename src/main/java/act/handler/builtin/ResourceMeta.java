@@ -0,0 +1,253 @@
+package act.handler.builtin;
+
+import act.app.ActionContext;
+import act.data.DateTimeFormats;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.osgl.http.H;
+import org.osgl.util.E;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import static org.osgl.http.H.Header.Names.*;
+
+/**
+ * Keeps the metadata of a static resource: content type, length, last modified
+ * timestamp and a strong ETag, and implements conditional GET and single byte
+ * range requests based on them
+ */
+class ResourceMeta {
+
+    static final String ACCEPT_RANGES = "Accept-Ranges";
+    static final String CONTENT_RANGE = "Content-Range";
+    static final String RANGE = "Range";
+    static final String IF_RANGE = "If-Range";
+
+    private static final int SC_PARTIAL_CONTENT = 206;
+    private static final int SC_RANGE_NOT_SATISFIABLE = 416;
+
+    // returned by parseRange when the whole content shall be sent
+    private static final long[] FULL = new long[0];
+
+    private final String contentType;
+    private final long length;
+    private final long lastModified;
+    private final String lastModifiedStr;
+    private final String etag;
+
+    ResourceMeta(H.Format format, long length, long lastModified, String md5) {
+        this.contentType = null == format || H.Format.UNKNOWN == format ? null : format.contentType();
+        this.length = length;
+        // HTTP dates are in seconds precision
+        this.lastModified = lastModified / 1000 * 1000;
+        this.lastModifiedStr = httpDate(this.lastModified);
+        this.etag = S.builder("\"").append(md5).append("\"").toString();
+    }
+
+    /**
+     * Create the metadata of a file
+     */
+    static ResourceMeta of(File file, H.Format format) {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        InputStream is = IO.is(file);
+        try {
+            return new ResourceMeta(format, length, lastModified, DigestUtils.md5Hex(is));
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(is);
+        }
+    }
+
+    /**
+     * Check if the file has been changed since this metadata was created
+     */
+    boolean stale(File file) {
+        return file.length() != length || file.lastModified() / 1000 * 1000 != lastModified;
+    }
+
+    long length() {
+        return length;
+    }
+
+    String etag() {
+        return etag;
+    }
+
+    /**
+     * Set the response headers and status according to the request.
+     *
+     * @param context the action context
+     * @return `{offset, length}` of the content to be sent, or `null` if no
+     * content shall be sent, e.g. the resource is not modified or the request
+     * method is `HEAD`
+     */
+    long[] prepare(ActionContext context) {
+        H.Request req = context.req();
+        H.Response resp = context.resp();
+        resp.header(ETAG, etag);
+        resp.header(LAST_MODIFIED, lastModifiedStr);
+        resp.header(ACCEPT_RANGES, "bytes");
+        if (null != contentType) {
+            resp.contentType(contentType);
+        }
+        if (notModified(req)) {
+            resp.status(H.Status.NOT_MODIFIED);
+            return null;
+        }
+        long offset = 0;
+        long len = length;
+        String range = req.header(RANGE);
+        if (null != range && ifRangeMatches(req)) {
+            long[] la = parseRange(range, length);
+            if (null == la) {
+                resp.status(SC_RANGE_NOT_SATISFIABLE);
+                resp.header(CONTENT_RANGE, "bytes */" + length);
+                resp.contentLength(0);
+                return null;
+            }
+            if (FULL != la) {
+                offset = la[0];
+                len = la[1] - la[0] + 1;
+                resp.status(SC_PARTIAL_CONTENT);
+                resp.header(CONTENT_RANGE, S.fmt("bytes %s-%s/%s", la[0], la[1], length));
+            }
+        }
+        resp.contentLength(len);
+        return H.Method.HEAD == req.method() ? null : new long[]{offset, len};
+    }
+
+    /**
+     * Check if the client holds a fresh copy of the resource
+     */
+    boolean notModified(H.Request req) {
+        String ifNoneMatch = req.header(IF_NONE_MATCH);
+        if (null != ifNoneMatch) {
+            return matches(ifNoneMatch);
+        }
+        String ifModifiedSince = req.header(IF_MODIFIED_SINCE);
+        if (null == ifModifiedSince) {
+            return false;
+        }
+        long since = parseHttpDate(ifModifiedSince);
+        return since >= 0 && lastModified <= since;
+    }
+
+    private boolean ifRangeMatches(H.Request req) {
+        String ifRange = req.header(IF_RANGE);
+        if (null == ifRange) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"")) {
+            return etag.equals(ifRange);
+        }
+        return parseHttpDate(ifRange) == lastModified;
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if ("*".equals(ifNoneMatch.trim())) {
+            return true;
+        }
+        for (String s : ifNoneMatch.split(",")) {
+            s = s.trim();
+            if (s.startsWith("W/")) {
+                s = s.substring(2);
+            }
+            if (etag.equals(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a `Range` header. Only single byte range is supported, for any
+     * other range requests the whole content is sent
+     *
+     * @param range  the `Range` header value
+     * @param length the content length
+     * @return `{first, last}` byte positions, {@link #FULL} if the whole
+     * content shall be sent or `null` if the range is not satisfiable
+     */
+    static long[] parseRange(String range, long length) {
+        range = range.trim();
+        if (!range.startsWith("bytes=") || range.indexOf(',') > -1) {
+            return FULL;
+        }
+        String spec = range.substring(6).trim();
+        int pos = spec.indexOf('-');
+        if (pos < 0) {
+            return FULL;
+        }
+        try {
+            String first = spec.substring(0, pos).trim();
+            String last = spec.substring(pos + 1).trim();
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return FULL;
+                }
+                // suffix range: the last N bytes
+                long n = Long.parseLong(last);
+                if (n <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(0, length - n), length - 1};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return FULL;
+            }
+            if (start >= length) {
+                return null;
+            }
+            return new long[]{start, Math.min(end, length - 1)};
+        } catch (NumberFormatException e) {
+            return FULL;
+        }
+    }
+
+    /**
+     * Copy `len` bytes starting at `offset` from the input stream to the output stream
+     */
+    static void copy(InputStream is, OutputStream os, long offset, long len) {
+        try {
+            long skipped = 0;
+            while (skipped < offset) {
+                long n = is.skip(offset - skipped);
+                if (n <= 0) {
+                    return;
+                }
+                skipped += n;
+            }
+            byte[] buf = new byte[8192];
+            long remaining = len;
+            while (remaining > 0) {
+                int n = is.read(buf, 0, (int) Math.min(buf.length, remaining));
+                if (n < 0) {
+                    break;
+                }
+                os.write(buf, 0, n);
+                remaining -= n;
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(is);
+        }
+    }
+
+    private static String httpDate(long ts) {
+        return DateTimeFormats.httpDate(ts);
+    }
+
+    private static long parseHttpDate(String s) {
+        return DateTimeFormats.parseHttpDate(s);
+    }
+}
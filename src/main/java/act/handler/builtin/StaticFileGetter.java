@@ -1,5 +1,6 @@
 package act.handler.builtin;
 
+import act.ResponseImplBase;
 import act.app.ActionContext;
 import act.app.App;
 import act.controller.ParamNames;
@@ -10,12 +11,14 @@ import org.osgl.util.FastStr;
 import org.osgl.util.IO;
 import org.osgl.util.S;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class StaticFileGetter extends FastRequestHandler {
     private File base;
+    private ConcurrentMap<String, ResourceMeta> metaCache = new ConcurrentHashMap<String, ResourceMeta>();
 
     public StaticFileGetter(String base, App app) {
         E.NPE(base);
@@ -30,6 +33,7 @@ public class StaticFileGetter extends FastRequestHandler {
     @Override
     protected void releaseResources() {
         base = null;
+        metaCache.clear();
     }
 
     @Override
@@ -50,23 +54,51 @@ public class StaticFileGetter extends FastRequestHandler {
             }
             fmt = contentType(path);
             file = new File(base, path);
-            if (!file.exists()) {
+            if (!file.exists() || file.isDirectory()) {
                 AlwaysNotFound.INSTANCE.handle(context);
                 return;
             }
-            if (!file.canRead()) {
+            if (!file.canRead() || !withinBase(file)) {
                 AlwaysForbidden.INSTANCE.handle(context);
                 return;
             }
         } else {
             fmt = contentType(file.getPath());
         }
-        InputStream is = new BufferedInputStream(IO.is(file));
+        Precompressed variant = Precompressed.of(file, fmt, context);
+        if (null != variant) {
+            file = variant.file();
+            variant.applyTo(context.resp());
+        } else {
+            Precompressed.vary(fmt, context);
+        }
+        ResourceMeta meta = meta(file, fmt);
+        long[] region = meta.prepare(context);
+        if (null == region) {
+            return;
+        }
         H.Response resp = context.resp();
-        if (null != fmt && H.Format.UNKNOWN != fmt) {
-            resp.contentType(fmt.contentType());
+        if (resp instanceof ResponseImplBase) {
+            ((ResponseImplBase) resp).sendFile(file, region[0], region[1]);
+        } else {
+            ResourceMeta.copy(IO.is(file), resp.outputStream(), region[0], region[1]);
         }
-        IO.copy(is, context.resp().outputStream());
+    }
+
+    private ResourceMeta meta(File file, H.Format fmt) {
+        String key = file.getPath();
+        ResourceMeta meta = metaCache.get(key);
+        if (null == meta || meta.stale(file)) {
+            meta = ResourceMeta.of(file, fmt);
+            metaCache.put(key, meta);
+        }
+        return meta;
+    }
+
+    // prevent `..` in the path from escaping the base dir
+    private boolean withinBase(File file) {
+        Path basePath = base.getAbsoluteFile().toPath().normalize();
+        return file.getAbsoluteFile().toPath().normalize().startsWith(basePath);
     }
 
     // for unit test
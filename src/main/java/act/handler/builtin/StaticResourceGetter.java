@@ -1,19 +1,26 @@
 package act.handler.builtin;
 
+import act.ResponseImplBase;
 import act.app.ActionContext;
 import act.app.App;
 import act.controller.ParamNames;
 import act.handler.builtin.controller.FastRequestHandler;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.osgl.http.H;
 import org.osgl.mvc.result.NotFound;
 import org.osgl.util.E;
 import org.osgl.util.IO;
 import org.osgl.util.S;
 
+import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
-
-import static org.osgl.http.H.Format.UNKNOWN;
+import java.net.URLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Unlike a {@link act.handler.builtin.StaticFileGetter}, the
@@ -25,6 +32,7 @@ public class StaticResourceGetter extends FastRequestHandler {
 
     private String base;
     private URL baseUrl;
+    private ConcurrentMap<String, ResourceMeta> metaCache = new ConcurrentHashMap<String, ResourceMeta>();
 
     public StaticResourceGetter(String base) {
         String path = base;
@@ -38,6 +46,7 @@ public class StaticResourceGetter extends FastRequestHandler {
 
     @Override
     protected void releaseResources() {
+        metaCache.clear();
     }
 
     @Override
@@ -46,9 +55,10 @@ public class StaticResourceGetter extends FastRequestHandler {
         String path = context.paramVal(ParamNames.PATH);
         try {
             URL target;
-            H.Format fmt = UNKNOWN;
+            String targetPath;
             if (S.blank(path)) {
                 target = baseUrl;
+                targetPath = base;
             } else {
                 StringBuilder sb = S.builder(base);
                 if (base.endsWith(SEP) || path.startsWith(SEP)) {
@@ -56,20 +66,115 @@ public class StaticResourceGetter extends FastRequestHandler {
                 } else {
                     sb.append(SEP).append(path);
                 }
-                target = StaticFileGetter.class.getResource(sb.toString());
+                targetPath = sb.toString();
+                target = StaticFileGetter.class.getResource(targetPath);
                 if (null == target) {
                     throw NotFound.INSTANCE;
                 }
             }
-            fmt = StaticFileGetter.contentType(base);
-            H.Response resp = context.resp();
-            if (UNKNOWN != fmt) {
-                resp.contentType(fmt.contentType());
+            H.Format fmt = StaticFileGetter.contentType(targetPath);
+            if ("file".equals(target.getProtocol())) {
+                // resources not packaged in jar, e.g. in dev mode, could be
+                // changed and served as file
+                sendFile(new File(target.toURI()), fmt, context);
+                return;
+            }
+            ResourceMeta meta = meta(targetPath, target, fmt);
+            Precompressed variant = Precompressed.of(target, fmt, meta.length(), context);
+            if (null != variant) {
+                variant.applyTo(context.resp());
+                send(variant.file(), fmt, context);
+                return;
+            }
+            Precompressed.vary(fmt, context);
+            long[] region = meta.prepare(context);
+            if (null != region) {
+                ResourceMeta.copy(target.openStream(), context.resp().outputStream(), region[0], region[1]);
             }
-            IO.copy(target.openStream(), resp.outputStream());
         } catch (IOException e) {
             App.logger.warn(e, "Error servicing static resource request");
             throw NotFound.INSTANCE;
+        } catch (URISyntaxException e) {
+            throw NotFound.INSTANCE;
+        }
+    }
+
+    private void sendFile(File file, H.Format fmt, ActionContext context) {
+        if (file.isDirectory()) {
+            throw NotFound.INSTANCE;
+        }
+        Precompressed variant = Precompressed.of(file, fmt, context);
+        if (null != variant) {
+            file = variant.file();
+            variant.applyTo(context.resp());
+        } else {
+            Precompressed.vary(fmt, context);
+        }
+        send(file, fmt, context);
+    }
+
+    private void send(File file, H.Format fmt, ActionContext context) {
+        String key = file.getPath();
+        ResourceMeta meta = metaCache.get(key);
+        if (null == meta || meta.stale(file)) {
+            meta = ResourceMeta.of(file, fmt);
+            metaCache.put(key, meta);
+        }
+        long[] region = meta.prepare(context);
+        if (null == region) {
+            return;
+        }
+        H.Response resp = context.resp();
+        if (resp instanceof ResponseImplBase) {
+            ((ResponseImplBase) resp).sendFile(file, region[0], region[1]);
+        } else {
+            ResourceMeta.copy(IO.is(file), resp.outputStream(), region[0], region[1]);
+        }
+    }
+
+    // resources packaged in jar file does not change, thus the
+    // metadata is calculated only once
+    private ResourceMeta meta(String path, URL url, H.Format fmt) throws IOException {
+        ResourceMeta meta = metaCache.get(path);
+        if (null == meta) {
+            URLConnection conn = url.openConnection();
+            long lastModified = conn.getLastModified();
+            InputStream is = conn.getInputStream();
+            try {
+                CountingInputStream cis = new CountingInputStream(is);
+                String md5 = DigestUtils.md5Hex(cis);
+                meta = new ResourceMeta(fmt, cis.count, lastModified, md5);
+            } finally {
+                IO.close(is);
+            }
+            metaCache.putIfAbsent(path, meta);
+        }
+        return meta;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream is) {
+            super(is);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
         }
     }
 
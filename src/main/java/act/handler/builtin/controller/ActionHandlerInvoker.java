@@ -19,4 +19,12 @@ public interface ActionHandlerInvoker extends Prioritised, Destroyable {
     CORS.Spec corsSpec();
 
     CSRF.Spec csrfSpec();
+
+    CacheSupport cacheSupport();
+
+    /**
+     * Prepare everything needed to handle a request, e.g. param value
+     * loaders and JSON DTO classes, without actually handling one
+     */
+    void warmUp();
 }
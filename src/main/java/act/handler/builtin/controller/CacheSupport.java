@@ -0,0 +1,178 @@
+package act.handler.builtin.controller;
+
+import act.app.ActionContext;
+import act.controller.CacheFor;
+import org.osgl.http.H;
+import org.osgl.util.C;
+import org.osgl.util.S;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encapsulate the action response cache setting specified by
+ * {@link CacheFor} annotation.
+ *
+ * `CacheSupport` also coordinates the concurrent cache misses on the
+ * same key so that only one request computes the response while
+ * others wait for the result (single-flight)
+ */
+public class CacheSupport {
+
+    public static final CacheSupport DISABLED = new CacheSupport();
+
+    private static final String KEY_PREFIX = "urlcache:";
+
+    private static final String SET_COOKIE = "Set-Cookie";
+
+    // the longest time a request waits for the one computing the response.
+    // It then computes the response by itself instead of holding the worker
+    static final long MAX_WAIT_MS = 2000;
+
+    private final boolean enabled;
+    private final int ttl;
+    private final boolean varyBySession;
+    private final boolean varyByFormat;
+    private final String[] varyByHeaders;
+
+    private final ConcurrentMap<String, CountDownLatch> inflight = new ConcurrentHashMap<String, CountDownLatch>();
+
+    private CacheSupport() {
+        enabled = false;
+        ttl = 0;
+        varyBySession = false;
+        varyByFormat = false;
+        varyByHeaders = new String[0];
+    }
+
+    private CacheSupport(CacheFor cacheFor) {
+        enabled = true;
+        ttl = cacheFor.value();
+        varyBySession = cacheFor.varyBySession();
+        varyByFormat = cacheFor.varyByFormat();
+        varyByHeaders = cacheFor.varyByHeaders();
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Check if the response for the current request could be cached
+     *
+     * @param context the action context
+     * @return `true` if caching applies to the request
+     */
+    public boolean applied(ActionContext context) {
+        if (!enabled) {
+            return false;
+        }
+        H.Method method = context.req().method();
+        return H.Method.GET == method || H.Method.HEAD == method;
+    }
+
+    public int ttl() {
+        return ttl;
+    }
+
+    /**
+     * Generate the cache key of the current request. Returns `null` if
+     * the response vary by session and there is no session
+     *
+     * @param context the action context
+     * @return the cache key
+     */
+    public String cacheKey(ActionContext context) {
+        H.Request req = context.req();
+        // HEAD responses carry no content, they shall not be replayed to GET
+        StringBuilder buf = S.builder(KEY_PREFIX).append(req.method().name()).append(' ');
+        if (varyBySession) {
+            H.Session session = context.session();
+            if (null == session) {
+                return null;
+            }
+            buf.append(session.id());
+        }
+        buf.append(req.url()).append('?').append(S.string(req.query()));
+        if (varyByFormat) {
+            buf.append('|').append(context.accept().name());
+        }
+        for (String header : varyByHeaders) {
+            buf.append('|').append(S.string(req.header(header)));
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Try to become the request that populates the cache entry for the key.
+     *
+     * @param key the cache key
+     * @return `null` if the caller shall compute the response and call
+     *         {@link #release(String)} afterwards, or the
+     *         latch of the request that is computing the response
+     */
+    public CountDownLatch acquire(String key) {
+        return inflight.putIfAbsent(key, new CountDownLatch(1));
+    }
+
+    /**
+     * Wait for the request computing the response to finish
+     *
+     * @param latch the latch returned by {@link #acquire(String)}
+     */
+    public void await(CountDownLatch latch) {
+        try {
+            // do not wait long in case the leader request is slow or hangs
+            latch.await(MAX_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Release waiting requests after the cache entry for the key has been populated
+     *
+     * @param key the cache key
+     */
+    public void release(String key) {
+        CountDownLatch latch = inflight.remove(key);
+        if (null != latch) {
+            latch.countDown();
+        }
+    }
+
+    /**
+     * Returns the names of the headers written when the session is dissolved
+     * into the response, e.g. session and flash headers, which are specific
+     * to the current request and shall not be cached. Headers set before,
+     * e.g. by interceptors, are kept
+     *
+     * @param before the headers before the session is dissolved
+     * @param after  the headers after the session is dissolved
+     * @return the names of the session headers
+     */
+    public static Set<String> sessionHeaders(Map<String, List<String>> before, Map<String, List<String>> after) {
+        Set<String> names = C.newSet();
+        for (Map.Entry<String, List<String>> entry : after.entrySet()) {
+            String name = entry.getKey();
+            if (!entry.getValue().equals(before.get(name)) || SET_COOKIE.equalsIgnoreCase(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    public static CacheSupport of(Method method) {
+        CacheFor cacheFor = method.getAnnotation(CacheFor.class);
+        if (null == cacheFor) {
+            cacheFor = method.getDeclaringClass().getAnnotation(CacheFor.class);
+        }
+        return null == cacheFor ? DISABLED : new CacheSupport(cacheFor);
+    }
+}
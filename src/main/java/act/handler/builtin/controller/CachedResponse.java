@@ -0,0 +1,125 @@
+package act.handler.builtin.controller;
+
+import act.app.ActionContext;
+import act.cache.Weighted;
+import act.data.DateTimeFormats;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.osgl.http.H;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.osgl.http.H.Header.Names.*;
+
+/**
+ * Keep the rendered bytes along with headers of a response so that
+ * it can be replayed to subsequent requests
+ */
+public class CachedResponse implements Serializable, Weighted {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] content;
+    private final String etag;
+    private final long lastModified;
+    private final String lastModifiedStr;
+
+    public CachedResponse(int status, Map<String, List<String>> headers, byte[] content) {
+        this.status = status;
+        this.headers = C.newMap();
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            this.headers.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        }
+        this.content = content;
+        this.etag = S.builder("\"").append(DigestUtils.md5Hex(content)).append("\"").toString();
+        // HTTP dates are in seconds precision
+        this.lastModified = System.currentTimeMillis() / 1000 * 1000;
+        this.lastModifiedStr = httpDate(lastModified);
+        this.headers.put(ETAG, values(etag));
+        this.headers.put(LAST_MODIFIED, values(lastModifiedStr));
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    public int size() {
+        return content.length;
+    }
+
+    @Override
+    public int weight() {
+        return content.length + headers.size() * 128;
+    }
+
+    /**
+     * Check if the client holds a fresh copy of this response
+     *
+     * @param req the request
+     * @return `true` if the request is a conditional GET and this response is not modified
+     */
+    public boolean notModified(H.Request req) {
+        String ifNoneMatch = req.header(IF_NONE_MATCH);
+        if (null != ifNoneMatch) {
+            return matches(ifNoneMatch);
+        }
+        String ifModifiedSince = req.header(IF_MODIFIED_SINCE);
+        return null != ifModifiedSince && lastModifiedStr.equals(ifModifiedSince);
+    }
+
+    public void applyTo(ActionContext context) {
+        H.Response resp = context.resp();
+        if (notModified(context.req())) {
+            resp.status(H.Status.NOT_MODIFIED);
+            resp.header(ETAG, etag);
+            resp.header(LAST_MODIFIED, lastModifiedStr);
+            return;
+        }
+        resp.status(status);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            List<String> values = entry.getValue();
+            resp.header(name, values.get(0));
+            for (int i = 1, n = values.size(); i < n; ++i) {
+                resp.addHeader(name, values.get(i));
+            }
+        }
+        resp.contentLength(content.length);
+        if (H.Method.HEAD != context.req().method()) {
+            IO.write(content, resp.outputStream());
+        }
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if ("*".equals(ifNoneMatch)) {
+            return true;
+        }
+        for (String s : ifNoneMatch.split(",")) {
+            s = s.trim();
+            if (s.startsWith("W/")) {
+                s = s.substring(2);
+            }
+            if (etag.equals(s)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<String> values(String value) {
+        List<String> values = new ArrayList<>(1);
+        values.add(value);
+        return values;
+    }
+
+    private static String httpDate(long ts) {
+        return DateTimeFormats.httpDate(ts);
+    }
+}
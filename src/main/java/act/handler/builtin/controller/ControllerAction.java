@@ -31,6 +31,14 @@ public class ControllerAction extends ActionHandler<ControllerAction> {
         return handlerInvoker.csrfSpec();
     }
 
+    public CacheSupport cacheSupport() {
+        return handlerInvoker.cacheSupport();
+    }
+
+    public void warmUp() {
+        handlerInvoker.warmUp();
+    }
+
     @Override
     public boolean sessionFree() {
         return handlerInvoker.sessionFree();
@@ -2,9 +2,11 @@ package act.handler.builtin.controller;
 
 import act.Act;
 import act.Destroyable;
+import act.ResponseImplBase;
 import act.app.ActionContext;
 import act.app.App;
 import act.app.AppInterceptorManager;
+import act.controller.AsyncResult;
 import act.controller.meta.ActionMethodMetaInfo;
 import act.controller.meta.CatchMethodMetaInfo;
 import act.controller.meta.ControllerClassMetaInfo;
@@ -12,12 +14,14 @@ import act.controller.meta.InterceptorMethodMetaInfo;
 import act.handler.RequestHandlerBase;
 import act.security.CORS;
 import act.security.CSRF;
+import act.util.ActErrorPageRender;
 import act.view.ActServerError;
 import act.view.RenderAny;
 import org.osgl.cache.CacheService;
 import org.osgl.http.H;
 import org.osgl.logging.L;
 import org.osgl.logging.Logger;
+import org.osgl.mvc.result.ErrorResult;
 import org.osgl.mvc.result.NoResult;
 import org.osgl.mvc.result.Result;
 import org.osgl.util.C;
@@ -26,61 +30,34 @@ import org.osgl.util.S;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
+import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.CountDownLatch;
 
 @ApplicationScoped
 public final class RequestHandlerProxy extends RequestHandlerBase {
 
     private static Logger logger = L.get(RequestHandlerProxy.class);
 
-    protected enum CacheStrategy {
-        NO_CACHE() {
-            @Override
-            public Result cached(ActionContext actionContext, CacheService cache) {
-                return null;
-            }
-        },
-        SESSION_SCOPED() {
-            @Override
-            protected String cacheKey(ActionContext actionContext) {
-                H.Session session = actionContext.session();
-                return null == session ? null : super.cacheKey(actionContext, session.id());
-            }
-        },
-        GLOBAL_SCOPED;
-
-        public Result cached(ActionContext actionContext, CacheService cache) {
-            return cache.get(cacheKey(actionContext));
-        }
-
-        protected String cacheKey(ActionContext actionContext) {
-            return cacheKey(actionContext, "");
-        }
-
-        protected String cacheKey(ActionContext actionContext, String seed) {
-            H.Request request = actionContext.req();
-            return S.builder("urlcache:").append(seed).append(request.url()).append(request.query()).append(request.accept()).toString();
-        }
-    }
-
     private static final C.List<BeforeInterceptor> globalBeforeInterceptors = C.newList();
     private static final C.List<AfterInterceptor> globalAfterInterceptors = C.newList();
     private static final C.List<FinallyInterceptor> globalFinallyInterceptors = C.newList();
     private static final C.List<ExceptionInterceptor> globalExceptionInterceptors = C.newList();
+    private static volatile int globalInterceptorVersion;
 
     public static final GroupInterceptorWithResult GLOBAL_BEFORE_INTERCEPTOR = new GroupInterceptorWithResult(globalBeforeInterceptors);
     public static final GroupAfterInterceptor GLOBAL_AFTER_INTERCEPTOR = new GroupAfterInterceptor(globalAfterInterceptors);
-    public static final GroupFinallyInterceptor GLOBAL_FINALLY_INTERCEPTOR = new GroupFinallyInterceptor(globalFinallyInterceptors);
     public static final GroupExceptionInterceptor GLOBAL_EXCEPTION_INTERCEPTOR = new GroupExceptionInterceptor(globalExceptionInterceptors);
 
     private App app;
     private AppInterceptorManager appInterceptor;
     private CacheService cache;
-    private CacheStrategy cacheStrategy = CacheStrategy.NO_CACHE;
+    private CacheSupport cacheSupport = CacheSupport.DISABLED;
     private String controllerClassName;
     private String actionMethodName;
 
@@ -92,10 +69,13 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 
     private boolean sessionFree;
 
-    final GroupInterceptorWithResult BEFORE_INTERCEPTOR = new GroupInterceptorWithResult(beforeInterceptors);
-    final GroupAfterInterceptor AFTER_INTERCEPTOR = new GroupAfterInterceptor(afterInterceptors);
-    final GroupFinallyInterceptor FINALLY_INTERCEPTOR = new GroupFinallyInterceptor(finallyInterceptors);
-    final GroupExceptionInterceptor EXCEPTION_INTERCEPTOR = new GroupExceptionInterceptor(exceptionInterceptors);
+    // the interceptor chain flattened across global, app and action level
+    // interceptors. Compiled once when the agents are generated and recompiled
+    // only when global or app level interceptor registration changed
+    private volatile Chain chain;
+
+    // precomputed action path, could be used by View to resolve default path to template
+    private final String actionPath;
 
     @Inject
     public RequestHandlerProxy(String actionMethodName, App app) {
@@ -106,6 +86,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         E.illegalArgumentIf(S.isEmpty(controllerClassName), ERR, actionMethodName);
         this.actionMethodName = actionMethodName.substring(pos + 1);
         E.illegalArgumentIf(S.isEmpty(this.actionMethodName), ERR, actionMethodName);
+        this.actionPath = actionMethodName;
         cache = app.config().cacheService("action_proxy");
         this.app = app;
         this.appInterceptor = app.interceptorManager();
@@ -121,6 +102,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             actionHandler.destroy();
             actionHandler = null;
         }
+        chain = null;
     }
 
     public static void releaseGlobalResources() {
@@ -128,6 +110,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         _releaseResourceCollections(globalBeforeInterceptors);
         _releaseResourceCollections(globalExceptionInterceptors);
         _releaseResourceCollections(globalFinallyInterceptors);
+        globalInterceptorVersion++;
     }
 
     private static void _releaseResourceCollections(Collection<? extends Destroyable> col) {
@@ -144,87 +127,218 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
 
     @Override
     public void handle(ActionContext context) {
-        Result result = cacheStrategy.cached(context, cache);
+        Result result = null;
+        Chain chain = null;
+        String cacheKey = null;
+        boolean suspended = false;
         try {
-            if (null != result) {
-                onResult(result, context);
-                return;
+            try {
+                chain = ensureChainReady();
+            } catch (RuntimeException e) {
+                // the action handler cannot be generated, make sure the global
+                // and app level exception and finally interceptors still apply
+                chain = Chain.withoutAction(appInterceptor);
+                throw e;
             }
-            ensureAgentsReady();
-            saveActionPath(context);
+            context.actionPath(actionPath);
             context.startIntercepting();
-            result = handleBefore(context);
+            result = chain.handleBefore(context);
             if (null == result) {
+                // cache lookup happens after before interceptors so that
+                // authentication and permission checks are always enforced
+                CacheSupport cacheSupport = this.cacheSupport;
+                if (cacheSupport.applied(context)) {
+                    String key = cacheSupport.cacheKey(context);
+                    if (null != key) {
+                        CachedResponse cached = cache.get(key);
+                        if (null == cached) {
+                            CountDownLatch latch = cacheSupport.acquire(key);
+                            if (null == latch) {
+                                // this request is responsible to populate the cache
+                                cacheKey = key;
+                            } else {
+                                cacheSupport.await(latch);
+                                cached = cache.get(key);
+                            }
+                        }
+                        if (null != cached) {
+                            context.dissolve();
+                            cached.applyTo(context);
+                            return;
+                        }
+                    }
+                }
                 context.startHandling();
                 result = _handle(context);
+                if (result instanceof AsyncResult) {
+                    AsyncResult async = (AsyncResult) result;
+                    if (suspend(async, chain, cacheKey, context)) {
+                        suspended = true;
+                        return;
+                    }
+                    result = async.await(context);
+                }
+            }
+            afterHandle(result, chain, cacheKey, context);
+        } catch (Exception e) {
+            onException(e, chain, context);
+        } finally {
+            if (!suspended) {
+                finish(chain, cacheKey, context);
+            }
+        }
+    }
+
+    /**
+     * Suspend the response and release the current thread. The request
+     * is completed on a worker thread once the async result is available
+     *
+     * @return `false` if the response cannot be suspended
+     */
+    private boolean suspend(final AsyncResult async, final Chain chain, final String cacheKey, final ActionContext context) {
+        H.Response resp = context.resp();
+        if (!(resp instanceof ResponseImplBase) || !((ResponseImplBase) resp).suspendable()) {
+            return false;
+        }
+        final ResponseImplBase<?> response = (ResponseImplBase<?>) resp;
+        response.suspend(new Runnable() {
+            @Override
+            public void run() {
+                async.onComplete(context, new AsyncResult.Callback() {
+                    @Override
+                    public void onValue(final Object value) {
+                        response.resume(new Runnable() {
+                            @Override
+                            public void run() {
+                                complete(value, null);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(final Exception error) {
+                        response.resume(new Runnable() {
+                            @Override
+                            public void run() {
+                                complete(null, error);
+                            }
+                        });
+                    }
+
+                    private void complete(Object value, Exception error) {
+                        context.saveLocal();
+                        try {
+                            if (null == error) {
+                                // the result is inferred on the worker thread resumed
+                                afterHandle(async.toResult(value, context), chain, cacheKey, context);
+                            } else {
+                                onException(error, chain, context);
+                            }
+                        } catch (Exception e) {
+                            onException(e, chain, context);
+                        } finally {
+                            finish(chain, cacheKey, context);
+                            ActionContext.clearCurrent();
+                        }
+                    }
+                });
             }
+        });
+        return true;
+    }
+
+    private void afterHandle(Result result, Chain chain, String cacheKey, ActionContext context) throws Exception {
+        if (chain.hasAfterInterceptors) {
             context.startIntercepting();
-            Result afterResult = handleAfter(result, context);
+            Result afterResult = chain.handleAfter(result, context);
             if (null != afterResult) {
                 result = afterResult;
             }
-            if (null == result) {
-                result = new NoResult();
-            }
+        }
+        if (null == result) {
+            result = new NoResult();
+        }
+        if (null != cacheKey) {
+            onResult(result, context, cacheKey);
+        } else {
             onResult(result, context);
-        } catch (Exception e) {
-            logger.error(e, "Error handling request");
-            try {
-                result = handleException(e, context);
-            } catch (Exception e0) {
-                logger.error(e0, "Error invoking exception handler");
-            }
-            if (null == result) {
-                result = ActServerError.of(e);
-            }
-            try {
-                onResult(result, context);
-            } catch (Exception e2) {
-                logger.error(e2, "error rendering exception handle  result");
-                onResult(ActServerError.of(e2), context);
+        }
+    }
+
+    private void onException(Exception e, Chain chain, ActionContext context) {
+        logger.error(e, "Error handling request");
+        Result result = null;
+        try {
+            result = null == chain ? null : chain.handleException(e, context);
+        } catch (Exception e0) {
+            logger.error(e0, "Error invoking exception handler");
+        }
+        if (null == result) {
+            result = ActServerError.of(e);
+        }
+        try {
+            onResult(result, context);
+        } catch (Exception e2) {
+            logger.error(e2, "error rendering exception handle  result");
+            onResult(ActServerError.of(e2), context);
+        }
+    }
+
+    private void finish(Chain chain, String cacheKey, ActionContext context) {
+        if (null != cacheKey) {
+            cacheSupport.release(cacheKey);
+        }
+        try {
+            if (null != chain) {
+                chain.handleFinally(context);
             }
+        } catch (Exception e) {
+            logger.error(e, "Error invoking final handler");
         } finally {
-            try {
-                handleFinally(context);
-            } catch (Exception e) {
-                logger.error(e, "Error invoking final handler");
-            } finally {
-                context.destroy();
-            }
+            context.destroy();
         }
     }
 
+    /**
+     * Build the action handler, interceptors and the interceptor chain
+     * and prepare the handler invoker so that the first request to this
+     * action doesn't need to pay for it
+     */
+    public void warmUp() {
+        ensureChainReady();
+        actionHandler.warmUp();
+    }
+
     @Override
     public boolean sessionFree() {
         ensureAgentsReady();
         return sessionFree;
     }
 
-    protected final void useSessionCache() {
-        cacheStrategy = CacheStrategy.SESSION_SCOPED;
-    }
-
-    protected final void useGlobalCache() {
-        cacheStrategy = CacheStrategy.GLOBAL_SCOPED;
-    }
-
     protected final void registerBeforeInterceptor(BeforeInterceptor interceptor) {
         insertInterceptor(beforeInterceptors, interceptor);
+        chain = null;
     }
 
     protected final void registerAfterInterceptor(AfterInterceptor interceptor) {
         insertInterceptor(afterInterceptors, interceptor);
+        chain = null;
     }
 
     protected final void registerExceptionInterceptor(ExceptionInterceptor interceptor) {
         insertInterceptor(exceptionInterceptors, interceptor);
+        chain = null;
     }
 
     protected final void registerFinallyInterceptor(FinallyInterceptor interceptor) {
         insertInterceptor(finallyInterceptors, interceptor);
+        chain = null;
     }
 
     private void onResult(Result result, ActionContext context) {
+        if (result instanceof ErrorResult && ActErrorPageRender.serveCached((ErrorResult) result, context)) {
+            return;
+        }
         context.dissolve();
         try {
             if (result instanceof RenderAny) {
@@ -241,6 +355,31 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
+    /**
+     * Apply the result and store the rendered response into cache
+     */
+    private void onResult(Result result, ActionContext context, String cacheKey) {
+        H.Response resp = context.resp();
+        if (!(resp instanceof ResponseImplBase)) {
+            onResult(result, context);
+            return;
+        }
+        ResponseImplBase<?> response = (ResponseImplBase<?>) resp;
+        Map<String, List<String>> before = response.headers();
+        context.dissolve();
+        // headers set by session dissolving are specific to the current request
+        Set<String> sessionHeaders = CacheSupport.sessionHeaders(before, response.headers());
+        response.startCapture();
+        onResult(result, context);
+        byte[] content = response.capturedContent();
+        if (200 != response.statusCode() || null == content) {
+            return;
+        }
+        Map<String, List<String>> headers = response.headers();
+        headers.keySet().removeAll(sessionHeaders);
+        cache.put(cacheKey, new CachedResponse(200, headers, content), cacheSupport.ttl());
+    }
+
     private void ensureAgentsReady() {
         if (null == actionHandler) {
             synchronized (this) {
@@ -251,36 +390,19 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
-    // could be used by View to resolve default path to template
-    private void saveActionPath(ActionContext context) {
-        StringBuilder sb = S.builder(controllerClassName).append(".").append(actionMethodName);
-        String path = sb.toString();
-        context.actionPath(path);
-    }
-
-    private boolean matches(String actionMethodName, Set<String> patterns) {
-        if (patterns.contains(actionMethodName)) {
-            return true;
-        }
-        for (String s : patterns) {
-            if (Pattern.compile(s).matcher(actionMethodName).matches()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private boolean applied(InterceptorMethodMetaInfo interceptor) {
-        Set<String> blackList = interceptor.blackList();
-        if (!blackList.isEmpty()) {
-            return !matches(actionMethodName, blackList);
-        } else {
-            Set<String> whiteList = interceptor.whiteList();
-            if (!whiteList.isEmpty()) {
-                return matches(actionMethodName, whiteList);
+    private Chain ensureChainReady() {
+        Chain chain = this.chain;
+        if (null == chain || chain.outdated(appInterceptor)) {
+            synchronized (this) {
+                chain = this.chain;
+                if (null == chain || chain.outdated(appInterceptor)) {
+                    ensureAgentsReady();
+                    chain = new Chain(this, appInterceptor);
+                    this.chain = chain;
+                }
             }
-            return true;
         }
+        return chain;
     }
 
     private void generateHandlers() {
@@ -289,9 +411,10 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         Act.Mode mode = Act.mode();
         actionHandler = mode.createRequestHandler(actionInfo, app);
         sessionFree = actionHandler.sessionFree();
+        cacheSupport = actionHandler.cacheSupport();
         App app = this.app;
         for (InterceptorMethodMetaInfo info : ctrlInfo.beforeInterceptors()) {
-            if (!applied(info)) {
+            if (!info.appliedTo(actionMethodName)) {
                 continue;
             }
             BeforeInterceptor interceptor = mode.createBeforeInterceptor(info, app);
@@ -299,7 +422,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             sessionFree = sessionFree && interceptor.sessionFree();
         }
         for (InterceptorMethodMetaInfo info : ctrlInfo.afterInterceptors()) {
-            if (!applied(info)) {
+            if (!info.appliedTo(actionMethodName)) {
                 continue;
             }
             AfterInterceptor interceptor = mode.createAfterInterceptor(info, app);
@@ -307,7 +430,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
             sessionFree = sessionFree && interceptor.sessionFree();
         }
         for (CatchMethodMetaInfo info : ctrlInfo.exceptionInterceptors()) {
-            if (!applied(info)) {
+            if (!info.appliedTo(actionMethodName)) {
                 continue;
             }
             ExceptionInterceptor interceptor = mode.createExceptionInterceptor(info, app);
@@ -317,7 +440,7 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         Collections.sort(exceptionInterceptors);
 
         for (InterceptorMethodMetaInfo info : ctrlInfo.finallyInterceptors()) {
-            if (!applied(info)) {
+            if (!info.appliedTo(actionMethodName)) {
                 continue;
             }
             FinallyInterceptor interceptor = mode.createFinallyInterceptor(info, app);
@@ -368,17 +491,6 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         return actionHandler.corsSpec();
     }
 
-    private Result handleBefore(ActionContext actionContext) throws Exception {
-        Result r = GLOBAL_BEFORE_INTERCEPTOR.apply(actionContext);
-        if (null == r) {
-            r = appInterceptor.handleBefore(actionContext);
-        }
-        if (null == r) {
-            r = BEFORE_INTERCEPTOR.apply(actionContext);
-        }
-        return r;
-    }
-
     private Result _handle(ActionContext actionContext) throws Exception {
         try {
             return actionHandler.handle(actionContext);
@@ -387,50 +499,30 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         }
     }
 
-    private Result handleAfter(Result result, ActionContext actionContext) throws Exception {
-        result = AFTER_INTERCEPTOR.apply(result, actionContext);
-        result = appInterceptor.handleAfter(result, actionContext);
-        result = GLOBAL_AFTER_INTERCEPTOR.apply(result, actionContext);
-        return result;
-    }
-
-    private void handleFinally(ActionContext actionContext) throws Exception {
-        FINALLY_INTERCEPTOR.apply(actionContext);
-        appInterceptor.handleFinally(actionContext);
-        GLOBAL_FINALLY_INTERCEPTOR.apply(actionContext);
-    }
-
-    private Result handleException(Exception ex, ActionContext actionContext) throws Exception {
-        Result r = EXCEPTION_INTERCEPTOR.apply(ex, actionContext);
-        if (null == r) {
-            r = appInterceptor.handleException(ex, actionContext);
-        }
-        if (null == r) {
-            r = GLOBAL_EXCEPTION_INTERCEPTOR.apply(ex, actionContext);
-        }
-        return r;
-    }
-
     @Override
     public String toString() {
-        return new StringBuilder(controllerClassName).append(".").append(actionMethodName).toString();
+        return actionPath;
     }
 
     public static void registerGlobalInterceptor(BeforeInterceptor interceptor) {
         insertInterceptor(globalBeforeInterceptors, interceptor);
+        globalInterceptorVersion++;
     }
 
     public static void registerGlobalInterceptor(AfterInterceptor interceptor) {
         insertInterceptor(globalAfterInterceptors, interceptor);
+        globalInterceptorVersion++;
     }
 
     public static void registerGlobalInterceptor(FinallyInterceptor interceptor) {
         insertInterceptor(globalFinallyInterceptors, interceptor);
+        globalInterceptorVersion++;
     }
 
     public static void registerGlobalInterceptor(ExceptionInterceptor interceptor) {
         insertInterceptor(globalExceptionInterceptors, interceptor);
         Collections.sort(globalExceptionInterceptors);
+        globalInterceptorVersion++;
     }
 
     public static <T extends Handler> void insertInterceptor(C.List<T> list, T i) {
@@ -458,6 +550,111 @@ public final class RequestHandlerProxy extends RequestHandlerBase {
         list.add(i);
     }
 
+    /**
+     * A flat, array based invocation chain of all interceptors applied to
+     * an action, in the order they shall be called
+     */
+    static final class Chain {
+        private final int globalVersion;
+        private final int appVersion;
+        private final BeforeInterceptor[] before;
+        private final AfterInterceptor[] after;
+        private final ExceptionInterceptor[] exception;
+        private final FinallyInterceptor[] finallyInterceptors;
+        final boolean hasAfterInterceptors;
+
+        Chain(RequestHandlerProxy proxy, AppInterceptorManager appInterceptor) {
+            this(proxy.beforeInterceptors, proxy.afterInterceptors, proxy.exceptionInterceptors, proxy.finallyInterceptors, appInterceptor);
+        }
+
+        Chain(List<BeforeInterceptor> before, List<AfterInterceptor> after, List<ExceptionInterceptor> exception,
+              List<FinallyInterceptor> finallyInterceptors, AppInterceptorManager appInterceptor) {
+            // read the versions before taking the snapshot so a concurrent
+            // registration will cause the chain to be recompiled
+            this.globalVersion = globalInterceptorVersion;
+            this.appVersion = appInterceptor.version();
+            this.before = concat(BeforeInterceptor.class, globalBeforeInterceptors, appInterceptor.beforeInterceptors(), before);
+            this.after = concat(AfterInterceptor.class, after, appInterceptor.afterInterceptors(), globalAfterInterceptors);
+            this.exception = concat(ExceptionInterceptor.class, exception, appInterceptor.exceptionInterceptors(), globalExceptionInterceptors);
+            this.finallyInterceptors = concat(FinallyInterceptor.class, finallyInterceptors, appInterceptor.finallyInterceptors(), globalFinallyInterceptors);
+            this.hasAfterInterceptors = this.after.length > 0;
+        }
+
+        /**
+         * Returns a chain of the global and app level interceptors only. Used when
+         * the action level interceptors cannot be generated
+         */
+        static Chain withoutAction(AppInterceptorManager appInterceptor) {
+            return new Chain(C.<BeforeInterceptor>list(), C.<AfterInterceptor>list(), C.<ExceptionInterceptor>list(), C.<FinallyInterceptor>list(), appInterceptor);
+        }
+
+        boolean outdated(AppInterceptorManager appInterceptor) {
+            return globalVersion != globalInterceptorVersion || appVersion != appInterceptor.version();
+        }
+
+        Result handleBefore(ActionContext actionContext) throws Exception {
+            BeforeInterceptor[] before = this.before;
+            try {
+                for (int i = 0, n = before.length; i < n; ++i) {
+                    Result r = before[i].handle(actionContext);
+                    if (null != r) {
+                        return r;
+                    }
+                }
+                return null;
+            } catch (Result r) {
+                return r;
+            }
+        }
+
+        Result handleAfter(Result result, ActionContext actionContext) throws Exception {
+            AfterInterceptor[] after = this.after;
+            for (int i = 0, n = after.length; i < n; ++i) {
+                result = after[i].handle(result, actionContext);
+            }
+            return result;
+        }
+
+        Result handleException(Exception ex, ActionContext actionContext) throws Exception {
+            ExceptionInterceptor[] exception = this.exception;
+            try {
+                for (int i = 0, n = exception.length; i < n; ++i) {
+                    Result r = exception[i].handle(ex, actionContext);
+                    if (null != r) {
+                        return r;
+                    }
+                }
+                return null;
+            } catch (Result r) {
+                return r;
+            }
+        }
+
+        void handleFinally(ActionContext actionContext) throws Exception {
+            FinallyInterceptor[] finallyInterceptors = this.finallyInterceptors;
+            for (int i = 0, n = finallyInterceptors.length; i < n; ++i) {
+                finallyInterceptors[i].handle(actionContext);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T[] concat(Class<T> type, List<? extends T> l1, List<? extends T> l2, List<? extends T> l3) {
+            int n1 = l1.size(), n2 = l2.size(), n3 = l3.size();
+            T[] array = (T[]) Array.newInstance(type, n1 + n2 + n3);
+            int pos = 0;
+            for (int i = 0; i < n1; ++i) {
+                array[pos++] = l1.get(i);
+            }
+            for (int i = 0; i < n2; ++i) {
+                array[pos++] = l2.get(i);
+            }
+            for (int i = 0; i < n3; ++i) {
+                array[pos++] = l3.get(i);
+            }
+            return array;
+        }
+    }
+
     public static class GroupInterceptorWithResult {
         private C.List<? extends ActionHandler> interceptors;
 
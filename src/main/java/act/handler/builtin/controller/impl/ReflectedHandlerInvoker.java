@@ -65,6 +65,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
     private Set<String> pathVariables;
     private CORS.Spec corsSpec;
     private CSRF.Spec csrfSpec;
+    private CacheSupport cacheSupport;
     private String jsonDTOKey;
     private boolean isStatic;
     private Object singleton;
@@ -106,6 +107,7 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
 
         CSRF.Spec csrfSpec = CSRF.spec(method).chain(CSRF.spec(controllerClass));
         this.csrfSpec = csrfSpec;
+        this.cacheSupport = CacheSupport.of(method);
         this.jsonDTOKey = app.cuid();
         this.singleton = singleton(app);
     }
@@ -170,6 +172,19 @@ public class ReflectedHandlerInvoker<M extends HandlerMethodMetaInfo> extends De
         return csrfSpec;
     }
 
+    @Override
+    public CacheSupport cacheSupport() {
+        return cacheSupport;
+    }
+
+    @Override
+    public void warmUp() {
+        paramLoaderService.warmUp(isStatic || null != singleton ? null : controllerClass, method);
+        if (0 < fieldsAndParamsCount) {
+            jsonDTOClassManager.get(controllerClass, method);
+        }
+    }
+
     public JsonDTO cachedJsonDTO(ActContext<?> context) {
         return context.attribute(jsonDTOKey);
     }
@@ -24,6 +24,7 @@ public class LocaleResolver {
 
     private static final String KEY = "__locale__";
     private static final int COOKIE_TTL = 60 * 60 * 24 * 7;
+    private static final String ACCEPT_LANGUAGE = "Accept-Language";
 
     private ActionContext context;
     private AppConfig config;
@@ -115,27 +116,15 @@ public class LocaleResolver {
     }
 
     private Locale resolveFromHeader() {
-        return context.req().locale();
+        return Locales.negotiate(context.req().header(ACCEPT_LANGUAGE));
     }
 
     private Locale resolveFromServer() {
-        return config.locale();
+        return Locales.intern(config.locale());
     }
 
     private Locale parseStr(String val) {
-        if (null == val) {
-            return null;
-        }
-        String[] sa = val.trim().split("[-_]");
-        int len = sa.length;
-        switch (len) {
-            case 3:
-                return new Locale(sa[0], sa[1], sa[2]);
-            case 2:
-                return new Locale(sa[0], sa[1]);
-            default:
-                return new Locale(sa[0]);
-        }
+        return Locales.of(val);
     }
 
     public static void main(String[] args) {
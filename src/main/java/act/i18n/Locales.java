@@ -0,0 +1,161 @@
+package act.i18n;
+
+import org.osgl.util.S;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Parses locale strings and `Accept-Language` header values into interned
+ * {@link Locale} instances.
+ *
+ * The result is cached by the raw value so that requests coming with the
+ * same header, cookie or parameter value do not parse it again. The caches
+ * are bounded: once full, new values are parsed on each call but not cached
+ */
+public final class Locales {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    // marks a raw value that does not resolve to a locale
+    private static final Locale NONE = new Locale("");
+
+    private static final ConcurrentMap<String, Locale> interned = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Locale> parsed = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Locale> negotiated = new ConcurrentHashMap<>();
+
+    private Locales() {}
+
+    /**
+     * Returns the interned locale of a string like `en`, `en_US` or `zh-CN`
+     *
+     * @param val the locale string
+     * @return the locale or `null` if the string is blank
+     */
+    public static Locale of(String val) {
+        if (null == val) {
+            return null;
+        }
+        Locale locale = parsed.get(val);
+        if (null == locale) {
+            locale = parse(val);
+            cache(parsed, val, locale);
+        }
+        return NONE == locale ? null : locale;
+    }
+
+    /**
+     * Returns the interned locale of the language range with the highest
+     * quality in an `Accept-Language` header value
+     *
+     * @param acceptLanguage the header value
+     * @return the locale or `null` if no language range is acceptable
+     */
+    public static Locale negotiate(String acceptLanguage) {
+        if (null == acceptLanguage) {
+            return null;
+        }
+        Locale locale = negotiated.get(acceptLanguage);
+        if (null == locale) {
+            locale = parseAcceptLanguage(acceptLanguage);
+            cache(negotiated, acceptLanguage, locale);
+        }
+        return NONE == locale ? null : locale;
+    }
+
+    /**
+     * Returns the interned instance equal to the locale specified
+     */
+    public static Locale intern(Locale locale) {
+        if (null == locale) {
+            return null;
+        }
+        String key = locale.toString();
+        Locale cached = interned.get(key);
+        if (null != cached) {
+            return cached;
+        }
+        if (interned.size() >= MAX_ENTRIES) {
+            return locale;
+        }
+        cached = interned.putIfAbsent(key, locale);
+        return null == cached ? locale : cached;
+    }
+
+    private static Locale parse(String val) {
+        String s = val.trim();
+        if (s.isEmpty()) {
+            return NONE;
+        }
+        String language = s, country = "", variant = "";
+        int p = separator(s, 0);
+        if (p > 0) {
+            language = s.substring(0, p);
+            int p1 = separator(s, p + 1);
+            if (p1 > 0) {
+                country = s.substring(p + 1, p1);
+                variant = s.substring(p1 + 1);
+            } else {
+                country = s.substring(p + 1);
+            }
+        }
+        return intern(new Locale(language, country, variant));
+    }
+
+    private static int separator(String s, int from) {
+        for (int i = from, len = s.length(); i < len; ++i) {
+            char c = s.charAt(i);
+            if ('-' == c || '_' == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Locale parseAcceptLanguage(String header) {
+        String best = null;
+        float bestQ = 0f;
+        int len = header.length();
+        int start = 0;
+        while (start < len) {
+            int end = header.indexOf(',', start);
+            if (end < 0) {
+                end = len;
+            }
+            String range = header.substring(start, end);
+            start = end + 1;
+            float q = 1f;
+            int semicolon = range.indexOf(';');
+            if (semicolon >= 0) {
+                q = quality(range.substring(semicolon + 1));
+                range = range.substring(0, semicolon);
+            }
+            range = range.trim();
+            if (q > bestQ && !range.isEmpty() && !"*".equals(range)) {
+                best = range;
+                bestQ = q;
+            }
+        }
+        return null == best ? NONE : parse(best);
+    }
+
+    private static float quality(String params) {
+        String s = params.trim();
+        if (!s.startsWith("q=")) {
+            return 1f;
+        }
+        try {
+            return Float.parseFloat(s.substring(2).trim());
+        } catch (NumberFormatException e) {
+            return 0f;
+        }
+    }
+
+    private static void cache(ConcurrentMap<String, Locale> cache, String key, Locale locale) {
+        if (cache.size() < MAX_ENTRIES && S.notBlank(key)) {
+            cache.putIfAbsent(key, locale);
+        }
+    }
+
+}
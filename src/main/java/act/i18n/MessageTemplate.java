@@ -0,0 +1,99 @@
+package act.i18n;
+
+import org.osgl.util.S;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A message template parsed into literal and parameter segments, e.g.
+ * `size must be between {min} and {max}`. Parameters can also be written
+ * as `${name}`.
+ *
+ * Text outside of the parameters is kept as is, including a `$` which is not
+ * followed by `{` and a `{` without the closing `}`. A backslash escapes the
+ * next `{`, `}`, `$` or `\` character so that it is rendered literally, e.g.
+ * `\{min}` renders as `{min}`.
+ *
+ * Parse a template once and {@link #render(Map) render} it as many times
+ * as needed without scanning the template again
+ */
+public final class MessageTemplate {
+
+    private final String template;
+
+    // literals[i] is followed by params[i]; literals has one more element
+    private final String[] literals;
+    private final String[] params;
+
+    private MessageTemplate(String template, String[] literals, String[] params) {
+        this.template = template;
+        this.literals = literals;
+        this.params = params;
+    }
+
+    /**
+     * Render the template with the parameter values specified
+     *
+     * @param attrs the parameter values
+     * @return the message
+     */
+    public String render(Map<String, ?> attrs) {
+        if (0 == params.length) {
+            return literals[0];
+        }
+        StringBuilder sb = new StringBuilder(literals[0]);
+        for (int i = 0; i < params.length; ++i) {
+            sb.append(S.string(attrs.get(params[i]))).append(literals[i + 1]);
+        }
+        return sb.length() == 0 ? template : sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+
+    public static MessageTemplate parse(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> params = new ArrayList<>();
+        StringBuilder literal = S.builder();
+        int len = template.length();
+        int i = 0;
+        while (i < len) {
+            char c = template.charAt(i);
+            if ('\\' == c && i + 1 < len && escapable(template.charAt(i + 1))) {
+                literal.append(template.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+            int start = i;
+            if ('$' == c && i + 1 < len && '{' == template.charAt(i + 1)) {
+                start = i + 1;
+            } else if ('{' != c) {
+                literal.append(c);
+                ++i;
+                continue;
+            }
+            int end = template.indexOf('}', start);
+            if (end < 0) {
+                // not a parameter, keep the `{` or `${` as literal
+                literal.append(template, i, start + 1);
+                i = start + 1;
+                continue;
+            }
+            literals.add(literal.toString());
+            literal.setLength(0);
+            params.add(template.substring(start + 1, end));
+            i = end + 1;
+        }
+        literals.add(literal.toString());
+        return new MessageTemplate(template, literals.toArray(new String[literals.size()]), params.toArray(new String[params.size()]));
+    }
+
+    private static boolean escapable(char c) {
+        return '{' == c || '}' == c || '$' == c || '\\' == c;
+    }
+
+}
@@ -18,7 +18,7 @@ public class RequestScope extends ScopeCacheSupport.Base implements ScopeCache.R
     public <T> T get(String key) {
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
-            return actionContext.attribute(key);
+            return actionContext.scoped(key);
         }
         CliContext cliContext = CliContext.current();
         if (null != cliContext) {
@@ -41,7 +41,7 @@ public class RequestScope extends ScopeCacheSupport.Base implements ScopeCache.R
         }
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
-            actionContext.attribute(key, t);
+            actionContext.scoped(key, t);
         }
         CliContext cliContext = CliContext.current();
         if (null != cliContext) {
@@ -0,0 +1,63 @@
+package act.inject.genie;
+
+import act.app.App;
+import act.app.AppServiceBase;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Allocates the slots of request and session scope keys of an app, so that
+ * the scoped beans can be stored and looked up in the action context by
+ * array index, see {@link act.app.ActionContext#scoped(int)}.
+ *
+ * A slot is allocated when the scoped binding is registered, see
+ * {@link #register(String)}, and stays the same until the app is refreshed.
+ * Keys that are not registered are kept as action context attributes
+ */
+public class ScopeSlots extends AppServiceBase<ScopeSlots> {
+
+    private final ConcurrentMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private int counter;
+
+    public ScopeSlots(App app) {
+        super(app, true);
+    }
+
+    @Override
+    protected void releaseResources() {
+        synchronized (slots) {
+            slots.clear();
+            counter = 0;
+        }
+    }
+
+    /**
+     * Allocate the slot of the scope key specified if not allocated yet
+     *
+     * @param key the scope key
+     * @return the slot
+     */
+    public int register(String key) {
+        synchronized (slots) {
+            Integer slot = slots.get(key);
+            if (null == slot) {
+                slot = counter++;
+                slots.put(key, slot);
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * Returns the slot of the scope key specified
+     *
+     * @param key the scope key
+     * @return the slot or `-1` if the key is not registered
+     */
+    public int slot(String key) {
+        Integer slot = slots.get(key);
+        return null == slot ? -1 : slot;
+    }
+
+}
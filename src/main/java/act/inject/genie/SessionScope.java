@@ -28,10 +28,18 @@ public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.S
     public <T> T get(String key) {
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
+            // the bean is mirrored into the request scope slot once loaded
+            // from the session, so that the session cache is hit and its
+            // ttl is refreshed once per request
+            T t = actionContext.scoped(key);
+            if (null != t) {
+                return t;
+            }
             H.Session session = actionContext.session();
-            T t = session.cached(key);
+            t = session.cached(key);
             if (null != t) {
                 session.cache(key, t, TTL);
+                actionContext.scoped(key, t);
             }
             return t;
         }
@@ -53,6 +61,7 @@ public class SessionScope extends ScopeCacheSupport.Base implements ScopeCache.S
         ActionContext actionContext = ActionContext.current();
         if (null != actionContext) {
             actionContext.session().cache(key, t, TTL);
+            actionContext.scoped(key, t);
         }
         CliContext cliContext = CliContext.current();
         if (null != cliContext) {
@@ -6,6 +6,8 @@ import act.app.App;
 import act.app.data.BinderManager;
 import act.app.data.StringValueResolverManager;
 import act.controller.ActionMethodParamAnnotationHandler;
+import act.controller.ActionMethodParamAnnotationHandlerPlugin;
+import act.controller.ActionMethodParamValidator;
 import act.inject.ActProviders;
 import act.inject.Context;
 import act.inject.DependencyInjector;
@@ -13,6 +15,7 @@ import act.inject.SessionVariable;
 import act.inject.genie.DependentScope;
 import act.inject.genie.GenieInjector;
 import act.inject.genie.RequestScope;
+import act.inject.genie.ScopeSlots;
 import act.inject.genie.SessionScope;
 import act.util.ActContext;
 import act.util.DestroyableBase;
@@ -73,13 +76,14 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
     ConcurrentMap<Class, Map<Field, ParamValueLoader>> fieldRegistry = new ConcurrentHashMap<Class, Map<Field, ParamValueLoader>>();
     ConcurrentMap<Class, ParamValueLoader> classRegistry = new ConcurrentHashMap<Class, ParamValueLoader>();
     private ConcurrentMap<$.T2<Type, Annotation[]>, ParamValueLoader> paramRegistry = new ConcurrentHashMap<$.T2<Type, Annotation[]>, ParamValueLoader>();
-    private ConcurrentMap<BeanSpec, Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler>> annoHandlers = new ConcurrentHashMap<BeanSpec, Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler>>();
     private Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler> allAnnotationHandlers;
+    private ScopeSlots scopeSlots;
 
     public ParamValueLoaderService(App app) {
         resolverManager = app.resolverManager();
         binderManager = app.binderManager();
         injector = app.injector();
+        scopeSlots = app.scopeSlots();
         allAnnotationHandlers = new HashMap<Class<? extends Annotation>, ActionMethodParamAnnotationHandler>();
         List<ActionMethodParamAnnotationHandler> list = Act.pluginManager().pluginList(ActionMethodParamAnnotationHandler.class);
         for (ActionMethodParamAnnotationHandler h : list) {
@@ -123,6 +127,23 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
         }
     }
 
+    /**
+     * Resolve the value loaders of the host bean class and the method
+     * parameters specified so that they are ready before the first
+     * request comes in
+     *
+     * @param hostClass the host bean class, could be `null`
+     * @param method the method
+     */
+    public void warmUp(Class hostClass, Method method) {
+        if (null != hostClass && !classRegistry.containsKey(hostClass)) {
+            classRegistry.putIfAbsent(hostClass, findBeanLoader(hostClass));
+        }
+        if (!methodRegistry.containsKey(method)) {
+            methodRegistry.putIfAbsent(method, findMethodParamLoaders(method));
+        }
+    }
+
     protected <T> ParamValueLoader findBeanLoader(Class<T> beanClass) {
         final Provider<T> provider = injector.getProvider(beanClass);
         final Map<Field, ParamValueLoader> loaders = fieldLoaders(beanClass);
@@ -470,39 +491,55 @@ public abstract class ParamValueLoaderService extends DestroyableBase {
             boolean useJsonDecorator
     ) {
         final ParamValueLoader jsonDecorated = useJsonDecorator ? new JsonParamValueLoader(loader, spec, injector) : loader;
-        final Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler> handlers = paramAnnoHandlers(spec);
-        final ParamValueLoader annoHandlerDecorated = new ParamValueLoader() {
+        final ActionMethodParamValidator[] validators = validationPlan(spec, annotations);
+        final ParamValueLoader annoHandlerDecorated = 0 == validators.length ? jsonDecorated : new ParamValueLoader() {
             @Override
             public Object load(Object bean, ActContext<?> context, boolean noDefaultValue) {
                 Object object = jsonDecorated.load(bean, context, noDefaultValue);
-                if (!(context instanceof ActionContext) || null == handlers) {
+                if (!(context instanceof ActionContext)) {
                     return object;
                 }
-                for (Map.Entry<Class<? extends Annotation>, ActionMethodParamAnnotationHandler> entry : handlers.entrySet()) {
-                    Annotation ann = filter(annotations, entry.getKey());
-                    entry.getValue().handle(spec.name(), object, ann, (ActionContext) context);
+                ActionContext actionContext = (ActionContext) context;
+                for (ActionMethodParamValidator validator : validators) {
+                    validator.validate(object, actionContext);
                 }
                 return object;
             }
         };
-        return new ScopedParamValueLoader(annoHandlerDecorated, spec, scopeCacheSupport(annotations));
-    }
-
-    private Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler> paramAnnoHandlers(BeanSpec spec) {
-        Map<Class<? extends Annotation>, ActionMethodParamAnnotationHandler> handlers = annoHandlers.get(spec);
-        if (null != handlers) {
-            return handlers;
-        }
-        handlers = new HashMap<Class<? extends Annotation>, ActionMethodParamAnnotationHandler>();
-        for (Annotation annotation : spec.allAnnotations()) {
-            Class<? extends Annotation> c = annotation.annotationType();
-            ActionMethodParamAnnotationHandler h = allAnnotationHandlers.get(c);
-            if (null != h) {
-                handlers.put(c, h);
+        return new ScopedParamValueLoader(annoHandlerDecorated, spec, scopeCacheSupport(annotations), scopeSlots);
+    }
+
+    /**
+     * Compile the constraint annotations on a parameter into validators.
+     * This happens once when the param value loader is created so that
+     * no annotation is looked up or interpreted on a request
+     */
+    private ActionMethodParamValidator[] validationPlan(BeanSpec spec, Annotation[] annotations) {
+        List<ActionMethodParamValidator> plan = new ArrayList<ActionMethodParamValidator>();
+        final String name = spec.name();
+        for (Annotation specAnnotation : spec.allAnnotations()) {
+            Class<? extends Annotation> c = specAnnotation.annotationType();
+            final ActionMethodParamAnnotationHandler h = allAnnotationHandlers.get(c);
+            if (null == h) {
+                continue;
+            }
+            Annotation annotation = filter(annotations, c);
+            if (null == annotation) {
+                continue;
+            }
+            if (h instanceof ActionMethodParamAnnotationHandlerPlugin) {
+                plan.add(((ActionMethodParamAnnotationHandlerPlugin) h).compile(name, annotation));
+            } else {
+                final Annotation theAnno = annotation;
+                plan.add(new ActionMethodParamValidator() {
+                    @Override
+                    public void validate(Object paramVal, ActionContext context) {
+                        h.handle(name, paramVal, theAnno, context);
+                    }
+                });
             }
         }
-        annoHandlers.putIfAbsent(spec, handlers);
-        return handlers;
+        return plan.toArray(new ActionMethodParamValidator[plan.size()]);
     }
 
     private static ScopeCacheSupport scopeCacheSupport(Annotation[] annotations) {
@@ -1,6 +1,8 @@
 package act.inject.param;
 
+import act.app.ActionContext;
 import act.inject.genie.RequestScope;
+import act.inject.genie.ScopeSlots;
 import act.inject.genie.SessionScope;
 import act.util.ActContext;
 import org.osgl.inject.BeanSpec;
@@ -8,18 +10,29 @@ import org.osgl.inject.BeanSpec;
 class ScopedParamValueLoader implements ParamValueLoader {
     private ParamValueLoader realLoader;
     private String key;
+    // the request scope slot of the key, see ActionContext#scoped(int)
+    private int slot;
     private ScopeCacheSupport scopeCache;
+    private boolean isRequest;
+    private boolean isSession;
 
-    ScopedParamValueLoader(ParamValueLoader loader, BeanSpec beanSpec, ScopeCacheSupport scopeCache) {
+    ScopedParamValueLoader(ParamValueLoader loader, BeanSpec beanSpec, ScopeCacheSupport scopeCache, ScopeSlots scopeSlots) {
         this.realLoader = loader;
         this.scopeCache = scopeCache;
         this.key = scopeCache.key(beanSpec);
+        this.isRequest = RequestScope.INSTANCE == scopeCache;
+        this.isSession = SessionScope.INSTANCE == scopeCache;
+        if (isRequest || isSession) {
+            this.slot = scopeSlots.register(key);
+        }
     }
 
     @Override
     public Object load(Object bean, ActContext<?> context, boolean noDefaultValue) {
+        if (context instanceof ActionContext && (isRequest || isSession)) {
+            return load((ActionContext) context, noDefaultValue);
+        }
         Object cached = scopeCache.get(key);
-        boolean isSession = SessionScope.INSTANCE == scopeCache;
         if (isSession) {
             Object requestScoped = RequestScope.INSTANCE.get(key);
             if (null != requestScoped) {
@@ -34,4 +47,28 @@ class ScopedParamValueLoader implements ParamValueLoader {
         return cached;
     }
 
+    /**
+     * Load the bean with request scoped values accessed by slot
+     */
+    private Object load(ActionContext context, boolean noDefaultValue) {
+        Object requestScoped = context.scoped(slot);
+        Object cached;
+        if (isSession) {
+            if (null != requestScoped) {
+                return requestScoped;
+            }
+            cached = scopeCache.get(key);
+        } else {
+            cached = requestScoped;
+        }
+        cached = realLoader.load(cached, context, noDefaultValue);
+        if (null != cached) {
+            context.scoped(slot, cached);
+            if (isSession) {
+                scopeCache.put(key, cached);
+            }
+        }
+        return cached;
+    }
+
 }
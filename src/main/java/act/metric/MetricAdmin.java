@@ -7,9 +7,12 @@ import act.cli.Optional;
 import act.util.PropertySpec;
 import org.osgl.$;
 import org.osgl.util.C;
+import org.osgl.util.S;
 
+import java.io.File;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -72,6 +75,42 @@ public class MetricAdmin {
         Act.metricPlugin().metricStore().clear();
     }
 
+    @Command(name = "act.startup.trace", help = "show the startup trace or export it to a Chrome trace file")
+    public void startupTrace(
+            @Optional("export the trace in Chrome trace event format to the file specified") String file,
+            @Optional("hide spans shorter than the specified ms") Integer min,
+            CliContext context
+    ) {
+        if (null != file) {
+            File target = new File(file);
+            StartupTracer.export(target);
+            context.println("startup trace exported to %s", target.getAbsolutePath());
+            return;
+        }
+        int threshold = null == min ? 0 : min;
+        List<StartupTracer.Span> spans = StartupTracer.spans();
+        int[] levels = StartupTracer.levels(spans);
+        context.println("startup took %sms", StartupTracer.totalMs());
+        for (int i = 0; i < spans.size(); ++i) {
+            StartupTracer.Span span = spans.get(i);
+            if (span.durationMs() < threshold) {
+                continue;
+            }
+            context.println("%s%s:%s %sms (@%sms)", S.times("  ", levels[i]), span.category(), span.name(), span.durationMs(), span.startMs());
+        }
+        List<Map.Entry<String, long[]>> aggregates = StartupTracer.aggregates();
+        if (!aggregates.isEmpty()) {
+            context.println("aggregated:");
+            for (Map.Entry<String, long[]> entry : aggregates) {
+                long[] la = entry.getValue();
+                if (la[0] < threshold) {
+                    continue;
+                }
+                context.println("  %s %sms (%s times)", entry.getKey(), la[0], la[1]);
+            }
+        }
+    }
+
     private Object process(List<MetricInfo> list, Integer max, final String q,
                            boolean asTree, final Integer level, Comparator<MetricInfo> comp,
                            MetricInfoTree.NodeDecorator decorator) {
@@ -12,6 +12,13 @@ public class MetricInfo {
     public static final String MAILER = "act:mail";
     public static final String EVENT_HANDLER = "act:event";
     public static final String ROUTING = "act:routing";
+    public static final String CACHE = "act:cache";
+    public static final String PASSWORD_HASH = "act:password";
+    public static final String PUSH = "act:push";
+    public static final String PUSH_CONNECTED = "act:push:connected";
+    public static final String PUSH_DROPPED = "act:push:dropped";
+    public static final String USER_AGENT = "act:ua";
+    public static final String DAO_CACHE = "act:dao:cache";
     public static final String PATH_SEPARATOR = Metric.PATH_SEPARATOR;
 
     private String name;
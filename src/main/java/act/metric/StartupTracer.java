@@ -0,0 +1,334 @@
+package act.metric;
+
+import com.alibaba.fastjson.JSON;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+import org.osgl.util.S;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A low overhead tracer records the timeline of ActFramework and app startup.
+ *
+ * Tracing is active only between {@link #begin()} and the matching
+ * {@link #end()}. Outside of that window {@link #span(String, String)} returns a
+ * no-op span and {@link #accumulate(String, String, long)} does nothing.
+ *
+ * There are two kinds of records:
+ *
+ * * spans - a named duration on a thread. Spans on the same thread nest by time
+ * * aggregates - the total time and count of small repetitive units, e.g. the
+ *   bytecode scanning and enhancing of a class. They are too many to be recorded
+ *   as spans, so they are summed by name and rendered on a separate track
+ *
+ * The trace can be exported into Chrome trace event format which can be opened
+ * by `chrome://tracing` or converted into a flame graph
+ */
+public final class StartupTracer {
+
+    private StartupTracer() {}
+
+    /**
+     * A duration on a thread
+     */
+    public static class Span {
+        private final String category;
+        private final String name;
+        private final long threadId;
+        private final String threadName;
+        private final long start;
+        private long duration = -1;
+
+        private Span(String category, String name) {
+            Thread thread = Thread.currentThread();
+            this.category = category;
+            this.name = name;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            this.start = System.nanoTime();
+        }
+
+        public void end() {
+            if (duration < 0) {
+                duration = System.nanoTime() - start;
+                spans.add(this);
+            }
+        }
+
+        public String category() {
+            return category;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the start time in ms relative to the beginning of the trace
+         */
+        public long startMs() {
+            return (start - traceStart) / 1000000L;
+        }
+
+        /**
+         * Returns the duration of this span in ms
+         */
+        public long durationMs() {
+            return duration / 1000000L;
+        }
+
+        private boolean contains(Span that) {
+            return threadId == that.threadId && start <= that.start
+                    && start + duration >= that.start + that.duration;
+        }
+    }
+
+    private static final Span NULL_SPAN = new Span("", "") {
+        @Override
+        public void end() {
+        }
+    };
+
+    private static class Aggregate {
+        final AtomicLong nanos = new AtomicLong();
+        final AtomicInteger count = new AtomicInteger();
+    }
+
+    private static final AtomicInteger depth = new AtomicInteger();
+    private static volatile boolean active;
+    private static volatile long traceStart = System.nanoTime();
+    private static volatile long traceEnd;
+    private static final Queue<Span> spans = new ConcurrentLinkedQueue<Span>();
+    private static final ConcurrentMap<String, Aggregate> aggregates = new ConcurrentHashMap<String, Aggregate>();
+
+    /**
+     * Start tracing. If tracing is already started then this call is counted
+     * and must be paired with an {@link #end()} call
+     */
+    public static void begin() {
+        if (0 == depth.getAndIncrement()) {
+            spans.clear();
+            aggregates.clear();
+            traceStart = System.nanoTime();
+            traceEnd = 0;
+            active = true;
+        }
+    }
+
+    /**
+     * End tracing when all {@link #begin()} calls are paired
+     */
+    public static void end() {
+        if (0 == depth.decrementAndGet()) {
+            active = false;
+            traceEnd = System.nanoTime();
+        }
+    }
+
+    public static boolean active() {
+        return active;
+    }
+
+    /**
+     * Start a span on the current thread
+     *
+     * @param category the category, e.g. `act`, `app`, `event`
+     * @param name     the name of the span
+     * @return the span started. Call {@link Span#end()} to end it
+     */
+    public static Span span(String category, String name) {
+        return active ? new Span(category, name) : NULL_SPAN;
+    }
+
+    /**
+     * Add time to an aggregate
+     *
+     * @param category the category, e.g. `scan`, `enhance`
+     * @param name     the aggregate name, e.g. the scanner class name
+     * @param nanos    the time in nano seconds
+     */
+    public static void accumulate(String category, String name, long nanos) {
+        if (!active) {
+            return;
+        }
+        String key = S.builder(category).append(':').append(name).toString();
+        Aggregate aggregate = aggregates.get(key);
+        if (null == aggregate) {
+            aggregate = new Aggregate();
+            Aggregate existing = aggregates.putIfAbsent(key, aggregate);
+            if (null != existing) {
+                aggregate = existing;
+            }
+        }
+        aggregate.nanos.addAndGet(nanos);
+        aggregate.count.incrementAndGet();
+    }
+
+    /**
+     * Returns the current time in nano seconds, or `0` if tracing is not active.
+     * Use it with {@link #accumulateSince(String, String, long)} so that the
+     * clock is not read when tracing is off
+     */
+    public static long now() {
+        return active ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Add the time elapsed since `startNanos` to an aggregate
+     *
+     * @param category   the category, e.g. `scan`, `enhance`
+     * @param name       the aggregate name, e.g. the scanner class name
+     * @param startNanos the start time returned by {@link #now()}
+     */
+    public static void accumulateSince(String category, String name, long startNanos) {
+        if (0L == startNanos || !active) {
+            return;
+        }
+        accumulate(category, name, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns all spans ended sorted by start time
+     */
+    public static List<Span> spans() {
+        List<Span> list = new ArrayList<Span>(spans);
+        Collections.sort(list, new Comparator<Span>() {
+            @Override
+            public int compare(Span o1, Span o2) {
+                int n = Long.compare(o1.start, o2.start);
+                return 0 != n ? n : Long.compare(o2.duration, o1.duration);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Returns the nesting level of each span in the list specified
+     *
+     * @param list spans sorted by start time
+     * @return the nesting level of spans, in the same order
+     */
+    public static int[] levels(List<Span> list) {
+        int sz = list.size();
+        int[] levels = new int[sz];
+        for (int i = 0; i < sz; ++i) {
+            Span span = list.get(i);
+            for (int j = i - 1; j >= 0; --j) {
+                if (list.get(j).contains(span)) {
+                    levels[i] = levels[j] + 1;
+                    break;
+                }
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Returns the aggregates as `name -> [total ms, count]`, sorted by total time
+     */
+    public static List<Map.Entry<String, long[]>> aggregates() {
+        List<Map.Entry<String, long[]>> list = C.newList();
+        for (Map.Entry<String, Aggregate> entry : aggregates.entrySet()) {
+            Aggregate aggregate = entry.getValue();
+            long[] la = {aggregate.nanos.get() / 1000000L, aggregate.count.get()};
+            list.add(new AbstractMap.SimpleImmutableEntry<String, long[]>(entry.getKey(), la));
+        }
+        Collections.sort(list, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(Map.Entry<String, long[]> o1, Map.Entry<String, long[]> o2) {
+                return Long.compare(o2.getValue()[0], o1.getValue()[0]);
+            }
+        });
+        return list;
+    }
+
+    /**
+     * Returns the total time in ms between {@link #begin()} and {@link #end()},
+     * or till now if tracing is still active
+     */
+    public static long totalMs() {
+        long end = 0 == traceEnd ? System.nanoTime() : traceEnd;
+        return (end - traceStart) / 1000000L;
+    }
+
+    /**
+     * Export the trace in Chrome trace event format
+     *
+     * @param file the target file
+     */
+    public static void export(File file) {
+        IO.write(toChromeTrace().getBytes(StandardCharsets.UTF_8), file);
+    }
+
+    /**
+     * Returns the trace in Chrome trace event format
+     */
+    public static String toChromeTrace() {
+        List<Map<String, Object>> events = C.newList();
+        Map<Long, String> threads = C.newMap();
+        for (Span span : spans()) {
+            threads.put(span.threadId, span.threadName);
+            events.add(event(span.category, span.name, span.threadId,
+                    (span.start - traceStart) / 1000L, span.duration / 1000L, null));
+        }
+        // aggregates are laid out one after another on a separate track
+        // so that they can be read as a flame graph of total time
+        long aggregateTrack = -1L;
+        threads.put(aggregateTrack, "aggregated");
+        long ts = 0;
+        for (Map.Entry<String, Aggregate> entry : aggregates.entrySet()) {
+            Aggregate aggregate = entry.getValue();
+            String key = entry.getKey();
+            int pos = key.indexOf(':');
+            long dur = aggregate.nanos.get() / 1000L;
+            Map<String, Object> args = C.newMap();
+            args.put("count", aggregate.count.get());
+            events.add(event(key.substring(0, pos), key.substring(pos + 1), aggregateTrack, ts, dur, args));
+            ts += dur;
+        }
+        for (Map.Entry<Long, String> entry : threads.entrySet()) {
+            Map<String, Object> event = C.newMap();
+            event.put("name", "thread_name");
+            event.put("ph", "M");
+            event.put("pid", 1);
+            event.put("tid", entry.getKey());
+            Map<String, Object> args = C.newMap();
+            args.put("name", entry.getValue());
+            event.put("args", args);
+            events.add(event);
+        }
+        Map<String, Object> trace = C.newMap();
+        trace.put("traceEvents", events);
+        trace.put("displayTimeUnit", "ms");
+        return JSON.toJSONString(trace);
+    }
+
+    private static Map<String, Object> event(String category, String name, long tid, long ts, long dur, Map<String, Object> args) {
+        Map<String, Object> event = C.newMap();
+        event.put("name", name);
+        event.put("cat", category);
+        event.put("ph", "X");
+        event.put("pid", 1);
+        event.put("tid", tid);
+        event.put("ts", ts);
+        event.put("dur", dur);
+        if (null != args) {
+            event.put("args", args);
+        }
+        return event;
+    }
+
+}
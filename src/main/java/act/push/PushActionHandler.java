@@ -0,0 +1,161 @@
+package act.push;
+
+import act.app.ActionContext;
+import act.app.App;
+import act.handler.RequestHandlerBase;
+import act.handler.builtin.controller.RequestHandlerProxy;
+import act.xio.undertow.UndertowRequest;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.SameThreadExecutor;
+import org.osgl.http.H;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.E;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Base class of the request handlers serving {@link WsAction} and {@link SseAction}
+ * methods.
+ *
+ * The request is handed over to the undertow WebSocket/Server-Sent Events
+ * handler which serves the connection with the non-blocking channel, so that
+ * an idle connection does not hold a worker thread
+ */
+abstract class PushActionHandler extends RequestHandlerBase {
+
+    private final App app;
+    private final Class<?> endpointClass;
+    private final Method method;
+    private final String[] topics;
+    private final boolean isStatic;
+
+    protected PushActionHandler(Method method, String[] topics, App app) {
+        this.app = app;
+        this.endpointClass = method.getDeclaringClass();
+        this.method = method;
+        this.topics = topics;
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+        method.setAccessible(true);
+    }
+
+    @Override
+    public void handle(ActionContext context) {
+        H.Request req = context.req();
+        E.unsupportedIf(!(req instanceof UndertowRequest), "push action requires undertow network");
+        // the session is resolved by now, apply the global and app level
+        // before interceptors, e.g. authentication, prior to the upgrade
+        Result result = handleBefore(context);
+        if (null != result) {
+            throw result;
+        }
+        HttpServerExchange exchange = ((UndertowRequest) req).exchange();
+        // From now on the connection is served on the non-blocking channel.
+        // Detach the blocking streams so that they won't be closed on exchange end
+        exchange.startBlocking(null);
+        exchange.dispatch(SameThreadExecutor.INSTANCE, pushHandler());
+    }
+
+    private Result handleBefore(ActionContext context) {
+        context.startIntercepting();
+        try {
+            Result result = RequestHandlerProxy.GLOBAL_BEFORE_INTERCEPTOR.apply(context);
+            return null != result ? result : app.interceptorManager().handleBefore(context);
+        } catch (Result r) {
+            return r;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw E.unexpected(e);
+        }
+    }
+
+    @Override
+    public boolean sessionFree() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return endpointClass.getName() + "." + method.getName();
+    }
+
+    /**
+     * Returns the undertow handler that upgrades the exchange
+     */
+    protected abstract HttpHandler pushHandler();
+
+    protected App app() {
+        return app;
+    }
+
+    protected PushConnectionManager manager() {
+        return app.service(PushConnectionManager.class);
+    }
+
+    /**
+     * Register the connection and subscribe it to the topics specified
+     * on the action annotation. The close listener of the connection must
+     * be set up before calling this method
+     *
+     * @return `true` if the connection is registered or `false` if it is
+     * closed already
+     */
+    protected boolean connected(PushConnection connection) {
+        if (!manager().register(connection)) {
+            return false;
+        }
+        for (String topic : topics) {
+            connection.subscribe(topic);
+        }
+        return true;
+    }
+
+    /**
+     * Call the action method. Parameters typed as {@link PushConnection} and
+     * `String` receive the connection and the message respectively; other
+     * parameters are injected by the app
+     */
+    protected void invoke(PushConnection connection, String message) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Object[] params = new Object[paramTypes.length];
+        for (int i = 0; i < params.length; ++i) {
+            Class<?> type = paramTypes[i];
+            if (PushConnection.class.isAssignableFrom(type)) {
+                params[i] = connection;
+            } else if (String.class == type) {
+                params[i] = message;
+            } else {
+                params[i] = app.getInstance(type);
+            }
+        }
+        Object host = isStatic ? null : app.getInstance(endpointClass);
+        try {
+            method.invoke(host, params);
+        } catch (IllegalAccessException e) {
+            throw E.unexpected(e);
+        } catch (InvocationTargetException e) {
+            throw E.unexpected(e.getTargetException(), "Error invoking push action: %s", this);
+        }
+    }
+
+    static PushActionHandler of(Method method, App app) {
+        WsAction wsAction = method.getAnnotation(WsAction.class);
+        if (null != wsAction) {
+            return new WsActionHandler(method, wsAction.topics(), app);
+        }
+        SseAction sseAction = method.getAnnotation(SseAction.class);
+        if (null != sseAction) {
+            return new SseActionHandler(method, sseAction.topics(), app);
+        }
+        return null;
+    }
+
+    static String path(Method method) {
+        WsAction wsAction = method.getAnnotation(WsAction.class);
+        return null != wsAction ? wsAction.value() : method.getAnnotation(SseAction.class).value();
+    }
+
+}
@@ -0,0 +1,159 @@
+package act.push;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A WebSocket or Server-Sent Events connection the server can push message to.
+ *
+ * Messages are written to the underlying non-blocking channel one at a time.
+ * The following messages are queued until the previous write completed. The
+ * queue is bounded: once it is full, e.g. the client cannot keep up, messages
+ * are dropped instead of piling up in memory
+ */
+public abstract class PushConnection {
+
+    private final String id;
+    private final int capacity;
+    private final PushConnectionManager manager;
+    private final Queue<String> outbound = new ConcurrentLinkedQueue<>();
+    // number of messages queued plus the one being written
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private final AtomicInteger flushRequests = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Set<String> topics = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    protected PushConnection(String id, int capacity, PushConnectionManager manager) {
+        this.id = id;
+        this.capacity = capacity;
+        this.manager = manager;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    /**
+     * Send a message to the client. The method does not block
+     *
+     * @param message the message
+     * @return `true` if the message is queued or `false` if the message
+     * is dropped because the connection is closed or the queue is full
+     */
+    public boolean send(String message) {
+        if (!isOpen()) {
+            return false;
+        }
+        if (pending.incrementAndGet() > capacity) {
+            pending.decrementAndGet();
+            dropped.incrementAndGet();
+            return false;
+        }
+        outbound.offer(message);
+        flush();
+        return true;
+    }
+
+    /**
+     * Subscribe to the topic. Nothing happens if the connection is closed
+     */
+    public PushConnection subscribe(String topic) {
+        if (isOpen() && topics.add(topic)) {
+            manager.subscribe(this, topic);
+        }
+        return this;
+    }
+
+    public PushConnection unsubscribe(String topic) {
+        if (topics.remove(topic)) {
+            manager.unsubscribe(this, topic);
+        }
+        return this;
+    }
+
+    public Set<String> topics() {
+        return Collections.unmodifiableSet(topics);
+    }
+
+    /**
+     * Returns the number of messages not written yet
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    /**
+     * Returns the number of messages dropped because the queue is full
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    public abstract boolean isOpen();
+
+    public abstract void close();
+
+    /**
+     * Write the message to the channel without blocking. The implementation
+     * must call {@link #written()} or {@link #writeFailed(Throwable)} once
+     * the write completes
+     */
+    protected abstract void write(String message);
+
+    protected final void written() {
+        pending.decrementAndGet();
+        writing.set(false);
+        flush();
+    }
+
+    protected final void writeFailed(Throwable cause) {
+        pending.decrementAndGet();
+        writing.set(false);
+        close();
+    }
+
+    /**
+     * Called by the implementation once the underlying channel is closed
+     */
+    protected final void closed() {
+        manager.unregister(this);
+        outbound.clear();
+        pending.set(0);
+    }
+
+    // Drain the queue in a loop instead of recursing, as a write completing
+    // synchronously calls back into flush() via written(). A flush requested
+    // while another thread is draining is counted and picked up by that thread
+    private void flush() {
+        if (0 != flushRequests.getAndIncrement()) {
+            return;
+        }
+        int missed = 1;
+        for (;;) {
+            while (writing.compareAndSet(false, true)) {
+                String message = outbound.poll();
+                if (null == message) {
+                    writing.set(false);
+                    break;
+                }
+                write(message);
+            }
+            missed = flushRequests.addAndGet(-missed);
+            if (0 == missed) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[" + id + "]";
+    }
+}
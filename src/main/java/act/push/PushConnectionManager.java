@@ -0,0 +1,147 @@
+package act.push;
+
+import act.Act;
+import act.app.App;
+import act.app.AppServiceBase;
+import act.event.ActEventListenerBase;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keep track of the {@link PushConnection push connections} of an app and
+ * broadcast messages to the connections subscribed to a topic.
+ *
+ * Besides calling {@link #broadcast(String, String)} directly, app can
+ * trigger a {@link PushEvent} on the event bus to broadcast a message
+ */
+public class PushConnectionManager extends AppServiceBase<PushConnectionManager> {
+
+    private final ConcurrentMap<String, PushConnection> connections = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<PushConnection>> subscribers = new ConcurrentHashMap<>();
+    private final Metric metric;
+
+    public PushConnectionManager(App app) {
+        super(app);
+        this.metric = Act.metricPlugin().metric(MetricInfo.PUSH);
+        app.eventBus().bind(PushEvent.class, new ActEventListenerBase<PushEvent>("act:push") {
+            @Override
+            public void on(PushEvent event) throws Exception {
+                broadcast(event.topic(), event.message());
+            }
+        });
+    }
+
+    @Override
+    protected void releaseResources() {
+        for (PushConnection connection : new ArrayList<>(connections.values())) {
+            connection.close();
+        }
+        connections.clear();
+        subscribers.clear();
+    }
+
+    /**
+     * Send the message to all connections subscribed to the topic
+     *
+     * @param topic   the topic
+     * @param message the message
+     * @return the number of connections the message has been queued to
+     */
+    public int broadcast(String topic, String message) {
+        Set<PushConnection> set = subscribers.get(topic);
+        if (null == set) {
+            return 0;
+        }
+        int sent = 0;
+        for (PushConnection connection : set) {
+            if (connection.send(message)) {
+                sent++;
+            } else {
+                metric.countOnce(MetricInfo.PUSH_DROPPED);
+            }
+        }
+        return sent;
+    }
+
+    public PushConnection connection(String id) {
+        return connections.get(id);
+    }
+
+    public Collection<PushConnection> connections() {
+        return Collections.unmodifiableCollection(connections.values());
+    }
+
+    public int count() {
+        return connections.size();
+    }
+
+    public int count(String topic) {
+        Set<PushConnection> set = subscribers.get(topic);
+        return null == set ? 0 : set.size();
+    }
+
+    /**
+     * Register the connection. The close listener of the connection shall be
+     * set up before calling this method: a connection closed before that is
+     * found here and removed, the one closed after that is removed by the
+     * listener
+     *
+     * @return `true` if the connection is registered or `false` if it is
+     * closed already
+     */
+    boolean register(PushConnection connection) {
+        connections.put(connection.id(), connection);
+        if (!connection.isOpen()) {
+            unregister(connection);
+            return false;
+        }
+        metric.countOnce(MetricInfo.PUSH_CONNECTED);
+        return true;
+    }
+
+    void unregister(PushConnection connection) {
+        if (null == connections.remove(connection.id())) {
+            return;
+        }
+        for (String topic : connection.topics()) {
+            unsubscribe(connection, topic);
+        }
+    }
+
+    void subscribe(PushConnection connection, String topic) {
+        if (!registered(connection)) {
+            return;
+        }
+        Set<PushConnection> set = subscribers.get(topic);
+        if (null == set) {
+            Set<PushConnection> newSet = Collections.newSetFromMap(new ConcurrentHashMap<PushConnection, Boolean>());
+            set = subscribers.putIfAbsent(topic, newSet);
+            if (null == set) {
+                set = newSet;
+            }
+        }
+        set.add(connection);
+        if (!registered(connection)) {
+            // unregistered while subscribing
+            set.remove(connection);
+        }
+    }
+
+    void unsubscribe(PushConnection connection, String topic) {
+        Set<PushConnection> set = subscribers.get(topic);
+        if (null != set) {
+            set.remove(connection);
+        }
+    }
+
+    private boolean registered(PushConnection connection) {
+        return connection.isOpen() && connection == connections.get(connection.id());
+    }
+}
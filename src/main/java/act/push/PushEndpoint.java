@@ -0,0 +1,14 @@
+package act.push;
+
+import java.lang.annotation.*;
+
+/**
+ * Mark a class that provides {@link WsAction WebSocket} or {@link SseAction
+ * Server-Sent Events} action methods. The action methods of the class are
+ * registered into the app router when the class is found
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PushEndpoint {
+}
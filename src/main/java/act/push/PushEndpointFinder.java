@@ -0,0 +1,31 @@
+package act.push;
+
+import act.app.App;
+import act.route.RouteSource;
+import act.route.Router;
+import act.util.AnnotatedClassFinder;
+import org.osgl.http.H;
+
+import java.lang.reflect.Method;
+
+/**
+ * Register the {@link WsAction} and {@link SseAction} methods of
+ * {@link PushEndpoint} classes into the app router
+ */
+public class PushEndpointFinder {
+
+    private PushEndpointFinder() {}
+
+    @AnnotatedClassFinder(PushEndpoint.class)
+    public static void found(Class<?> cls) {
+        App app = App.instance();
+        Router router = app.router();
+        for (Method method : cls.getDeclaredMethods()) {
+            PushActionHandler handler = PushActionHandler.of(method, app);
+            if (null != handler) {
+                router.addMapping(H.Method.GET, PushActionHandler.path(method), handler, RouteSource.ACTION_ANNOTATION);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package act.push;
+
+import act.event.ActEvent;
+
+/**
+ * Trigger a `PushEvent` on the app {@link act.event.EventBus} to broadcast
+ * the message to all connections subscribed to the topic:
+ *
+ * ```java
+ * app.eventBus().trigger(new PushEvent("metrics", json));
+ * ```
+ */
+public class PushEvent extends ActEvent<String> {
+
+    private final String message;
+
+    public PushEvent(String topic, String message) {
+        super(topic);
+        this.message = message;
+    }
+
+    public String topic() {
+        return source();
+    }
+
+    public String message() {
+        return message;
+    }
+
+    @Override
+    public Class<? extends ActEvent<String>> eventType() {
+        return PushEvent.class;
+    }
+}
@@ -0,0 +1,28 @@
+package act.push;
+
+import java.lang.annotation.*;
+
+/**
+ * Mark a method in a {@link PushEndpoint} class as the Server-Sent Events
+ * action handling the connections to the path specified.
+ *
+ * The method is called once the connection is established. It can declare
+ * a {@link PushConnection} parameter to receive the connection, e.g. to
+ * subscribe to topics depending on the request, and a `String` parameter
+ * to receive the `Last-Event-ID` sent by a reconnecting client
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SseAction {
+    /**
+     * Specify the URL path of the Server-Sent Events endpoint
+     */
+    String value();
+
+    /**
+     * Specify the topics a connection subscribes to once established.
+     * Default value: empty
+     */
+    String[] topics() default {};
+}
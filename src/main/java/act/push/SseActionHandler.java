@@ -0,0 +1,89 @@
+package act.push;
+
+import act.app.App;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.sse.ServerSentEventConnection;
+import io.undertow.server.handlers.sse.ServerSentEventConnectionCallback;
+import io.undertow.server.handlers.sse.ServerSentEventHandler;
+import org.osgl.util.S;
+import org.xnio.ChannelListener;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Serve {@link SseAction} methods
+ */
+class SseActionHandler extends PushActionHandler {
+
+    private final HttpHandler sseHandler;
+
+    SseActionHandler(Method method, String[] topics, App app) {
+        super(method, topics, app);
+        this.sseHandler = new ServerSentEventHandler(new ServerSentEventConnectionCallback() {
+            @Override
+            public void connected(ServerSentEventConnection channel, String lastEventId) {
+                final SseConnection connection = new SseConnection(channel);
+                channel.addCloseTask(new ChannelListener<ServerSentEventConnection>() {
+                    @Override
+                    public void handleEvent(ServerSentEventConnection channel) {
+                        connection.closed();
+                    }
+                });
+                if (!SseActionHandler.this.connected(connection)) {
+                    return;
+                }
+                try {
+                    invoke(connection, lastEventId);
+                } catch (RuntimeException e) {
+                    App.logger.error(e, "Error calling %s", SseActionHandler.this);
+                    connection.close();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected HttpHandler pushHandler() {
+        return sseHandler;
+    }
+
+    private class SseConnection extends PushConnection {
+
+        private final ServerSentEventConnection channel;
+
+        SseConnection(ServerSentEventConnection channel) {
+            super(S.uuid(), app().config().pushQueueSize(), manager());
+            this.channel = channel;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+
+        @Override
+        protected void write(String message) {
+            channel.send(message, new ServerSentEventConnection.EventCallback() {
+                @Override
+                public void done(ServerSentEventConnection connection, String data, String event, String id) {
+                    written();
+                }
+
+                @Override
+                public void failed(ServerSentEventConnection connection, String data, String event, String id, IOException e) {
+                    writeFailed(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package act.push;
+
+import java.lang.annotation.*;
+
+/**
+ * Mark a method in a {@link PushEndpoint} class as the WebSocket action
+ * handling the connections to the path specified.
+ *
+ * The method is called with each text message received from the client. It
+ * can declare a {@link PushConnection} parameter and a `String` parameter
+ * which receive the connection and the message respectively
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface WsAction {
+    /**
+     * Specify the URL path of the WebSocket endpoint
+     */
+    String value();
+
+    /**
+     * Specify the topics a connection subscribes to once established.
+     * Default value: empty
+     */
+    String[] topics() default {};
+}
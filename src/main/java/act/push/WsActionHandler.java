@@ -0,0 +1,170 @@
+package act.push;
+
+import act.app.App;
+import io.undertow.server.HttpHandler;
+import io.undertow.websockets.WebSocketConnectionCallback;
+import io.undertow.websockets.WebSocketProtocolHandshakeHandler;
+import io.undertow.websockets.core.AbstractReceiveListener;
+import io.undertow.websockets.core.BufferedTextMessage;
+import io.undertow.websockets.core.WebSocketCallback;
+import io.undertow.websockets.core.WebSocketChannel;
+import io.undertow.websockets.core.WebSockets;
+import io.undertow.websockets.spi.WebSocketHttpExchange;
+import org.osgl.util.S;
+import org.xnio.ChannelListener;
+import org.xnio.IoUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serve {@link WsAction} methods
+ */
+class WsActionHandler extends PushActionHandler {
+
+    private final HttpHandler handshakeHandler;
+
+    WsActionHandler(Method method, String[] topics, App app) {
+        super(method, topics, app);
+        this.handshakeHandler = new WebSocketProtocolHandshakeHandler(new WebSocketConnectionCallback() {
+            @Override
+            public void onConnect(WebSocketHttpExchange exchange, WebSocketChannel channel) {
+                WsConnection connection = new WsConnection(channel);
+                channel.getReceiveSetter().set(connection.receiveListener());
+                channel.getCloseSetter().set(connection.closeListener());
+                if (connected(connection)) {
+                    channel.resumeReceives();
+                }
+            }
+        });
+    }
+
+    @Override
+    protected HttpHandler pushHandler() {
+        return handshakeHandler;
+    }
+
+    private class WsConnection extends PushConnection {
+
+        private final WebSocketChannel channel;
+
+        // messages received are handled on the job manager one by one
+        // so that the action method sees them in order. The queue is bounded:
+        // receiving is suspended once it is full and resumed when drained
+        private final Queue<String> inbound = new ArrayDeque<>();
+        private final int capacity;
+        private boolean suspended;
+        private final AtomicBoolean handling = new AtomicBoolean();
+
+        WsConnection(WebSocketChannel channel) {
+            super(S.uuid(), app().config().pushQueueSize(), manager());
+            this.channel = channel;
+            this.capacity = app().config().pushQueueSize();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen() && !channel.isCloseFrameSent();
+        }
+
+        @Override
+        public void close() {
+            IoUtils.safeClose(channel);
+        }
+
+        @Override
+        protected void write(String message) {
+            WebSockets.sendText(message, channel, new WebSocketCallback<Void>() {
+                @Override
+                public void complete(WebSocketChannel channel, Void context) {
+                    written();
+                }
+
+                @Override
+                public void onError(WebSocketChannel channel, Void context, Throwable throwable) {
+                    writeFailed(throwable);
+                }
+            });
+        }
+
+        AbstractReceiveListener receiveListener() {
+            return new AbstractReceiveListener() {
+                @Override
+                protected void onFullTextMessage(WebSocketChannel channel, BufferedTextMessage message) {
+                    if (received(message.getData())) {
+                        scheduleHandling();
+                    }
+                }
+            };
+        }
+
+        ChannelListener<WebSocketChannel> closeListener() {
+            return new ChannelListener<WebSocketChannel>() {
+                @Override
+                public void handleEvent(WebSocketChannel channel) {
+                    closed();
+                }
+            };
+        }
+
+        private boolean received(String message) {
+            synchronized (inbound) {
+                if (inbound.size() >= capacity) {
+                    // frames already read before receiving is suspended
+                    App.logger.warn("Inbound queue full, closing %s", this);
+                    close();
+                    return false;
+                }
+                inbound.offer(message);
+                if (inbound.size() >= capacity && !suspended) {
+                    suspended = true;
+                    channel.suspendReceives();
+                }
+                return true;
+            }
+        }
+
+        private String nextMessage() {
+            synchronized (inbound) {
+                String message = inbound.poll();
+                if (suspended && inbound.size() < capacity) {
+                    suspended = false;
+                    channel.resumeReceives();
+                }
+                return message;
+            }
+        }
+
+        private boolean hasMessage() {
+            synchronized (inbound) {
+                return !inbound.isEmpty();
+            }
+        }
+
+        private void scheduleHandling() {
+            if (!handling.compareAndSet(false, true)) {
+                return;
+            }
+            app().jobManager().now(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        String message;
+                        while (null != (message = nextMessage())) {
+                            invoke(WsConnection.this, message);
+                        }
+                    } catch (RuntimeException e) {
+                        App.logger.error(e, "Error handling message on %s", WsConnection.this);
+                    } finally {
+                        handling.set(false);
+                        if (hasMessage()) {
+                            scheduleHandling();
+                        }
+                    }
+                }
+            });
+        }
+    }
+}
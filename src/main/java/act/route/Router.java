@@ -330,6 +330,17 @@ public class Router extends AppServiceBase<Router> {
         }
     }
 
+    /**
+     * Visit all request handlers registered in this router
+     *
+     * @param visitor the visitor
+     */
+    public void accept($.Visitor<RequestHandler> visitor) {
+        for (H.Method method : supportedHttpMethods()) {
+            root(method).accept(visitor);
+        }
+    }
+
     public static H.Method[] supportedHttpMethods() {
         return targetMethods;
     }
@@ -630,6 +641,18 @@ public class Router extends AppServiceBase<Router> {
             return new StringBuilder(pPath).append(pPath.endsWith("/") ? "" : "/").append(name).toString();
         }
 
+        void accept($.Visitor<RequestHandler> visitor) {
+            if (null != handler) {
+                visitor.visit(handler);
+            }
+            for (Node node : staticChildren.values()) {
+                node.accept(visitor);
+            }
+            if (null != dynamicChild) {
+                dynamicChild.accept(visitor);
+            }
+        }
+
         void debug(H.Method method, PrintStream ps) {
             if (null != handler) {
                 ps.printf("%s %s %s\n", method, path(), handler);
@@ -2,37 +2,121 @@ package act.util;
 
 import act.Act;
 import act.app.ActionContext;
+import act.conf.AppConfig;
 import act.view.Template;
 import act.view.ViewManager;
 import org.osgl.http.H;
 import org.osgl.mvc.ErrorPageRenderer;
 import org.osgl.mvc.result.ErrorResult;
+import org.osgl.util.IO;
+import org.osgl.util.S;
 
 public class ActErrorPageRender extends ErrorPageRenderer {
 
     public static final String ARG_ERROR = "_error";
 
+    public static final ActErrorPageRender INSTANCE = new ActErrorPageRender();
+
+    private static final ErrorTemplatePathResolver DEFAULT_RESOLVER = new ErrorTemplatePathResolver.DefaultErrorTemplatePathResolver();
+
     @Override
     protected String renderTemplate(ErrorResult error, H.Format format) {
         ActionContext context = ActionContext.current();
         if (null == context) {
             return null;
         }
-        context.templatePath(templatePath(error, context));
+        String path = templatePath(error, context);
+        ErrorPageCache cache = context.app().service(ErrorPageCache.class);
+        String key = null;
+        if (null != cache && cacheable(error, context)) {
+            key = key(error, format);
+            ErrorPageCache.ErrorPage page = cache.page(key);
+            if (null != page) {
+                return page.body;
+            }
+        }
         ViewManager vm = Act.viewManager();
         if (null == vm) {
             // unit testing
             return null;
         }
-        Template t = vm.load(context);
+        Template t = template(path, vm, cache, context);
         context.renderArg(ARG_ERROR, error);
-        return null != t ? t.render(context) : null;
+        String body = null != t ? t.render(context) : null;
+        if (null != key) {
+            cache.page(key, body, format);
+        }
+        return body;
+    }
+
+    /**
+     * Write the cached error page to the response directly when
+     * {@link AppConfig#errorPageFloodProtection() flood protection} is
+     * enabled. The session and flash are not dissolved into the response
+     *
+     * @param error   the error
+     * @param context the action context
+     * @return `true` if the cached page has been written
+     */
+    public static boolean serveCached(ErrorResult error, ActionContext context) {
+        return INSTANCE.serve(error, context);
+    }
+
+    private boolean serve(ErrorResult error, ActionContext context) {
+        if (!context.config().errorPageFloodProtection() || !cacheable(error, context)) {
+            return false;
+        }
+        ErrorPageCache cache = context.app().service(ErrorPageCache.class);
+        if (null == cache) {
+            return false;
+        }
+        H.Format format = context.accept();
+        ErrorPageCache.ErrorPage page = cache.page(key(error, format));
+        if (null == page || null == page.bytes) {
+            return false;
+        }
+        H.Response resp = context.resp();
+        resp.status(error.statusCode());
+        if (null != page.contentType) {
+            resp.contentType(page.contentType);
+        }
+        resp.contentLength(page.bytes.length);
+        if (H.Method.HEAD != context.req().method()) {
+            IO.write(page.bytes, resp.outputStream());
+        }
+        return true;
+    }
+
+    private Template template(String path, ViewManager vm, ErrorPageCache cache, ActionContext context) {
+        boolean prod = Act.isProd() && null != cache;
+        context.templatePath(path);
+        Template t = prod ? cache.template(path) : null;
+        if (null == t) {
+            // the template of the action shall not be used for the error
+            context.cacheTemplate(null);
+            t = vm.load(context);
+            if (prod && null != t) {
+                cache.template(path, t);
+            }
+        }
+        return t;
+    }
+
+    private static boolean cacheable(ErrorResult error, ActionContext context) {
+        return null == error.getCause() && context.config().errorPageCacheEnabled();
+    }
+
+    // the page is cached by status and content type only, error templates
+    // shall render nothing else when the error page cache is enabled
+    static String key(ErrorResult error, H.Format format) {
+        return S.builder().append(error.statusCode()).append('|')
+                .append(null == format ? "" : format.contentType()).toString();
     }
 
-    private String templatePath(ErrorResult result, ActionContext context) {
+    private static String templatePath(ErrorResult result, ActionContext context) {
         ErrorTemplatePathResolver resolver = context.config().errorTemplatePathResolver();
         if (null == resolver) {
-            resolver = new ErrorTemplatePathResolver.DefaultErrorTemplatePathResolver();
+            resolver = DEFAULT_RESOLVER;
         }
         return resolver.resolve(result, context);
     }
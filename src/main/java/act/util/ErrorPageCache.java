@@ -0,0 +1,92 @@
+package act.util;
+
+import act.app.App;
+import act.app.AppServiceBase;
+import act.view.Template;
+import org.osgl.http.H;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the error pages rendered and the error templates loaded by
+ * {@link ActErrorPageRender} for an app. The cache is dropped along with
+ * the app when it is refreshed or shut down.
+ *
+ * Pages are kept in a small LRU map, the least recently used page is
+ * evicted once the map is full
+ */
+public class ErrorPageCache extends AppServiceBase<ErrorPageCache> {
+
+    static final int MAX_PAGES = 64;
+
+    /**
+     * Error page rendered from a template that does not depend on the
+     * request. The body is `null` if there is no template for the error
+     */
+    static class ErrorPage {
+        final String body;
+        final byte[] bytes;
+        final String contentType;
+
+        ErrorPage(String body, H.Format format) {
+            this.body = body;
+            this.bytes = null == body ? null : body.getBytes(StandardCharsets.UTF_8);
+            this.contentType = null == format ? null : format.contentType();
+        }
+    }
+
+    // rendered pages by status and content type, guarded by itself
+    private final Map<String, ErrorPage> pages = new LinkedHashMap<String, ErrorPage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ErrorPage> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    // loaded templates by template path, used in prod mode only
+    private final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<>();
+
+    public ErrorPageCache(App app) {
+        super(app, true);
+    }
+
+    @Override
+    protected void releaseResources() {
+        synchronized (pages) {
+            pages.clear();
+        }
+        templates.clear();
+    }
+
+    ErrorPage page(String key) {
+        synchronized (pages) {
+            return pages.get(key);
+        }
+    }
+
+    void page(String key, String body, H.Format format) {
+        ErrorPage page = new ErrorPage(body, format);
+        synchronized (pages) {
+            pages.put(key, page);
+        }
+    }
+
+    int size() {
+        synchronized (pages) {
+            return pages.size();
+        }
+    }
+
+    Template template(String path) {
+        return templates.get(path);
+    }
+
+    void template(String path, Template template) {
+        templates.putIfAbsent(path, template);
+    }
+
+}
@@ -3,11 +3,12 @@ package act.util;
 import act.data.util.StringOrPattern;
 import com.alibaba.fastjson.serializer.JSONSerializer;
 import com.alibaba.fastjson.serializer.PropertyPreFilter;
+import com.alibaba.fastjson.serializer.SerialContext;
 import org.osgl.util.C;
-import org.osgl.util.FastStr;
 import org.osgl.util.S;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -24,6 +25,10 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
     private final Set<String> includes = new HashSet<String>();
     private final Set<String> excludes = new HashSet<String>();
     private final List<String> fullPaths = C.newList();
+    // memorize the decision on property paths, as the same paths are checked
+    // again and again on each element of a list
+    private final Map<String, Boolean> decisions = new ConcurrentHashMap<String, Boolean>();
+    private static final int MAX_DECISIONS = 1024;
 
     public FastJsonPropertyPreFilter(String... properties) {
         super();
@@ -33,6 +38,7 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
     public void setFullPaths(List<String> ls) {
         fullPaths.clear();
         fullPaths.addAll(ls);
+        decisions.clear();
     }
 
     /**
@@ -106,6 +112,7 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
     }
 
     private void addTo(Set<String> set, String... properties) {
+        decisions.clear();
         for (String s : properties) {
             if (S.blank(s)) {
                 continue;
@@ -131,13 +138,40 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
             return true;
         }
 
-        // if context path is "$.bar.zee" or "$[0].bar.zee" and name is "foo"
-        // then path should be "bar.zee.foo"
-        String path;
-        FastStr fs = FastStr.of(serializer.getContext().toString()).append('.').append(name);
-        path = fs.substring(fs.indexOf('.') + 1); // skip the first "."
+        String path = path(serializer.getContext(), name);
+        Boolean b = decisions.get(path);
+        if (null == b) {
+            b = !matches(excludes, path, true) && (includes.isEmpty() || matches(includes, path, false));
+            if (decisions.size() < MAX_DECISIONS) {
+                decisions.put(path, b);
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Returns the property path without array indexes, e.g. if context path
+     * is "$.bar.zee" or "$[0].bar.zee" and name is "foo" then path should be
+     * "bar.zee.foo"
+     */
+    private static String path(SerialContext context, String name) {
+        if (null == context || null == context.parent) {
+            return name;
+        }
+        StringBuilder sb = S.builder();
+        appendPath(sb, context);
+        return sb.append(name).toString();
+    }
 
-        return !matches(excludes, path, true) && (includes.isEmpty() || matches(includes, path, false));
+    private static void appendPath(StringBuilder sb, SerialContext context) {
+        if (null == context.parent) {
+            return;
+        }
+        appendPath(sb, context.parent);
+        Object fieldName = context.fieldName;
+        if (!(fieldName instanceof Integer)) {
+            sb.append(fieldName).append('.');
+        }
     }
 
     private static final Pattern SQUARE_BLOCK = Pattern.compile("\\[.*\\]");
@@ -167,7 +201,7 @@ public class FastJsonPropertyPreFilter implements PropertyPreFilter {
         return S.join("", paths).contains("*");
     }
 
-    private static Map<Collection<String>, List<StringOrPattern>> spCache = C.newMap();
+    private static Map<Collection<String>, List<StringOrPattern>> spCache = new ConcurrentHashMap<Collection<String>, List<StringOrPattern>>();
 
     private boolean patternMatches(Set<String> paths, String path, boolean exclude) {
         List<StringOrPattern> spList = spList(paths);
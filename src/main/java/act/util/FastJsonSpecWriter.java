@@ -0,0 +1,266 @@
+package act.util;
+
+import act.cli.util.MappedFastJsonNameFilter;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.annotation.JSONField;
+import com.alibaba.fastjson.annotation.JSONType;
+import com.alibaba.fastjson.serializer.JavaBeanSerializer;
+import com.alibaba.fastjson.serializer.ObjectSerializer;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import org.osgl.util.S;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Writes beans of a class with a fixed set of output fields compiled from
+ * a {@link PropertySpec}.
+ *
+ * Instead of asking a {@link FastJsonPropertyPreFilter} about every property
+ * of every bean, the writer uses fastjson bean serializers that only know
+ * about the output fields. It applies to the specs that list fields of simple
+ * types, either top level or nested in bean fields, e.g. `name,zee.flag`,
+ * where the result is the same as with the filters. The fields are written in
+ * the order of their names and then labelled, as the filters do.
+ *
+ * A bean class the writer is not compiled for, e.g. a sub class of a field
+ * type or an element of another class in a collection, can only be found
+ * while writing. In that case {@link #write(Object, SerializerFeature...)}
+ * gives up and the result shall be rendered with the filters
+ */
+public class FastJsonSpecWriter {
+
+    private static final Pattern FIELD_NAME = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+
+    private final Class<?> type;
+    private final SerializeConfig config;
+    private final SerializeFilter nameFilter;
+
+    private FastJsonSpecWriter(Class<?> type, Map<Class<?>, Set<String>> outputs, Map<String, String> labels) {
+        this.type = type;
+        this.config = new SpecConfig(outputs);
+        this.nameFilter = labels.isEmpty() ? null : new MappedFastJsonNameFilter(labels);
+    }
+
+    /**
+     * Check if the result can be written by this writer, i.e. it is a bean
+     * of the class of this writer or a collection of such beans. Only the
+     * first element of a collection is checked, the other elements are
+     * checked by {@link #write(Object, SerializerFeature...)}
+     *
+     * @param result the result to be written
+     * @return `true` if the result can be written by this writer
+     */
+    public boolean accept(Object result) {
+        return type == beanType(result);
+    }
+
+    /**
+     * Write the result into JSON string
+     *
+     * @param result   the result
+     * @param features the serializer features
+     * @return the JSON string or `null` if the result contains a bean this
+     * writer is not compiled for
+     */
+    public String write(Object result, SerializerFeature... features) {
+        try {
+            return null == nameFilter ? JSON.toJSONString(result, config, features) : JSON.toJSONString(result, config, nameFilter, features);
+        } catch (RuntimeException e) {
+            if (notApplicable(e)) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean notApplicable(Throwable t) {
+        while (null != t) {
+            if (t == NotApplicable.INSTANCE) {
+                return true;
+            }
+            t = t.getCause();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the class of the beans in the result. If the result is a
+     * collection then the class of the first element is returned
+     *
+     * @param result the result
+     * @return the bean class or `null` if not found
+     */
+    public static Class<?> beanType(Object result) {
+        if (result instanceof Collection) {
+            for (Object o : (Collection) result) {
+                if (null != o) {
+                    return o.getClass();
+                }
+            }
+            return null;
+        }
+        return null == result ? null : result.getClass();
+    }
+
+    /**
+     * Compile a writer for the bean class and output fields
+     *
+     * @param type    the bean class
+     * @param outputs the output fields of the spec
+     * @param labels  the field to label mapping of the spec
+     * @return the writer or `null` if the output fields cannot be written
+     * without filters
+     */
+    public static FastJsonSpecWriter of(Class<?> type, List<String> outputs, Map<String, String> labels) {
+        if (outputs.isEmpty() || !isBean(type)) {
+            return null;
+        }
+        // the output fields of each bean class and the path the class is found at
+        Map<Class<?>, Set<String>> fields = new HashMap<>();
+        Map<Class<?>, String> paths = new HashMap<>();
+        fields.put(type, new HashSet<String>());
+        paths.put(type, "");
+        for (String output : outputs) {
+            String[] names = output.replace('/', '.').split("\\.", -1);
+            Class<?> bean = type;
+            String path = "";
+            for (int i = 0; i < names.length; ++i) {
+                String name = names[i];
+                if (!FIELD_NAME.matcher(name).matches()) {
+                    return null;
+                }
+                Class<?> fieldType = propertyType(bean, name);
+                if (null == fieldType) {
+                    return null;
+                }
+                fields.get(bean).add(name);
+                if (i == names.length - 1) {
+                    if (!isSimple(fieldType)) {
+                        return null;
+                    }
+                    break;
+                }
+                if (!isBean(fieldType)) {
+                    return null;
+                }
+                path = path + name + ".";
+                String existing = paths.get(fieldType);
+                if (null == existing) {
+                    paths.put(fieldType, path);
+                    fields.put(fieldType, new HashSet<String>());
+                } else if (!existing.equals(path)) {
+                    // the filters decide by path, a class found at two paths,
+                    // e.g. a recursive type, might need two sets of fields
+                    return null;
+                }
+                bean = fieldType;
+            }
+        }
+        return new FastJsonSpecWriter(type, fields, labels);
+    }
+
+    private static boolean isBean(Class<?> type) {
+        if (type.isArray() || isSimple(type) || Iterable.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type) || type.isAnnotationPresent(JSONType.class)) {
+            return false;
+        }
+        // keep the serializers registered for the class, e.g. value objects
+        ObjectSerializer serializer = SerializeConfig.getGlobalInstance().getObjectWriter(type);
+        return serializer instanceof JavaBeanSerializer;
+    }
+
+    // the type of the property read by fastjson, or null if not found or customized
+    private static Class<?> propertyType(Class<?> type, String name) {
+        String suffix = S.capFirst(name);
+        Method getter = getter(type, "get" + suffix);
+        if (null == getter) {
+            getter = getter(type, "is" + suffix);
+            if (null != getter && boolean.class != getter.getReturnType() && Boolean.class != getter.getReturnType()) {
+                getter = null;
+            }
+        }
+        if (null != getter) {
+            return customized(getter) || customized(field(type, name)) ? null : getter.getReturnType();
+        }
+        Field field = field(type, name);
+        return null == field || customized(field) ? null : field.getType();
+    }
+
+    private static Method getter(Class<?> type, String name) {
+        try {
+            Method method = type.getMethod(name);
+            return void.class == method.getReturnType() ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static Field field(Class<?> type, String name) {
+        try {
+            return type.getField(name);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    private static boolean customized(AnnotatedElement element) {
+        return null != element && element.isAnnotationPresent(JSONField.class);
+    }
+
+    private static boolean isSimple(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || String.class == type || Boolean.class == type
+                || Character.class == type || Number.class.isAssignableFrom(type) || Date.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Serialize config of the compiled bean classes. Raises {@link NotApplicable}
+     * on any other bean class so that the writer can give up
+     */
+    private static class SpecConfig extends SerializeConfig {
+        private final Set<Class<?>> types;
+
+        SpecConfig(Map<Class<?>, Set<String>> outputs) {
+            this.types = outputs.keySet();
+            for (Map.Entry<Class<?>, Set<String>> entry : outputs.entrySet()) {
+                // map the fields to themselves, the labels are applied by the name
+                // filter as fastjson sorts the fields by alias
+                Map<String, String> aliasMap = new HashMap<>();
+                for (String field : entry.getValue()) {
+                    aliasMap.put(field, field);
+                }
+                put(entry.getKey(), new JavaBeanSerializer(entry.getKey(), aliasMap));
+            }
+        }
+
+        @Override
+        public ObjectSerializer getObjectWriter(Class<?> clazz) {
+            ObjectSerializer serializer = super.getObjectWriter(clazz);
+            if (serializer instanceof JavaBeanSerializer && !types.contains(clazz)) {
+                throw NotApplicable.INSTANCE;
+            }
+            return serializer;
+        }
+    }
+
+    private static class NotApplicable extends RuntimeException {
+        static final NotApplicable INSTANCE = new NotApplicable();
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+}
@@ -0,0 +1,253 @@
+package act.util;
+
+import org.osgl.util.E;
+import org.osgl.util.IO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip compression with pooled {@link Deflater}s.
+ *
+ * Creating a `Deflater` allocates native memory which is only released when
+ * the deflater is ended or finalized. Instead of creating one for each
+ * response, a gzip stream borrows a deflater from a bounded pool and returns
+ * it when closed. The deflater is owned by the stream rather than the thread,
+ * thus a stream opened on one thread can be written and closed on another,
+ * e.g. when the response of an async result is resumed on a worker thread.
+ */
+public class Gzip {
+
+    public static final String ENCODING = "gzip";
+
+    private static final byte[] HEADER = {
+            (byte) 0x1f, (byte) 0x8b, // magic number
+            Deflater.DEFLATED, // compression method
+            0, // flags
+            0, 0, 0, 0, // modification time
+            0, // extra flags
+            (byte) 0xff // OS: unknown
+    };
+
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final BlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private Gzip() {}
+
+    /**
+     * Check if the `Accept-Encoding` header value accepts the encoding specified
+     *
+     * @param acceptEncoding the `Accept-Encoding` header value
+     * @param encoding       the encoding, e.g. `gzip`
+     * @return `true` if the encoding is acceptable
+     */
+    public static boolean accepts(String acceptEncoding, String encoding) {
+        if (null == acceptEncoding) {
+            return false;
+        }
+        for (String item : acceptEncoding.split(",")) {
+            String coding = item;
+            String q = null;
+            int pos = item.indexOf(';');
+            if (pos > -1) {
+                coding = item.substring(0, pos);
+                q = item.substring(pos + 1).trim();
+            }
+            coding = coding.trim();
+            if (encoding.equalsIgnoreCase(coding) || "*".equals(coding)) {
+                return null == q || !q.matches("q\\s*=\\s*0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an output stream that compresses the bytes written into the
+     * output stream specified in gzip format. The gzip trailer is written
+     * when the stream returned is closed.
+     *
+     * @param os    the target output stream
+     * @param level the compression level
+     * @return the gzip output stream
+     */
+    public static OutputStream wrap(OutputStream os, int level) {
+        return new GzipOutputStream(os, level);
+    }
+
+    /**
+     * Compress the bytes specified in gzip format
+     */
+    public static byte[] compress(byte[] bytes, int level) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        OutputStream os = wrap(baos, level);
+        try {
+            os.write(bytes);
+            os.close();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Compress the content read from the input stream into the target file in
+     * gzip format. The content is written to a temporary file first and then
+     * renamed to the target file, so a reader never sees a partial file
+     *
+     * @param is     the input stream
+     * @param target the target file
+     * @param level  the compression level
+     */
+    public static void compress(InputStream is, File target, int level) {
+        File dir = target.getParentFile();
+        File tmp = new File(dir, target.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        OutputStream os = null;
+        try {
+            if (null != dir && !dir.exists() && !dir.mkdirs() && !dir.exists()) {
+                throw new IOException("Cannot create dir: " + dir);
+            }
+            os = wrap(new FileOutputStream(tmp), level);
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = is.read(buf)) > -1) {
+                os.write(buf, 0, n);
+            }
+            os.close();
+            os = null;
+            // another thread might have done it
+            if (!tmp.renameTo(target) && !target.exists()) {
+                throw new IOException("Cannot rename " + tmp + " to " + target);
+            }
+        } catch (IOException e) {
+            throw E.ioException(e);
+        } finally {
+            IO.close(is);
+            IO.close(os);
+            if (tmp.exists()) {
+                tmp.delete();
+            }
+        }
+    }
+
+    private static Deflater borrow(int level) {
+        Deflater deflater = DEFLATERS.poll();
+        if (null == deflater) {
+            return new Deflater(level, true);
+        }
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    private static void giveBack(Deflater deflater) {
+        deflater.reset();
+        if (!DEFLATERS.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private static class GzipOutputStream extends OutputStream {
+        private final OutputStream os;
+        private Deflater deflater;
+        private final CRC32 crc = new CRC32();
+        private final byte[] buf = new byte[8192];
+        private boolean headerWritten;
+        private boolean closed;
+
+        GzipOutputStream(OutputStream os, int level) {
+            this.os = os;
+            this.deflater = borrow(level);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("stream closed");
+            }
+            if (0 == len) {
+                return;
+            }
+            writeHeaderIfNeeded();
+            crc.update(b, off, len);
+            deflater.setInput(b, off, len);
+            while (!deflater.needsInput()) {
+                deflate();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (!closed && headerWritten) {
+                int n;
+                while ((n = deflater.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0) {
+                    os.write(buf, 0, n);
+                    if (n < buf.length) {
+                        break;
+                    }
+                }
+            }
+            os.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                writeHeaderIfNeeded();
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                writeInt((int) crc.getValue());
+                writeInt(deflater.getTotalIn());
+                os.close();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            Deflater deflater = this.deflater;
+            this.deflater = null;
+            giveBack(deflater);
+        }
+
+        private void deflate() throws IOException {
+            int n = deflater.deflate(buf, 0, buf.length);
+            if (n > 0) {
+                os.write(buf, 0, n);
+            }
+        }
+
+        private void writeHeaderIfNeeded() throws IOException {
+            if (!headerWritten) {
+                headerWritten = true;
+                os.write(HEADER);
+            }
+        }
+
+        // little endian
+        private void writeInt(int i) throws IOException {
+            os.write(i & 0xff);
+            os.write((i >> 8) & 0xff);
+            os.write((i >> 16) & 0xff);
+            os.write((i >> 24) & 0xff);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.osgl.util.IO;
 import org.osgl.util.S;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -117,6 +118,45 @@ public class IdGenerator {
                 return (seq.incrementAndGet());
             }
         }
+
+        /**
+         * Reserves a block of sequence numbers for each thread from a shared counter,
+         * so threads do not contend on the shared counter for every ID.
+         *
+         * Note the sequence IDs are unique but not monotonic across threads, and the
+         * numbers left in the block of a terminated thread are never used
+         */
+        class BlockSeq implements SequenceProvider {
+            private final AtomicLong seq = new AtomicLong(0);
+            private final int blockSize;
+            private final ThreadLocal<long[]> block = new ThreadLocal<long[]>() {
+                @Override
+                protected long[] initialValue() {
+                    // {next, limit}
+                    return new long[2];
+                }
+            };
+
+            public BlockSeq() {
+                this(1024);
+            }
+
+            public BlockSeq(int blockSize) {
+                E.illegalArgumentIf(blockSize < 1, "block size shall be positive");
+                this.blockSize = blockSize;
+            }
+
+            @Override
+            public long seqId() {
+                long[] la = block.get();
+                if (la[0] >= la[1]) {
+                    long start = seq.getAndAdd(blockSize) + 1;
+                    la[0] = start;
+                    la[1] = start + blockSize;
+                }
+                return la[0]++;
+            }
+        }
     }
 
     public interface NodeIdProvider {
@@ -185,6 +225,37 @@ public class IdGenerator {
                 this.digits = digits;
                 this.MAX_RADIX = digits.length;
             }
+            /**
+             * Write the encoded long value into the char array specified
+             *
+             * @param l      the long value
+             * @param buf    the target char array
+             * @param offset the position to write to
+             * @return the position after the last char written
+             */
+            public int longToChars(long l, char[] buf, int offset) {
+                int radix = MAX_RADIX;
+                boolean negative = (l < 0);
+                if (!negative) {
+                    l = -l;
+                }
+                // count the digits first so that chars can be written backward in place
+                int len = negative ? 2 : 1;
+                for (long x = l; x <= -radix; x /= radix) {
+                    len++;
+                }
+                int charPos = offset + len - 1;
+                while (l <= -radix) {
+                    buf[charPos--] = digits[(int)(-(l % radix))];
+                    l = l / radix;
+                }
+                buf[charPos] = digits[(int)(-l)];
+                if (negative) {
+                    buf[--charPos] = '-';
+                }
+                return offset + len;
+            }
+
             /**
              * Code copied from JDK Long.toString(long, String)
              */
@@ -273,6 +344,8 @@ public class IdGenerator {
     private final StartIdProvider startIdProvider;
     private final SequenceProvider sequenceProvider;
     private LongEncoder longEncoder;
+    // the encoded node ID and start ID, which never change in the JVM life time
+    private volatile char[] prefix;
 
     /**
      * Create a default IdGenerator with following configuration:
@@ -363,14 +436,129 @@ public class IdGenerator {
 
     /**
      * Generate a unique ID across the cluster
-     * @return
+     * @return the ID
      */
     public String genId() {
-        StringBuilder sb = S.builder();
-        sb.append(longEncoder.longToStr(nodeIdProvider.nodeId()))
-                .append(longEncoder.longToStr(startIdProvider.startId()))
-                .append(longEncoder.longToStr(sequenceProvider.seqId()));
-        return sb.toString();
+        char[] prefix = prefix();
+        if (longEncoder instanceof LongEncoder.LongEncoderBase) {
+            char[] buf = new char[prefix.length + MAX_SEQ_LEN];
+            int len = genId(prefix, buf, 0);
+            return new String(buf, 0, len);
+        }
+        return S.builder().append(prefix).append(longEncoder.longToStr(sequenceProvider.seqId())).toString();
     }
 
+    /**
+     * Generate a unique ID across the cluster and write it into the char array specified.
+     * Use {@link #maxIdLength()} to allocate a buffer that is always big enough.
+     *
+     * @param buf    the target char array
+     * @param offset the position to write to
+     * @return the position after the last char written
+     */
+    public int genId(char[] buf, int offset) {
+        char[] prefix = prefix();
+        if (longEncoder instanceof LongEncoder.LongEncoderBase) {
+            return genId(prefix, buf, offset);
+        }
+        String seq = longEncoder.longToStr(sequenceProvider.seqId());
+        System.arraycopy(prefix, 0, buf, offset, prefix.length);
+        offset += prefix.length;
+        seq.getChars(0, seq.length(), buf, offset);
+        return offset + seq.length();
+    }
+
+    /**
+     * Generate a unique ID across the cluster and write it into the byte buffer
+     * specified. As all chars of the ID are ASCII chars, each char is written
+     * as one byte.
+     *
+     * @param buffer the target byte buffer
+     * @return the number of bytes written
+     */
+    public int genId(ByteBuffer buffer) {
+        char[] buf = BUF.get();
+        int len = genId(buf, 0);
+        for (int i = 0; i < len; ++i) {
+            buffer.put((byte) buf[i]);
+        }
+        return len;
+    }
+
+    /**
+     * Generate a batch of unique IDs
+     *
+     * @param ids the array to be filled with IDs
+     * @return the array specified
+     */
+    public String[] genIds(String[] ids) {
+        char[] buf = BUF.get();
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = new String(buf, 0, genId(buf, 0));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the max length of the IDs generated by this generator
+     */
+    public int maxIdLength() {
+        return prefix().length + MAX_SEQ_LEN;
+    }
+
+    /**
+     * Generate a unique ID in the compact 128 bits binary form and write
+     * it into the byte buffer specified in big endian order:
+     *
+     * * the first 32 bits: the lower 32 bits of the node ID
+     * * the next 32 bits: the lower 32 bits of the start ID
+     * * the last 64 bits: the sequence ID
+     *
+     * Note the IDs are unique only if the node ID and start ID can be represented
+     * in 32 bits, which is the case for the built-in providers
+     *
+     * @param buffer the target byte buffer, it shall have at least 16 bytes remaining
+     */
+    public void genBinaryId(ByteBuffer buffer) {
+        buffer.putLong((nodeIdProvider.nodeId() << 32) | (startIdProvider.startId() & 0xFFFFFFFFL));
+        buffer.putLong(sequenceProvider.seqId());
+    }
+
+    /**
+     * Generate a unique ID in the compact 128 bits binary form
+     *
+     * @return the 16 bytes ID
+     * @see #genBinaryId(ByteBuffer)
+     */
+    public byte[] genBinaryId() {
+        byte[] ba = new byte[16];
+        genBinaryId(ByteBuffer.wrap(ba));
+        return ba;
+    }
+
+    private int genId(char[] prefix, char[] buf, int offset) {
+        System.arraycopy(prefix, 0, buf, offset, prefix.length);
+        return ((LongEncoder.LongEncoderBase) longEncoder).longToChars(sequenceProvider.seqId(), buf, offset + prefix.length);
+    }
+
+    private char[] prefix() {
+        char[] prefix = this.prefix;
+        if (null == prefix) {
+            String s = longEncoder.longToStr(nodeIdProvider.nodeId()) + longEncoder.longToStr(startIdProvider.startId());
+            prefix = s.toCharArray();
+            this.prefix = prefix;
+        }
+        return prefix;
+    }
+
+    // the max length of an encoded long value
+    private static final int MAX_SEQ_LEN = 65;
+
+    private static final ThreadLocal<char[]> BUF = new ThreadLocal<char[]>() {
+        @Override
+        protected char[] initialValue() {
+            return new char[256];
+        }
+    };
+
 }
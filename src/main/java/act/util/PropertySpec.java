@@ -15,6 +15,8 @@ import java.lang.annotation.Target;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 /**
@@ -152,6 +154,8 @@ public @interface PropertySpec {
         private Spec common = newSpec();
         private Spec cli = newSpec();
         private Spec http = newSpec();
+        // artifacts compiled from this spec, e.g. JSON property filters
+        private ConcurrentMap<String, Object> compiled = new ConcurrentHashMap<>();
 
         public void onValue(String value) {
             _on(value, common);
@@ -228,6 +232,28 @@ public @interface PropertySpec {
             return null == lbl ? field : lbl;
         }
 
+        /**
+         * Returns the artifact compiled from this spec by the key specified. The
+         * artifact is created by the factory in the first call and reused later on.
+         * <p>Note the spec shall not be changed once the artifacts are compiled</p>
+         *
+         * @param key     the key identifies the artifact
+         * @param factory the function to create the artifact
+         * @param <T>     the artifact type
+         * @return the artifact
+         */
+        public <T> T compiled(String key, $.Func0<T> factory) {
+            Object o = compiled.get(key);
+            if (null == o) {
+                o = factory.apply();
+                Object o0 = compiled.putIfAbsent(key, o);
+                if (null != o0) {
+                    o = o0;
+                }
+            }
+            return $.cast(o);
+        }
+
         private Spec spec(ActContext context) {
             if (context instanceof ActionContext) {
                 return null == http || http.isEmpty() ? common : http;
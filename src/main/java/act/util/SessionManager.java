@@ -254,8 +254,7 @@ public class SessionManager extends DestroyableBase {
                 }
                 String sign = data.substring(0, firstDashIndex);
                 data = data.substring(firstDashIndex + 1);
-                String sign1 = app.sign(data);
-                if (!sign.equals(sign1)) {
+                if (!app.crypto().verifySignature(data, sign)) {
                     return;
                 }
             }
@@ -0,0 +1,100 @@
+package act.util;
+
+import org.osgl.util.C;
+import org.osgl.util.E;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A hashed timer wheel keeps items by their deadlines.
+ *
+ * Items are put into the bucket of the tick their deadline falls in, so
+ * advancing the wheel only visits the buckets of the ticks passed instead
+ * of scanning all items. Deadlines beyond one round of the wheel stay in
+ * the bucket till the round they belong to comes.
+ *
+ * Note this class is not thread safe. It is supposed to be accessed by
+ * a single thread, e.g. a selector thread
+ *
+ * @param <T> the item type
+ */
+public class TimerWheel<T> {
+
+    private static class Entry<T> {
+        final T item;
+        final long deadline;
+
+        Entry(T item, long deadline) {
+            this.item = item;
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMs;
+    private final List<Entry<T>>[] buckets;
+    private long currentTick;
+    private int size;
+
+    /**
+     * Construct a timer wheel
+     *
+     * @param tickMs the duration of one tick in milliseconds
+     * @param ticks  the number of ticks (buckets) of the wheel
+     * @param now    the current timestamp in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMs, int ticks, long now) {
+        E.illegalArgumentIf(tickMs < 1 || ticks < 1);
+        this.tickMs = tickMs;
+        this.buckets = new List[ticks];
+        for (int i = 0; i < ticks; ++i) {
+            buckets[i] = C.newList();
+        }
+        this.currentTick = now / tickMs;
+    }
+
+    /**
+     * Schedule an item to be due at the deadline specified
+     *
+     * @param item     the item
+     * @param deadline the deadline timestamp in milliseconds
+     */
+    public void schedule(T item, long deadline) {
+        // the first tick at or after the deadline, so that items visited are all due
+        // except those belong to later rounds
+        long tick = Math.max((deadline + tickMs - 1) / tickMs, currentTick + 1);
+        buckets[(int) (tick % buckets.length)].add(new Entry<T>(item, deadline));
+        size++;
+    }
+
+    /**
+     * Advance the wheel to the time specified and returns all items due
+     *
+     * @param now the current timestamp in milliseconds
+     * @return items whose deadline has passed
+     */
+    public List<T> advance(long now) {
+        List<T> due = C.newList();
+        long targetTick = now / tickMs;
+        // there is no need to go through the wheel more than one round
+        long from = Math.max(currentTick + 1, targetTick - buckets.length + 1);
+        for (long tick = from; tick <= targetTick; ++tick) {
+            Iterator<Entry<T>> itr = buckets[(int) (tick % buckets.length)].iterator();
+            while (itr.hasNext()) {
+                Entry<T> entry = itr.next();
+                if (entry.deadline <= now) {
+                    itr.remove();
+                    size--;
+                    due.add(entry.item);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -4,6 +4,7 @@ import act.app.ActionContext;
 import act.app.App;
 import act.handler.builtin.AlwaysNotFound;
 import act.handler.builtin.controller.FastRequestHandler;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.fileupload.FileItem;
 import org.osgl.http.H;
 import org.osgl.storage.ISObject;
@@ -17,14 +18,26 @@ import org.osgl.util.IO;
 import org.osgl.util.S;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 
 public class UploadFileStorageService extends FileSystemService {
 
+    /**
+     * The attribute holds the hex encoded MD5 digest of an uploaded file
+     */
+    public static final String ATTR_CHECKSUM = "checksum";
+
     public UploadFileStorageService(Map<String, String> conf) {
         super(conf);
     }
@@ -41,20 +54,112 @@ public class UploadFileStorageService extends FileSystemService {
     }
 
     public static ISObject store(FileItem file, App app) {
-        IStorageService ss = app.uploadFileStorageService();
         try {
-            String key = newKey();
-            ISObject sobj = SObject.of(file.getInputStream());
-            sobj.setAttribute(SObject.ATTR_FILE_NAME, file.getName());
-            sobj.setAttribute(SObject.ATTR_CONTENT_TYPE, file.getContentType());
-            sobj.setAttribute(SObject.ATTR_URL, "/~upload/" + sobj.getKey());
-            ss.put(key, sobj);
-            return ss.get(key);
+            return store(file.getInputStream(), file.getName(), file.getContentType(), app);
         } catch (IOException e) {
             throw E.ioException(e);
         }
     }
 
+    /**
+     * Store an uploaded file by reading the stream specified once.
+     *
+     * Content up to {@link act.conf.AppConfig#uploadInMemoryThreshold()} bytes
+     * is put into the storage from memory, larger content is streamed into
+     * the storage directly without being buffered in a temp file first. The
+     * MD5 digest of the content is calculated on the way and set as the
+     * {@link #ATTR_CHECKSUM} attribute of the returned object
+     *
+     * @param is          the content stream
+     * @param fileName    the original file name
+     * @param contentType the content type
+     * @param app         the app
+     * @return the stored object or `null` if the content is empty
+     * @throws IOException if reading the content failed
+     */
+    public static ISObject store(InputStream is, String fileName, String contentType, App app) throws IOException {
+        IStorageService ss = app.uploadFileStorageService();
+        MessageDigest digest = md5();
+        DigestInputStream dis = new DigestInputStream(is, digest);
+        // read one byte more than the threshold to tell if the content fits
+        byte[] buf = new byte[app.config().uploadInMemoryThreshold() + 1];
+        int len = 0;
+        while (len < buf.length) {
+            int n = dis.read(buf, len, buf.length - len);
+            if (n < 0) {
+                break;
+            }
+            len += n;
+        }
+        if (0 == len) {
+            return null;
+        }
+        String key = newKey();
+        ISObject sobj;
+        if (len < buf.length) {
+            sobj = SObject.of(key, Arrays.copyOf(buf, len));
+            sobj.setAttribute(ATTR_CHECKSUM, Hex.encodeHexString(digest.digest()));
+        } else {
+            ChecksumStream content = new ChecksumStream(new SequenceInputStream(new ByteArrayInputStream(buf), dis), digest);
+            sobj = SObject.of(key, content);
+            content.target = sobj;
+        }
+        sobj.setAttribute(SObject.ATTR_FILE_NAME, fileName);
+        sobj.setAttribute(SObject.ATTR_CONTENT_TYPE, contentType);
+        sobj.setAttribute(SObject.ATTR_URL, "/~upload/" + key);
+        try {
+            ss.put(key, sobj);
+        } catch (RuntimeException e) {
+            // e.g. the file size limit exceeded
+            ss.remove(key);
+            throw e;
+        }
+        ISObject stored = ss.get(key);
+        if (null == stored.getAttribute(ATTR_CHECKSUM)) {
+            stored.setAttribute(ATTR_CHECKSUM, sobj.getAttribute(ATTR_CHECKSUM));
+        }
+        return stored;
+    }
+
+    /**
+     * Sets the checksum attribute of the target object once the content is
+     * read up, which the storage does before it writes the attributes
+     */
+    private static class ChecksumStream extends FilterInputStream {
+        private final MessageDigest digest;
+        private ISObject target;
+
+        ChecksumStream(InputStream is, MessageDigest digest) {
+            super(is);
+            this.digest = digest;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return onRead(super.read());
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return onRead(super.read(b, off, len));
+        }
+
+        private int onRead(int n) {
+            if (n < 0 && null == target.getAttribute(ATTR_CHECKSUM)) {
+                target.setAttribute(ATTR_CHECKSUM, Hex.encodeHexString(digest.digest()));
+            }
+            return n;
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw E.unexpected(e);
+        }
+    }
+
     public static String newKey() {
         // Note we don't use App.cuid() here to get higher level security
         return UUID.randomUUID().toString();
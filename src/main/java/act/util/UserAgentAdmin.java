@@ -0,0 +1,31 @@
+package act.util;
+
+import act.cli.CliContext;
+import act.cli.Command;
+import act.cli.Optional;
+
+import java.util.List;
+
+/**
+ * Console app to inspect the {@link UserAgentCache}
+ */
+@SuppressWarnings("unused")
+public class UserAgentAdmin {
+
+    @Command(name = "act.ua.top", help = "list the most seen user agents")
+    @PropertySpec("hits,header")
+    public List<UserAgentCache.Entry> top(
+            @Optional("specify maximum items returned") Integer limit,
+            CliContext context
+    ) {
+        context.println("%s cached, %s hits, %s misses", UserAgentCache.size(), UserAgentCache.hits(), UserAgentCache.misses());
+        return UserAgentCache.top(null == limit ? 20 : limit);
+    }
+
+    @Command(name = "act.ua.clear", help = "clear the user agent cache")
+    public void clear(CliContext context) {
+        UserAgentCache.clear();
+        context.println("user agent cache cleared");
+    }
+
+}
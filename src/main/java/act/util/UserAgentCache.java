@@ -0,0 +1,185 @@
+package act.util;
+
+import act.Act;
+import act.metric.Metric;
+import act.metric.MetricInfo;
+import act.metric.MetricPlugin;
+import org.osgl.web.util.UserAgent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches parsed {@link UserAgent} by the raw `User-Agent` header.
+ *
+ * Real traffic comes with a limited number of distinct user agent strings,
+ * so parsing each of them once removes the regex work from the request
+ * path. The cache is bounded: when it is full the quarter of the entries
+ * least hit recently are dropped in one batch to make room, and the recent
+ * hits of the others are halved so that user agents no longer seen age out.
+ * New user agents seen while the eviction is running are parsed without
+ * being cached
+ */
+public final class UserAgentCache {
+
+    static final int MAX_ENTRIES = 4096;
+    static final int EVICTION_BATCH = MAX_ENTRIES / 4;
+
+    private static final String METRIC_HIT = MetricInfo.USER_AGENT + Metric.PATH_SEPARATOR + "hit";
+    private static final String METRIC_MISS = MetricInfo.USER_AGENT + Metric.PATH_SEPARATOR + "miss";
+
+    private static final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+    private static final AtomicBoolean evicting = new AtomicBoolean();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    /**
+     * A cached user agent and the number of times it is hit
+     */
+    public static final class Entry {
+        private final String header;
+        private final UserAgent userAgent;
+        private final AtomicLong hits = new AtomicLong();
+        // hits decayed on each eviction, used to pick the entries to evict
+        private final AtomicLong recentHits = new AtomicLong();
+
+        private Entry(String header, UserAgent userAgent) {
+            this.header = header;
+            this.userAgent = userAgent;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public UserAgent getUserAgent() {
+            return userAgent;
+        }
+
+        public long getHits() {
+            return hits.get();
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        private final Entry entry;
+        private final long recentHits;
+
+        private Candidate(Entry entry) {
+            this.entry = entry;
+            this.recentHits = entry.recentHits.get();
+        }
+
+        @Override
+        public int compareTo(Candidate o) {
+            return recentHits < o.recentHits ? -1 : recentHits == o.recentHits ? 0 : 1;
+        }
+    }
+
+    private UserAgentCache() {}
+
+    /**
+     * Returns the parsed user agent of the header value specified
+     *
+     * @param header the `User-Agent` header value
+     * @return the user agent
+     */
+    public static UserAgent parse(String header) {
+        if (null == header) {
+            return UserAgent.parse(null);
+        }
+        Entry entry = cache.get(header);
+        if (null != entry) {
+            entry.hits.incrementAndGet();
+            entry.recentHits.incrementAndGet();
+            hits.incrementAndGet();
+            metric().countOnce(METRIC_HIT);
+            return entry.userAgent;
+        }
+        misses.incrementAndGet();
+        metric().countOnce(METRIC_MISS);
+        UserAgent userAgent = UserAgent.parse(header);
+        if (cache.size() >= MAX_ENTRIES) {
+            evict();
+        }
+        if (cache.size() < MAX_ENTRIES) {
+            entry = cache.putIfAbsent(header, new Entry(header, userAgent));
+            if (null != entry) {
+                return entry.userAgent;
+            }
+        }
+        return userAgent;
+    }
+
+    /**
+     * Returns the most hit entries
+     *
+     * @param limit the maximum number of entries returned
+     * @return the entries sorted by hits in descending order
+     */
+    public static List<Entry> top(int limit) {
+        List<Entry> list = new ArrayList<>(cache.values());
+        Collections.sort(list, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry o1, Entry o2) {
+                long l1 = o1.getHits(), l2 = o2.getHits();
+                return l1 < l2 ? 1 : l1 == l2 ? 0 : -1;
+            }
+        });
+        return list.size() > limit ? list.subList(0, limit) : list;
+    }
+
+    public static int size() {
+        return cache.size();
+    }
+
+    public static long hits() {
+        return hits.get();
+    }
+
+    public static long misses() {
+        return misses.get();
+    }
+
+    public static void clear() {
+        cache.clear();
+    }
+
+    private static void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // sort by a snapshot of the recent hits as they keep changing
+            List<Candidate> list = new ArrayList<>(cache.size());
+            for (Entry entry : cache.values()) {
+                list.add(new Candidate(entry));
+            }
+            Collections.sort(list);
+            int evicted = Math.min(list.size(), EVICTION_BATCH);
+            for (int i = 0; i < evicted; ++i) {
+                Entry entry = list.get(i).entry;
+                cache.remove(entry.header, entry);
+            }
+            for (int i = evicted, n = list.size(); i < n; ++i) {
+                Candidate candidate = list.get(i);
+                // lost updates from concurrent hits do not matter here
+                candidate.entry.recentHits.compareAndSet(candidate.recentHits, candidate.recentHits >> 1);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static Metric metric() {
+        MetricPlugin metricPlugin = Act.metricPlugin();
+        return null == metricPlugin ? Metric.NULL_METRIC : metricPlugin.metric(MetricInfo.USER_AGENT);
+    }
+
+}
@@ -8,9 +8,13 @@ import org.osgl.util.S;
 
 import java.lang.annotation.Annotation;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 @ActComponent
 public class EmailHandler extends ActionMethodParamAnnotationHandlerPlugin {
+
+    private static final Pattern EMAIL = Pattern.compile("^[_a-z0-9-']+(\\.[_a-z0-9-']+)*(\\+[0-9]+)?@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4})$");
+
     @Override
     public Set<Class<? extends Annotation>> listenTo() {
         Set<Class<? extends Annotation>> set = C.newSet();
@@ -21,7 +25,7 @@ public class EmailHandler extends ActionMethodParamAnnotationHandlerPlugin {
     @Override
     public void handle(String paramName, Object paramVal, Annotation annotation, ActionContext context) {
         String s = S.string(paramVal);
-        if (S.isBlank(s) || !s.toLowerCase().matches("^[_a-z0-9-']+(\\.[_a-z0-9-']+)*(\\+[0-9]+)?@[a-z0-9-]+(\\.[a-z0-9-]+)*(\\.[a-z]{2,4})$")) {
+        if (S.isBlank(s) || !EMAIL.matcher(s.toLowerCase()).matches()) {
             Email email = (Email) annotation;
             context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, email.message(), email, context));
         }
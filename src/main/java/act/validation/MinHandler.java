@@ -3,6 +3,7 @@ package act.validation;
 import act.ActComponent;
 import act.app.ActionContext;
 import act.controller.ActionMethodParamAnnotationHandlerPlugin;
+import act.controller.ActionMethodParamValidator;
 import org.osgl.util.C;
 import org.osgl.util.E;
 
@@ -21,15 +22,26 @@ public class MinHandler extends ActionMethodParamAnnotationHandlerPlugin {
 
     @Override
     public void handle(String paramName, Object paramVal, Annotation annotation, ActionContext context) {
-        if (null == paramVal) {
-            return;
-        }
-        long num = toLong(paramVal);
-        Min theAnno = (Min) annotation;
-        long limit = theAnno.value();
-        if (limit > num) {
-            context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, theAnno.message(), theAnno, context));
-        }
+        compile(paramName, annotation).validate(paramVal, context);
+    }
+
+    @Override
+    public ActionMethodParamValidator compile(String paramName, Annotation annotation) {
+        final Min theAnno = (Min) annotation;
+        final String message = theAnno.message();
+        final long limit = theAnno.value();
+        return new ActionMethodParamValidator() {
+            @Override
+            public void validate(Object paramVal, ActionContext context) {
+                if (null == paramVal) {
+                    return;
+                }
+                long num = toLong(paramVal);
+                if (limit > num) {
+                    context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, message, theAnno, context));
+                }
+            }
+        };
     }
 
     private long toLong(Object val) {
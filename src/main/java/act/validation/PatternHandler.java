@@ -3,6 +3,7 @@ package act.validation;
 import act.ActComponent;
 import act.app.ActionContext;
 import act.controller.ActionMethodParamAnnotationHandlerPlugin;
+import act.controller.ActionMethodParamValidator;
 import org.osgl.util.C;
 import org.osgl.util.E;
 
@@ -21,24 +22,32 @@ public class PatternHandler extends ActionMethodParamAnnotationHandlerPlugin {
 
     @Override
     public void handle(String paramName, Object paramVal, Annotation annotation, ActionContext context) {
-        if (null == paramVal) {
-            return;
-        }
-        if (!(paramVal instanceof CharSequence)) {
-            throw E.unexpected("Invalid param type. expected: CharSequence, found: %s", paramVal.getClass());
-        }
-        String val = paramVal.toString();
-        Pattern theAnno = (Pattern) annotation;
-        String pattern = theAnno.regexp();
-        Pattern.Flag[] flags = theAnno.flags();
+        compile(paramName, annotation).validate(paramVal, context);
+    }
+
+    @Override
+    public ActionMethodParamValidator compile(String paramName, Annotation annotation) {
+        final Pattern theAnno = (Pattern) annotation;
+        final String message = theAnno.message();
         int flag = 0;
-        for (Pattern.Flag f: flags) {
-            flag &= f.getValue();
-        }
-        java.util.regex.Pattern P = java.util.regex.Pattern.compile(pattern, flag);
-        if (!P.matcher(val).matches()) {
-            context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, theAnno.message(), theAnno, context));
+        for (Pattern.Flag f: theAnno.flags()) {
+            flag |= f.getValue();
         }
+        final java.util.regex.Pattern P = java.util.regex.Pattern.compile(theAnno.regexp(), flag);
+        return new ActionMethodParamValidator() {
+            @Override
+            public void validate(Object paramVal, ActionContext context) {
+                if (null == paramVal) {
+                    return;
+                }
+                if (!(paramVal instanceof CharSequence)) {
+                    throw E.unexpected("Invalid param type. expected: CharSequence, found: %s", paramVal.getClass());
+                }
+                if (!P.matcher((CharSequence) paramVal).matches()) {
+                    context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, message, theAnno, context));
+                }
+            }
+        };
     }
 
 }
@@ -4,6 +4,7 @@ import act.ActComponent;
 import act.app.ActionContext;
 import act.conf.AppConfig;
 import act.controller.ActionMethodParamAnnotationHandlerPlugin;
+import act.controller.ActionMethodParamValidator;
 import org.osgl.util.C;
 import org.osgl.util.E;
 
@@ -26,14 +27,27 @@ public class SizeHandler extends ActionMethodParamAnnotationHandlerPlugin {
 
     @Override
     public void handle(String paramName, Object paramVal, Annotation annotation, ActionContext context) {
-        if (null == paramVal) {
-            return;
-        }
-        int size = sizeOf(paramVal);
-        Size theAnno = (Size) annotation;
-        if (size < theAnno.min() || size > theAnno.max()) {
-            context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, theAnno.message(), theAnno, context));
-        }
+        compile(paramName, annotation).validate(paramVal, context);
+    }
+
+    @Override
+    public ActionMethodParamValidator compile(String paramName, Annotation annotation) {
+        final Size theAnno = (Size) annotation;
+        final String message = theAnno.message();
+        final int min = theAnno.min();
+        final int max = theAnno.max();
+        return new ActionMethodParamValidator() {
+            @Override
+            public void validate(Object paramVal, ActionContext context) {
+                if (null == paramVal) {
+                    return;
+                }
+                int size = sizeOf(paramVal);
+                if (size < min || size > max) {
+                    context.addViolation(new ActionMethodParamConstraintViolation<Object>(paramVal, message, theAnno, context));
+                }
+            }
+        };
     }
 
     private int sizeOf(Object val) {
@@ -1,11 +1,9 @@
 package act.validation;
 
 import act.conf.AppConfig;
+import act.i18n.MessageTemplate;
 import act.util.DestroyableBase;
 import org.osgl.$;
-import org.osgl.util.C;
-import org.osgl.util.FastStr;
-import org.osgl.util.S;
 
 import javax.validation.MessageInterpolator;
 import javax.validation.metadata.ConstraintDescriptor;
@@ -13,32 +11,37 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ValidationMessageInterpolator extends DestroyableBase implements MessageInterpolator {
 
     public static final String APP_VALIDATION_MESSAGE = "appValidationMessages";
 
+    private static final int MAX_TEMPLATES = 1024;
+
     private AppConfig appConfig;
-    private Map<Locale, ResourceBundle> appBundleMap;
-    private Map<Locale, ResourceBundle> defaultBundleMap;
+    // the locale the default bundles are loaded for, used when no locale is specified
+    private Locale defaultLocale;
     private ResourceBundle defaultAppBundle;
     private ResourceBundle defaultBundle;
 
+    // templates resolved from the resource bundles and parsed, by locale and template id
+    private ConcurrentMap<Locale, ConcurrentMap<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+
     public ValidationMessageInterpolator(AppConfig config) {
         appConfig = $.notNull(config);
         appConfig.addSubResource(this);
-        appBundleMap = C.newMap();
-        defaultBundleMap = C.newMap();
-        defaultAppBundle = getResourceBundle(APP_VALIDATION_MESSAGE, config.locale());
-        defaultBundle = getResourceBundle("ValidationMessages", config.locale());
+        defaultLocale = config.locale();
+        defaultAppBundle = getResourceBundle(APP_VALIDATION_MESSAGE, defaultLocale);
+        defaultBundle = getResourceBundle("ValidationMessages", defaultLocale);
     }
 
     @Override
     protected void releaseResources() {
         super.releaseResources();
         appConfig = null;
-        defaultBundleMap.clear();
-        appBundleMap.clear();
+        templates.clear();
     }
 
     @Override
@@ -48,36 +51,29 @@ public class ValidationMessageInterpolator extends DestroyableBase implements Me
 
     @Override
     public String interpolate(String messageTemplate, Context context, Locale locale) {
-        String resolvedTemplate = resolveTemplate(messageTemplate, locale);
+        MessageTemplate template = template(messageTemplate, null == locale ? defaultLocale : locale);
         ConstraintDescriptor desc = context.getConstraintDescriptor();
         Map<String, Object> attrs = desc.getAttributes();
-        Object val = context.getValidatedValue();
-        return merge(resolvedTemplate, val, attrs);
+        return template.render(attrs);
     }
 
-    private String merge(String template, Object val, Map<String, Object> attrs) {
-        FastStr s = FastStr.of(template);
-        StringBuilder sb = S.builder();
-        while (true) {
-            int p0 = s.indexOf('$');
-            if (p0 >= 0) {
-                sb.append(s.subList(0, p0));
-                s = s.substr(p0 + 1);
+    private MessageTemplate template(String messageTemplate, Locale locale) {
+        ConcurrentMap<String, MessageTemplate> localeTemplates = templates.get(locale);
+        if (null == localeTemplates) {
+            localeTemplates = new ConcurrentHashMap<>();
+            ConcurrentMap<String, MessageTemplate> existing = templates.putIfAbsent(locale, localeTemplates);
+            if (null != existing) {
+                localeTemplates = existing;
             }
-            p0 = s.indexOf('{');
-            if (p0 >= 0) {
-                s = s.substr(p0 + 1);
-            } else {
-                sb.append(s);
-                break;
+        }
+        MessageTemplate template = localeTemplates.get(messageTemplate);
+        if (null == template) {
+            template = MessageTemplate.parse(resolveTemplate(messageTemplate, locale));
+            if (localeTemplates.size() < MAX_TEMPLATES) {
+                localeTemplates.putIfAbsent(messageTemplate, template);
             }
-            int p1 = s.indexOf('}');
-            String param = s.substring(0, p1);
-            String paramVal = S.string(attrs.get(param));
-            sb.append(paramVal);
-            s = s.substr(p1 + 1);
         }
-        return sb.length() == 0 ? template : sb.toString();
+        return template;
     }
 
     private String resolveTemplate(String messageTemplateId, Locale locale) {
@@ -88,9 +84,10 @@ public class ValidationMessageInterpolator extends DestroyableBase implements Me
             messageTemplateId = messageTemplateId.substring(1);
             messageTemplateId = messageTemplateId.substring(0, messageTemplateId.length() - 1);
         }
-        ResourceBundle bundle = null == locale ? defaultAppBundle : appBundleMap.get(locale);
+        boolean isDefault = defaultLocale.equals(locale);
+        ResourceBundle bundle = isDefault ? defaultAppBundle : getResourceBundle(APP_VALIDATION_MESSAGE, locale);
         if (null == bundle || !bundle.containsKey(messageTemplateId)) {
-            bundle = null == locale ? defaultBundle : defaultBundleMap.get(locale);
+            bundle = isDefault ? defaultBundle : getResourceBundle("ValidationMessages", locale);
         }
         if (null == bundle || !bundle.containsKey(messageTemplateId)) {
             return messageTemplateId;
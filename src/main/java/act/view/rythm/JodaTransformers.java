@@ -1,8 +1,8 @@
 package act.view.rythm;
 
+import act.data.DateTimeFormats;
 import org.joda.time.*;
 import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
 import org.rythmengine.extension.Transformer;
 import org.rythmengine.template.ITemplate;
 
@@ -11,13 +11,23 @@ import java.util.Locale;
 public class JodaTransformers {
 
     static String format(ReadableInstant dateTime, String pattern) {
-        DateTimeFormatter formatter = DateTimeFormat.forPattern(pattern);
-        return formatter.print(dateTime);
+        return DateTimeFormat.forPattern(pattern).print(dateTime);
     }
 
     static String format(ReadablePartial dateTime, String pattern) {
-        DateTimeFormatter formatter = DateTimeFormat.forPattern(pattern);
-        return formatter.print(dateTime);
+        return DateTimeFormat.forPattern(pattern).print(dateTime);
+    }
+
+    private static String format(ReadableInstant dateTime, String style, ITemplate template) {
+        return DateTimeFormats.forStyle(style, locale(template)).print(dateTime);
+    }
+
+    private static String format(ReadablePartial dateTime, String style, ITemplate template) {
+        return DateTimeFormats.forStyle(style, locale(template)).print(dateTime);
+    }
+
+    private static Locale locale(ITemplate template) {
+        return null == template ? Locale.getDefault() : template.__curLocale();
     }
 
     @Transformer(requireTemplate = true)
@@ -26,8 +36,7 @@ public class JodaTransformers {
     }
 
     public static String shortStyle(ITemplate template, DateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("SS", locale));
+        return format(dateTime, "SS", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -36,8 +45,7 @@ public class JodaTransformers {
     }
 
     public static String mediumStyle(ITemplate template, DateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("MM", locale));
+        return format(dateTime, "MM", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -46,8 +54,7 @@ public class JodaTransformers {
     }
 
     public static String longStyle(ITemplate template, DateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("LL", locale));
+        return format(dateTime, "LL", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -56,8 +63,7 @@ public class JodaTransformers {
     }
 
     public static String shortStyle(ITemplate template, LocalDateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("SS", locale));
+        return format(dateTime, "SS", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -66,8 +72,7 @@ public class JodaTransformers {
     }
 
     public static String mediumStyle(ITemplate template, LocalDateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("MM", locale));
+        return format(dateTime, "MM", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -76,8 +81,7 @@ public class JodaTransformers {
     }
 
     public static String longStyle(ITemplate template, LocalDateTime dateTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(dateTime, DateTimeFormat.patternForStyle("LL", locale));
+        return format(dateTime, "LL", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -86,8 +90,7 @@ public class JodaTransformers {
     }
 
     public static String shortStyle(ITemplate template, LocalDate LocalDate) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalDate, DateTimeFormat.patternForStyle("S-", locale));
+        return format(LocalDate, "S-", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -96,8 +99,7 @@ public class JodaTransformers {
     }
 
     public static String mediumStyle(ITemplate template, LocalDate LocalDate) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalDate, DateTimeFormat.patternForStyle("M-", locale));
+        return format(LocalDate, "M-", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -106,8 +108,7 @@ public class JodaTransformers {
     }
 
     public static String longStyle(ITemplate template, LocalDate LocalDate) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalDate, DateTimeFormat.patternForStyle("L-", locale));
+        return format(LocalDate, "L-", template);
     }
 
 
@@ -117,8 +118,7 @@ public class JodaTransformers {
     }
 
     public static String shortStyle(ITemplate template, LocalTime LocalTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalTime, DateTimeFormat.patternForStyle("-S", locale));
+        return format(LocalTime, "-S", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -127,8 +127,7 @@ public class JodaTransformers {
     }
 
     public static String mediumStyle(ITemplate template, LocalTime LocalTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalTime, DateTimeFormat.patternForStyle("-M", locale));
+        return format(LocalTime, "-M", template);
     }
 
     @Transformer(requireTemplate = true)
@@ -137,8 +136,7 @@ public class JodaTransformers {
     }
 
     public static String longStyle(ITemplate template, LocalTime LocalTime) {
-        Locale locale = null == template ? Locale.getDefault() : template.__curLocale();
-        return format(LocalTime, DateTimeFormat.patternForStyle("-L", locale));
+        return format(LocalTime, "-L", template);
     }
 
 }
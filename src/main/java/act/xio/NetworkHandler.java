@@ -11,6 +11,7 @@ import act.metric.Metric;
 import act.metric.MetricInfo;
 import act.metric.Timer;
 import act.route.Router;
+import act.util.ActErrorPageRender;
 import act.util.DestroyableBase;
 import act.view.ActServerError;
 import org.osgl.$;
@@ -24,6 +25,8 @@ import org.osgl.mvc.result.Result;
 import org.osgl.util.E;
 import org.osgl.util.S;
 
+import java.util.concurrent.locks.Lock;
+
 /**
  * A `NetworkHandler` can be registered to an {@link Network} and get invoked when
  * there are network event (e.g. an HTTP request) incoming
@@ -53,7 +56,13 @@ public class NetworkHandler extends DestroyableBase implements  $.Func1<ActionCo
         return app;
     }
 
-    public synchronized void handle(ActionContext ctx) {
+    /**
+     * Handle the request. The method is called concurrently by worker threads,
+     * e.g. for the streams multiplexed on the same HTTP/2 connection. In prod
+     * mode it does not hold any lock. In dev mode the request holds the read
+     * lock of the app refresh, see {@link App#checkUpdatesForRequest()}
+     */
+    public void handle(ActionContext ctx) {
         if (isDestroyed()) {
             return;
         }
@@ -61,9 +70,10 @@ public class NetworkHandler extends DestroyableBase implements  $.Func1<ActionCo
         String url = req.url();
         H.Method method = req.method();
         Timer timer = null;
+        Lock refreshLock = null;
         try {
             if (Act.isDev() && !url.startsWith("/asset/")) {
-                app.checkUpdates(false);
+                refreshLock = app.checkUpdatesForRequest();
             }
             url = contentSuffixProcessor.apply(req, url);
             timer = metric.startTimer(MetricInfo.ROUTING);
@@ -77,6 +87,9 @@ public class NetworkHandler extends DestroyableBase implements  $.Func1<ActionCo
             timer = metric.startTimer(S.builder(MetricInfo.HTTP_HANDLER).append(":").append(rh).toString());
             rh.handle(ctx);
         } catch (Result r) {
+            if (r instanceof ErrorResult && ActErrorPageRender.serveCached((ErrorResult) r, ctx)) {
+                return;
+            }
             try {
                 r = RequestHandlerProxy.GLOBAL_AFTER_INTERCEPTOR.apply(r, ctx);
             } catch (Exception e) {
@@ -112,6 +125,9 @@ public class NetworkHandler extends DestroyableBase implements  $.Func1<ActionCo
             if (null != timer) {
                 timer.stop();
             }
+            if (null != refreshLock) {
+                refreshLock.unlock();
+            }
         }
     }
 
@@ -1,13 +1,14 @@
 package act.xio.undertow;
 
-import act.app.App;
-import act.conf.AppConfig;
+import act.Act;
+import act.conf.ActConfig;
 import act.xio.Network;
 import act.xio.NetworkBase;
 import act.xio.NetworkHandler;
 import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.protocol.http.HttpOpenListener;
+import io.undertow.server.protocol.http2.Http2UpgradeHandler;
 import org.osgl.logging.L;
 import org.osgl.logging.Logger;
 import org.osgl.util.C;
@@ -37,15 +38,28 @@ public class UndertowNetwork extends NetworkBase {
     private OptionMap socketOptions;
     private OptionMap undertowOptions;
     private List<AcceptingChannel<? extends StreamConnection>> channels;
+    private ActConfig config;
+    private boolean http2;
+
+    public UndertowNetwork() {
+    }
+
+    UndertowNetwork(ActConfig config) {
+        this.config = config;
+    }
 
     @Override
     protected void bootUp() {
         try {
+            if (null == config) {
+                config = Act.conf();
+            }
+            http2 = null != config && config.http2Enabled();
             xnio = Xnio.getInstance();
             worker = createWorker();
             buffers = createBuffer();
             socketOptions = createSocketOptions();
-            undertowOptions = OptionMap.builder().set(UndertowOptions.BUFFER_PIPELINED_DATA, true).getMap();
+            undertowOptions = createUndertowOptions();
             channels = C.newList();
         } catch (Exception e) {
             throw E.unexpected(e, "Error booting up Undertow service: %s", e.getMessage());
@@ -54,17 +68,15 @@ public class UndertowNetwork extends NetworkBase {
 
     @Override
     protected void setUpClient(NetworkHandler client, int port) throws IOException {
-        App app = client.app();
-        AppConfig config = app.config();
-//        InetAddress addr;
-//        try {
-//            addr = Inet4Address.getByName("localhost");
-//        } catch (UnknownHostException e) {
-//            logger.error(e, "Cannot start app[%s]:", app.home());
-//            return;
-//        }
-
-        HttpHandler handler = new ActHttpHandler(client);
+        listen(new ActHttpHandler(client), port);
+    }
+
+    void listen(HttpHandler handler, int port) throws IOException {
+        if (http2) {
+            // upgrade cleartext HTTP/1.1 connection to h2c. Each HTTP/2 stream
+            // is an exchange on its own and is dispatched to the worker separately
+            handler = new Http2UpgradeHandler(handler);
+        }
         HttpOpenListener openListener = new HttpOpenListener(buffers, undertowOptions);
         openListener.setRootHandler(handler);
         ChannelListener<AcceptingChannel<StreamConnection>> acceptListener = ChannelListeners.openListenerAdapter(openListener);
@@ -120,6 +132,18 @@ public class UndertowNetwork extends NetworkBase {
         return new ByteBufferSlicePool(directBuffers ? BufferAllocator.DIRECT_BYTE_BUFFER_ALLOCATOR : BufferAllocator.BYTE_BUFFER_ALLOCATOR, bufferSize, bufferSize * buffersPerRegion);
     }
 
+    private OptionMap createUndertowOptions() {
+        OptionMap.Builder builder = OptionMap.builder().set(UndertowOptions.BUFFER_PIPELINED_DATA, true);
+        if (http2) {
+            builder.set(UndertowOptions.ENABLE_HTTP2, true)
+                    .set(UndertowOptions.HTTP2_SETTINGS_ENABLE_PUSH, false)
+                    .set(UndertowOptions.HTTP2_SETTINGS_MAX_CONCURRENT_STREAMS, config.http2MaxConcurrentStreams())
+                    .set(UndertowOptions.HTTP2_SETTINGS_INITIAL_WINDOW_SIZE, config.http2InitialWindowSize())
+                    .set(UndertowOptions.HTTP2_SETTINGS_MAX_FRAME_SIZE, config.http2MaxFrameSize());
+        }
+        return builder.getMap();
+    }
+
     private OptionMap createSocketOptions() {
         OptionMap socketOptions = OptionMap.builder()
                 .set(Options.WORKER_IO_THREADS, ioThreads)
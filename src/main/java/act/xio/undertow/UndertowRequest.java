@@ -31,6 +31,13 @@ public class UndertowRequest extends RequestImplBase<UndertowRequest> {
     }
 
 
+    /**
+     * Returns the underlying undertow exchange
+     */
+    public HttpServerExchange exchange() {
+        return hse;
+    }
+
     @Override
     protected String _uri() {
         return hse.getRequestURI();
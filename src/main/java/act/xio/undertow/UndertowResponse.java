@@ -3,17 +3,34 @@ package act.xio.undertow;
 import act.ResponseImplBase;
 import act.app.ActionContext;
 import act.conf.AppConfig;
+import act.util.Gzip;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.SameThreadExecutor;
 import org.osgl.http.H;
+import org.osgl.util.C;
 import org.osgl.util.E;
 import org.osgl.util.IO;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class UndertowResponse extends ResponseImplBase<UndertowResponse> {
     @Override
@@ -22,6 +39,7 @@ public class UndertowResponse extends ResponseImplBase<UndertowResponse> {
     }
 
     private HttpServerExchange hse;
+    private AppConfig config;
     private ActionContext ctx;
     private volatile OutputStream os;
     private volatile Writer w;
@@ -31,6 +49,7 @@ public class UndertowResponse extends ResponseImplBase<UndertowResponse> {
         super(config);
         E.NPE(exchange);
         hse = exchange;
+        this.config = config;
     }
 
     @Override
@@ -57,13 +76,153 @@ public class UndertowResponse extends ResponseImplBase<UndertowResponse> {
 
     @Override
     public UndertowResponse writeContent(String s) {
+        // undertow sender encodes string with UTF-8
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (shouldCompress(bytes.length)) {
+            startCompress();
+            hse.getResponseSender().send(ByteBuffer.wrap(Gzip.compress(bytes, config.compressionLevel())));
+            return this;
+        }
+        captureIfNeeded(bytes);
         hse.getResponseSender().send(s);
         return this;
     }
 
     @Override
     protected OutputStream createOutputStream() {
-        return hse.getOutputStream();
+        if (shouldCompress(-1)) {
+            startCompress();
+            return Gzip.wrap(hse.getOutputStream(), config.compressionLevel());
+        }
+        return captureIfNeeded(hse.getOutputStream());
+    }
+
+    /**
+     * Check if the response content shall be compressed
+     *
+     * @param length the content length or `-1` if not known yet
+     */
+    private boolean shouldCompress(long length) {
+        if (null == config || !config.compressionEnabled() || responseStarted()) {
+            return false;
+        }
+        if (bodiless(hse.getStatusCode()) || hse.getRequestMethod().equals(Methods.HEAD)) {
+            return false;
+        }
+        HeaderMap headers = hse.getResponseHeaders();
+        if (!config.compressible(headers.getFirst(Headers.CONTENT_TYPE))) {
+            return false;
+        }
+        // the representation depends on Accept-Encoding even if this
+        // particular response is sent uncompressed, so that a shared
+        // cache doesn't serve it to a client with a different encoding
+        varyByAcceptEncoding(headers);
+        if (capturing()) {
+            // Note the content captured is cached and replayed to other clients
+            // which might not accept gzip encoding
+            return false;
+        }
+        if (headers.contains(Headers.CONTENT_ENCODING) || headers.contains(Headers.CONTENT_RANGE)) {
+            return false;
+        }
+        if (length < 0) {
+            length = hse.getResponseContentLength();
+        }
+        if (length > -1 && length < config.compressionMinSize()) {
+            return false;
+        }
+        return Gzip.accepts(hse.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING), Gzip.ENCODING);
+    }
+
+    /**
+     * Check if a response of the status specified has no content, e.g. `304 Not Modified`
+     */
+    private static boolean bodiless(int status) {
+        return status < 200 || 204 == status || 304 == status;
+    }
+
+    private static void varyByAcceptEncoding(HeaderMap headers) {
+        HeaderValues vary = headers.get(Headers.VARY);
+        if (null != vary) {
+            for (String value : vary) {
+                for (String item : value.split(",")) {
+                    String s = item.trim();
+                    if ("*".equals(s) || Headers.ACCEPT_ENCODING_STRING.equalsIgnoreCase(s)) {
+                        return;
+                    }
+                }
+            }
+        }
+        headers.add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+    }
+
+    private void startCompress() {
+        HeaderMap headers = hse.getResponseHeaders();
+        headers.remove(Headers.CONTENT_LENGTH);
+        headers.put(Headers.CONTENT_ENCODING, Gzip.ENCODING);
+    }
+
+    @Override
+    public void sendFile(File file, long offset, long length) {
+        if (capturing() || null != writer || 0 != offset || length != file.length()) {
+            super.sendFile(file, offset, length);
+            return;
+        }
+        final FileChannel channel;
+        try {
+            channel = new FileInputStream(file).getChannel();
+        } catch (IOException e) {
+            throw E.ioException(e);
+        }
+        // let undertow transfer the file with zero copy
+        hse.getResponseSender().transferFrom(channel, new IoCallback() {
+            @Override
+            public void onComplete(HttpServerExchange exchange, Sender sender) {
+                IO.close(channel);
+            }
+
+            @Override
+            public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+                IO.close(channel);
+                IoCallback.END_EXCHANGE.onException(exchange, sender, exception);
+            }
+        });
+    }
+
+    @Override
+    public boolean suspendable() {
+        return true;
+    }
+
+    @Override
+    public void suspend(Runnable onSuspended) {
+        // the dispatch task is run after the current handler returned
+        hse.dispatch(SameThreadExecutor.INSTANCE, onSuspended);
+    }
+
+    @Override
+    public void resume(final Runnable task) {
+        // the exchange is ended once the handler returned
+        hse.dispatch(new HttpHandler() {
+            @Override
+            public void handleRequest(HttpServerExchange exchange) throws Exception {
+                task.run();
+            }
+        });
+    }
+
+    @Override
+    public int statusCode() {
+        return hse.getStatusCode();
+    }
+
+    @Override
+    public Map<String, List<String>> headers() {
+        Map<String, List<String>> map = C.newMap();
+        for (HeaderValues values : hse.getResponseHeaders()) {
+            map.put(values.getHeaderName().toString(), new ArrayList<>(values));
+        }
+        return map;
     }
 
     @Override
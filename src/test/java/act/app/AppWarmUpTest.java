@@ -0,0 +1,66 @@
+package act.app;
+
+import act.TestBase;
+import act.handler.builtin.controller.FastRequestHandler;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.C;
+
+import java.util.List;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class AppWarmUpTest extends TestBase {
+
+    private List<String> handled;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        handled = C.newList();
+        when(mockRouter.getInvoker(any(H.Method.class), anyString(), any(ActionContext.class))).thenReturn(new FastRequestHandler() {
+            @Override
+            public void handle(ActionContext context) {
+                H.Request req = context.req();
+                if ("/boom".equals(req.path())) {
+                    throw new IllegalStateException("boom");
+                }
+                handled.add(req.method() + " " + req.path() + " " + req.paramVal("x"));
+            }
+        });
+    }
+
+    @Test
+    public void configuredRequestsShallBeReplayedThroughTheRouter() {
+        when(mockAppConfig.warmUpRequests()).thenReturn(C.list("/foo?x=1&x=2", "POST /bar"));
+        new AppWarmUp(mockApp).run();
+        eq(C.list("GET /foo 1", "POST /bar null"), handled);
+    }
+
+    @Test
+    public void failedRequestShallNotStopTheWarmUp() {
+        when(mockAppConfig.warmUpRequests()).thenReturn(C.list("/boom", "/foo"));
+        new AppWarmUp(mockApp).run();
+        eq(C.list("GET /foo null"), handled);
+    }
+
+    @Test
+    public void requestShallBeParsedFromSpec() {
+        WarmUpRequest req = WarmUpRequest.parse(" delete  /foo?a=1&a=2&b ", mockAppConfig);
+        eq(H.Method.DELETE, req.method());
+        eq("/foo", req.path());
+        eq(new String[]{"1", "2"}, req.paramVals("a"));
+        eq("", req.paramVal("b"));
+        eq(null, req.paramVal("c"));
+        eq(H.Method.GET, WarmUpRequest.parse("/foo", mockAppConfig).method());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void specWithoutPathShallBeRejected() {
+        WarmUpRequest.parse("GET foo", mockAppConfig);
+    }
+
+}
@@ -0,0 +1,142 @@
+package act.app;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static act.app.event.AppEventId.DB_SVC_LOADED;
+import static act.app.event.AppEventId.ROUTER_INITIALIZED;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StartupPipelineTest extends TestBase {
+
+    private List<String> ran;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        when(mockApp.name()).thenReturn("test");
+        ran = Collections.synchronizedList(new ArrayList<String>());
+    }
+
+    @Test
+    public void taskShallRunAfterItsDependencies() {
+        StartupPipeline pipeline = new StartupPipeline(mockApp, true);
+        final CountDownLatch gate = new CountDownLatch(1);
+        pipeline.submit("job", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                await(gate);
+                ran.add("job");
+            }
+        });
+        pipeline.submit("cache", ROUTER_INITIALIZED, task("cache"));
+        pipeline.submit("daemon", ROUTER_INITIALIZED, task("daemon"), "job");
+        pipeline.submit("core-services", ROUTER_INITIALIZED, task("core-services"), "cache", "daemon");
+        gate.countDown();
+        pipeline.emit(ROUTER_INITIALIZED);
+        pipeline.finish();
+        eq(4, ran.size());
+        yes(ran.indexOf("job") < ran.indexOf("daemon"));
+        yes(ran.indexOf("daemon") < ran.indexOf("core-services"));
+        yes(ran.indexOf("cache") < ran.indexOf("core-services"));
+    }
+
+    @Test
+    public void eventShallBeEmittedAfterTheTasksRequiredByIt() {
+        StartupPipeline pipeline = new StartupPipeline(mockApp, true);
+        pipeline.submit("router", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                sleep(50);
+                ran.add("router");
+            }
+        });
+        pipeline.emit(ROUTER_INITIALIZED);
+        eq(1, ran.size());
+        verify(mockApp).emit(ROUTER_INITIALIZED);
+        pipeline.finish();
+    }
+
+    @Test
+    public void sequentialPipelineShallRunTasksOnSubmit() {
+        StartupPipeline pipeline = new StartupPipeline(mockApp, false);
+        final Thread caller = Thread.currentThread();
+        pipeline.submit("cache", ROUTER_INITIALIZED, new Runnable() {
+            @Override
+            public void run() {
+                same(caller, Thread.currentThread());
+                ran.add("cache");
+            }
+        });
+        eq(1, ran.size());
+        pipeline.emit(ROUTER_INITIALIZED);
+        pipeline.finish();
+    }
+
+    @Test
+    public void taskFailureShallStopEventEmission() {
+        StartupPipeline pipeline = new StartupPipeline(mockApp, true);
+        pipeline.submit("db", DB_SVC_LOADED, new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("db down");
+            }
+        });
+        try {
+            pipeline.emit(DB_SVC_LOADED);
+            fail("task failure shall be raised");
+        } catch (IllegalStateException e) {
+            eq("db down", e.getMessage());
+        }
+        verify(mockApp, never()).emit(DB_SVC_LOADED);
+        try {
+            pipeline.finish();
+        } catch (IllegalStateException e) {
+            // the same failure
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unknownDependencyShallBeRejected() {
+        StartupPipeline pipeline = new StartupPipeline(mockApp, true);
+        try {
+            pipeline.submit("daemon", ROUTER_INITIALIZED, task("daemon"), "job");
+        } finally {
+            pipeline.finish();
+        }
+    }
+
+    private Runnable task(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                ran.add(name);
+            }
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package act.app.util;
+
+import act.BenchmarkBase;
+import act.conf.AppConfig;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.osgl.util.Crypto;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare the per request crypto cost of session cookie handling, i.e.
+ * sign + verify + encrypt + decrypt, between osgl {@link Crypto} which
+ * creates new engines on each call and {@link AppCrypto}
+ */
+@BenchmarkOptions(warmupRounds = 1, benchmarkRounds = 10, concurrency = 4)
+@Ignore
+public class AppCryptoBenchmark extends BenchmarkBase {
+
+    private static final int LOOPS = 100 * 1000;
+    private static final String SECRET = "1234567890abcdef-secret";
+    private static final byte[] SECRET_BYTES = SECRET.getBytes();
+    private static final String MESSAGE = "\u0000___ID\u0001b4x9Zk2h\u0000___TS\u00011480000000000\u0000username\u0001tom";
+
+    private static final AppCrypto CRYPTO;
+
+    static {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(SECRET);
+        CRYPTO = new AppCrypto(config);
+    }
+
+    @Test
+    public void osglCrypto() {
+        for (int i = 0; i < LOOPS; ++i) {
+            String sign = Crypto.sign(MESSAGE, SECRET_BYTES);
+            Crypto.sign(MESSAGE, SECRET_BYTES).equals(sign);
+            Crypto.decryptAES(Crypto.encryptAES(MESSAGE, SECRET_BYTES), SECRET_BYTES);
+        }
+    }
+
+    @Test
+    public void appCrypto() {
+        for (int i = 0; i < LOOPS; ++i) {
+            String sign = CRYPTO.sign(MESSAGE);
+            CRYPTO.verifySignature(MESSAGE, sign);
+            CRYPTO.decrypt(CRYPTO.encrypt(MESSAGE));
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package act.app.util;
+
+import act.TestBase;
+import act.conf.AppConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mindrot.jbcrypt.BCrypt;
+import org.osgl.$;
+import org.osgl.util.Crypto;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AppCryptoTest extends TestBase {
+
+    private static final String SECRET = "1234567890abcdef-secret";
+
+    private AppCrypto crypto;
+
+    @Before
+    public void prepare() {
+        AppConfig config = mock(AppConfig.class);
+        when(config.secret()).thenReturn(SECRET);
+        when(config.passwordHashCost()).thenReturn(5);
+        when(config.passwordHashUpgrade()).thenReturn(true);
+        crypto = new AppCrypto(config);
+    }
+
+    @After
+    public void cleanup() {
+        crypto.destroy();
+    }
+
+    @Test
+    public void signatureShallBeCompatibleWithOsglCrypto() {
+        String message = "hello world";
+        eq(Crypto.sign(message, SECRET.getBytes()), crypto.sign(message));
+        eq(Crypto.sign(message, SECRET.getBytes()), crypto.sign(message));
+    }
+
+    @Test
+    public void verifySignature() {
+        String message = "foo=bar";
+        String sign = crypto.sign(message);
+        yes(crypto.verifySignature(message, sign));
+        // cached
+        yes(crypto.verifySignature(message, sign));
+        no(crypto.verifySignature(message + "x", sign));
+        no(crypto.verifySignature(message, sign.substring(1)));
+        byte[] signature = crypto.sign(ByteBuffer.wrap(message.getBytes()));
+        yes(crypto.verifySignature(message.getBytes(), signature));
+    }
+
+    @Test
+    public void encryptedShallBeDecryptedByOsglCrypto() {
+        String message = "hello world";
+        String encrypted = crypto.encrypt(message);
+        eq(message, Crypto.decryptAES(encrypted, SECRET.getBytes()));
+        eq(message, crypto.decrypt(encrypted));
+        eq(message, crypto.decrypt(Crypto.encryptAES(message, SECRET.getBytes())));
+    }
+
+    @Test
+    public void passwordHashShallBeUpgradedOnVerify() {
+        String hash = BCrypt.hashpw("password", BCrypt.gensalt(4));
+        final List<String> upgraded = new ArrayList<String>();
+        yes(crypto.verifyPassword("password".toCharArray(), hash, new $.Visitor<String>() {
+            @Override
+            public void visit(String s) throws $.Break {
+                upgraded.add(s);
+            }
+        }));
+        eq(1, upgraded.size());
+        eq(5, PasswordHashService.costOf(upgraded.get(0)));
+        yes(crypto.verifyPassword("password", upgraded.get(0)));
+        no(crypto.verifyPassword("passw0rd", upgraded.get(0)));
+    }
+
+    @Test
+    public void passwordShallBeClearedOnceHashed() {
+        char[] password = "password".toCharArray();
+        String hash = crypto.passwordHash(password);
+        eq("\0\0\0\0\0\0\0\0", new String(password));
+        yes(crypto.verifyPassword("password", hash));
+    }
+
+    @Test
+    public void passwordHashPoolShallBeShutDownWithCrypto() {
+        PasswordHashService service = crypto.passwordHashService();
+        crypto.destroy();
+        yes(service.isDestroyed());
+    }
+}
@@ -0,0 +1,112 @@
+package act.cache;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TinyLfuCacheServiceTest extends TestBase {
+
+    private TinyLfuCacheService cache;
+
+    @Before
+    public void prepare() {
+        cache = new TinyLfuCacheService("test", 100 * 1024, 1);
+        cache.startup();
+    }
+
+    @Test
+    public void getShallReturnWhatWasPut() {
+        cache.put("foo", "bar");
+        eq("bar", cache.get("foo"));
+        eq(1L, cache.hits());
+    }
+
+    @Test
+    public void getShallReturnNullAfterEvict() {
+        cache.put("foo", "bar");
+        cache.evict("foo");
+        assertNull(cache.get("foo"));
+        eq(1L, cache.misses());
+    }
+
+    @Test
+    public void incrAndDecr() {
+        eq(1, cache.incr("counter"));
+        eq(2, cache.incr("counter"));
+        eq(1, cache.decr("counter"));
+    }
+
+    @Test
+    public void totalWeightShallBeBounded() {
+        for (int i = 0; i < 1000; ++i) {
+            cache.put("key" + i, new byte[1024]);
+        }
+        yes(cache.weight() <= cache.maxWeight());
+        yes(cache.evictions() > 0);
+    }
+
+    @Test
+    public void frequentlyAccessedEntryShallSurviveScan() {
+        cache.put("hot", new byte[1024]);
+        for (int i = 0; i < 10; ++i) {
+            cache.get("hot");
+        }
+        for (int i = 0; i < 1000; ++i) {
+            cache.put("cold" + i, new byte[1024]);
+        }
+        assertNotNull(cache.get("hot"));
+    }
+
+    @Test
+    public void segmentsShallNotBeSplitBelowMinWeight() {
+        eq(1, TinyLfuCacheService.segmentCount(100 * 1024, 16));
+        eq(4, TinyLfuCacheService.segmentCount(4 * TinyLfuCacheService.MIN_SEGMENT_WEIGHT, 256));
+        eq(16, TinyLfuCacheService.segmentCount(64 * TinyLfuCacheService.MIN_SEGMENT_WEIGHT, 16));
+    }
+
+    @Test
+    public void largeEntryShallBeAdmitted() {
+        TinyLfuCacheService cache = new TinyLfuCacheService("large", 8 * TinyLfuCacheService.MIN_SEGMENT_WEIGHT, 256);
+        cache.startup();
+        yes(cache.segmentCount() <= 8);
+        cache.put("large", new byte[512 * 1024]);
+        assertNotNull(cache.get("large"));
+    }
+
+    @Test
+    public void concurrentReadsAndWritesShallKeepWeightBounded() throws Exception {
+        final int threads = 8;
+        final CountDownLatch done = new CountDownLatch(threads);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        for (int t = 0; t < threads; ++t) {
+            final int seed = t;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int i = 0; i < 5000; ++i) {
+                            String key = "key" + ((i * 31 + seed) % 300);
+                            if (i % 4 == 0) {
+                                cache.put(key, new byte[512]);
+                            } else {
+                                cache.get(key);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        error.set(e);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }.start();
+        }
+        done.await();
+        eq(null, error.get());
+        yes(cache.weight() <= cache.maxWeight());
+        cache.put("last", "value");
+        eq("value", cache.get("last"));
+    }
+}
@@ -0,0 +1,107 @@
+package act.controller;
+
+import act.TestBase;
+import org.junit.Test;
+import org.osgl.mvc.result.ErrorResult;
+import org.osgl.mvc.result.NotFound;
+import org.osgl.mvc.result.Result;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+public class AsyncResultTest extends TestBase {
+
+    @Test
+    public void deferredResultShallCompleteOnlyOnce() {
+        DeferredResult<String> deferred = new DeferredResult<>();
+        final Object[] outcome = new Object[1];
+        deferred.onComplete(new DeferredResult.Listener() {
+            @Override
+            public void completed(Object value, Throwable error) {
+                outcome[0] = value;
+            }
+        });
+        no(deferred.isDone());
+        yes(deferred.resolve("foo"));
+        no(deferred.resolve("bar"));
+        no(deferred.reject(new RuntimeException()));
+        yes(deferred.isDone());
+        eq("foo", outcome[0]);
+    }
+
+    @Test
+    public void listenerRegisteredAfterCompletionShallBeCalled() {
+        DeferredResult<String> deferred = new DeferredResult<>();
+        final RuntimeException cause = new RuntimeException();
+        deferred.reject(cause);
+        final Object[] outcome = new Object[1];
+        deferred.onComplete(new DeferredResult.Listener() {
+            @Override
+            public void completed(Object value, Throwable error) {
+                outcome[0] = error;
+            }
+        });
+        same(cause, outcome[0]);
+    }
+
+    @Test
+    public void syncValueShallNotBeAsync() {
+        eq(null, AsyncResult.of("foo", null, false));
+        eq(null, AsyncResult.of(null, null, false));
+    }
+
+    @Test
+    public void rejectedResultShallBeApplied() throws Exception {
+        DeferredResult<String> deferred = new DeferredResult<>(1, TimeUnit.SECONDS);
+        AsyncResult async = AsyncResult.of(deferred, null, false);
+        NotFound notFound = new NotFound();
+        deferred.reject(notFound);
+        same(notFound, async.await(null));
+    }
+
+    @Test
+    public void unresolvedResultShallTimeout() throws Exception {
+        DeferredResult<String> deferred = new DeferredResult<>(10, TimeUnit.MILLISECONDS);
+        Result result = AsyncResult.of(deferred, null, false).await(null);
+        yes(result instanceof ErrorResult);
+        eq(503, result.statusCode());
+    }
+
+    @Test
+    public void futureShallNotBlockCaller() throws Exception {
+        setup();
+        when(mockAppConfig.asyncTimeout()).thenReturn(30);
+        final CountDownLatch latch = new CountDownLatch(1);
+        final FutureTask<String> future = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                latch.await();
+                throw new NotFound();
+            }
+        });
+        new Thread(future).start();
+        AsyncResult async = AsyncResult.of(future, null, false);
+        yes(null != async);
+        latch.countDown();
+        eq(404, async.await(mockActionContext).statusCode());
+    }
+
+    @Test
+    public void futureShallBeCancelledOnTimeout() throws Exception {
+        setup();
+        when(mockAppConfig.asyncTimeout()).thenReturn(1);
+        FutureTask<String> future = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return "never run";
+            }
+        });
+        eq(503, AsyncResult.of(future, null, false).await(mockActionContext).statusCode());
+        yes(future.isCancelled());
+    }
+
+}
@@ -0,0 +1,171 @@
+package act.data;
+
+import act.TestBase;
+import act.util.UploadFileStorageService;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.mvc.result.ErrorResult;
+import org.osgl.storage.ISObject;
+import org.osgl.storage.IStorageService;
+import org.osgl.storage.impl.SObject;
+import org.osgl.util.E;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ApacheMultipartParserTest extends TestBase {
+
+    private static final String BOUNDARY = "----act-test-boundary";
+
+    private ApacheMultipartParser parser;
+    // the content and checksum attribute of the objects in the mocked storage
+    private Map<String, byte[]> contents;
+    private Map<String, String> checksums;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        parser = new ApacheMultipartParser();
+        contents = new HashMap<>();
+        checksums = new HashMap<>();
+        when(mockActionContext.req()).thenReturn(mockReq);
+        when(mockReq.header("content-type")).thenReturn("multipart/form-data; boundary=" + BOUNDARY);
+        when(mockReq.characterEncoding()).thenReturn("UTF-8");
+        when(mockAppConfig.uploadInMemoryThreshold()).thenReturn(16);
+        when(mockAppConfig.uploadFileMaxSize()).thenReturn(-1L);
+        when(mockAppConfig.uploadRequestMaxSize()).thenReturn(-1L);
+        when(mockApp.uploadFileStorageService()).thenReturn(storage());
+    }
+
+    @Test
+    public void checksumShallBeStoredWithTheFile() {
+        byte[] small = bytes(10);
+        byte[] large = bytes(100);
+        body(part("small", small), part("large", large));
+        parser.parse(mockActionContext);
+        eq(2, contents.size());
+        yes(checksums.containsValue(DigestUtils.md5Hex(small)));
+        yes(checksums.containsValue(DigestUtils.md5Hex(large)));
+    }
+
+    @Test
+    public void oversizedFileShallBeRejectedWith413() {
+        when(mockAppConfig.uploadFileMaxSize()).thenReturn(50L);
+        body(part("large", bytes(100)));
+        eq(413, statusOfFailedParse());
+        eq(0, contents.size());
+    }
+
+    @Test
+    public void storedFilesShallBeRemovedWhenRequestExceedsLimit() {
+        when(mockAppConfig.uploadRequestMaxSize()).thenReturn(400L);
+        body(part("first", bytes(10)), part("second", bytes(500)));
+        eq(413, statusOfFailedParse());
+        eq(0, contents.size());
+    }
+
+    private int statusOfFailedParse() {
+        try {
+            parser.parse(mockActionContext);
+        } catch (ErrorResult e) {
+            return e.statusCode();
+        }
+        fail("upload shall be rejected");
+        return -1;
+    }
+
+    private IStorageService storage() {
+        IStorageService ss = mock(IStorageService.class);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                String key = (String) invocation.getArguments()[0];
+                ISObject sobj = (ISObject) invocation.getArguments()[1];
+                // store the content before the attributes, like the file system storage
+                try {
+                    contents.put(key, read(sobj.asInputStream()));
+                } catch (IOException e) {
+                    throw E.ioException(e);
+                }
+                checksums.put(key, sobj.getAttribute(UploadFileStorageService.ATTR_CHECKSUM));
+                return sobj;
+            }
+        }).when(ss).put(anyString(), any(ISObject.class));
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                String key = (String) invocation.getArguments()[0];
+                byte[] content = contents.get(key);
+                if (null == content) {
+                    return null;
+                }
+                ISObject sobj = SObject.of(key, content);
+                sobj.setAttribute(UploadFileStorageService.ATTR_CHECKSUM, checksums.get(key));
+                return sobj;
+            }
+        }).when(ss).get(anyString());
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                String key = (String) invocation.getArguments()[0];
+                contents.remove(key);
+                checksums.remove(key);
+                return null;
+            }
+        }).when(ss).remove(anyString());
+        return ss;
+    }
+
+    private void body(byte[]... parts) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            os.write(part, 0, part.length);
+        }
+        byte[] end = ("--" + BOUNDARY + "--\r\n").getBytes();
+        os.write(end, 0, end.length);
+        when(mockReq.inputStream()).thenReturn(new ByteArrayInputStream(os.toByteArray()));
+    }
+
+    private static byte[] part(String field, byte[] content) {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] header = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + field + "\"; filename=\"" + field + ".bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes();
+        os.write(header, 0, header.length);
+        os.write(content, 0, content.length);
+        os.write('\r');
+        os.write('\n');
+        return os.toByteArray();
+    }
+
+    private static byte[] bytes(int len) {
+        byte[] ba = new byte[len];
+        Arrays.fill(ba, (byte) 'a');
+        ba[0] = (byte) len;
+        return ba;
+    }
+
+    private static byte[] read(InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buf = new byte[64];
+        for (int n = is.read(buf); n >= 0; n = is.read(buf)) {
+            os.write(buf, 0, n);
+        }
+        return os.toByteArray();
+    }
+
+}
@@ -0,0 +1,61 @@
+package act.data;
+
+import act.BenchmarkBase;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * Compare parsing and printing ISO-8601 date time with a new
+ * `SimpleDateFormat` per call, the shared Joda formatter and the
+ * {@link Iso8601} fast path
+ */
+@BenchmarkOptions(warmupRounds = 1, benchmarkRounds = 10)
+@Ignore
+public class DateCodecBenchmark extends BenchmarkBase {
+
+    private static final int LOOPS = 100 * 1000;
+
+    private static final String VALUE = "2016-02-29T13:45:12.123Z";
+    private static final long MILLIS = 1456753512123L;
+
+    private DateTimeFormatter joda = ISODateTimeFormat.dateTime().withZoneUTC();
+
+    @Test
+    public void simpleDateFormat() throws Exception {
+        for (int i = 0; i < LOOPS; ++i) {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSX");
+            format.format(format.parse(VALUE));
+        }
+    }
+
+    @Test
+    public void jodaFormatter() {
+        for (int i = 0; i < LOOPS; ++i) {
+            joda.print(joda.parseMillis(VALUE));
+        }
+    }
+
+    @Test
+    public void iso8601() {
+        for (int i = 0; i < LOOPS; ++i) {
+            Iso8601.print(Iso8601.parse(VALUE));
+        }
+    }
+
+    @Test
+    public void dateResolver() {
+        DateResolver resolver = new DateResolver("iso");
+        Date date = new Date(MILLIS);
+        for (int i = 0; i < LOOPS; ++i) {
+            resolver.resolve(VALUE);
+            resolver.toString(date);
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package act.data;
+
+import act.TestBase;
+import org.junit.Test;
+
+import java.util.Date;
+
+public class DateCodecTest extends TestBase {
+
+    @Test
+    public void isoValuesShallBeParsed() {
+        eq(1456753512123L, Iso8601.parse("2016-02-29T13:45:12.123Z"));
+        eq(946656000000L, Iso8601.parse("2000-01-01T00:00:00+08:00"));
+        eq(946656000000L, Iso8601.parse("2000-01-01T00:00:00+0800"));
+        eq(1456704000000L, Iso8601.parse("2016-02-29"));
+        eq(-1L, Iso8601.parse("1969-12-31T23:59:59.999Z"));
+    }
+
+    @Test
+    public void isoValuesShallBePrinted() {
+        eq("2016-02-29T13:45:12.123Z", Iso8601.print(1456753512123L));
+        eq("1969-12-31T23:59:59.999Z", Iso8601.print(-1L));
+        eq("1999-12-31T16:00:00.000Z", Iso8601.print(Iso8601.parse("2000-01-01T00:00:00+08:00")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDateShallBeRejected() {
+        Iso8601.parse("2015-02-29");
+    }
+
+    @Test
+    public void dateResolverShallBeThreadSafe() throws Exception {
+        final DateResolver resolver = new DateResolver("yyyy-MM-dd HH:mm:ss");
+        final String[] values = {"2016-01-02 03:04:05", "1999-12-31 23:59:59", "2020-06-15 12:00:00"};
+        final boolean[] failed = new boolean[1];
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; ++i) {
+            final String value = values[i % values.length];
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; ++j) {
+                        Date date = resolver.resolve(value);
+                        if (null == date || !value.equals(resolver.toString(date))) {
+                            failed[0] = true;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        no(failed[0]);
+    }
+
+    @Test
+    public void nonIsoPatternShallBeParsedLeniently() {
+        DateResolver resolver = new DateResolver("yyyy-MM-dd HH:mm:ss");
+        // out of range fields roll over
+        eq("2016-03-01 00:00:00", resolver.toString(resolver.resolve("2016-02-30 00:00:00")));
+        eq("2016-01-02 03:04:05", resolver.toString(resolver.resolve("2016-1-2 3:4:5")));
+        // trailing text is ignored
+        eq("2016-01-02 03:04:05", resolver.toString(resolver.resolve("2016-01-02 03:04:05 extra")));
+        eq(null, resolver.resolve("not a date"));
+    }
+
+    @Test
+    public void isoDateResolver() {
+        DateResolver resolver = new DateResolver("iso8601");
+        eq(new Date(1456753512123L), resolver.resolve("2016-02-29T13:45:12.123Z"));
+        eq("2016-02-29T13:45:12.123Z", resolver.toString(new Date(1456753512123L)));
+        eq(null, resolver.resolve("not a date"));
+    }
+
+    @Test
+    public void httpDate() {
+        eq("Mon, 29 Feb 2016 13:45:12 GMT", DateTimeFormats.httpDate(1456753512000L));
+        eq(1456753512000L, DateTimeFormats.parseHttpDate("Mon, 29 Feb 2016 13:45:12 GMT"));
+        eq(-1L, DateTimeFormats.parseHttpDate("yesterday"));
+    }
+
+}
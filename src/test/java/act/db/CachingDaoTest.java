@@ -0,0 +1,305 @@
+package act.db;
+
+import act.TestBase;
+import act.cache.TinyLfuCacheService;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.C;
+import org.osgl.util.E;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachingDaoTest extends TestBase {
+
+    private ItemDao dao;
+    private CachingDao<Integer, Item, ItemQuery> cachingDao;
+
+    @Before
+    public void prepare() {
+        TinyLfuCacheService cache = new TinyLfuCacheService("test", 100 * 1024, 1);
+        cache.startup();
+        dao = new ItemDao();
+        cachingDao = new CachingDao<>(dao, cache, 60);
+        for (int i = 1; i <= 5; ++i) {
+            dao.save(new Item(i, "item" + i));
+        }
+    }
+
+    @Test
+    public void findByIdShallReadThroughCache() {
+        eq("item1", cachingDao.findById(1).name);
+        eq("item1", cachingDao.findById(1).name);
+        eq(1, dao.loads.get());
+        eq(1L, cachingDao.hits());
+        eq(1L, cachingDao.misses());
+    }
+
+    @Test
+    public void findByIdListShallLoadMissesInOneBatch() {
+        cachingDao.findById(1);
+        List<Item> found = (List<Item>) cachingDao.findByIdList(C.list(1, 2, 3));
+        eq(3, found.size());
+        eq(1, dao.batches.size());
+        List<Integer> batch = dao.batches.get(0);
+        eq(2, batch.size());
+        yes(batch.contains(2) && batch.contains(3));
+        cachingDao.findByIdList(C.list(1, 2, 3));
+        eq(1, dao.batches.size());
+    }
+
+    @Test
+    public void saveShallEvict() {
+        cachingDao.findById(1);
+        cachingDao.save(new Item(1, "updated"));
+        eq("updated", cachingDao.findById(1).name);
+        eq(2, dao.loads.get());
+    }
+
+    @Test
+    public void deleteShallEvict() {
+        cachingDao.findById(2);
+        cachingDao.deleteById(2);
+        eq(null, cachingDao.findById(2));
+    }
+
+    @Test
+    public void dropShallInvalidateAll() {
+        cachingDao.findById(1);
+        cachingDao.findById(2);
+        cachingDao.drop();
+        eq(null, cachingDao.findById(1));
+        eq(null, cachingDao.findById(2));
+    }
+
+    @Test
+    public void concurrentMissesShallLoadOnce() throws Exception {
+        dao.gate = new CountDownLatch(1);
+        int n = 8;
+        final CountDownLatch started = new CountDownLatch(n);
+        final CountDownLatch done = new CountDownLatch(n);
+        final Item[] results = new Item[n];
+        for (int i = 0; i < n; ++i) {
+            final int slot = i;
+            new Thread() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    results[slot] = cachingDao.findById(3);
+                    done.countDown();
+                }
+            }.start();
+        }
+        started.await();
+        Thread.sleep(100);
+        dao.gate.countDown();
+        done.await();
+        eq(1, dao.loads.get());
+        for (Item item : results) {
+            eq("item3", item.name);
+        }
+    }
+
+    @Test
+    public void evictionWhileLoadingShallNotLeaveStaleEntity() throws Exception {
+        dao.gate = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        new Thread() {
+            @Override
+            public void run() {
+                cachingDao.findById(4);
+                done.countDown();
+            }
+        }.start();
+        while (0 == dao.loads.get()) {
+            Thread.sleep(1);
+        }
+        cachingDao.evictById(4);
+        dao.gate.countDown();
+        done.await();
+        dao.gate = null;
+        cachingDao.findById(4);
+        eq(2, dao.loads.get());
+    }
+
+    static class Item {
+        Integer id;
+        String name;
+
+        Item(Integer id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    static class ItemQuery implements Dao.Query<Item, ItemQuery> {
+        @Override
+        public ItemQuery offset(int pos) {
+            return this;
+        }
+
+        @Override
+        public ItemQuery limit(int limit) {
+            return this;
+        }
+
+        @Override
+        public ItemQuery orderBy(String... fieldList) {
+            return this;
+        }
+
+        @Override
+        public Item first() {
+            return null;
+        }
+
+        @Override
+        public Iterable<Item> fetch() {
+            return C.list();
+        }
+
+        @Override
+        public long count() {
+            return 0;
+        }
+    }
+
+    /**
+     * An in memory dao that records the loads
+     */
+    static class ItemDao extends DaoBase<Integer, Item, ItemQuery> {
+
+        Map<Integer, Item> store = new ConcurrentHashMap<>();
+        AtomicInteger loads = new AtomicInteger();
+        List<List<Integer>> batches = new ArrayList<>();
+        volatile CountDownLatch gate;
+
+        ItemDao() {
+            super(Integer.class, Item.class);
+        }
+
+        @Override
+        public Item findById(Integer id) {
+            loads.incrementAndGet();
+            if (null != gate) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    throw E.unexpected(e);
+                }
+            }
+            return store.get(id);
+        }
+
+        @Override
+        public Iterable<Item> findByIdList(Collection<Integer> idList) {
+            batches.add(new ArrayList<>(idList));
+            List<Item> list = new ArrayList<>();
+            for (Integer id : idList) {
+                Item item = store.get(id);
+                if (null != item) {
+                    list.add(item);
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public Integer getId(Item entity) {
+            return entity.id;
+        }
+
+        @Override
+        public void save(Item entity) {
+            store.put(entity.id, entity);
+        }
+
+        @Override
+        public void save(Item entity, String fields, Object... values) {
+            save(entity);
+        }
+
+        @Override
+        public void save(Iterable<Item> entities) {
+            for (Item item : entities) {
+                save(item);
+            }
+        }
+
+        @Override
+        public void delete(Item entity) {
+            store.remove(entity.id);
+        }
+
+        @Override
+        public void delete(ItemQuery query) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public void deleteById(Integer id) {
+            store.remove(id);
+        }
+
+        @Override
+        public void deleteBy(String fields, Object... values) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public void drop() {
+            store.clear();
+        }
+
+        @Override
+        public Iterable<Item> findBy(String fields, Object... values) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public Item findOneBy(String fields, Object... values) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public Iterable<Item> findAll() {
+            return store.values();
+        }
+
+        @Override
+        public List<Item> findAllAsList() {
+            return new ArrayList<>(store.values());
+        }
+
+        @Override
+        public Item reload(Item entity) {
+            return store.get(entity.id);
+        }
+
+        @Override
+        public long count() {
+            return store.size();
+        }
+
+        @Override
+        public long countBy(String fields, Object... values) {
+            throw E.unsupport();
+        }
+
+        @Override
+        public ItemQuery q() {
+            return new ItemQuery();
+        }
+
+        @Override
+        public ItemQuery q(String fields, Object... values) {
+            return new ItemQuery();
+        }
+    }
+
+}
@@ -0,0 +1,181 @@
+package act.db.mem;
+
+import act.TestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.IO;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Serializable;
+
+public class MemDaoTest extends TestBase {
+
+    private File dir;
+
+    @Before
+    public void prepare() {
+        dir = new File(System.getProperty("java.io.tmpdir"), "act-mem-db-" + System.nanoTime());
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = dir.listFiles();
+        if (null != files) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void crud() {
+        MemDao<Long, Country> dao = dao(new MemStore(Country.class));
+        Country au = new Country("AU", "Oceania", 25);
+        dao.save(au);
+        eq(1L, au.id);
+        Country found = dao.findById(1L);
+        eq("AU", found.code);
+        found.region = "Australia";
+        eq("Oceania", dao.findById(1L).region);
+        eq(1L, dao.countBy("region", "Oceania"));
+        dao.save(au, "population", 26);
+        eq(26, dao.findById(1L).population);
+        eq(25, au.population);
+        dao.delete(au);
+        eq(null, dao.findById(1L));
+        eq(0L, dao.count());
+    }
+
+    @Test
+    public void queryShallBeAnsweredFromIndexes() {
+        MemDao<Long, Country> dao = dao(new MemStore(Country.class));
+        populate(dao);
+        eq(2L, dao.countBy("region", "Europe"));
+        eq("FR", dao.findOneBy("region,population", "Europe", 67).code);
+        eq("CN,IN", codes(dao.q("region", "Asia").orderBy("-population").fetch()));
+        eq("AU,FR,DE", codes(dao.q().orderBy("population").limit(3).fetch()));
+        Country fr = dao.findOneBy("code", "FR");
+        fr.region = "EU";
+        dao.save(fr);
+        eq(1L, dao.countBy("region", "Europe"));
+        eq(1L, dao.countBy("region", "EU"));
+        dao.deleteBy("region", "Asia");
+        eq(3L, dao.count());
+    }
+
+    @Test
+    public void entitiesShallBeReloadedAfterRestart() {
+        MemStore store = new MemStore(Country.class, dir, 3);
+        MemDao<Long, Country> dao = dao(store);
+        populate(dao);
+        dao.deleteById(dao.findOneBy("code", "CN").id);
+        Country de = dao.findOneBy("code", "DE");
+        de.population = 84;
+        dao.save(de);
+        store.close();
+
+        store = new MemStore(Country.class, dir, 3);
+        dao = dao(store);
+        eq(4L, dao.count());
+        eq(84, dao.findOneBy("code", "DE").population);
+        eq(null, dao.findOneBy("code", "CN"));
+        eq(1L, dao.countBy("region", "Asia"));
+        Country br = new Country("BR", "America", 214);
+        dao.save(br);
+        eq(6L, br.id);
+        store.close();
+    }
+
+    @Test
+    public void truncatedRecordShallBeDropped() throws Exception {
+        MemStore store = new MemStore(Country.class, dir, 1000);
+        populate(dao(store));
+        store.close();
+        FileOutputStream fos = new FileOutputStream(new File(dir, Country.class.getName() + ".log"), true);
+        fos.write(new byte[]{Journal.PUT, 0, 0, 1});
+        IO.close(fos);
+
+        store = new MemStore(Country.class, dir, 1000);
+        MemDao<Long, Country> dao = dao(store);
+        eq(5L, dao.count());
+        dao.save(new Country("BR", "America", 214));
+        store.close();
+
+        store = new MemStore(Country.class, dir, 1000);
+        eq(6L, dao(store).count());
+        store.close();
+    }
+
+    @Test
+    public void failedCompactionShallBeRetried() {
+        // a dir in place of the temp file breaks writing the snapshot
+        File tmp = new File(dir, Country.class.getName() + ".snapshot.tmp");
+        yes(tmp.mkdirs());
+        MemStore store = new MemStore(Country.class, dir, 2);
+        MemDao<Long, Country> dao = dao(store);
+        dao.save(new Country("AU", "Oceania", 25));
+        try {
+            dao.save(new Country("FR", "Europe", 67));
+            fail("snapshot shall not be written");
+        } catch (RuntimeException e) {
+            // expected
+        }
+        File oldLog = new File(dir, Country.class.getName() + ".log.1");
+        yes(oldLog.exists());
+
+        tmp.delete();
+        dao.save(new Country("DE", "Europe", 83));
+        dao.save(new Country("CN", "Asia", 1412));
+        no(oldLog.exists());
+        yes(new File(dir, Country.class.getName() + ".snapshot").exists());
+        store.close();
+
+        store = new MemStore(Country.class, dir, 2);
+        eq(4L, dao(store).count());
+        store.close();
+    }
+
+    private static MemDao<Long, Country> dao(MemStore store) {
+        return new MemDao<>(Long.class, Country.class, store);
+    }
+
+    private static void populate(MemDao<Long, Country> dao) {
+        dao.save(new Country("AU", "Oceania", 25));
+        dao.save(new Country("FR", "Europe", 67));
+        dao.save(new Country("DE", "Europe", 83));
+        dao.save(new Country("CN", "Asia", 1412));
+        dao.save(new Country("IN", "Asia", 1408));
+    }
+
+    private static String codes(Iterable<Country> countries) {
+        StringBuilder sb = new StringBuilder();
+        for (Country country : countries) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(country.code);
+        }
+        return sb.toString();
+    }
+
+    @MemEntity
+    static class Country implements Serializable {
+        Long id;
+        @Indexed
+        String code;
+        @Indexed
+        String region;
+        @Indexed(sorted = true)
+        int population;
+
+        Country(String code, String region, int population) {
+            this.code = code;
+            this.region = region;
+            this.population = population;
+        }
+    }
+
+}
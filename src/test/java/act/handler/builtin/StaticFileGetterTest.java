@@ -22,6 +22,7 @@ import static org.mockito.Mockito.when;
 public class StaticFileGetterTest extends TestBase {
     ActionContext ctx;
     MockResponse resp;
+    RequestImplBase req;
     StaticFileGetter pathHandler;
     StaticFileGetter fileHandler;
 
@@ -38,7 +39,7 @@ public class StaticFileGetterTest extends TestBase {
             }
         });
         when(mockAppConfig.errorTemplatePathResolver()).thenCallRealMethod();
-        RequestImplBase req = mock(RequestImplBase.class);
+        req = mock(RequestImplBase.class);
         when(req.method()).thenReturn(H.Method.GET);
         ctx = ActionContext.create(mockApp, req, resp);
         when(req.context()).thenReturn(ctx);
@@ -73,6 +74,45 @@ public class StaticFileGetterTest extends TestBase {
         ceq("foo/bar.txt", s);
     }
 
+    @Test
+    public void pathHandlerShallRejectPathOutsideOfBase() {
+        when(ctx.accept()).thenReturn(H.Format.HTML);
+        ctx.param(ParamNames.PATH, "../act/TestBase.class");
+        pathHandler.handle(ctx);
+        eq(resp.status, 403);
+    }
+
+    @Test
+    public void invokeFileHandlerWithRange() {
+        when(req.header(ResourceMeta.RANGE)).thenReturn("bytes=0-2");
+        fileHandler.handle(ctx);
+        ByteArrayOutputStream baos = (ByteArrayOutputStream)resp.outputStream();
+        eq("foo", new String(baos.toByteArray()));
+        eq(206, resp.status);
+    }
+
+    @Test
+    public void invokeFileHandlerWithMatchedEtag() {
+        String etag = ResourceMeta.of(fileHandler.base(), null).etag();
+        when(req.header(H.Header.Names.IF_NONE_MATCH)).thenReturn(etag);
+        fileHandler.handle(ctx);
+        eq(304, resp.status);
+    }
+
+    @Test
+    public void parseRange() {
+        long[] la = ResourceMeta.parseRange("bytes=2-", 10);
+        eq(2L, la[0]);
+        eq(9L, la[1]);
+        la = ResourceMeta.parseRange("bytes=-3", 10);
+        eq(7L, la[0]);
+        eq(9L, la[1]);
+        la = ResourceMeta.parseRange("bytes=5-100", 10);
+        eq(9L, la[1]);
+        assertNull(ResourceMeta.parseRange("bytes=10-", 10));
+        eq(0, ResourceMeta.parseRange("bytes=0-1,3-4", 10).length);
+    }
+
     @Test
     public void pathHandlerShallSupportPartialPath() {
         yes(pathHandler.supportPartialPath());
@@ -0,0 +1,143 @@
+package act.handler.builtin.controller;
+
+import act.TestBase;
+import act.controller.CacheFor;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.C;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.osgl.http.H.Header.Names.*;
+
+public class CacheSupportTest extends TestBase {
+
+    private CacheSupport cacheSupport;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        cacheSupport = CacheSupport.of(CacheSupportTest.class.getMethod("cached"));
+        when(mockActionContext.req()).thenReturn(mockReq);
+        when(mockActionContext.resp()).thenReturn(mockResp);
+        when(mockActionContext.accept()).thenReturn(H.Format.HTML);
+        when(mockReq.url()).thenReturn("/foo");
+        when(mockReq.query()).thenReturn("x=1");
+    }
+
+    @CacheFor
+    public void cached() {
+    }
+
+    @Test
+    public void getAndHeadShallNotShareCacheKey() {
+        String getKey = cacheSupport.cacheKey(mockActionContext);
+        when(mockReq.method()).thenReturn(H.Method.HEAD);
+        yes(cacheSupport.applied(mockActionContext));
+        ne(getKey, cacheSupport.cacheKey(mockActionContext));
+    }
+
+    @Test
+    public void onlyHeadersWrittenOnSessionDissolvingShallBeStripped() {
+        Map<String, List<String>> before = C.newMap();
+        before.put("X-Request-Id", values("abc"));
+        before.put("Vary", values("Accept"));
+        Map<String, List<String>> after = C.newMap(before);
+        after.put("Vary", values("Accept", "Cookie"));
+        after.put("X-Act-Session", values("session-data"));
+        after.put("Set-Cookie", values("flash=..."));
+        eq(new HashSet<>(Arrays.asList("Vary", "X-Act-Session", "Set-Cookie")), new HashSet<>(CacheSupport.sessionHeaders(before, after)));
+    }
+
+    @Test
+    public void cachedResponseShallBeReplayedWithAllHeaderValues() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(mockResp.outputStream()).thenReturn(os);
+        Map<String, List<String>> headers = C.newMap();
+        headers.put("Link", values("</a.css>; rel=preload", "</b.js>; rel=preload"));
+        CachedResponse cached = new CachedResponse(200, headers, "hello".getBytes());
+        cached.applyTo(mockActionContext);
+        verify(mockResp).status(200);
+        verify(mockResp).header("Link", "</a.css>; rel=preload");
+        verify(mockResp).addHeader("Link", "</b.js>; rel=preload");
+        verify(mockResp).header(ETAG, cached.etag());
+        eq("hello", new String(os.toByteArray()));
+    }
+
+    @Test
+    public void conditionalGetShallBeAnsweredWithNotModified() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(mockResp.outputStream()).thenReturn(os);
+        CachedResponse cached = new CachedResponse(200, C.<String, List<String>>newMap(), "hello".getBytes());
+        when(mockReq.header(IF_NONE_MATCH)).thenReturn("W/" + cached.etag());
+        cached.applyTo(mockActionContext);
+        verify(mockResp).status(H.Status.NOT_MODIFIED);
+        verify(mockResp, never()).status(200);
+        eq(0, os.size());
+    }
+
+    @Test
+    public void concurrentMissesShallWaitForTheFirstRequest() throws Exception {
+        final String key = cacheSupport.cacheKey(mockActionContext);
+        eq(null, cacheSupport.acquire(key));
+        final AtomicInteger released = new AtomicInteger();
+        final CountDownLatch acquired = new CountDownLatch(3);
+        final CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; ++i) {
+            new Thread() {
+                @Override
+                public void run() {
+                    CountDownLatch latch = cacheSupport.acquire(key);
+                    acquired.countDown();
+                    if (null != latch) {
+                        cacheSupport.await(latch);
+                        if (0 == latch.getCount()) {
+                            released.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                }
+            }.start();
+        }
+        acquired.await();
+        cacheSupport.release(key);
+        yes(done.await(CacheSupport.MAX_WAIT_MS, TimeUnit.MILLISECONDS));
+        eq(3, released.get());
+        // the next miss becomes the leader again
+        eq(null, cacheSupport.acquire(key));
+        cacheSupport.release(key);
+    }
+
+    @Test
+    public void followerShallGiveUpWaitingOnSlowLeader() {
+        String key = cacheSupport.cacheKey(mockActionContext);
+        eq(null, cacheSupport.acquire(key));
+        CountDownLatch latch = cacheSupport.acquire(key);
+        long ts = System.currentTimeMillis();
+        cacheSupport.await(latch);
+        yes(System.currentTimeMillis() - ts < CacheSupport.MAX_WAIT_MS * 2);
+        eq(1L, latch.getCount());
+        cacheSupport.release(key);
+    }
+
+    private static List<String> values(String... values) {
+        List<String> list = new ArrayList<>();
+        for (String value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+}
@@ -0,0 +1,121 @@
+package act.handler.builtin.controller;
+
+import act.TestBase;
+import act.app.AppInterceptorManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.osgl.mvc.result.NoResult;
+import org.osgl.mvc.result.Result;
+import org.osgl.util.C;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InterceptorChainTest extends TestBase {
+
+    private AppInterceptorManager appInterceptor;
+
+    private BeforeInterceptor appBefore;
+    private AfterInterceptor appAfter;
+    private ExceptionInterceptor appException;
+    private FinallyInterceptor appFinally;
+
+    private BeforeInterceptor actionBefore;
+    private AfterInterceptor actionAfter;
+    private ExceptionInterceptor actionException;
+    private FinallyInterceptor actionFinally;
+
+    private RequestHandlerProxy.Chain chain;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        appBefore = mock(BeforeInterceptor.class);
+        appAfter = mock(AfterInterceptor.class);
+        appException = mock(ExceptionInterceptor.class);
+        appFinally = mock(FinallyInterceptor.class);
+        actionBefore = mock(BeforeInterceptor.class);
+        actionAfter = mock(AfterInterceptor.class);
+        actionException = mock(ExceptionInterceptor.class);
+        actionFinally = mock(FinallyInterceptor.class);
+        appInterceptor = mock(AppInterceptorManager.class);
+        when(appInterceptor.beforeInterceptors()).thenReturn(C.list(appBefore));
+        when(appInterceptor.afterInterceptors()).thenReturn(C.list(appAfter));
+        when(appInterceptor.exceptionInterceptors()).thenReturn(C.list(appException));
+        when(appInterceptor.finallyInterceptors()).thenReturn(C.list(appFinally));
+        chain = new RequestHandlerProxy.Chain(C.list(actionBefore), C.list(actionAfter),
+                C.list(actionException), C.list(actionFinally), appInterceptor);
+    }
+
+    @Test
+    public void beforeInterceptorsShallRunFromAppToActionLevel() throws Exception {
+        eq(null, chain.handleBefore(mockActionContext));
+        InOrder order = inOrder(appBefore, actionBefore);
+        order.verify(appBefore).handle(mockActionContext);
+        order.verify(actionBefore).handle(mockActionContext);
+    }
+
+    @Test
+    public void firstBeforeResultShallStopTheChain() throws Exception {
+        Result result = new NoResult();
+        when(appBefore.handle(mockActionContext)).thenReturn(result);
+        same(result, chain.handleBefore(mockActionContext));
+        verify(actionBefore, never()).handle(mockActionContext);
+    }
+
+    @Test
+    public void afterInterceptorsShallRunFromActionToAppLevel() throws Exception {
+        Result result = new NoResult();
+        Result actionResult = new NoResult();
+        when(actionAfter.handle(result, mockActionContext)).thenReturn(actionResult);
+        when(appAfter.handle(actionResult, mockActionContext)).thenReturn(actionResult);
+        yes(chain.hasAfterInterceptors);
+        same(actionResult, chain.handleAfter(result, mockActionContext));
+        InOrder order = inOrder(actionAfter, appAfter);
+        order.verify(actionAfter).handle(result, mockActionContext);
+        order.verify(appAfter).handle(actionResult, mockActionContext);
+    }
+
+    @Test
+    public void exceptionInterceptorsShallRunFromActionToAppLevel() throws Exception {
+        Exception e = new IllegalStateException();
+        Result result = new NoResult();
+        when(appException.handle(e, mockActionContext)).thenReturn(result);
+        same(result, chain.handleException(e, mockActionContext));
+        InOrder order = inOrder(actionException, appException);
+        order.verify(actionException).handle(e, mockActionContext);
+        order.verify(appException).handle(e, mockActionContext);
+    }
+
+    @Test
+    public void finallyInterceptorsShallRunFromActionToAppLevel() throws Exception {
+        chain.handleFinally(mockActionContext);
+        InOrder order = inOrder(actionFinally, appFinally);
+        order.verify(actionFinally).handle(mockActionContext);
+        order.verify(appFinally).handle(mockActionContext);
+    }
+
+    @Test
+    public void chainWithoutActionShallStillApplyAppLevelInterceptors() throws Exception {
+        RequestHandlerProxy.Chain chain = RequestHandlerProxy.Chain.withoutAction(appInterceptor);
+        Exception e = new IllegalStateException();
+        chain.handleException(e, mockActionContext);
+        chain.handleFinally(mockActionContext);
+        verify(appException).handle(e, mockActionContext);
+        verify(appFinally).handle(mockActionContext);
+        verify(actionException, never()).handle(e, mockActionContext);
+        verify(actionFinally, never()).handle(mockActionContext);
+    }
+
+    @Test
+    public void chainShallBeOutdatedOnAppInterceptorChange() {
+        no(chain.outdated(appInterceptor));
+        when(appInterceptor.version()).thenReturn(1);
+        yes(chain.outdated(appInterceptor));
+    }
+
+}
@@ -0,0 +1,42 @@
+package act.i18n;
+
+import act.TestBase;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.util.Locale;
+import java.util.Map;
+
+public class LocalesTest extends TestBase {
+
+    @Test
+    public void localeStringShallBeParsedAndInterned() {
+        eq(Locale.US, Locales.of("en_US"));
+        eq(Locale.US, Locales.of("en-us"));
+        eq(new Locale("zh"), Locales.of(" zh "));
+        eq(new Locale("ja", "JP", "JP"), Locales.of("ja_JP_JP"));
+        same(Locales.of("en_US"), Locales.of("en-US"));
+        eq(null, Locales.of(""));
+        eq(null, Locales.of(null));
+    }
+
+    @Test
+    public void acceptLanguageShallPickHighestQuality() {
+        eq(Locale.US, Locales.negotiate("en-US,en;q=0.8"));
+        eq(Locale.FRANCE, Locales.negotiate("de;q=0.5, fr-FR;q=0.9, *;q=1"));
+        eq(Locale.US, Locales.negotiate("en-US, zh-CN"));
+        same(Locales.negotiate("en-US,en;q=0.8"), Locales.of("en_US"));
+        eq(null, Locales.negotiate("*"));
+        eq(null, Locales.negotiate("en;q=0"));
+    }
+
+    @Test
+    public void templateShallBeRenderedWithParams() {
+        Map<String, Integer> attrs = C.newMap("min", 2, "max", 8);
+        eq("size must be between 2 and 8", MessageTemplate.parse("size must be between {min} and {max}").render(attrs));
+        eq("at least 2", MessageTemplate.parse("at least ${min}").render(attrs));
+        eq("may not be null", MessageTemplate.parse("may not be null").render(attrs));
+        eq("unclosed {min", MessageTemplate.parse("unclosed {min").render(attrs));
+    }
+
+}
@@ -0,0 +1,50 @@
+package act.i18n;
+
+import act.TestBase;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.util.Map;
+
+public class MessageTemplateTest extends TestBase {
+
+    private Map<String, Integer> attrs = C.newMap("min", 2, "max", 8);
+
+    @Test
+    public void literalsShallBeKeptBetweenParams() {
+        eq("between 2 and 8", render("between {min} and {max}"));
+        eq("between 2 and 8", render("between ${min} and ${max}"));
+        eq("28", render("{min}{max}"));
+    }
+
+    @Test
+    public void dollarNotStartingParamShallBeLiteral() {
+        eq("costs $5, at least 2", render("costs $5, at least ${min}"));
+        eq("ends with $", render("ends with $"));
+    }
+
+    @Test
+    public void unclosedBraceShallBeLiteral() {
+        eq("unclosed {min", render("unclosed {min"));
+        eq("2 and ${max", render("{min} and ${max"));
+    }
+
+    @Test
+    public void escapedCharactersShallBeLiteral() {
+        eq("{min} is 2", render("\\{min} is {min}"));
+        eq("${min} is 2", render("\\${min} is ${min}"));
+        eq("a } b \\ c", render("a \\} b \\\\ c"));
+        // backslash before other characters is kept
+        eq("\\d+", render("\\d+"));
+    }
+
+    @Test
+    public void missingParamShallRenderEmpty() {
+        eq("at least ", render("at least {unknown}"));
+    }
+
+    private String render(String template) {
+        return MessageTemplate.parse(template).render(attrs);
+    }
+
+}
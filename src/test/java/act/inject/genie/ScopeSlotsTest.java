@@ -0,0 +1,78 @@
+package act.inject.genie;
+
+import act.TestBase;
+import act.app.ActionContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+
+import java.lang.reflect.Field;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScopeSlotsTest extends TestBase {
+
+    private ScopeSlots slots;
+    private ActionContext context;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        slots = new ScopeSlots(mockApp);
+        when(mockApp.scopeSlots()).thenReturn(slots);
+        when(mockReq.method()).thenReturn(H.Method.GET);
+        context = ActionContext.create(mockApp, mockReq, mockResp);
+    }
+
+    @After
+    public void cleanup() {
+        ActionContext.clearCurrent();
+    }
+
+    @Test
+    public void slotShallBeAllocatedOnRegistrationOnly() {
+        eq(-1, slots.slot("foo"));
+        int slot = slots.register("foo");
+        eq(slot, slots.register("foo"));
+        eq(slot, slots.slot("foo"));
+        ne(slot, slots.register("bar"));
+    }
+
+    @Test
+    public void requestScopeShallStoreRegisteredKeyInSlot() {
+        int slot = slots.register("foo");
+        RequestScope.INSTANCE.put("foo", "bar");
+        eq("bar", context.scoped(slot));
+        eq(null, context.attribute("foo"));
+        eq("bar", RequestScope.INSTANCE.get("foo"));
+    }
+
+    @Test
+    public void requestScopeShallStoreUnregisteredKeyAsAttribute() {
+        RequestScope.INSTANCE.put("foo", "bar");
+        eq(-1, slots.slot("foo"));
+        eq("bar", context.attribute("foo"));
+        eq("bar", RequestScope.INSTANCE.get("foo"));
+    }
+
+    @Test
+    public void sessionScopedBeanShallBeMirroredIntoSlot() throws Exception {
+        int slot = slots.register("user");
+        H.Session session = mock(H.Session.class);
+        when(session.cached("user")).thenReturn("tom");
+        Field f = ActionContext.class.getDeclaredField("session");
+        f.setAccessible(true);
+        f.set(context, session);
+        SessionScope scope = new SessionScope();
+        eq("tom", scope.get("user"));
+        eq("tom", context.scoped(slot));
+        // the second lookup is answered from the slot
+        eq("tom", scope.get("user"));
+        verify(session, times(1)).cached("user");
+    }
+
+}
@@ -0,0 +1,76 @@
+package act.metric;
+
+import act.TestBase;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+
+public class StartupTracerTest extends TestBase {
+
+    @After
+    public void cleanUp() {
+        while (StartupTracer.active()) {
+            StartupTracer.end();
+        }
+    }
+
+    @Test
+    public void spansShallBeIgnoredWhenNotActive() {
+        StartupTracer.begin();
+        StartupTracer.end();
+        StartupTracer.span("app", "foo").end();
+        yes(StartupTracer.spans().isEmpty());
+    }
+
+    @Test
+    public void nestedSpansShallBeLeveled() throws Exception {
+        StartupTracer.begin();
+        StartupTracer.Span outer = StartupTracer.span("app", "outer");
+        StartupTracer.Span inner = StartupTracer.span("app", "inner");
+        Thread.sleep(2);
+        inner.end();
+        outer.end();
+        StartupTracer.end();
+        List<StartupTracer.Span> spans = StartupTracer.spans();
+        eq(2, spans.size());
+        eq("outer", spans.get(0).name());
+        int[] levels = StartupTracer.levels(spans);
+        eq(0, levels[0]);
+        eq(1, levels[1]);
+    }
+
+    @Test
+    public void aggregatesShallBeSummed() {
+        StartupTracer.begin();
+        StartupTracer.accumulate("scan", "foo", 1000000L);
+        StartupTracer.accumulate("scan", "foo", 2000000L);
+        StartupTracer.end();
+        eq(1, StartupTracer.aggregates().size());
+        eq(3L, StartupTracer.aggregates().get(0).getValue()[0]);
+        eq(2L, StartupTracer.aggregates().get(0).getValue()[1]);
+    }
+
+    @Test
+    public void clockShallNotBeReadWhenNotActive() {
+        eq(0L, StartupTracer.now());
+        StartupTracer.accumulateSince("scan", "foo", 0L);
+        StartupTracer.begin();
+        long ns = StartupTracer.now();
+        yes(0L != ns);
+        StartupTracer.accumulateSince("scan", "foo", ns);
+        StartupTracer.end();
+        eq(1, StartupTracer.aggregates().size());
+        eq(1L, StartupTracer.aggregates().get(0).getValue()[1]);
+    }
+
+    @Test
+    public void chromeTraceShallContainTraceEvents() {
+        StartupTracer.begin();
+        StartupTracer.span("app", "foo").end();
+        StartupTracer.end();
+        String trace = StartupTracer.toChromeTrace();
+        yes(trace.contains("traceEvents"));
+        yes(trace.contains("\"foo\""));
+    }
+}
@@ -0,0 +1,122 @@
+package act.push;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.util.List;
+
+public class PushConnectionManagerTest extends TestBase {
+
+    private PushConnectionManager manager;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        manager = new PushConnectionManager(mockApp);
+    }
+
+    @Test
+    public void broadcastShallReachSubscribersOnly() {
+        MockConnection c1 = connect("c1", 10).subscribe("metrics");
+        MockConnection c2 = connect("c2", 10);
+        eq(1, manager.broadcast("metrics", "m1"));
+        eq(C.list("m1"), c1.written);
+        yes(c2.written.isEmpty());
+        eq(0, manager.broadcast("unknown", "m2"));
+    }
+
+    @Test
+    public void messagesShallBeWrittenOneAtATimeAndDroppedWhenQueueIsFull() {
+        MockConnection c = connect("c", 2);
+        c.autoComplete = false;
+        yes(c.send("m1"));
+        yes(c.send("m2"));
+        no(c.send("m3"));
+        eq(1L, c.dropped());
+        // m2 waits until m1 is written
+        eq(C.list("m1"), c.written);
+        c.complete();
+        eq(C.list("m1", "m2"), c.written);
+        c.complete();
+        eq(0, c.pending());
+        yes(c.send("m4"));
+        eq(C.list("m1", "m2", "m4"), c.written);
+    }
+
+    @Test
+    public void closedConnectionShallBeUnregistered() {
+        MockConnection c = connect("c", 10).subscribe("metrics");
+        eq(1, manager.count());
+        eq(1, manager.count("metrics"));
+        c.close();
+        eq(0, manager.count());
+        eq(0, manager.count("metrics"));
+        no(c.send("m1"));
+    }
+
+    @Test
+    public void connectionClosedBeforeRegistrationShallNotBeKept() {
+        MockConnection c = new MockConnection("c", 10, manager);
+        // closed before the close listener is set up
+        c.open = false;
+        no(manager.register(c));
+        eq(0, manager.count());
+        eq(null, manager.connection("c"));
+    }
+
+    @Test
+    public void closedConnectionShallNotSubscribe() {
+        MockConnection c = connect("c", 10);
+        c.close();
+        c.subscribe("metrics");
+        eq(0, manager.count("metrics"));
+        yes(c.topics().isEmpty());
+    }
+
+    private MockConnection connect(String id, int capacity) {
+        MockConnection connection = new MockConnection(id, capacity, manager);
+        manager.register(connection);
+        return connection;
+    }
+
+    private static class MockConnection extends PushConnection {
+        List<String> written = C.newList();
+        boolean open = true;
+        boolean autoComplete = true;
+
+        MockConnection(String id, int capacity, PushConnectionManager manager) {
+            super(id, capacity, manager);
+        }
+
+        @Override
+        public MockConnection subscribe(String topic) {
+            super.subscribe(topic);
+            return this;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            closed();
+        }
+
+        @Override
+        protected void write(String message) {
+            written.add(message);
+            if (autoComplete) {
+                written();
+            }
+        }
+
+        void complete() {
+            written();
+        }
+    }
+}
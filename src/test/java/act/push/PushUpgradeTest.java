@@ -0,0 +1,169 @@
+package act.push;
+
+import act.TestBase;
+import act.app.ActionContext;
+import act.app.AppInterceptorManager;
+import act.app.util.NamedPort;
+import act.conf.ActConfig;
+import act.xio.NetworkHandler;
+import act.xio.undertow.UndertowNetwork;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.osgl.http.H;
+import org.osgl.mvc.result.Redirect;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Upgrade connections through the undertow network, the same way as a
+ * request routed to a {@link WsAction} method in the server
+ */
+public class PushUpgradeTest extends TestBase {
+
+    private UndertowNetwork network;
+    private Socket socket;
+    private PushConnectionManager manager;
+    private AppInterceptorManager interceptorManager;
+
+    public static class Endpoint {
+        @WsAction(value = "/ws", topics = "news")
+        public static void echo(PushConnection connection, String message) {
+            connection.send("echo " + message);
+        }
+    }
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        when(mockAppConfig.pushQueueSize()).thenReturn(10);
+        manager = new PushConnectionManager(mockApp);
+        when(mockApp.service(PushConnectionManager.class)).thenReturn(manager);
+        interceptorManager = mock(AppInterceptorManager.class);
+        when(mockApp.interceptorManager()).thenReturn(interceptorManager);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((Runnable) invocation.getArguments()[0]).run();
+                return null;
+            }
+        }).when(mockJobManager).now(any(Runnable.class));
+        PushActionHandler handler = PushActionHandler.of(Endpoint.class.getMethod("echo", PushConnection.class, String.class), mockApp);
+        when(mockApp.router((NamedPort) null)).thenReturn(mockRouter);
+        when(mockRouter.getInvoker(any(H.Method.class), anyString(), any(ActionContext.class))).thenReturn(handler);
+        ServerSocket ss = new ServerSocket(0);
+        int port = ss.getLocalPort();
+        ss.close();
+        network = new UndertowNetwork(new ActConfig(C.<String, Object>newMap()));
+        network.bootUp();
+        network.setUpClient(new NetworkHandler(mockApp), port);
+        socket = new Socket("localhost", port);
+        socket.setSoTimeout(10000);
+    }
+
+    @After
+    public void tearDown() {
+        IO.close(socket);
+        network.close();
+    }
+
+    @Test
+    public void connectionShallBeRegisteredAndSubscribedOnUpgrade() throws Exception {
+        OutputStream os = socket.getOutputStream();
+        DataInputStream is = new DataInputStream(socket.getInputStream());
+        handshake(os);
+        yes(readHead(is).startsWith("HTTP/1.1 101"));
+        verify(interceptorManager).handleBefore(any(ActionContext.class));
+        awaitSubscribed("news");
+
+        eq(1, manager.broadcast("news", "hello"));
+        eq("hello", readText(is));
+
+        writeText(os, "ping");
+        eq("echo ping", readText(is));
+    }
+
+    @Test
+    public void resultOfBeforeInterceptorShallBeAppliedInsteadOfUpgrade() throws Exception {
+        when(interceptorManager.handleBefore(any(ActionContext.class))).thenReturn(new Redirect("/login"));
+        OutputStream os = socket.getOutputStream();
+        handshake(os);
+        String head = readHead(socket.getInputStream());
+        yes(head.startsWith("HTTP/1.1 302"), head);
+        yes(head.contains("/login"), head);
+        eq(0, manager.count());
+    }
+
+    private static void handshake(OutputStream os) throws IOException {
+        os.write(("GET /ws HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Upgrade: websocket\r\n" +
+                "Connection: Upgrade\r\n" +
+                "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n" +
+                "Sec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        os.flush();
+    }
+
+    // the connection is registered once the handshake response is sent
+    private void awaitSubscribed(String topic) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (0 == manager.count(topic)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("connection not subscribed to %s", topic);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String readHead(InputStream is) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (!sb.toString().endsWith("\r\n\r\n")) {
+            int c = is.read();
+            if (c < 0) {
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    // read an unmasked text frame sent by the server
+    private String readText(DataInputStream is) throws IOException {
+        eq(0x81, is.readUnsignedByte());
+        int len = is.readUnsignedByte();
+        byte[] payload = new byte[len];
+        is.readFully(payload);
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+
+    // write a masked text frame as the client shall do
+    private static void writeText(OutputStream os, String text) throws IOException {
+        byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        byte[] mask = {1, 2, 3, 4};
+        os.write(0x81);
+        os.write(0x80 | payload.length);
+        os.write(mask);
+        for (int i = 0; i < payload.length; ++i) {
+            os.write(payload[i] ^ mask[i % 4]);
+        }
+        os.flush();
+    }
+
+}
@@ -0,0 +1,75 @@
+package act.util;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.mvc.result.ErrorResult;
+import org.osgl.mvc.result.NotFound;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ErrorPageCacheTest extends TestBase {
+
+    private ErrorPageCache cache;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        cache = new ErrorPageCache(mockApp);
+        when(mockApp.service(ErrorPageCache.class)).thenReturn(cache);
+        when(mockAppConfig.errorPageCacheEnabled()).thenReturn(true);
+        when(mockAppConfig.errorPageFloodProtection()).thenReturn(true);
+        when(mockActionContext.accept()).thenReturn(H.Format.HTML);
+        when(mockActionContext.req()).thenReturn(mockReq);
+        when(mockActionContext.resp()).thenReturn(mockResp);
+    }
+
+    @Test
+    public void keyShallDependOnStatusAndContentTypeOnly() {
+        eq(ActErrorPageRender.key(new NotFound("foo"), H.Format.HTML), ActErrorPageRender.key(new NotFound("bar"), H.Format.HTML));
+        ne(ActErrorPageRender.key(new NotFound(), H.Format.HTML), ActErrorPageRender.key(new NotFound(), H.Format.JSON));
+        ne(ActErrorPageRender.key(new NotFound(), H.Format.HTML), ActErrorPageRender.key(new ErrorResult(H.Status.valueOf(503)), H.Format.HTML));
+    }
+
+    @Test
+    public void leastRecentlyUsedPageShallBeEvicted() {
+        cache.page("first", "first", H.Format.HTML);
+        for (int i = 1; i < ErrorPageCache.MAX_PAGES; ++i) {
+            cache.page("page" + i, "page", H.Format.HTML);
+        }
+        // touch the first page so that the second one is the eldest
+        notNull(cache.page("first"));
+        cache.page("new", "new", H.Format.HTML);
+        eq(ErrorPageCache.MAX_PAGES, cache.size());
+        notNull(cache.page("first"));
+        notNull(cache.page("new"));
+        eq(null, cache.page("page1"));
+    }
+
+    @Test
+    public void cachedPageShallBeServedForErrorsWithoutCause() {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        when(mockResp.outputStream()).thenReturn(os);
+        no(ActErrorPageRender.serveCached(new NotFound(), mockActionContext));
+        cache.page(ActErrorPageRender.key(new NotFound(), H.Format.HTML), "not found", H.Format.HTML);
+        yes(ActErrorPageRender.serveCached(new NotFound("whatever"), mockActionContext));
+        verify(mockResp).status(404);
+        eq("not found", new String(os.toByteArray()));
+    }
+
+    @Test
+    public void errorPagesShallNotBeServedFromCacheIfDisabled() {
+        when(mockAppConfig.errorPageCacheEnabled()).thenReturn(false);
+        cache.page(ActErrorPageRender.key(new NotFound(), H.Format.HTML), "not found", H.Format.HTML);
+        no(ActErrorPageRender.serveCached(new NotFound(), mockActionContext));
+    }
+
+    private void notNull(Object o) {
+        assertNotNull(o);
+    }
+
+}
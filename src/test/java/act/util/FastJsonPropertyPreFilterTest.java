@@ -64,6 +64,14 @@ public class FastJsonPropertyPreFilterTest extends TestBase {
         eq("{\"bar\":{\"age\":5,\"zee\":{\"flag\":false}},\"barList\":[{\"age\":4,\"zee\":{\"flag\":true}},{\"age\":3}]}", s);
     }
 
+    @Test
+    public void filterShallBeReusable() {
+        filter.addIncludes("bar/zee/flag,barList.age");
+        String expected = "{\"bar\":{\"zee\":{\"flag\":false}},\"barList\":[{\"age\":4},{\"age\":3}]}";
+        eq(expected, JSON.toJSONString(foo2, filter));
+        eq(expected, JSON.toJSONString(foo2, filter));
+    }
+
     @Test
     public void testWithIterable() {
         class Person {
@@ -0,0 +1,109 @@
+package act.util;
+
+import act.TestBase;
+import act.cli.util.MappedFastJsonNameFilter;
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializeFilter;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import java.util.List;
+import java.util.Map;
+
+public class FastJsonSpecWriterTest extends TestBase {
+
+    private static final Map<String, String> NO_LABEL = C.map();
+
+    @Test
+    public void itShallWriteTheSameAsTheFilter() {
+        Bar bar = new Bar("bar", 5, new Zee("zee", true));
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("name", "age"), NO_LABEL);
+        assertNotNull(writer);
+        yes(writer.accept(bar));
+        eq(JSON.toJSONString(bar, new FastJsonPropertyPreFilter("name,age")), writer.write(bar));
+    }
+
+    @Test
+    public void itShallWriteCollectionOfBeans() {
+        List<Bar> list = C.list(new Bar("bar1", 4, null), new Bar("bar2", 3, null));
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("age"), NO_LABEL);
+        yes(writer.accept(list));
+        eq("[{\"age\":4},{\"age\":3}]", writer.write(list));
+        no(writer.accept(C.list(new Zee("zee", true))));
+    }
+
+    @Test
+    public void itShallApplyLabels() {
+        Bar bar = new Bar("bar", 5, null);
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("name"), C.map("name", "title"));
+        eq("{\"title\":\"bar\"}", writer.write(bar));
+    }
+
+    @Test
+    public void labelledFieldsShallBeInTheSameOrderAsTheFilter() {
+        Bar bar = new Bar("bar", 5, null);
+        Map<String, String> labels = C.map("age", "z_age");
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("name", "age"), labels);
+        String expected = JSON.toJSONString(bar, new SerializeFilter[]{new FastJsonPropertyPreFilter("name,age"), new MappedFastJsonNameFilter(labels)});
+        eq("{\"z_age\":5,\"name\":\"bar\"}", expected);
+        eq(expected, writer.write(bar));
+    }
+
+    @Test
+    public void itShallWriteNestedFields() {
+        Bar bar = new Bar("bar", 5, new Zee("zee", true));
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("name", "zee.flag"), NO_LABEL);
+        assertNotNull(writer);
+        eq(JSON.toJSONString(bar, new FastJsonPropertyPreFilter("name,zee.flag")), writer.write(bar));
+        eq("{\"name\":\"bar\",\"zee\":{\"flag\":true}}", writer.write(bar));
+    }
+
+    @Test
+    public void uncompiledBeanClassShallBeLeftToTheFilter() {
+        FastJsonSpecWriter writer = FastJsonSpecWriter.of(Bar.class, C.list("name", "zee.flag"), NO_LABEL);
+        // a sub class of the field type
+        eq(null, writer.write(new Bar("bar", 5, new SubZee("zee", true))));
+        // an element of another class
+        List<Object> list = C.list(new Bar("bar", 5, null), new Zee("zee", true));
+        yes(writer.accept(list));
+        eq(null, writer.write(list));
+    }
+
+    @Test
+    public void nonSimpleOrPatternFieldsShallBeLeftToTheFilter() {
+        assertNull(FastJsonSpecWriter.of(Bar.class, C.list("zee"), NO_LABEL));
+        assertNull(FastJsonSpecWriter.of(Bar.class, C.list("zee.unknown"), NO_LABEL));
+        assertNull(FastJsonSpecWriter.of(Bar.class, C.list(".*name"), NO_LABEL));
+        assertNull(FastJsonSpecWriter.of(Bar.class, C.list("unknown"), NO_LABEL));
+        assertNull(FastJsonSpecWriter.of(Foo.class, C.list("barList.name"), NO_LABEL));
+    }
+
+    @Test
+    public void classFoundAtTwoPathsShallBeLeftToTheFilter() {
+        assertNull(FastJsonSpecWriter.of(Node.class, C.list("name", "parent.name"), NO_LABEL));
+    }
+
+    public static class Node {
+        private String name;
+        private Node parent;
+
+        public String getName() {
+            return name;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+    }
+
+}
+
+class SubZee extends Zee {
+    public SubZee(String s, boolean b) {
+        super(s, b);
+    }
+
+    public String getLabel() {
+        return name;
+    }
+}
@@ -0,0 +1,68 @@
+package act.util;
+
+import act.TestBase;
+import org.junit.Test;
+import org.osgl.util.IO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+public class GzipTest extends TestBase {
+
+    @Test
+    public void compressedContentShallBeReadableByGZIPInputStream() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; ++i) {
+            sb.append("hello gzip ").append(i).append('\n');
+        }
+        String s = sb.toString();
+        byte[] compressed = Gzip.compress(s.getBytes("UTF-8"), 6);
+        yes(compressed.length < s.length());
+        eq(s, IO.readContentAsString(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+        // the pooled deflater shall be reusable
+        compressed = Gzip.compress("abc".getBytes("UTF-8"), 1);
+        eq("abc", IO.readContentAsString(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    @Test
+    public void streamShallBeClosableOnAnotherThread() throws Exception {
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final OutputStream os = Gzip.wrap(first, 6);
+        os.write("hello".getBytes("UTF-8"));
+        // a second stream opened on the same thread while the first is still open
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        OutputStream os2 = Gzip.wrap(second, 6);
+        os2.write("world".getBytes("UTF-8"));
+        final Exception[] error = new Exception[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    os.write(" async".getBytes("UTF-8"));
+                    os.close();
+                } catch (Exception e) {
+                    error[0] = e;
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        os2.close();
+        eq(null, error[0]);
+        eq("hello async", IO.readContentAsString(new GZIPInputStream(new ByteArrayInputStream(first.toByteArray()))));
+        eq("world", IO.readContentAsString(new GZIPInputStream(new ByteArrayInputStream(second.toByteArray()))));
+    }
+
+    @Test
+    public void acceptEncoding() {
+        yes(Gzip.accepts("gzip, deflate", "gzip"));
+        yes(Gzip.accepts("br;q=1.0, gzip;q=0.8", "gzip"));
+        yes(Gzip.accepts("*", "gzip"));
+        no(Gzip.accepts("gzip;q=0", "gzip"));
+        no(Gzip.accepts("deflate", "gzip"));
+        no(Gzip.accepts(null, "gzip"));
+    }
+
+}
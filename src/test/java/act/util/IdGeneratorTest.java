@@ -0,0 +1,86 @@
+package act.util;
+
+import act.TestBase;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+public class IdGeneratorTest extends TestBase {
+
+    private static class FixedNodeId implements IdGenerator.NodeIdProvider {
+        @Override
+        public long nodeId() {
+            return 123456L;
+        }
+    }
+
+    private static class FixedStartId implements IdGenerator.StartIdProvider {
+        @Override
+        public long startId() {
+            return 789L;
+        }
+    }
+
+    private IdGenerator idGenerator(IdGenerator.SequenceProvider seq) {
+        return new IdGenerator(new FixedNodeId(), new FixedStartId(), seq, IdGenerator.SAFE_ENCODER);
+    }
+
+    @Test
+    public void idShallBeSameAsConcatenatedEncodedValues() {
+        IdGenerator gen = idGenerator(new IdGenerator.SequenceProvider.AtomicLongSeq());
+        IdGenerator.LongEncoder encoder = IdGenerator.SAFE_ENCODER;
+        String prefix = encoder.longToStr(123456L) + encoder.longToStr(789L);
+        eq(prefix + encoder.longToStr(1L), gen.genId());
+        char[] buf = new char[gen.maxIdLength() + 3];
+        int end = gen.genId(buf, 3);
+        eq(prefix + encoder.longToStr(2L), new String(buf, 3, end - 3));
+        ByteBuffer bb = ByteBuffer.allocate(gen.maxIdLength());
+        int len = gen.genId(bb);
+        eq(prefix + encoder.longToStr(3L), new String(bb.array(), 0, len));
+    }
+
+    @Test
+    public void longToCharsShallMatchLongToStr() {
+        IdGenerator.LongEncoder.LongEncoderBase encoder = (IdGenerator.LongEncoder.LongEncoderBase) IdGenerator.UNSAFE_ENCODER;
+        char[] buf = new char[65];
+        for (long l : new long[]{0, 1, 95, 96, Long.MAX_VALUE, Long.MIN_VALUE, -1}) {
+            int len = encoder.longToChars(l, buf, 0);
+            eq(encoder.longToStr(l), new String(buf, 0, len));
+        }
+    }
+
+    @Test
+    public void blockSeqShallGenerateUniqueIds() throws Exception {
+        final IdGenerator gen = idGenerator(new IdGenerator.SequenceProvider.BlockSeq(8));
+        final Set<String> ids = new HashSet<String>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    String[] batch = gen.genIds(new String[100]);
+                    synchronized (ids) {
+                        for (String id : batch) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        eq(400, ids.size());
+    }
+
+    @Test
+    public void binaryIdShallBe16Bytes() {
+        IdGenerator gen = idGenerator(new IdGenerator.SequenceProvider.AtomicLongSeq());
+        ByteBuffer bb = ByteBuffer.wrap(gen.genBinaryId());
+        eq((123456L << 32) | 789L, bb.getLong());
+        eq(1L, bb.getLong());
+    }
+}
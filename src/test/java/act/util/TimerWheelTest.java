@@ -0,0 +1,32 @@
+package act.util;
+
+import act.TestBase;
+import org.junit.Test;
+
+import java.util.List;
+
+public class TimerWheelTest extends TestBase {
+
+    @Test
+    public void itemsShallBeDueAfterDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<String>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 520);
+        eq(2, wheel.size());
+        yes(wheel.advance(200).isEmpty());
+        List<String> due = wheel.advance(300);
+        eq(1, due.size());
+        eq("a", due.get(0));
+        eq("b", wheel.advance(600).get(0));
+        eq(0, wheel.size());
+    }
+
+    @Test
+    public void deadlineBeyondOneRoundShallNotBeDueEarly() {
+        TimerWheel<String> wheel = new TimerWheel<String>(100, 4, 0);
+        wheel.schedule("a", 950);
+        yes(wheel.advance(550).isEmpty());
+        eq(1, wheel.size());
+        eq("a", wheel.advance(1000).get(0));
+    }
+}
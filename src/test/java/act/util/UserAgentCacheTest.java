@@ -0,0 +1,81 @@
+package act.util;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.web.util.UserAgent;
+
+import java.util.List;
+
+public class UserAgentCacheTest extends TestBase {
+
+    private static final String CHROME = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/54.0.2840.99 Safari/537.36";
+    private static final String CURL = "curl/7.47.0";
+
+    @Before
+    public void prepare() {
+        UserAgentCache.clear();
+    }
+
+    @Test
+    public void sameHeaderShallReturnCachedInstance() {
+        long misses = UserAgentCache.misses();
+        UserAgent ua = UserAgentCache.parse(CHROME);
+        same(ua, UserAgentCache.parse(CHROME));
+        eq(misses + 1, UserAgentCache.misses());
+        eq(1, UserAgentCache.size());
+    }
+
+    @Test
+    public void topShallBeSortedByHits() {
+        UserAgentCache.parse(CURL);
+        for (int i = 0; i < 3; ++i) {
+            UserAgentCache.parse(CHROME);
+        }
+        UserAgentCache.parse(CURL);
+        List<UserAgentCache.Entry> top = UserAgentCache.top(10);
+        eq(2, top.size());
+        eq(CHROME, top.get(0).getHeader());
+        eq(2L, top.get(0).getHits());
+        eq(CURL, top.get(1).getHeader());
+        eq(1, UserAgentCache.top(1).size());
+    }
+
+    @Test
+    public void cacheShallBeBounded() {
+        UserAgentCache.parse(CHROME);
+        UserAgentCache.parse(CHROME);
+        for (int i = 0; i < UserAgentCache.MAX_ENTRIES + 10; ++i) {
+            UserAgentCache.parse(CURL + "." + i);
+        }
+        yes(UserAgentCache.size() <= UserAgentCache.MAX_ENTRIES);
+        // entries that have been hit survive the eviction
+        eq(CHROME, UserAgentCache.top(1).get(0).getHeader());
+    }
+
+    @Test
+    public void entriesShallBeEvictedInBatch() {
+        for (int i = 0; i <= UserAgentCache.MAX_ENTRIES; ++i) {
+            UserAgentCache.parse(CURL + "." + i);
+        }
+        eq(UserAgentCache.MAX_ENTRIES - UserAgentCache.EVICTION_BATCH + 1, UserAgentCache.size());
+    }
+
+    @Test
+    public void entriesNoLongerSeenShallAgeOut() {
+        for (int i = 0; i < 10; ++i) {
+            UserAgentCache.parse(CHROME);
+        }
+        // new user agents, each hit twice, keep the cache evicting
+        for (int i = 0; i < UserAgentCache.MAX_ENTRIES * 4; ++i) {
+            String header = CURL + "." + i;
+            UserAgentCache.parse(header);
+            UserAgentCache.parse(header);
+            UserAgentCache.parse(header);
+        }
+        for (UserAgentCache.Entry entry : UserAgentCache.top(UserAgentCache.MAX_ENTRIES)) {
+            ne(CHROME, entry.getHeader());
+        }
+    }
+
+}
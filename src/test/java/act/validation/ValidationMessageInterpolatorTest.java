@@ -0,0 +1,54 @@
+package act.validation;
+
+import act.TestBase;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.util.C;
+
+import javax.validation.MessageInterpolator;
+import javax.validation.metadata.ConstraintDescriptor;
+import java.util.Locale;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ValidationMessageInterpolatorTest extends TestBase {
+
+    private static final String SIZE = "{javax.validation.constraints.Size.message}";
+    private static final String SIZE_ZH = "\u5FC5\u987B\u57282\u548C8\u4E4B\u95F4";
+
+    private ValidationMessageInterpolator interpolator;
+    private MessageInterpolator.Context context;
+
+    @Before
+    public void prepare() throws Exception {
+        setup();
+        when(mockAppConfig.locale()).thenReturn(Locale.SIMPLIFIED_CHINESE);
+        interpolator = new ValidationMessageInterpolator(mockAppConfig);
+        ConstraintDescriptor<?> desc = mock(ConstraintDescriptor.class);
+        doReturn(C.<String, Object>newMap("min", 2, "max", 8)).when(desc).getAttributes();
+        context = mock(MessageInterpolator.Context.class);
+        doReturn(desc).when(context).getConstraintDescriptor();
+    }
+
+    @Test
+    public void nullLocaleShallResolveTheDefaultBundles() {
+        eq(SIZE_ZH, interpolator.interpolate(SIZE, context));
+        eq(SIZE_ZH, interpolator.interpolate(SIZE, context, Locale.SIMPLIFIED_CHINESE));
+    }
+
+    @Test
+    public void nullLocaleShallBeCachedUnderTheLocaleOfTheDefaultBundles() {
+        // the app locale changed after the default bundles are loaded
+        when(mockAppConfig.locale()).thenReturn(Locale.US);
+        eq(SIZE_ZH, interpolator.interpolate(SIZE, context));
+        eq("size must be between 2 and 8", interpolator.interpolate(SIZE, context, Locale.US));
+    }
+
+    @Test
+    public void literalMessageShallBeRendered() {
+        eq("value {min} out of 2", interpolator.interpolate("value \\{min} out of {min}", context));
+    }
+
+}
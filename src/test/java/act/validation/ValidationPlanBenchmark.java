@@ -0,0 +1,117 @@
+package act.validation;
+
+import act.BenchmarkBase;
+import act.controller.ActionMethodParamAnnotationHandlerPlugin;
+import act.controller.ActionMethodParamValidator;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import javax.validation.MessageInterpolator;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compare validating a heavily annotated form by interpreting the
+ * annotations on each request with the validation plan compiled once
+ */
+@BenchmarkOptions(warmupRounds = 1, benchmarkRounds = 10)
+@Ignore
+public class ValidationPlanBenchmark extends BenchmarkBase {
+
+    private static final int LOOPS = 100 * 1000;
+
+    private List<ActionMethodParamAnnotationHandlerPlugin> handlers = new ArrayList<>();
+    private List<Annotation> annotations = new ArrayList<>();
+    private List<String> names = new ArrayList<>();
+    private List<Object> values = new ArrayList<>();
+    private ActionMethodParamValidator[] plan;
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        when(mockAppConfig.validationMessageInterpolator()).thenReturn(mock(MessageInterpolator.class));
+        Form form = new Form();
+        List<ActionMethodParamValidator> list = new ArrayList<>();
+        for (Field field : Form.class.getDeclaredFields()) {
+            field.setAccessible(true);
+            for (Annotation annotation : field.getAnnotations()) {
+                ActionMethodParamAnnotationHandlerPlugin handler = handler(annotation);
+                handlers.add(handler);
+                annotations.add(annotation);
+                names.add(field.getName());
+                values.add(field.get(form));
+                list.add(handler.compile(field.getName(), annotation));
+            }
+        }
+        plan = list.toArray(new ActionMethodParamValidator[list.size()]);
+    }
+
+    @Test
+    public void interpretOnEachRequest() {
+        int sz = handlers.size();
+        for (int i = 0; i < LOOPS; ++i) {
+            for (int j = 0; j < sz; ++j) {
+                handlers.get(j).handle(names.get(j), values.get(j), annotations.get(j), mockActionContext);
+            }
+        }
+    }
+
+    @Test
+    public void compiledPlan() {
+        int sz = plan.length;
+        for (int i = 0; i < LOOPS; ++i) {
+            for (int j = 0; j < sz; ++j) {
+                plan[j].validate(values.get(j), mockActionContext);
+            }
+        }
+    }
+
+    private static ActionMethodParamAnnotationHandlerPlugin handler(Annotation annotation) {
+        Class<? extends Annotation> type = annotation.annotationType();
+        if (Pattern.class == type) {
+            return new PatternHandler();
+        } else if (Min.class == type) {
+            return new MinHandler();
+        } else if (Max.class == type) {
+            return new MaxHandler();
+        } else if (Size.class == type) {
+            return new SizeHandler();
+        } else if (Email.class == type) {
+            return new EmailHandler();
+        }
+        return new NotNullHandler();
+    }
+
+    private static class Form {
+        @NotNull
+        @Size(min = 3, max = 16)
+        @Pattern(regexp = "[a-z][a-z0-9_]+")
+        String username = "tom_2016";
+        @NotNull
+        @Email
+        String email = "tom@example.com";
+        @Min(18)
+        @Max(120)
+        Integer age = 32;
+        @Pattern(regexp = "\\+?[0-9\\- ]{6,20}")
+        String phone = "+61 400-123-456";
+        @Size(max = 200)
+        String bio = "hello";
+        @NotNull
+        @Pattern(regexp = "[0-9]{4}")
+        String postcode = "2000";
+    }
+
+}
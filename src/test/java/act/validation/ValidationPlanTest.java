@@ -0,0 +1,62 @@
+package act.validation;
+
+import act.TestBase;
+import act.controller.ActionMethodParamValidator;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.MessageInterpolator;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.lang.annotation.Annotation;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class ValidationPlanTest extends TestBase {
+
+    @Before
+    public void prepare() throws Exception {
+        super.setup();
+        when(mockAppConfig.validationMessageInterpolator()).thenReturn(mock(MessageInterpolator.class));
+    }
+
+    @Test
+    public void compiledPatternShallHonorFlags() throws Exception {
+        ActionMethodParamValidator validator = new PatternHandler().compile("code", annotation("code", Pattern.class));
+        validator.validate("ABC", mockActionContext);
+        validator.validate("abc", mockActionContext);
+        verify(mockActionContext, never()).addViolation(any(ConstraintViolation.class));
+        validator.validate("ab1", mockActionContext);
+        verify(mockActionContext, times(1)).addViolation(any(ConstraintViolation.class));
+    }
+
+    @Test
+    public void compiledBoundsShallBeApplied() throws Exception {
+        ActionMethodParamValidator max = new MaxHandler().compile("n", annotation("n", Max.class));
+        ActionMethodParamValidator size = new SizeHandler().compile("s", annotation("s", Size.class));
+        max.validate(10, mockActionContext);
+        size.validate("ab", mockActionContext);
+        max.validate(null, mockActionContext);
+        verify(mockActionContext, never()).addViolation(any(ConstraintViolation.class));
+        max.validate(11, mockActionContext);
+        size.validate("a", mockActionContext);
+        verify(mockActionContext, times(2)).addViolation(any(ConstraintViolation.class));
+    }
+
+    private static Annotation annotation(String param, Class<? extends Annotation> type) throws Exception {
+        return Form.class.getDeclaredField(param).getAnnotation(type);
+    }
+
+    private static class Form {
+        @Pattern(regexp = "[a-z]+", flags = Pattern.Flag.CASE_INSENSITIVE)
+        String code;
+        @Max(10)
+        int n;
+        @Size(min = 2, max = 4)
+        String s;
+    }
+
+}
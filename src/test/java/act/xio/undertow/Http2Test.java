@@ -0,0 +1,171 @@
+package act.xio.undertow;
+
+import act.TestBase;
+import act.app.ActionContext;
+import act.app.util.NamedPort;
+import act.conf.ActConfig;
+import act.conf.ActConfigKey;
+import act.handler.builtin.controller.FastRequestHandler;
+import act.xio.NetworkHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgl.http.H;
+import org.osgl.util.C;
+import org.osgl.util.IO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Talk to the undertow network with a minimal in-process HTTP/2 client. The
+ * requests go through the same {@link ActHttpHandler}, {@link NetworkHandler}
+ * and {@link UndertowRequest} chain as in the server
+ */
+public class Http2Test extends TestBase {
+
+    private static final int TYPE_DATA = 0x0;
+    private static final int TYPE_HEADERS = 0x1;
+    private static final int TYPE_SETTINGS = 0x4;
+    private static final int FLAG_END_STREAM = 0x1;
+    private static final int FLAG_ACK = 0x1;
+    private static final int FLAG_END_HEADERS = 0x4;
+
+    private UndertowNetwork network;
+    private int port;
+    private Socket socket;
+
+    @Before
+    public void setUp() throws Exception {
+        setup();
+        when(mockApp.router((NamedPort) null)).thenReturn(mockRouter);
+        when(mockRouter.getInvoker(any(H.Method.class), anyString(), any(ActionContext.class))).thenReturn(new FastRequestHandler() {
+            @Override
+            public void handle(ActionContext context) {
+                H.Request req = context.req();
+                yes(req instanceof UndertowRequest);
+                context.resp().writeContent("hello " + req.path());
+            }
+        });
+        ServerSocket ss = new ServerSocket(0);
+        port = ss.getLocalPort();
+        ss.close();
+        network = new UndertowNetwork(new ActConfig(C.<String, Object>newMap(ActConfigKey.HTTP2_ENABLED.key(), true)));
+        network.bootUp();
+        network.setUpClient(new NetworkHandler(mockApp), port);
+        socket = new Socket("localhost", port);
+        socket.setSoTimeout(10000);
+    }
+
+    @After
+    public void tearDown() {
+        IO.close(socket);
+        network.close();
+    }
+
+    @Test
+    public void streamsShallBeMultiplexedOnUpgradedConnection() throws Exception {
+        OutputStream os = socket.getOutputStream();
+        DataInputStream is = new DataInputStream(socket.getInputStream());
+        os.write(("GET /up HTTP/1.1\r\n" +
+                "Host: localhost\r\n" +
+                "Connection: Upgrade, HTTP2-Settings\r\n" +
+                "Upgrade: h2c\r\n" +
+                // SETTINGS_ENABLE_PUSH = 0
+                "HTTP2-Settings: AAIAAAAA\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        os.flush();
+        yes(readHead(is).startsWith("HTTP/1.1 101"));
+
+        os.write("PRI * HTTP/2.0\r\n\r\nSM\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        writeFrame(os, TYPE_SETTINGS, 0, 0, new byte[0]);
+        writeFrame(os, TYPE_HEADERS, FLAG_END_STREAM | FLAG_END_HEADERS, 3, get("/a"));
+        writeFrame(os, TYPE_HEADERS, FLAG_END_STREAM | FLAG_END_HEADERS, 5, get("/b"));
+        os.flush();
+
+        Map<Integer, ByteArrayOutputStream> bodies = new HashMap<>();
+        int ended = 0;
+        while (ended < 3) {
+            int len = (is.readUnsignedByte() << 16) | is.readUnsignedShort();
+            int type = is.readUnsignedByte();
+            int flags = is.readUnsignedByte();
+            int stream = is.readInt() & 0x7fffffff;
+            byte[] payload = new byte[len];
+            is.readFully(payload);
+            if (TYPE_SETTINGS == type && 0 == (flags & FLAG_ACK)) {
+                writeFrame(os, TYPE_SETTINGS, FLAG_ACK, 0, new byte[0]);
+                os.flush();
+            } else if (TYPE_DATA == type) {
+                ByteArrayOutputStream body = bodies.get(stream);
+                if (null == body) {
+                    body = new ByteArrayOutputStream();
+                    bodies.put(stream, body);
+                }
+                body.write(payload);
+            }
+            if ((TYPE_DATA == type || TYPE_HEADERS == type) && 0 != (flags & FLAG_END_STREAM)) {
+                ended++;
+            }
+        }
+        eq("hello /up", body(bodies, 1));
+        eq("hello /a", body(bodies, 3));
+        eq("hello /b", body(bodies, 5));
+    }
+
+    private static String body(Map<Integer, ByteArrayOutputStream> bodies, int stream) {
+        ByteArrayOutputStream body = bodies.get(stream);
+        return null == body ? null : new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String readHead(InputStream is) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while (!sb.toString().endsWith("\r\n\r\n")) {
+            int c = is.read();
+            if (c < 0) {
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    // HPACK encoded GET request headers
+    private byte[] get(String path) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(0x82); // :method GET
+        baos.write(0x86); // :scheme http
+        literal(baos, 0x04, path); // :path
+        literal(baos, 0x01, "localhost:" + port); // :authority
+        return baos.toByteArray();
+    }
+
+    // literal header field without indexing, indexed name
+    private static void literal(ByteArrayOutputStream baos, int nameIndex, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        baos.write(nameIndex);
+        baos.write(bytes.length);
+        baos.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeFrame(OutputStream os, int type, int flags, int stream, byte[] payload) throws IOException {
+        int len = payload.length;
+        os.write(new byte[]{
+                (byte) (len >> 16), (byte) (len >> 8), (byte) len,
+                (byte) type, (byte) flags,
+                (byte) (stream >> 24), (byte) (stream >> 16), (byte) (stream >> 8), (byte) stream
+        });
+        os.write(payload);
+    }
+
+}
@@ -0,0 +1,90 @@
+package testapp.benchmark;
+
+import act.util.IdGenerator;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.osgl.$;
+import org.osgl.util.S;
+import testapp.TestBase;
+
+import java.nio.ByteBuffer;
+
+@Ignore
+public class IdGeneratorBenchmark extends TestBase {
+
+    private static final int TIMES = 1000 * 1000;
+
+    private static final IdGenerator.NodeIdProvider NODE_ID = new IdGenerator.NodeIdProvider() {
+        @Override
+        public long nodeId() {
+            return 3232235876L;
+        }
+    };
+
+    private static final IdGenerator.StartIdProvider START_ID = new IdGenerator.StartIdProvider() {
+        @Override
+        public long startId() {
+            return 1024L;
+        }
+    };
+
+    @Test
+    public void genIdVsLegacyConcatenation() {
+        IdGenerator.SequenceProvider seq = new IdGenerator.SequenceProvider.AtomicLongSeq();
+        IdGenerator idGenerator = new IdGenerator(NODE_ID, START_ID, seq, IdGenerator.SAFE_ENCODER);
+        IdGenerator.LongEncoder encoder = IdGenerator.SAFE_ENCODER;
+        long ts1 = $.ns();
+        for (int i = 0; i < TIMES; ++i) {
+            S.builder().append(encoder.longToStr(NODE_ID.nodeId()))
+                    .append(encoder.longToStr(START_ID.startId()))
+                    .append(encoder.longToStr(seq.seqId())).toString();
+        }
+        long ts2 = $.ns();
+        ts1 = ts2 - ts1;
+        for (int i = 0; i < TIMES; ++i) {
+            idGenerator.genId();
+        }
+        ts2 = $.ns() - ts2;
+        System.out.printf("legacy: %sns\ngenId: %sns\n", ts1 / TIMES, ts2 / TIMES);
+        yes(ts1 > ts2);
+    }
+
+    @Test
+    public void blockSeqVsAtomicSeq() {
+        IdGenerator atomic = new IdGenerator(NODE_ID, START_ID,
+                new IdGenerator.SequenceProvider.AtomicLongSeq(), IdGenerator.SAFE_ENCODER);
+        IdGenerator block = new IdGenerator(NODE_ID, START_ID,
+                new IdGenerator.SequenceProvider.BlockSeq(), IdGenerator.SAFE_ENCODER);
+        long ts1 = $.ns();
+        for (int i = 0; i < TIMES; ++i) {
+            atomic.genId();
+        }
+        long ts2 = $.ns();
+        ts1 = ts2 - ts1;
+        for (int i = 0; i < TIMES; ++i) {
+            block.genId();
+        }
+        ts2 = $.ns() - ts2;
+        System.out.printf("atomic seq: %sns\nblock seq: %sns\n", ts1 / TIMES, ts2 / TIMES);
+    }
+
+    @Test
+    public void charArrayAndBinaryId() {
+        IdGenerator idGenerator = new IdGenerator(NODE_ID, START_ID,
+                new IdGenerator.SequenceProvider.BlockSeq(), IdGenerator.SAFE_ENCODER);
+        char[] buf = new char[idGenerator.maxIdLength()];
+        long ts1 = $.ns();
+        for (int i = 0; i < TIMES; ++i) {
+            idGenerator.genId(buf, 0);
+        }
+        long ts2 = $.ns();
+        ts1 = ts2 - ts1;
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        for (int i = 0; i < TIMES; ++i) {
+            buffer.clear();
+            idGenerator.genBinaryId(buffer);
+        }
+        ts2 = $.ns() - ts2;
+        System.out.printf("char[]: %sns\nbinary: %sns\n", ts1 / TIMES, ts2 / TIMES);
+    }
+}